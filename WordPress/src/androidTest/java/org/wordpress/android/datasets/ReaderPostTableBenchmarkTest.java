@@ -0,0 +1,126 @@
+package org.wordpress.android.datasets;
+
+import android.os.SystemClock;
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.models.ReaderPost;
+import org.wordpress.android.models.ReaderPostList;
+import org.wordpress.android.models.ReaderTag;
+import org.wordpress.android.models.ReaderTagType;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.Locale;
+
+/**
+ * Populates the reader database with the same posts in several streams and logs how long it takes
+ * to write and read them - run this on a device before and after changes to ReaderPostTable to
+ * compare timings (look for "reader benchmark" in logcat). Note that this resets the reader db.
+ */
+public class ReaderPostTableBenchmarkTest extends InstrumentationTestCase {
+    private static final int NUM_TAGS = 10;
+    private static final int NUM_POSTS_PER_TAG = 200;
+    private static final int TEXT_LENGTH = 20 * 1024;
+    private static final int POSTS_PER_PAGE = 20;
+    private static final int PAGES_PER_BOOKMARK_RUN = 25;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        ReaderDatabase.reset(false);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ReaderDatabase.reset(false);
+        super.tearDown();
+    }
+
+    public void testAddAndGetPostsWithTag() {
+        String text = makeText(TEXT_LENGTH);
+
+        // every tag contains the same posts, which is the worst case for denormalized storage
+        long startMs = SystemClock.elapsedRealtime();
+        for (int i = 0; i < NUM_TAGS; i++) {
+            ReaderPostTable.addOrUpdatePosts(makeTag(i), makePosts(NUM_POSTS_PER_TAG, text));
+        }
+        logTiming("addOrUpdatePosts", NUM_TAGS * NUM_POSTS_PER_TAG, startMs);
+
+        startMs = SystemClock.elapsedRealtime();
+        for (int i = 0; i < NUM_TAGS; i++) {
+            ReaderPostList posts = ReaderPostTable.getPostsWithTag(makeTag(i), 0, true);
+            assertEquals(NUM_POSTS_PER_TAG, posts.size());
+        }
+        logTiming("getPostsWithTag (no text)", NUM_TAGS * NUM_POSTS_PER_TAG, startMs);
+
+        startMs = SystemClock.elapsedRealtime();
+        for (int i = 0; i < NUM_TAGS; i++) {
+            ReaderPostList posts = ReaderPostTable.getPostsWithTag(makeTag(i), 0, false);
+            assertEquals(NUM_POSTS_PER_TAG, posts.size());
+            assertEquals(text, posts.get(0).getText());
+        }
+        logTiming("getPostsWithTag (with text)", NUM_TAGS * NUM_POSTS_PER_TAG, startMs);
+    }
+
+    /*
+     * adding a page of posts should take about the same time regardless of how many posts are bookmarked
+     */
+    public void testAddPostsWithBookmarks() {
+        ReaderTag bookmarkTag = new ReaderTag(null, null, null, null, ReaderTagType.BOOKMARKED);
+        String text = makeText(1024);
+        int[] bookmarkCounts = {0, 1000, 5000};
+        for (int numBookmarks : bookmarkCounts) {
+            ReaderDatabase.reset(false);
+            if (numBookmarks > 0) {
+                ReaderPostList bookmarkedPosts = makePosts(numBookmarks, text);
+                for (ReaderPost post : bookmarkedPosts) {
+                    post.blogId = 2;
+                    post.setPseudoId("bookmarked-" + post.postId);
+                }
+                ReaderPostTable.addOrUpdatePosts(bookmarkTag, bookmarkedPosts);
+            }
+
+            long startMs = SystemClock.elapsedRealtime();
+            for (int page = 0; page < PAGES_PER_BOOKMARK_RUN; page++) {
+                ReaderPostTable.addOrUpdatePosts(makeTag(page), makePosts(POSTS_PER_PAGE, text));
+            }
+            logTiming("addOrUpdatePosts with " + numBookmarks + " bookmarks",
+                    PAGES_PER_BOOKMARK_RUN * POSTS_PER_PAGE, startMs);
+        }
+    }
+
+    private static void logTiming(String label, int numRows, long startMs) {
+        long elapsedMs = SystemClock.elapsedRealtime() - startMs;
+        AppLog.i(T.READER, String.format(Locale.ENGLISH, "reader benchmark > %s, %d rows in %d ms",
+                label, numRows, elapsedMs));
+    }
+
+    private static ReaderTag makeTag(int index) {
+        String slug = "benchmark-" + index;
+        return new ReaderTag(slug, slug, slug, null, ReaderTagType.FOLLOWED);
+    }
+
+    private static ReaderPostList makePosts(int numPosts, String text) {
+        ReaderPostList posts = new ReaderPostList();
+        for (int i = 1; i <= numPosts; i++) {
+            ReaderPost post = new ReaderPost();
+            post.blogId = 1;
+            post.postId = i;
+            post.setPseudoId("benchmark-" + i);
+            post.setTitle("Post " + i);
+            post.setText(text);
+            post.setExcerpt("Excerpt " + i);
+            post.setDatePublished(String.format(Locale.ENGLISH, "2018-01-01T00:%02d:%02d+00:00", i / 60, i % 60));
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    private static String makeText(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            sb.append("<p>Lorem ipsum dolor sit amet, consectetur adipiscing elit.</p>");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,211 @@
+package org.wordpress.android.ui.uploads;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.test.AndroidTestCase;
+
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.ui.prefs.AppPrefs;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.WPMediaUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Logs how long it takes to optimize and upload a batch of 50 photos when each photo is optimized and then
+ * uploaded in turn, and when the optimizing is driven by {@link MediaOptimizationPipeline} so the next photo is
+ * optimized while the current one uploads - look for "upload benchmark" in logcat. Photos are optimized with
+ * {@link WPMediaUtils#getOptimizedMedia}, as MediaBrowserActivity does before adding them to the upload queue,
+ * and uploads are simulated at a fixed bandwidth. Note that this changes the image optimization settings for the
+ * duration of the test.
+ */
+public class MediaOptimizationPipelineBenchmarkTest extends AndroidTestCase {
+    private static final int BATCH_SIZE = 50;
+    private static final int PHOTO_WIDTH = 3264;
+    private static final int PHOTO_HEIGHT = 2448;
+    private static final int MAX_IMAGE_SIZE = 2000;
+    private static final int IMAGE_QUALITY = 85;
+    // simulated upload bandwidth, roughly a good mobile connection
+    private static final long UPLOAD_BYTES_PER_SECOND = 1024 * 1024;
+    // storage budget for optimized photos waiting to be uploaded, and how far ahead of the upload to look
+    private static final long MAX_OPTIMIZED_BYTES = 4 * 1024 * 1024;
+    private static final int MAX_MEDIA_TO_OPTIMIZE_AHEAD = 5;
+
+    private final List<File> mTempFiles = Collections.synchronizedList(new ArrayList<File>());
+    private final Object mLock = new Object();
+
+    private boolean mWasImageOptimize;
+    private int mWasImageOptimizeMaxSize;
+    private int mWasImageOptimizeQuality;
+
+    private MediaOptimizationPipeline mPipeline;
+    private List<MediaModel> mBatch;
+    private volatile int mUploadIndex;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mWasImageOptimize = AppPrefs.isImageOptimize();
+        mWasImageOptimizeMaxSize = AppPrefs.getImageOptimizeMaxSize();
+        mWasImageOptimizeQuality = AppPrefs.getImageOptimizeQuality();
+        AppPrefs.setImageOptimize(true);
+        AppPrefs.setImageOptimizeMaxSize(MAX_IMAGE_SIZE);
+        AppPrefs.setImageOptimizeQuality(IMAGE_QUALITY);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        AppPrefs.setImageOptimize(mWasImageOptimize);
+        AppPrefs.setImageOptimizeMaxSize(mWasImageOptimizeMaxSize);
+        AppPrefs.setImageOptimizeQuality(mWasImageOptimizeQuality);
+        for (File file : mTempFiles) {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+        super.tearDown();
+    }
+
+    public void testBatchThroughputBenchmark() throws Exception {
+        List<String> photoPaths = makePhotos(BATCH_SIZE);
+
+        long startMs = SystemClock.elapsedRealtime();
+        long uploadedBytes = 0;
+        for (String path : photoPaths) {
+            uploadedBytes += upload(optimize(path));
+        }
+        long sequentialMs = SystemClock.elapsedRealtime() - startMs;
+
+        startMs = SystemClock.elapsedRealtime();
+        long pipelinedBytes = optimizeAndUploadPipelined(photoPaths);
+        long pipelinedMs = SystemClock.elapsedRealtime() - startMs;
+
+        assertEquals(uploadedBytes, pipelinedBytes);
+        assertEquals(0, mPipeline.getOptimizedBytes());
+        AppLog.i(T.MEDIA, String.format(Locale.ENGLISH,
+                "upload benchmark > %d photos (%d bytes after optimizing), sequential %d ms (%d bytes/sec),"
+                + " pipelined %d ms (%d bytes/sec)",
+                BATCH_SIZE, uploadedBytes, sequentialMs, uploadedBytes * 1000 / sequentialMs,
+                pipelinedMs, uploadedBytes * 1000 / pipelinedMs));
+    }
+
+    /*
+     * uploads the photos in order the way MediaUploadHandler does - before each upload and whenever a photo
+     * finishes optimizing the pipeline is asked to optimize the next one, and each upload waits until its
+     * photo is ready
+     */
+    private long optimizeAndUploadPipelined(@NonNull List<String> photoPaths) throws InterruptedException {
+        mBatch = new ArrayList<>(photoPaths.size());
+        for (int i = 0; i < photoPaths.size(); i++) {
+            MediaModel media = new MediaModel();
+            media.setId(i + 1);
+            media.setFilePath(photoPaths.get(i));
+            media.setMimeType("image/jpeg");
+            mBatch.add(media);
+        }
+
+        mPipeline = new MediaOptimizationPipeline(new MediaOptimizationPipeline.Optimizer() {
+            @Override
+            public boolean canOptimize(@NonNull MediaModel media) {
+                return true;
+            }
+
+            @Override
+            public void startOptimizing(@NonNull final MediaModel media) {
+                new Thread() {
+                    @Override
+                    public void run() {
+                        media.setFilePath(optimize(media.getFilePath()));
+                        mPipeline.onOptimizationCompleted(media);
+                        synchronized (mLock) {
+                            mLock.notifyAll();
+                        }
+                        optimizeNext();
+                    }
+                }.start();
+            }
+        }, MAX_OPTIMIZED_BYTES);
+
+        long uploadedBytes = 0;
+        for (int i = 0; i < mBatch.size(); i++) {
+            mUploadIndex = i;
+            MediaModel media = mBatch.get(i);
+            optimizeNext();
+            synchronized (mLock) {
+                while (!mPipeline.isReadyToUpload(media)) {
+                    mLock.wait();
+                }
+            }
+            uploadedBytes += upload(media.getFilePath());
+            mPipeline.release(media.getId());
+        }
+        return uploadedBytes;
+    }
+
+    private void optimizeNext() {
+        int index = mUploadIndex;
+        List<MediaModel> waiting = Collections.singletonList(mBatch.get(index));
+        List<MediaModel> upcoming = mBatch.subList(index + 1, Math.min(mBatch.size(),
+                index + 1 + MAX_MEDIA_TO_OPTIMIZE_AHEAD));
+        mPipeline.optimizeNext(waiting, upcoming);
+    }
+
+    private String optimize(String path) {
+        Uri optimizedUri = WPMediaUtils.getOptimizedMedia(getContext(), path, false);
+        assertNotNull(optimizedUri);
+        mTempFiles.add(new File(optimizedUri.getPath()));
+        return optimizedUri.getPath();
+    }
+
+    /*
+     * simulates uploading the file at a fixed bandwidth, returns the number of bytes uploaded
+     */
+    private static long upload(String path) throws InterruptedException {
+        long bytes = new File(path).length();
+        Thread.sleep(bytes * 1000 / UPLOAD_BYTES_PER_SECOND);
+        return bytes;
+    }
+
+    /*
+     * generates camera-sized photos with enough detail that they don't compress to almost nothing
+     */
+    private List<String> makePhotos(int count) throws IOException {
+        Bitmap bitmap = Bitmap.createBitmap(PHOTO_WIDTH, PHOTO_HEIGHT, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint();
+        List<String> paths = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                for (int y = 0; y < PHOTO_HEIGHT; y += 16) {
+                    for (int x = 0; x < PHOTO_WIDTH; x += 16) {
+                        paint.setColor(Color.rgb((x + i * 7) % 256, (y * 3 + i) % 256, ((x ^ y) + i * 13) % 256));
+                        canvas.drawRect(x, y, x + 16, y + 16, paint);
+                    }
+                }
+                File file = new File(getContext().getCacheDir(), "benchmark-photo-" + i + ".jpg");
+                mTempFiles.add(file);
+                FileOutputStream outputStream = new FileOutputStream(file);
+                try {
+                    bitmap.compress(Bitmap.CompressFormat.JPEG, 95, outputStream);
+                } finally {
+                    outputStream.close();
+                }
+                paths.add(file.getAbsolutePath());
+            }
+        } finally {
+            bitmap.recycle();
+        }
+        return paths;
+    }
+}
@@ -91,6 +91,8 @@ import org.wordpress.android.util.NetworkUtils;
 import org.wordpress.android.util.PackageUtils;
 import org.wordpress.android.util.ProfilingUtils;
 import org.wordpress.android.util.RateLimitedTask;
+import org.wordpress.android.util.StartupTaskGraph;
+import org.wordpress.android.util.StartupTaskGraph.Mode;
 import org.wordpress.android.util.VolleyUtils;
 import org.wordpress.android.widgets.AppRatingDialog;
 
@@ -114,6 +116,22 @@ import io.fabric.sdk.android.Fabric;
 public class WordPress extends MultiDexApplication implements HasServiceInjector, HasSupportFragmentInjector,
         LifecycleObserver {
     public static final String SITE = "SITE";
+    private static final String APP_LOG_FILE_NAME = "app_log";
+
+    private static final String STARTUP_TASK_CORE = "core";
+    private static final String STARTUP_TASK_LOGGING = "logging";
+    private static final String STARTUP_TASK_DATABASE = "database";
+    private static final String STARTUP_TASK_HTTP_CACHE = "http_cache";
+    private static final String STARTUP_TASK_APP_RATING = "app_rating";
+    private static final String STARTUP_TASK_EVENT_BUS = "event_bus";
+    private static final String STARTUP_TASK_USER_AGENT = "user_agent";
+    private static final String STARTUP_TASK_ZENDESK = "zendesk";
+    private static final String STARTUP_TASK_LIFECYCLE = "lifecycle";
+    private static final String STARTUP_TASK_ANALYTICS = "analytics";
+    private static final String STARTUP_TASK_UI = "ui";
+    private static final String STARTUP_TASK_SANITIZE_MEDIA = "sanitize_media";
+    private static final String STARTUP_TASK_EXPIRED_LISTS = "expired_lists";
+    private static final String STARTUP_TASK_CREDENTIALS_CLIENT = "credentials_client";
     public static String versionName;
     public static WordPressDB wpDB;
     public static boolean sAppIsInTheBackground = true;
@@ -133,6 +151,7 @@ public class WordPress extends MultiDexApplication implements HasServiceInjector
     private static ApplicationLifecycleMonitor mApplicationLifecycleMonitor;
 
     private static GoogleApiClient mCredentialsClient;
+    private StartupTaskGraph mStartupTasks;
 
     @Inject DispatchingAndroidInjector<Service> mServiceDispatchingAndroidInjector;
     @Inject DispatchingAndroidInjector<Fragment> mSupportFragmentInjector;
@@ -191,8 +210,8 @@ public class WordPress extends MultiDexApplication implements HasServiceInjector
             // Offload to a separate thread. We don't want to slown down the app on startup/resume.
             new Thread(new Runnable() {
                 public void run() {
-                    // subtracts to the current time the cache TTL
-                    long timeToDelete = System.currentTimeMillis() - (StatsTable.CACHE_TTL_MINUTES * 60 * 1000);
+                    // stats are served while stale, so only delete the ones too old to be shown at all
+                    long timeToDelete = System.currentTimeMillis() - StatsTable.MAX_STALE_AGE_MS;
                     StatsTable.deleteOldStats(WordPress.getContext(), timeToDelete);
                 }
             }).start();
@@ -220,8 +239,120 @@ public class WordPress extends MultiDexApplication implements HasServiceInjector
     public void onCreate() {
         super.onCreate();
         mContext = this;
-        long startDate = SystemClock.elapsedRealtime();
+        ProfilingUtils.start("App Startup");
+        final long startDate = SystemClock.elapsedRealtime();
 
+        mStartupTasks = new StartupTaskGraph()
+                .add(STARTUP_TASK_CORE, Mode.MAIN_THREAD, new Runnable() {
+                    @Override
+                    public void run() {
+                        initCore();
+                    }
+                })
+                .add(STARTUP_TASK_LOGGING, Mode.MAIN_THREAD, new Runnable() {
+                    @Override
+                    public void run() {
+                        initLogging();
+                    }
+                })
+                .add(STARTUP_TASK_DATABASE, Mode.MAIN_THREAD, new Runnable() {
+                    @Override
+                    public void run() {
+                        versionName = PackageUtils.getVersionName(mContext);
+                        initWpDb();
+                    }
+                }, STARTUP_TASK_CORE, STARTUP_TASK_LOGGING)
+                .add(STARTUP_TASK_HTTP_CACHE, Mode.BACKGROUND, new Runnable() {
+                    @Override
+                    public void run() {
+                        enableHttpResponseCache(mContext);
+                    }
+                })
+                .add(STARTUP_TASK_APP_RATING, Mode.MAIN_THREAD, new Runnable() {
+                    @Override
+                    public void run() {
+                        AppRatingDialog.INSTANCE.init(mContext);
+                    }
+                })
+                .add(STARTUP_TASK_EVENT_BUS, Mode.MAIN_THREAD, new Runnable() {
+                    @Override
+                    public void run() {
+                        EventBus.TAG = "WordPress-EVENT";
+                        EventBus.builder()
+                                .logNoSubscriberMessages(false)
+                                .sendNoSubscriberEvent(false)
+                                .throwSubscriberException(true)
+                                .installDefaultEventBus();
+                    }
+                })
+                .add(STARTUP_TASK_USER_AGENT, Mode.MAIN_THREAD, new Runnable() {
+                    @Override
+                    public void run() {
+                        RestClientUtils.setUserAgent(getUserAgent());
+                    }
+                })
+                .add(STARTUP_TASK_ZENDESK, Mode.MAIN_THREAD, new Runnable() {
+                    @Override
+                    public void run() {
+                        mZendeskHelper.setupZendesk(mContext, BuildConfig.ZENDESK_DOMAIN, BuildConfig.ZENDESK_APP_ID,
+                                BuildConfig.ZENDESK_OAUTH_CLIENT_ID);
+                    }
+                }, STARTUP_TASK_CORE)
+                .add(STARTUP_TASK_LIFECYCLE, Mode.MAIN_THREAD, new Runnable() {
+                    @Override
+                    public void run() {
+                        MemoryAndConfigChangeMonitor memoryAndConfigChangeMonitor = new MemoryAndConfigChangeMonitor();
+                        registerComponentCallbacks(memoryAndConfigChangeMonitor);
+
+                        // initialize our ApplicationLifecycleMonitor, which is the App's LifecycleObserver
+                        // implementation
+                        mApplicationLifecycleMonitor = new ApplicationLifecycleMonitor();
+                        ProcessLifecycleOwner.get().getLifecycle().addObserver(WordPress.this);
+                    }
+                }, STARTUP_TASK_CORE)
+                .add(STARTUP_TASK_ANALYTICS, Mode.MAIN_THREAD, new Runnable() {
+                    @Override
+                    public void run() {
+                        initAnalytics(SystemClock.elapsedRealtime() - startDate);
+                    }
+                }, STARTUP_TASK_DATABASE)
+                .add(STARTUP_TASK_UI, Mode.MAIN_THREAD, new Runnable() {
+                    @Override
+                    public void run() {
+                        createNotificationChannelsOnSdk26();
+
+                        // Allows vector drawable from resources (in selectors for instance) on Android < 21 (can
+                        // cause issues with memory usage and the use of Configuration). More informations:
+                        // http://bit.ly/2H1KTQo
+                        // Note: if removed, this will cause crashes on Android < 21
+                        AppCompatDelegate.setCompatVectorFromResourcesEnabled(true);
+                    }
+                })
+                .add(STARTUP_TASK_SANITIZE_MEDIA, Mode.BACKGROUND, new Runnable() {
+                    @Override
+                    public void run() {
+                        // verify media is sanitized
+                        sanitizeMediaUploadStateForSite();
+                    }
+                }, STARTUP_TASK_DATABASE)
+                .add(STARTUP_TASK_EXPIRED_LISTS, Mode.BACKGROUND, new Runnable() {
+                    @Override
+                    public void run() {
+                        mDispatcher.dispatch(
+                                ListActionBuilder.newRemoveExpiredListsAction(new RemoveExpiredListsPayload()));
+                    }
+                }, STARTUP_TASK_CORE)
+                .add(STARTUP_TASK_CREDENTIALS_CLIENT, Mode.FIRST_ACTIVITY, new Runnable() {
+                    @Override
+                    public void run() {
+                        // setup the Credentials Client so we can clean it up on wpcom logout
+                        initCredentialsClient();
+                    }
+                });
+        mStartupTasks.start();
+    }
+
+    private void initCore() {
         // Init WellSql
         WellSql.init(new WellSqlConfig(getApplicationContext()));
 
@@ -234,68 +365,26 @@ public class WordPress extends MultiDexApplication implements HasServiceInjector
         sRequestQueue = mRequestQueue;
         sImageLoader = mImageLoader;
         sOAuthAuthenticator = mOAuthAuthenticator;
+    }
 
+    private void initLogging() {
         if (CrashlyticsUtils.shouldEnableCrashlytics(this)) {
             Fabric.with(this, new Crashlytics());
+            // only forward log lines when Crashlytics is enabled, so they aren't formatted for nothing
+            AppLog.addListener(new AppLogListener() {
+                @Override
+                public void onLog(T tag, LogLevel logLevel, String message) {
+                    CrashlyticsUtils.log(logLevel + "/" + AppLog.TAG + "-" + tag + ": " + message);
+                }
+            });
         }
 
-        ProfilingUtils.start("App Startup");
-        // Enable log recording
-        AppLog.enableRecording(true);
-        AppLog.addListener(new AppLogListener() {
-            @Override
-            public void onLog(T tag, LogLevel logLevel, String message) {
-                StringBuffer sb = new StringBuffer();
-                sb.append(logLevel.toString()).append("/").append(AppLog.TAG).append("-")
-                  .append(tag.toString()).append(": ").append(message);
-                CrashlyticsUtils.log(sb.toString());
-            }
-        });
+        // Enable log recording, in a file so the log from before the app was last killed can be sent to support
+        AppLog.enableRecording(new File(getFilesDir(), APP_LOG_FILE_NAME));
         AppLog.i(T.UTILS, "WordPress.onCreate");
+    }
 
-        versionName = PackageUtils.getVersionName(this);
-        initWpDb();
-        enableHttpResponseCache(mContext);
-
-        AppRatingDialog.INSTANCE.init(this);
-
-        // EventBus setup
-        EventBus.TAG = "WordPress-EVENT";
-        EventBus.builder()
-                .logNoSubscriberMessages(false)
-                .sendNoSubscriberEvent(false)
-                .throwSubscriberException(true)
-                .installDefaultEventBus();
-
-
-        RestClientUtils.setUserAgent(getUserAgent());
-
-        mZendeskHelper.setupZendesk(this, BuildConfig.ZENDESK_DOMAIN, BuildConfig.ZENDESK_APP_ID,
-                BuildConfig.ZENDESK_OAUTH_CLIENT_ID);
-
-        MemoryAndConfigChangeMonitor memoryAndConfigChangeMonitor = new MemoryAndConfigChangeMonitor();
-        registerComponentCallbacks(memoryAndConfigChangeMonitor);
-
-        // initialize our ApplicationLifecycleMonitor, which is the App's LifecycleObserver implementation
-        mApplicationLifecycleMonitor = new ApplicationLifecycleMonitor();
-        ProcessLifecycleOwner.get().getLifecycle().addObserver(this);
-
-        initAnalytics(SystemClock.elapsedRealtime() - startDate);
-
-        createNotificationChannelsOnSdk26();
-
-        // Allows vector drawable from resources (in selectors for instance) on Android < 21 (can cause issues
-        // with memory usage and the use of Configuration). More informations: http://bit.ly/2H1KTQo
-        // Note: if removed, this will cause crashes on Android < 21
-        AppCompatDelegate.setCompatVectorFromResourcesEnabled(true);
-
-        // verify media is sanitized
-        sanitizeMediaUploadStateForSite();
-
-        // remove expired lists
-        mDispatcher.dispatch(ListActionBuilder.newRemoveExpiredListsAction(new RemoveExpiredListsPayload()));
-
-        // setup the Credentials Client so we can clean it up on wpcom logout
+    private void initCredentialsClient() {
         mCredentialsClient = new GoogleApiClient.Builder(this)
                 .addConnectionCallbacks(new GoogleApiClient.ConnectionCallbacks() {
                     @Override
@@ -320,14 +409,16 @@ public class WordPress extends MultiDexApplication implements HasServiceInjector
     private void sanitizeMediaUploadStateForSite() {
         int siteLocalId = AppPrefs.getSelectedSite();
         final SiteModel selectedSite = mSiteStore.getSiteByLocalId(siteLocalId);
-        if (selectedSite != null) {
-            new Thread(new Runnable() {
-                @Override
-                public void run() {
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                // interrupted uploads are restarted first, otherwise their media would be marked failed
+                UploadService.recoverInterruptedMediaUploads(mContext, mMediaStore);
+                if (selectedSite != null) {
                     UploadService.sanitizeMediaUploadStateForSite(mMediaStore, mDispatcher, selectedSite);
                 }
-            }).start();
-        }
+            }
+        }).start();
     }
 
     private void createNotificationChannelsOnSdk26() {
@@ -408,6 +499,9 @@ public class WordPress extends MultiDexApplication implements HasServiceInjector
     public void deferredInit() {
         AppLog.i(T.UTILS, "Deferred Initialisation");
 
+        // run the startup tasks which are only needed once the user sees the app
+        mStartupTasks.onFirstActivityShown();
+
         // Refresh account informations
         if (mAccountStore.hasAccessToken()) {
             mDispatcher.dispatch(AccountActionBuilder.newFetchAccountAction());
@@ -495,6 +589,9 @@ public class WordPress extends MultiDexApplication implements HasServiceInjector
 
         removeWpComUserRelatedData(getApplicationContext());
 
+        // the recorded log may contain details of the account, so it isn't kept once the user logs out
+        AppLog.clearRecordedLog();
+
         if (mCredentialsClient != null && mCredentialsClient.isConnected()) {
             Auth.CredentialsApi.disableAutoSignIn(mCredentialsClient);
         }
@@ -22,7 +22,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 
 public class WordPressDB {
-    private static final int DATABASE_VERSION = 66;
+    private static final int DATABASE_VERSION = 68;
 
 
     // Warning if you rename DATABASE_NAME, that could break previous App backups (see: xml/backup_scheme.xml)
@@ -174,6 +174,12 @@ public class WordPressDB {
             case 65:
                 // add external users only to publicize services table
                 PublicizeTable.resetServicesTable(mDb);
+            case 66:
+                // add note hashes to the notifications table so notes can be synced incrementally
+                NotificationsTable.reset(mDb);
+            case 67:
+                // add list columns and filter indexes to the notifications table
+                NotificationsTable.reset(mDb);
         }
         mDb.setVersion(DATABASE_VERSION);
     }
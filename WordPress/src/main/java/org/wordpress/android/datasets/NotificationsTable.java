@@ -4,17 +4,23 @@ import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.CursorIndexOutOfBoundsException;
 import android.database.sqlite.SQLiteDatabase;
+import android.support.annotation.VisibleForTesting;
 import android.text.TextUtils;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.wordpress.android.WordPress;
+import org.wordpress.android.fluxc.model.CommentStatus;
 import org.wordpress.android.models.Note;
+import org.wordpress.android.models.NotesListFilter;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.SqlUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class NotificationsTable {
     private static final String NOTIFICATIONS_TABLE = "tbl_notifications";
@@ -25,6 +31,10 @@ public class NotificationsTable {
 
     public static final int NOTES_TO_RETRIEVE = 200;
 
+    // columns needed to show a note in the list, read without parsing raw_note_data
+    private static final String[] LIST_COLUMNS = {"note_id", "raw_note_data", "type", "note_hash", "is_unread",
+            "is_comment", "timestamp", "subject", "icon_url", "noticon", "comment_status"};
+
     public static void createTables(SQLiteDatabase db) {
         db.execSQL("CREATE TABLE IF NOT EXISTS " + NOTIFICATIONS_TABLE + " ("
                    + "id INTEGER PRIMARY KEY DEFAULT 0,"
@@ -32,8 +42,24 @@ public class NotificationsTable {
                    + "type TEXT,"
                    + "raw_note_data TEXT,"
                    + "timestamp INTEGER,"
+                   + "note_hash TEXT,"
+                   + "is_unread INTEGER DEFAULT 0,"
+                   + "is_comment INTEGER DEFAULT 0,"
+                   + "subject TEXT,"
+                   + "icon_url TEXT,"
+                   + "noticon TEXT,"
+                   + "comment_status TEXT,"
                    + " UNIQUE (note_id) ON CONFLICT REPLACE"
                    + ")");
+        // one index per filter, each ordered by timestamp so a filtered page is read straight from the index
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_notifications_timestamp ON "
+                   + NOTIFICATIONS_TABLE + "(timestamp)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_notifications_type_timestamp ON "
+                   + NOTIFICATIONS_TABLE + "(type, timestamp)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_notifications_unread_timestamp ON "
+                   + NOTIFICATIONS_TABLE + "(is_unread, timestamp)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_notifications_comment_timestamp ON "
+                   + NOTIFICATIONS_TABLE + "(is_comment, timestamp)");
     }
 
     private static void dropTables(SQLiteDatabase db) {
@@ -45,28 +71,91 @@ public class NotificationsTable {
     }
 
     public static ArrayList<Note> getLatestNotes(int limit) {
-        Cursor cursor = getDb().query(NOTIFICATIONS_TABLE, new String[]{"note_id", "raw_note_data"},
-                                      null, null, null, null, "timestamp DESC", "" + limit);
-        ArrayList<Note> notes = new ArrayList<Note>();
-        while (cursor.moveToNext()) {
-            String noteId = cursor.getString(0);
-            String rawNoteData = cursor.getString(1);
-            try {
-                Note note = new Note(noteId, new JSONObject(rawNoteData));
-                notes.add(note);
-            } catch (JSONException e) {
-                AppLog.e(AppLog.T.DB, "Can't parse notification with noteId:" + noteId + ", exception:" + e);
+        return getLatestNotes(NotesListFilter.FILTER_ALL, limit);
+    }
+
+    /*
+     * returns the latest notes matching the passed filter - the notes are built from the list columns,
+     * so their JSON is only parsed if something which isn't stored in a column is requested
+     */
+    public static ArrayList<Note> getLatestNotes(NotesListFilter filter, int limit) {
+        return getNotes(getDb(), filter, 0, limit);
+    }
+
+    /*
+     * returns a page of the notes matching the passed filter, newest first - used by the notifications list
+     * to page through a tab's notes
+     */
+    public static ArrayList<Note> getNotes(NotesListFilter filter, int offset, int limit) {
+        return getNotes(getDb(), filter, offset, limit);
+    }
+
+    /*
+     * each filter is a query on the indexed columns, so a tab's notes are read without reading the others
+     */
+    @VisibleForTesting
+    static ArrayList<Note> getNotes(SQLiteDatabase db, NotesListFilter filter, int offset, int limit) {
+        String selection;
+        String[] selectionArgs = null;
+        switch (filter) {
+            case FILTER_COMMENT:
+                selection = "is_comment=1";
+                break;
+            case FILTER_FOLLOW:
+                selection = "type=?";
+                selectionArgs = new String[]{Note.NOTE_FOLLOW_TYPE};
+                break;
+            case FILTER_LIKE:
+                selection = "type IN (?, ?)";
+                selectionArgs = new String[]{Note.NOTE_LIKE_TYPE, Note.NOTE_COMMENT_LIKE_TYPE};
+                break;
+            case FILTER_UNREAD:
+                selection = "is_unread=1";
+                break;
+            default:
+                selection = null;
+                break;
+        }
+
+        Cursor cursor = db.query(NOTIFICATIONS_TABLE, LIST_COLUMNS, selection, selectionArgs,
+                                 null, null, "timestamp DESC", offset + "," + limit);
+        ArrayList<Note> notes = new ArrayList<Note>(cursor.getCount());
+        try {
+            while (cursor.moveToNext()) {
+                notes.add(getNoteFromCursor(cursor));
             }
+        } finally {
+            cursor.close();
         }
-        cursor.close();
         return notes;
     }
 
+    private static Note getNoteFromCursor(Cursor c) {
+        return new Note(c.getString(c.getColumnIndex("note_id")),
+                        c.getString(c.getColumnIndex("raw_note_data")),
+                        c.getString(c.getColumnIndex("type")),
+                        c.getString(c.getColumnIndex("note_hash")),
+                        SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_unread"))),
+                        SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_comment"))),
+                        c.getLong(c.getColumnIndex("timestamp")),
+                        c.getString(c.getColumnIndex("subject")),
+                        c.getString(c.getColumnIndex("icon_url")),
+                        c.getString(c.getColumnIndex("noticon")),
+                        CommentStatus.fromString(c.getString(c.getColumnIndex("comment_status"))));
+    }
+
     private static boolean putNote(Note note, boolean checkBeforeInsert) {
         ContentValues values = new ContentValues();
         values.put("type", note.getType());
         values.put("timestamp", note.getTimestamp());
         values.put("raw_note_data", note.getJSON().toString());
+        values.put("note_hash", note.getHash());
+        values.put("is_unread", SqlUtils.boolToSql(note.isUnread()));
+        values.put("is_comment", SqlUtils.boolToSql(note.isCommentType()));
+        values.put("subject", note.getSubjectData());
+        values.put("icon_url", note.getIconURL());
+        values.put("noticon", note.getNoticonCharacter());
+        values.put("comment_status", note.getCommentStatus().toString());
 
         long result;
         if (checkBeforeInsert && isNoteAvailable(note.getId())) {
@@ -107,6 +196,45 @@ public class NotificationsTable {
         }
     }
 
+    /*
+     * saves the notes which have changed and deletes the ones which no longer exist, leaving the
+     * rest of the table untouched
+     */
+    public static void saveChangedNotes(List<Note> changedNotes, Collection<String> removedNoteIds) {
+        getDb().beginTransaction();
+        try {
+            for (String noteId : removedNoteIds) {
+                getDb().delete(NOTIFICATIONS_TABLE, "note_id=?", new String[]{noteId});
+            }
+            for (Note note : changedNotes) {
+                // the unique constraint on note_id replaces any existing row for the note
+                putNote(note, false);
+            }
+            getDb().setTransactionSuccessful();
+        } finally {
+            getDb().endTransaction();
+        }
+    }
+
+    /*
+     * returns the server-side hash of every stored note, keyed by note id - the hash is empty for
+     * notes which were stored without one
+     */
+    public static Map<String, String> getNoteHashes() {
+        Cursor cursor = getDb().query(NOTIFICATIONS_TABLE, new String[]{"note_id", "note_hash"},
+                                      null, null, null, null, null);
+        Map<String, String> hashes = new HashMap<>(cursor.getCount());
+        try {
+            while (cursor.moveToNext()) {
+                String hash = cursor.getString(1);
+                hashes.put(cursor.getString(0), hash != null ? hash : "");
+            }
+        } finally {
+            cursor.close();
+        }
+        return hashes;
+    }
+
     public static boolean saveNote(Note note) {
         getDb().beginTransaction();
         boolean saved = false;
@@ -182,7 +310,10 @@ public class NotificationsTable {
      * drop & recreate notifications table
      */
     public static void reset() {
-        SQLiteDatabase db = getDb();
+        reset(getDb());
+    }
+
+    public static void reset(SQLiteDatabase db) {
         db.beginTransaction();
         try {
             dropTables(db);
@@ -4,6 +4,7 @@ import android.database.Cursor;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.NonNull;
 import android.text.TextUtils;
 
 import org.wordpress.android.models.ReaderBlog;
@@ -111,22 +112,59 @@ public class ReaderBlogTable {
         if (c == null) {
             return null;
         }
+        return new BlogInfoCursorMapper(c).getBlogInfo(c);
+    }
+
+    /*
+     * creates blog info from the rows in a cursor, looking up the column indexes once per cursor
+     * rather than once per row
+     */
+    private static class BlogInfoCursorMapper {
+        private final int mIdxBlogId;
+        private final int mIdxFeedId;
+        private final int mIdxBlogUrl;
+        private final int mIdxImageUrl;
+        private final int mIdxFeedUrl;
+        private final int mIdxName;
+        private final int mIdxDescription;
+        private final int mIdxIsPrivate;
+        private final int mIdxIsJetpack;
+        private final int mIdxIsFollowing;
+        private final int mIdxIsNotificationsEnabled;
+        private final int mIdxNumFollowers;
+
+        BlogInfoCursorMapper(@NonNull Cursor c) {
+            mIdxBlogId = c.getColumnIndex("blog_id");
+            mIdxFeedId = c.getColumnIndex("feed_id");
+            mIdxBlogUrl = c.getColumnIndex("blog_url");
+            mIdxImageUrl = c.getColumnIndex("image_url");
+            mIdxFeedUrl = c.getColumnIndex("feed_url");
+            mIdxName = c.getColumnIndex("name");
+            mIdxDescription = c.getColumnIndex("description");
+            mIdxIsPrivate = c.getColumnIndex("is_private");
+            mIdxIsJetpack = c.getColumnIndex("is_jetpack");
+            mIdxIsFollowing = c.getColumnIndex("is_following");
+            mIdxIsNotificationsEnabled = c.getColumnIndex("is_notifications_enabled");
+            mIdxNumFollowers = c.getColumnIndex("num_followers");
+        }
 
-        ReaderBlog blogInfo = new ReaderBlog();
-        blogInfo.blogId = c.getLong(c.getColumnIndex("blog_id"));
-        blogInfo.feedId = c.getLong(c.getColumnIndex("feed_id"));
-        blogInfo.setUrl(c.getString(c.getColumnIndex("blog_url")));
-        blogInfo.setImageUrl(c.getString(c.getColumnIndex("image_url")));
-        blogInfo.setFeedUrl(c.getString(c.getColumnIndex("feed_url")));
-        blogInfo.setName(c.getString(c.getColumnIndex("name")));
-        blogInfo.setDescription(c.getString(c.getColumnIndex("description")));
-        blogInfo.isPrivate = SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_private")));
-        blogInfo.isJetpack = SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_jetpack")));
-        blogInfo.isFollowing = SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_following")));
-        blogInfo.isNotificationsEnabled = SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_notifications_enabled")));
-        blogInfo.numSubscribers = c.getInt(c.getColumnIndex("num_followers"));
-
-        return blogInfo;
+        ReaderBlog getBlogInfo(@NonNull Cursor c) {
+            ReaderBlog blogInfo = new ReaderBlog();
+            blogInfo.blogId = c.getLong(mIdxBlogId);
+            blogInfo.feedId = c.getLong(mIdxFeedId);
+            blogInfo.setUrl(c.getString(mIdxBlogUrl));
+            blogInfo.setImageUrl(c.getString(mIdxImageUrl));
+            blogInfo.setFeedUrl(c.getString(mIdxFeedUrl));
+            blogInfo.setName(c.getString(mIdxName));
+            blogInfo.setDescription(c.getString(mIdxDescription));
+            blogInfo.isPrivate = SqlUtils.sqlToBool(c.getInt(mIdxIsPrivate));
+            blogInfo.isJetpack = SqlUtils.sqlToBool(c.getInt(mIdxIsJetpack));
+            blogInfo.isFollowing = SqlUtils.sqlToBool(c.getInt(mIdxIsFollowing));
+            blogInfo.isNotificationsEnabled = SqlUtils.sqlToBool(c.getInt(mIdxIsNotificationsEnabled));
+            blogInfo.numSubscribers = c.getInt(mIdxNumFollowers);
+
+            return blogInfo;
+        }
     }
 
     public static void addOrUpdateBlog(ReaderBlog blogInfo) {
@@ -168,8 +206,9 @@ public class ReaderBlogTable {
         try {
             ReaderBlogList blogs = new ReaderBlogList();
             if (c.moveToFirst()) {
+                BlogInfoCursorMapper mapper = new BlogInfoCursorMapper(c);
                 do {
-                    ReaderBlog blogInfo = getBlogInfoFromCursor(c);
+                    ReaderBlog blogInfo = mapper.getBlogInfo(c);
                     blogs.add(blogInfo);
                 } while (c.moveToNext());
             }
@@ -316,15 +355,22 @@ public class ReaderBlogTable {
         try {
             ReaderRecommendBlogList blogs = new ReaderRecommendBlogList();
             if (c.moveToFirst()) {
+                int idxBlogId = c.getColumnIndex("blog_id");
+                int idxFollowRecoId = c.getColumnIndex("follow_reco_id");
+                int idxScore = c.getColumnIndex("score");
+                int idxTitle = c.getColumnIndex("title");
+                int idxBlogUrl = c.getColumnIndex("blog_url");
+                int idxImageUrl = c.getColumnIndex("image_url");
+                int idxReason = c.getColumnIndex("reason");
                 do {
                     ReaderRecommendedBlog blog = new ReaderRecommendedBlog();
-                    blog.blogId = c.getLong(c.getColumnIndex("blog_id"));
-                    blog.followRecoId = c.getLong(c.getColumnIndex("follow_reco_id"));
-                    blog.score = c.getInt(c.getColumnIndex("score"));
-                    blog.setTitle(c.getString(c.getColumnIndex("title")));
-                    blog.setBlogUrl(c.getString(c.getColumnIndex("blog_url")));
-                    blog.setImageUrl(c.getString(c.getColumnIndex("image_url")));
-                    blog.setReason(c.getString(c.getColumnIndex("reason")));
+                    blog.blogId = c.getLong(idxBlogId);
+                    blog.followRecoId = c.getLong(idxFollowRecoId);
+                    blog.score = c.getInt(idxScore);
+                    blog.setTitle(c.getString(idxTitle));
+                    blog.setBlogUrl(c.getString(idxBlogUrl));
+                    blog.setImageUrl(c.getString(idxImageUrl));
+                    blog.setReason(c.getString(idxReason));
                     blogs.add(blog);
                 } while (c.moveToNext());
             }
@@ -4,6 +4,7 @@ import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.NonNull;
 
 import org.wordpress.android.models.ReaderComment;
 import org.wordpress.android.models.ReaderCommentList;
@@ -139,8 +140,9 @@ public class ReaderCommentTable {
         try {
             ReaderCommentList comments = new ReaderCommentList();
             if (c.moveToFirst()) {
+                CommentCursorMapper mapper = new CommentCursorMapper(c);
                 do {
-                    comments.add(getCommentFromCursor(c));
+                    comments.add(mapper.getComment(c));
                 } while (c.moveToNext());
             }
             return comments;
@@ -311,30 +313,79 @@ public class ReaderCommentTable {
         if (c == null) {
             throw new IllegalArgumentException("null comment cursor");
         }
+        return new CommentCursorMapper(c).getComment(c);
+    }
+
+    /*
+     * creates comments from the rows in a cursor, looking up the column indexes once per cursor
+     * rather than once per row
+     */
+    private static class CommentCursorMapper {
+        private final int mIdxCommentId;
+        private final int mIdxBlogId;
+        private final int mIdxPostId;
+        private final int mIdxParentId;
+        private final int mIdxPublished;
+        private final int mIdxTimestamp;
+        private final int mIdxAuthorAvatar;
+        private final int mIdxAuthorName;
+        private final int mIdxAuthorUrl;
+        private final int mIdxAuthorId;
+        private final int mIdxAuthorBlogId;
+        private final int mIdxStatus;
+        private final int mIdxText;
+        private final int mIdxNumLikes;
+        private final int mIdxIsLiked;
+        private final int mIdxPageNumber;
+
+        CommentCursorMapper(@NonNull Cursor c) {
+            mIdxCommentId = c.getColumnIndex("comment_id");
+            mIdxBlogId = c.getColumnIndex("blog_id");
+            mIdxPostId = c.getColumnIndex("post_id");
+            mIdxParentId = c.getColumnIndex("parent_id");
+
+            mIdxPublished = c.getColumnIndex("published");
+            mIdxTimestamp = c.getColumnIndex("timestamp");
+
+            mIdxAuthorAvatar = c.getColumnIndex("author_avatar");
+            mIdxAuthorName = c.getColumnIndex("author_name");
+            mIdxAuthorUrl = c.getColumnIndex("author_url");
+            mIdxAuthorId = c.getColumnIndex("author_id");
+            mIdxAuthorBlogId = c.getColumnIndex("author_blog_id");
+
+            mIdxStatus = c.getColumnIndex("status");
+            mIdxText = c.getColumnIndex("text");
+
+            mIdxNumLikes = c.getColumnIndex("num_likes");
+            mIdxIsLiked = c.getColumnIndex("is_liked");
+            mIdxPageNumber = c.getColumnIndex("page_number");
+        }
 
-        ReaderComment comment = new ReaderComment();
+        ReaderComment getComment(@NonNull Cursor c) {
+            ReaderComment comment = new ReaderComment();
 
-        comment.commentId = c.getLong(c.getColumnIndex("comment_id"));
-        comment.blogId = c.getLong(c.getColumnIndex("blog_id"));
-        comment.postId = c.getLong(c.getColumnIndex("post_id"));
-        comment.parentId = c.getLong(c.getColumnIndex("parent_id"));
+            comment.commentId = c.getLong(mIdxCommentId);
+            comment.blogId = c.getLong(mIdxBlogId);
+            comment.postId = c.getLong(mIdxPostId);
+            comment.parentId = c.getLong(mIdxParentId);
 
-        comment.setPublished(c.getString(c.getColumnIndex("published")));
-        comment.timestamp = c.getLong(c.getColumnIndex("timestamp"));
+            comment.setPublished(c.getString(mIdxPublished));
+            comment.timestamp = c.getLong(mIdxTimestamp);
 
-        comment.setAuthorAvatar(c.getString(c.getColumnIndex("author_avatar")));
-        comment.setAuthorName(c.getString(c.getColumnIndex("author_name")));
-        comment.setAuthorUrl(c.getString(c.getColumnIndex("author_url")));
-        comment.authorId = c.getLong(c.getColumnIndex("author_id"));
-        comment.authorBlogId = c.getLong(c.getColumnIndex("author_blog_id"));
+            comment.setAuthorAvatar(c.getString(mIdxAuthorAvatar));
+            comment.setAuthorName(c.getString(mIdxAuthorName));
+            comment.setAuthorUrl(c.getString(mIdxAuthorUrl));
+            comment.authorId = c.getLong(mIdxAuthorId);
+            comment.authorBlogId = c.getLong(mIdxAuthorBlogId);
 
-        comment.setStatus(c.getString(c.getColumnIndex("status")));
-        comment.setText(c.getString(c.getColumnIndex("text")));
+            comment.setStatus(c.getString(mIdxStatus));
+            comment.setText(c.getString(mIdxText));
 
-        comment.numLikes = c.getInt(c.getColumnIndex("num_likes"));
-        comment.isLikedByCurrentUser = SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_liked")));
-        comment.pageNumber = c.getInt(c.getColumnIndex("page_number"));
+            comment.numLikes = c.getInt(mIdxNumLikes);
+            comment.isLikedByCurrentUser = SqlUtils.sqlToBool(c.getInt(mIdxIsLiked));
+            comment.pageNumber = c.getInt(mIdxPageNumber);
 
-        return comment;
+            return comment;
+        }
     }
 }
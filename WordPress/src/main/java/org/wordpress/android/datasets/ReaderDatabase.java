@@ -3,10 +3,13 @@ package org.wordpress.android.datasets;
 import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.os.SystemClock;
 
 import org.wordpress.android.WordPress;
 import org.wordpress.android.models.ReaderPostList;
 import org.wordpress.android.models.ReaderTagList;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor.Priority;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 
@@ -22,7 +25,7 @@ import java.util.Locale;
  */
 public class ReaderDatabase extends SQLiteOpenHelper {
     protected static final String DB_NAME = "wpreader.db";
-    private static final int DB_VERSION = 137;
+    private static final int DB_VERSION = 138;
     private static final int DB_LAST_VERSION_WITHOUT_MIGRATION_SCRIPT = 136; // do not change this value
 
     /*
@@ -93,6 +96,7 @@ public class ReaderDatabase extends SQLiteOpenHelper {
      * 135 - added tbl_blog_info.is_notifications_enabled in ReaderBlogTable
      * 136 - added tbl_posts.is_bookmarked
      * 137 - added support for migration scripts
+     * 138 - normalized post storage, split tbl_posts into tbl_posts (content) and tbl_post_tags (streams)
      */
 
     /*
@@ -173,15 +177,19 @@ public class ReaderDatabase extends SQLiteOpenHelper {
                 "Upgrading database from version " + oldVersion + " to version " + newVersion + " IN PROGRESS");
         int currentVersion = oldVersion;
         if (currentVersion <= DB_LAST_VERSION_WITHOUT_MIGRATION_SCRIPT) {
-            // versions 0 - 136 didn't support migration scripts, so we can safely drop and recreate all tables
+            // versions 0 - 136 didn't support migration scripts, so we can safely drop and recreate all tables -
+            // which creates the current schema, so none of the migrations below must run
             reset(db);
-            currentVersion = DB_LAST_VERSION_WITHOUT_MIGRATION_SCRIPT;
+            currentVersion = newVersion;
         }
 
         switch (currentVersion) {
             case 136:
                 // no-op
                 currentVersion++;
+            case 137:
+                ReaderPostTable.migrateToNormalizedPosts(db);
+                currentVersion++;
         }
         if (currentVersion != newVersion) {
             throw new RuntimeException(
@@ -238,29 +246,35 @@ public class ReaderDatabase extends SQLiteOpenHelper {
      * purge older/unattached data - use purgeAsync() to do this in the background
      */
     private static void purge() {
+        long startTime = SystemClock.elapsedRealtime();
+        int numPostsDeleted = 0;
+        int numCommentsDeleted = 0;
+        int numLikesDeleted = 0;
+        int numThumbsPurged = 0;
+
         SQLiteDatabase db = getWritableDb();
         db.beginTransaction();
         try {
-            int numPostsDeleted = ReaderPostTable.purge(db);
+            numPostsDeleted = ReaderPostTable.purge(db);
 
             // don't bother purging other data unless posts were purged
             if (numPostsDeleted > 0) {
                 AppLog.i(T.READER, String.format(Locale.ENGLISH, "%d total posts purged", numPostsDeleted));
 
                 // purge unattached comments
-                int numCommentsDeleted = ReaderCommentTable.purge(db);
+                numCommentsDeleted = ReaderCommentTable.purge(db);
                 if (numCommentsDeleted > 0) {
                     AppLog.i(T.READER, String.format(Locale.ENGLISH, "%d comments purged", numCommentsDeleted));
                 }
 
                 // purge unattached likes
-                int numLikesDeleted = ReaderLikeTable.purge(db);
+                numLikesDeleted = ReaderLikeTable.purge(db);
                 if (numLikesDeleted > 0) {
                     AppLog.i(T.READER, String.format(Locale.ENGLISH, "%d likes purged", numLikesDeleted));
                 }
 
                 // purge unattached thumbnails
-                int numThumbsPurged = ReaderThumbnailTable.purge(db);
+                numThumbsPurged = ReaderThumbnailTable.purge(db);
                 if (numThumbsPurged > 0) {
                     AppLog.i(T.READER, String.format(Locale.ENGLISH, "%d thumbnails purged", numThumbsPurged));
                 }
@@ -269,15 +283,20 @@ public class ReaderDatabase extends SQLiteOpenHelper {
         } finally {
             db.endTransaction();
         }
+
+        long elapsedMs = SystemClock.elapsedRealtime() - startTime;
+        int numRowsDeleted = numPostsDeleted + numCommentsDeleted + numLikesDeleted + numThumbsPurged;
+        AppLog.i(T.READER, String.format(Locale.ENGLISH, "reader db purge > %d rows purged in %d ms",
+                numRowsDeleted, elapsedMs));
     }
 
     public static void purgeAsync() {
-        new Thread() {
+        ReaderExecutor.executeDbWrite(Priority.BACKGROUND, new Runnable() {
             @Override
             public void run() {
                 purge();
             }
-        }.start();
+        });
     }
 
     /*
@@ -5,6 +5,7 @@ import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
 import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
 import android.text.TextUtils;
 
 import org.wordpress.android.R;
@@ -16,22 +17,33 @@ import org.wordpress.android.models.ReaderTag;
 import org.wordpress.android.models.ReaderTagList;
 import org.wordpress.android.models.ReaderTagType;
 import org.wordpress.android.ui.reader.ReaderConstants;
-import org.wordpress.android.ui.reader.actions.ReaderActions;
 import org.wordpress.android.ui.reader.models.ReaderBlogIdPostId;
 import org.wordpress.android.ui.reader.models.ReaderBlogIdPostIdList;
+import org.wordpress.android.ui.reader.models.ReaderPostDiff;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.CrashlyticsUtils;
 import org.wordpress.android.util.SqlUtils;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * tbl_posts contains all reader posts - the primary key is pseudo_id + tag_name + tag_type,
- * which allows the same post to appear in multiple streams (ex: it can exist in followed
- * sites, liked posts, and tag streams). note that posts in a specific blog or feed are
- * stored here with an empty tag_name.
+ * tbl_posts contains the content of all reader posts and is keyed on pseudo_id, so each post's
+ * content (including its potentially large text) is stored only once. tbl_post_tags determines
+ * which streams a post appears in - its primary key is pseudo_id + tag_name + tag_type, which
+ * allows the same post to appear in multiple streams (ex: it can exist in followed sites, liked
+ * posts, and tag streams). note that posts in a specific blog or feed are stored in tbl_post_tags
+ * with an empty tag_name.
+ *
+ * values which depend on the stream the post was retrieved from (score, date_liked, date_tagged
+ * and railcar_json) are stored in tbl_post_tags rather than tbl_posts.
  */
 public class ReaderPostTable {
+    // columns in tbl_posts
     private static final String COLUMN_NAMES =
             "post_id," // 1
             + "blog_id," // 2
@@ -53,41 +65,49 @@ public class ReaderPostTable {
             + "featured_image," // 18
             + "featured_video," // 19
             + "post_avatar," // 20
-            + "score," // 21
-            + "date_published," // 22
-            + "date_liked," // 23
-            + "date_tagged," // 24
-            + "num_replies," // 25
-            + "num_likes," // 26
-            + "is_liked," // 27
-            + "is_followed," // 28
-            + "is_comments_open," // 29
-            + "is_external," // 30
-            + "is_private," // 31
-            + "is_videopress," // 32
-            + "is_jetpack," // 33
-            + "primary_tag," // 34
-            + "secondary_tag," // 35
-            + "attachments_json," // 36
-            + "discover_json," // 37
-            + "xpost_post_id," // 38
-            + "xpost_blog_id," // 39
-            + "railcar_json," // 40
-            + "tag_name," // 41
-            + "tag_type," // 42
-            + "has_gap_marker," // 43
-            + "card_type," // 44
-            + "use_excerpt," // 45
-            + "is_bookmarked"; // 46
-
-    // used when querying multiple rows and skipping text column
-    private static final String COLUMN_NAMES_NO_TEXT =
-            "post_id," // 1
+            + "date_published," // 21
+            + "num_replies," // 22
+            + "num_likes," // 23
+            + "is_liked," // 24
+            + "is_followed," // 25
+            + "is_comments_open," // 26
+            + "is_external," // 27
+            + "is_private," // 28
+            + "is_videopress," // 29
+            + "is_jetpack," // 30
+            + "primary_tag," // 31
+            + "secondary_tag," // 32
+            + "attachments_json," // 33
+            + "discover_json," // 34
+            + "xpost_post_id," // 35
+            + "xpost_blog_id," // 36
+            + "card_type," // 37
+            + "use_excerpt," // 38
+            + "is_bookmarked"; // 39
+
+    // columns in tbl_post_tags
+    private static final String TAG_COLUMN_NAMES =
+            "pseudo_id," // 1
             + "blog_id," // 2
-            + "feed_id," // 3
+            + "post_id," // 3
+            + "feed_id," // 4
+            + "tag_name," // 5
+            + "tag_type," // 6
+            + "has_gap_marker," // 7
+            + "score," // 8
+            + "date_liked," // 9
+            + "date_tagged," // 10
+            + "railcar_json"; // 11
+
+    // used when querying posts joined with their tags - the id columns exist in both tables
+    // so they must be qualified
+    private static final String COLUMN_NAMES_JOINED_NO_TEXT =
+            "tbl_posts.post_id," // 1
+            + "tbl_posts.blog_id," // 2
+            + "tbl_posts.feed_id," // 3
             + "feed_item_id," // 4
             + "author_id," // 5
-            + "pseudo_id," // 6
+            + "tbl_posts.pseudo_id," // 6
             + "author_name," // 7
             + "author_first_name," // 8
             + "blog_name," // 9
@@ -128,6 +148,15 @@ public class ReaderPostTable {
             + "use_excerpt," // 44
             + "is_bookmarked"; // 45
 
+    private static final String COLUMN_NAMES_JOINED = COLUMN_NAMES_JOINED_NO_TEXT + ",text";
+
+    // posts always have at least one row in tbl_post_tags, but a left join is used when querying
+    // a single post so it's returned even if its tag rows were removed before the next purge
+    private static final String FROM_POSTS_JOIN_TAGS =
+            " FROM tbl_post_tags INNER JOIN tbl_posts ON tbl_posts.pseudo_id = tbl_post_tags.pseudo_id";
+    private static final String FROM_POSTS_LEFT_JOIN_TAGS =
+            " FROM tbl_posts LEFT JOIN tbl_post_tags ON tbl_post_tags.pseudo_id = tbl_posts.pseudo_id";
+
     protected static void createTables(SQLiteDatabase db) {
         db.execSQL("CREATE TABLE tbl_posts ("
                    + " post_id INTEGER DEFAULT 0,"
@@ -150,10 +179,7 @@ public class ReaderPostTable {
                    + " featured_image TEXT,"
                    + " featured_video TEXT,"
                    + " post_avatar TEXT,"
-                   + " score REAL DEFAULT 0,"
                    + " date_published TEXT,"
-                   + " date_liked TEXT,"
-                   + " date_tagged TEXT,"
                    + " num_replies INTEGER DEFAULT 0,"
                    + " num_likes INTEGER DEFAULT 0,"
                    + " is_liked INTEGER DEFAULT 0,"
@@ -169,24 +195,134 @@ public class ReaderPostTable {
                    + " discover_json TEXT,"
                    + " xpost_post_id INTEGER DEFAULT 0,"
                    + " xpost_blog_id INTEGER DEFAULT 0,"
-                   + " railcar_json TEXT,"
+                   + " card_type TEXT,"
+                   + " use_excerpt INTEGER DEFAULT 0,"
+                   + " is_bookmarked INTEGER DEFAULT 0,"
+                   + " PRIMARY KEY (pseudo_id)"
+                   + ")");
+
+        db.execSQL("CREATE INDEX idx_posts_post_id_blog_id ON tbl_posts(post_id, blog_id)");
+        db.execSQL("CREATE INDEX idx_posts_date_published ON tbl_posts(date_published)");
+
+        db.execSQL("CREATE TABLE tbl_post_tags ("
+                   + " pseudo_id TEXT NOT NULL,"
+                   + " blog_id INTEGER DEFAULT 0,"
+                   + " post_id INTEGER DEFAULT 0,"
+                   + " feed_id INTEGER DEFAULT 0,"
                    + " tag_name TEXT NOT NULL COLLATE NOCASE,"
                    + " tag_type INTEGER DEFAULT 0,"
                    + " has_gap_marker INTEGER DEFAULT 0,"
+                   + " score REAL DEFAULT 0,"
+                   + " date_liked TEXT,"
+                   + " date_tagged TEXT,"
+                   + " railcar_json TEXT,"
+                   + " PRIMARY KEY (pseudo_id, tag_name, tag_type)"
+                   + ")");
+
+        db.execSQL("CREATE INDEX idx_post_tags_tag_name_tag_type ON tbl_post_tags(tag_name, tag_type)");
+        db.execSQL("CREATE INDEX idx_post_tags_post_id_blog_id ON tbl_post_tags(post_id, blog_id)");
+        db.execSQL("CREATE INDEX idx_post_tags_date_tagged ON tbl_post_tags(date_tagged)");
+    }
+
+    /*
+     * migration script for version 138, which split the denormalized tbl_posts (which stored a
+     * full copy of each post for every stream it appeared in) into tbl_posts and tbl_post_tags.
+     * the schema is spelled out here rather than calling createTables() so this script continues
+     * to produce the version 138 schema after later versions change these tables.
+     */
+    protected static void migrateToNormalizedPosts(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE tbl_posts RENAME TO tbl_posts_denormalized");
+        db.execSQL("DROP INDEX IF EXISTS idx_posts_post_id_blog_id");
+        db.execSQL("DROP INDEX IF EXISTS idx_posts_date_published");
+        db.execSQL("DROP INDEX IF EXISTS idx_posts_date_tagged");
+        db.execSQL("DROP INDEX IF EXISTS idx_posts_tag_name");
+
+        db.execSQL("CREATE TABLE tbl_posts ("
+                   + " post_id INTEGER DEFAULT 0,"
+                   + " blog_id INTEGER DEFAULT 0,"
+                   + " feed_id INTEGER DEFAULT 0,"
+                   + " feed_item_id INTEGER DEFAULT 0,"
+                   + " pseudo_id TEXT NOT NULL,"
+                   + " author_name TEXT,"
+                   + " author_first_name TEXT,"
+                   + " author_id INTEGER DEFAULT 0,"
+                   + " title  TEXT,"
+                   + " text TEXT,"
+                   + " excerpt TEXT,"
+                   + " format TEXT,"
+                   + " url TEXT,"
+                   + " short_url TEXT,"
+                   + " blog_name TEXT,"
+                   + " blog_url TEXT,"
+                   + " blog_image_url TEXT,"
+                   + " featured_image TEXT,"
+                   + " featured_video TEXT,"
+                   + " post_avatar TEXT,"
+                   + " date_published TEXT,"
+                   + " num_replies INTEGER DEFAULT 0,"
+                   + " num_likes INTEGER DEFAULT 0,"
+                   + " is_liked INTEGER DEFAULT 0,"
+                   + " is_followed INTEGER DEFAULT 0,"
+                   + " is_comments_open INTEGER DEFAULT 0,"
+                   + " is_external INTEGER DEFAULT 0,"
+                   + " is_private INTEGER DEFAULT 0,"
+                   + " is_videopress INTEGER DEFAULT 0,"
+                   + " is_jetpack INTEGER DEFAULT 0,"
+                   + " primary_tag TEXT,"
+                   + " secondary_tag TEXT,"
+                   + " attachments_json TEXT,"
+                   + " discover_json TEXT,"
+                   + " xpost_post_id INTEGER DEFAULT 0,"
+                   + " xpost_blog_id INTEGER DEFAULT 0,"
                    + " card_type TEXT,"
                    + " use_excerpt INTEGER DEFAULT 0,"
                    + " is_bookmarked INTEGER DEFAULT 0,"
-                   + " PRIMARY KEY (pseudo_id, tag_name, tag_type)"
+                   + " PRIMARY KEY (pseudo_id)"
                    + ")");
-
         db.execSQL("CREATE INDEX idx_posts_post_id_blog_id ON tbl_posts(post_id, blog_id)");
         db.execSQL("CREATE INDEX idx_posts_date_published ON tbl_posts(date_published)");
-        db.execSQL("CREATE INDEX idx_posts_date_tagged ON tbl_posts(date_tagged)");
-        db.execSQL("CREATE INDEX idx_posts_tag_name ON tbl_posts(tag_name)");
+
+        db.execSQL("CREATE TABLE tbl_post_tags ("
+                   + " pseudo_id TEXT NOT NULL,"
+                   + " blog_id INTEGER DEFAULT 0,"
+                   + " post_id INTEGER DEFAULT 0,"
+                   + " feed_id INTEGER DEFAULT 0,"
+                   + " tag_name TEXT NOT NULL COLLATE NOCASE,"
+                   + " tag_type INTEGER DEFAULT 0,"
+                   + " has_gap_marker INTEGER DEFAULT 0,"
+                   + " score REAL DEFAULT 0,"
+                   + " date_liked TEXT,"
+                   + " date_tagged TEXT,"
+                   + " railcar_json TEXT,"
+                   + " PRIMARY KEY (pseudo_id, tag_name, tag_type)"
+                   + ")");
+        db.execSQL("CREATE INDEX idx_post_tags_tag_name_tag_type ON tbl_post_tags(tag_name, tag_type)");
+        db.execSQL("CREATE INDEX idx_post_tags_post_id_blog_id ON tbl_post_tags(post_id, blog_id)");
+        db.execSQL("CREATE INDEX idx_post_tags_date_tagged ON tbl_post_tags(date_tagged)");
+
+        // the same post may exist several times in the old table - since is_bookmarked and the
+        // counts were synced across all copies, it doesn't matter which copy is retained
+        String postColumns = "post_id, blog_id, feed_id, feed_item_id, pseudo_id, author_name,"
+                             + " author_first_name, author_id, title, text, excerpt, format, url, short_url,"
+                             + " blog_name, blog_url, blog_image_url, featured_image, featured_video, post_avatar,"
+                             + " date_published, num_replies, num_likes, is_liked, is_followed, is_comments_open,"
+                             + " is_external, is_private, is_videopress, is_jetpack, primary_tag, secondary_tag,"
+                             + " attachments_json, discover_json, xpost_post_id, xpost_blog_id, card_type,"
+                             + " use_excerpt, is_bookmarked";
+        String tagColumns = "pseudo_id, blog_id, post_id, feed_id, tag_name, tag_type, has_gap_marker, score,"
+                            + " date_liked, date_tagged, railcar_json";
+        db.execSQL("INSERT OR REPLACE INTO tbl_posts (" + postColumns + ")"
+                   + " SELECT " + postColumns + " FROM tbl_posts_denormalized");
+        db.execSQL("INSERT OR REPLACE INTO tbl_post_tags (" + tagColumns + ")"
+                   + " SELECT " + tagColumns + " FROM tbl_posts_denormalized");
+
+        db.execSQL("DROP TABLE tbl_posts_denormalized");
     }
 
     protected static void dropTables(SQLiteDatabase db) {
         db.execSQL("DROP TABLE IF EXISTS tbl_posts");
+        db.execSQL("DROP TABLE IF EXISTS tbl_post_tags");
+        invalidateBookmarkedPostIds();
     }
 
     protected static void reset(SQLiteDatabase db) {
@@ -200,18 +336,35 @@ public class ReaderPostTable {
      */
     protected static int purge(SQLiteDatabase db) {
         // delete posts attached to tags that no longer exist
-        int numDeleted = db.delete("tbl_posts", "tag_name NOT IN (SELECT DISTINCT tag_name FROM tbl_tags)", null);
+        int numDeleted =
+                db.delete("tbl_post_tags", "tag_name NOT IN (SELECT DISTINCT tag_name FROM tbl_tags)", null);
 
-        // delete excess posts on a per-tag basis
-        ReaderTagList tags = ReaderTagTable.getAllTags();
-        for (ReaderTag tag : tags) {
+        // delete excess posts on a per-tag basis, skipping tags which don't exceed the max
+        for (ReaderTag tag : getTagsExceedingMaxPosts(db)) {
             numDeleted += purgePostsForTag(db, tag);
         }
 
-        numDeleted += purgeUnbookmarkedPostsWithBookmarkTag();
+        numDeleted += purgeUnbookmarkedPostsWithBookmarkTag(db);
 
         // delete search results
         numDeleted += purgeSearchResults(db);
+
+        // delete the content of posts which no longer appear in any stream
+        purgeOrphanedPosts(db);
+        invalidateBookmarkedPostIds();
+        return numDeleted;
+    }
+
+    /*
+     * delete posts from tbl_posts which no longer have a row in tbl_post_tags
+     */
+    private static int purgeOrphanedPosts(SQLiteDatabase db) {
+        int numDeleted =
+                db.delete("tbl_posts", "pseudo_id NOT IN (SELECT DISTINCT pseudo_id FROM tbl_post_tags)", null);
+        if (numDeleted > 0) {
+            AppLog.d(AppLog.T.READER,
+                    String.format(Locale.ENGLISH, "reader post table > purged %d orphaned posts", numDeleted));
+        }
         return numDeleted;
     }
 
@@ -220,35 +373,67 @@ public class ReaderPostTable {
      * to false, so we can show "undo" items in the saved posts list. This method purges database from such rows.
      */
     public static int purgeUnbookmarkedPostsWithBookmarkTag() {
-        int numDeleted = 0;
-        ReaderTagList tags = ReaderTagTable.getAllTags();
-        for (ReaderTag tag : tags) {
-            if (tag.isBookmarked()) {
-                // delete posts which has a bookmark tag but is_bookmarked flag is false
-                String[] args = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt())};
-                numDeleted += ReaderDatabase.getWritableDb()
-                                            .delete("tbl_posts", "tag_name=? AND tag_type=? AND is_bookmarked=0", args);
-            }
+        SQLiteDatabase db = ReaderDatabase.getWritableDb();
+        int numDeleted = purgeUnbookmarkedPostsWithBookmarkTag(db);
+        if (numDeleted > 0) {
+            purgeOrphanedPosts(db);
+            invalidateBookmarkedPostIds();
         }
         return numDeleted;
     }
 
+    private static int purgeUnbookmarkedPostsWithBookmarkTag(SQLiteDatabase db) {
+        // delete posts which has a bookmark tag but is_bookmarked flag is false
+        String[] args = {Integer.toString(ReaderTagType.BOOKMARKED.toInt())};
+        return db.delete("tbl_post_tags",
+                "tag_type=? AND pseudo_id IN (SELECT pseudo_id FROM tbl_posts WHERE is_bookmarked=0)",
+                args);
+    }
+
     /*
      * purge excess posts in the passed tag
      */
-    private static final int MAX_POSTS_PER_TAG = ReaderConstants.READER_MAX_POSTS_TO_DISPLAY;
+    static final int MAX_POSTS_PER_TAG = ReaderConstants.READER_MAX_POSTS_TO_DISPLAY;
 
-    private static int purgePostsForTag(SQLiteDatabase db, ReaderTag tag) {
-        int numPosts = getNumPostsWithTag(tag);
-        if (numPosts <= MAX_POSTS_PER_TAG) {
-            return 0;
+    /*
+     * returns the tags which have more than the max number of posts - uses a single grouped
+     * query rather than counting the posts in every tag
+     */
+    private static ReaderTagList getTagsExceedingMaxPosts(SQLiteDatabase db) {
+        ReaderTagList tags = new ReaderTagList();
+        Cursor c = queryTagsExceedingMaxPosts(db);
+        try {
+            while (c.moveToNext()) {
+                ReaderTag tag = ReaderTagTable.getTag(c.getString(0), ReaderTagType.fromInt(c.getInt(1)));
+                if (tag != null) {
+                    tags.add(tag);
+                }
+            }
+            return tags;
+        } finally {
+            SqlUtils.closeCursor(c);
         }
+    }
+
+    /*
+     * returns the name and type of the tags which have more than the max number of posts - the max is part of the
+     * sql rather than an argument, since arguments are bound as text and sqlite considers any integer (such as the
+     * count) to be less than any text
+     */
+    @VisibleForTesting
+    static Cursor queryTagsExceedingMaxPosts(SQLiteDatabase db) {
+        return db.rawQuery("SELECT tag_name, tag_type FROM tbl_post_tags"
+                           + " GROUP BY tag_name, tag_type HAVING count(*) > " + MAX_POSTS_PER_TAG, null);
+    }
+
+    private static int purgePostsForTag(SQLiteDatabase db, ReaderTag tag) {
         String tagName = tag.getTagSlug();
         String tagType = Integer.toString(tag.tagType.toInt());
         String[] args = {tagName, tagType, tagName, tagType, Integer.toString(MAX_POSTS_PER_TAG)};
-        String where = "tag_name=? AND tag_type=? AND pseudo_id NOT IN (SELECT DISTINCT pseudo_id FROM tbl_posts WHERE "
-                       + "tag_name=? AND tag_type=? ORDER BY " + getSortColumnForTag(tag) + " DESC LIMIT ?)";
-        int numDeleted = db.delete("tbl_posts", where, args);
+        String where = "tag_name=? AND tag_type=? AND pseudo_id NOT IN (SELECT DISTINCT tbl_post_tags.pseudo_id"
+                       + FROM_POSTS_JOIN_TAGS + " WHERE tag_name=? AND tag_type=?"
+                       + " ORDER BY " + getSortColumnForTag(tag) + " DESC LIMIT ?)";
+        int numDeleted = db.delete("tbl_post_tags", where, args);
         AppLog.d(AppLog.T.READER,
                 String.format(Locale.ENGLISH, "reader post table > purged %d posts in tag %s", numDeleted,
                         tag.getTagNameForLog()));
@@ -260,7 +445,7 @@ public class ReaderPostTable {
      */
     private static int purgeSearchResults(SQLiteDatabase db) {
         String[] args = {Integer.toString(ReaderTagType.SEARCH.toInt())};
-        return db.delete("tbl_posts", "tag_type=?", args);
+        return db.delete("tbl_post_tags", "tag_type=?", args);
     }
 
     public static int getNumPostsInBlog(long blogId) {
@@ -268,7 +453,7 @@ public class ReaderPostTable {
             return 0;
         }
         return SqlUtils.intForQuery(ReaderDatabase.getReadableDb(),
-                                    "SELECT count(*) FROM tbl_posts WHERE blog_id=? AND tag_name=''",
+                                    "SELECT count(*) FROM tbl_post_tags WHERE blog_id=? AND tag_name=''",
                                     new String[]{Long.toString(blogId)});
     }
 
@@ -277,7 +462,7 @@ public class ReaderPostTable {
             return 0;
         }
         return SqlUtils.intForQuery(ReaderDatabase.getReadableDb(),
-                                    "SELECT count(*) FROM tbl_posts WHERE feed_id=? AND tag_name=''",
+                                    "SELECT count(*) FROM tbl_post_tags WHERE feed_id=? AND tag_name=''",
                                     new String[]{Long.toString(feedId)});
     }
 
@@ -287,26 +472,13 @@ public class ReaderPostTable {
         }
         String[] args = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt())};
         return SqlUtils.intForQuery(ReaderDatabase.getReadableDb(),
-                                    "SELECT count(*) FROM tbl_posts WHERE tag_name=? AND tag_type=?",
+                                    "SELECT count(*) FROM tbl_post_tags WHERE tag_name=? AND tag_type=?",
                                     args);
     }
 
     public static void updatePost(@NonNull ReaderPost post) {
-        // we need to update a few important fields across all instances of this post - this is
-        // necessary because a post can exist multiple times in the table with different tags
-        ContentValues values = new ContentValues();
-        values.put("title", post.getTitle());
-        values.put("text", post.getText());
-        values.put("excerpt", post.getExcerpt());
-        values.put("num_replies", post.numReplies);
-        values.put("num_likes", post.numLikes);
-        values.put("is_liked", post.isLikedByCurrentUser);
-        values.put("is_followed", post.isFollowedByCurrentUser);
-        values.put("is_comments_open", post.isCommentsOpen);
-        values.put("use_excerpt", post.useExcerpt);
-        ReaderDatabase.getWritableDb().update(
-                "tbl_posts", values, "pseudo_id=?", new String[]{post.getPseudoId()});
-
+        // post content is stored once regardless of how many streams the post appears in, so
+        // replacing it here updates it across all streams
         ReaderPostList posts = new ReaderPostList();
         posts.add(post);
         addOrUpdatePosts(null, posts);
@@ -319,7 +491,8 @@ public class ReaderPostTable {
     }
 
     public static ReaderPost getBlogPost(long blogId, long postId, boolean excludeTextColumn) {
-        return getPost("blog_id=? AND post_id=?", new String[]{Long.toString(blogId), Long.toString(postId)},
+        return getPost("tbl_posts.blog_id=? AND tbl_posts.post_id=?",
+                       new String[]{Long.toString(blogId), Long.toString(postId)},
                        excludeTextColumn);
     }
 
@@ -329,13 +502,14 @@ public class ReaderPostTable {
     }
 
     public static ReaderPost getFeedPost(long feedId, long feedItemId, boolean excludeTextColumn) {
-        return getPost("feed_id=? AND feed_item_id=?", new String[]{Long.toString(feedId), Long.toString(feedItemId)},
+        return getPost("tbl_posts.feed_id=? AND feed_item_id=?",
+                       new String[]{Long.toString(feedId), Long.toString(feedItemId)},
                        excludeTextColumn);
     }
 
     private static ReaderPost getPost(String where, String[] args, boolean excludeTextColumn) {
-        String columns = (excludeTextColumn ? COLUMN_NAMES_NO_TEXT : "*");
-        String sql = "SELECT " + columns + " FROM tbl_posts WHERE " + where + " LIMIT 1";
+        String columns = (excludeTextColumn ? COLUMN_NAMES_JOINED_NO_TEXT : COLUMN_NAMES_JOINED);
+        String sql = "SELECT " + columns + FROM_POSTS_LEFT_JOIN_TAGS + " WHERE " + where + " LIMIT 1";
 
         Cursor c = ReaderDatabase.getReadableDb().rawQuery(sql, args);
         try {
@@ -376,37 +550,96 @@ public class ReaderPostTable {
                                      args);
     }
 
+    // columns compared by ReaderPost.isSamePost(), which compares the text - leaving it out would report every
+    // post with content as changed
+    private static final String COLUMN_NAMES_FOR_DIFF =
+            "blog_id, post_id, feed_id, feed_item_id, num_likes, num_replies, is_followed, is_liked,"
+            + " is_comments_open, use_excerpt, title, excerpt, text";
+
+    // keeps the number of bound args well below SQLite's limit of 999
+    private static final int MAX_POSTS_PER_DIFF_QUERY = 500;
+
     /*
-     * returns whether any of the passed posts are new or changed - used after posts are retrieved
+     * compares the passed posts (usually retrieved from the server) with the existing posts and
+     * returns which are new, which have changed, and which already exist - this is done with a
+     * single query per batch of posts rather than looking up each post separately
      */
-    public static ReaderActions.UpdateResult comparePosts(ReaderPostList posts) {
+    public static ReaderPostDiff getPostDiff(ReaderPostList posts) {
+        return getPostDiff(ReaderDatabase.getReadableDb(), posts);
+    }
+
+    @VisibleForTesting
+    static ReaderPostDiff getPostDiff(SQLiteDatabase db, ReaderPostList posts) {
+        ReaderPostDiff diff = new ReaderPostDiff();
         if (posts == null || posts.size() == 0) {
-            return ReaderActions.UpdateResult.UNCHANGED;
+            return diff;
+        }
+
+        Map<ReaderBlogIdPostId, ReaderPost> existingPosts = new HashMap<>();
+        for (int start = 0; start < posts.size(); start += MAX_POSTS_PER_DIFF_QUERY) {
+            int end = Math.min(start + MAX_POSTS_PER_DIFF_QUERY, posts.size());
+            existingPosts.putAll(getPostsForDiff(db, posts.subList(start, end)));
         }
 
-        boolean hasChanges = false;
         for (ReaderPost post : posts) {
-            ReaderPost existingPost = getBlogPost(post.blogId, post.postId, true);
+            ReaderBlogIdPostId ids = new ReaderBlogIdPostId(post.blogId, post.postId);
+            ReaderPost existingPost = existingPosts.get(ids);
             if (existingPost == null) {
-                return ReaderActions.UpdateResult.HAS_NEW;
-            } else if (!hasChanges && !post.isSamePost(existingPost)) {
-                hasChanges = true;
+                diff.addNewPost(ids);
+            } else {
+                diff.addExistingPost(ids, !post.isSamePost(existingPost));
             }
         }
 
-        return (hasChanges ? ReaderActions.UpdateResult.CHANGED : ReaderActions.UpdateResult.UNCHANGED);
+        return diff;
     }
 
     /*
-     * returns true if any posts in the passed list exist in this list
+     * returns the existing posts matching the passed ones, keyed on blogId/postId - the query
+     * matches on post_id only (row values aren't supported by the SQLite versions we target),
+     * so rows whose blog_id doesn't match are skipped when reading the cursor
      */
-    public static boolean hasOverlap(ReaderPostList posts) {
-        for (ReaderPost post : posts) {
-            if (postExists(post.blogId, post.postId)) {
-                return true;
+    private static Map<ReaderBlogIdPostId, ReaderPost> getPostsForDiff(@NonNull SQLiteDatabase db,
+                                                                       @NonNull List<ReaderPost> posts) {
+        Set<ReaderBlogIdPostId> wantedIds = new HashSet<>();
+        String[] args = new String[posts.size()];
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < posts.size(); i++) {
+            ReaderPost post = posts.get(i);
+            wantedIds.add(new ReaderBlogIdPostId(post.blogId, post.postId));
+            args[i] = Long.toString(post.postId);
+            placeholders.append(i == 0 ? "?" : ",?");
+        }
+
+        String sql = "SELECT " + COLUMN_NAMES_FOR_DIFF + " FROM tbl_posts WHERE post_id IN (" + placeholders + ")";
+        Map<ReaderBlogIdPostId, ReaderPost> existingPosts = new HashMap<>();
+        Cursor c = db.rawQuery(sql, args);
+        try {
+            while (c.moveToNext()) {
+                ReaderBlogIdPostId ids = new ReaderBlogIdPostId(c.getLong(0), c.getLong(1));
+                if (!wantedIds.contains(ids)) {
+                    continue;
+                }
+                ReaderPost post = new ReaderPost();
+                post.blogId = c.getLong(0);
+                post.postId = c.getLong(1);
+                post.feedId = c.getLong(2);
+                post.feedItemId = c.getLong(3);
+                post.numLikes = c.getInt(4);
+                post.numReplies = c.getInt(5);
+                post.isFollowedByCurrentUser = SqlUtils.sqlToBool(c.getInt(6));
+                post.isLikedByCurrentUser = SqlUtils.sqlToBool(c.getInt(7));
+                post.isCommentsOpen = SqlUtils.sqlToBool(c.getInt(8));
+                post.useExcerpt = SqlUtils.sqlToBool(c.getInt(9));
+                post.setTitle(c.getString(10));
+                post.setExcerpt(c.getString(11));
+                post.setText(c.getString(12));
+                existingPosts.put(ids, post);
             }
+            return existingPosts;
+        } finally {
+            SqlUtils.closeCursor(c);
         }
-        return false;
     }
 
     /*
@@ -482,6 +715,7 @@ public class ReaderPostTable {
         values.put("is_bookmarked", SqlUtils.boolToSql(bookmark));
 
         update(blogId, postId, values);
+        invalidateBookmarkedPostIds();
     }
 
     public static boolean hasBookmarkedPosts() {
@@ -515,10 +749,14 @@ public class ReaderPostTable {
         }
 
         String[] args = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt())};
-        return ReaderDatabase.getWritableDb().delete(
-                "tbl_posts",
+        int numDeleted = ReaderDatabase.getWritableDb().delete(
+                "tbl_post_tags",
                 "tag_name=? AND tag_type=?",
                 args);
+        if (tag.isBookmarked()) {
+            invalidateBookmarkedPostIds();
+        }
+        return numDeleted;
     }
 
     public static int removeTagsFromPost(long blogId, long postId, final ReaderTagType tagType) {
@@ -527,20 +765,43 @@ public class ReaderPostTable {
         }
 
         String[] args = {Integer.toString(tagType.toInt()), Long.toString(blogId), Long.toString(postId)};
-        return ReaderDatabase.getWritableDb().delete(
-                "tbl_posts",
+        int numDeleted = ReaderDatabase.getWritableDb().delete(
+                "tbl_post_tags",
                 "tag_type=? AND blog_id=? AND post_id=?",
                 args);
+        if (tagType == ReaderTagType.BOOKMARKED) {
+            invalidateBookmarkedPostIds();
+        }
+        return numDeleted;
     }
 
     public static int deletePostsInBlog(long blogId) {
         String[] args = {Long.toString(blogId)};
-        return ReaderDatabase.getWritableDb().delete("tbl_posts", "blog_id = ?", args);
+        SQLiteDatabase db = ReaderDatabase.getWritableDb();
+        db.beginTransaction();
+        try {
+            db.delete("tbl_post_tags", "blog_id = ?", args);
+            int numDeleted = db.delete("tbl_posts", "blog_id = ?", args);
+            db.setTransactionSuccessful();
+            return numDeleted;
+        } finally {
+            db.endTransaction();
+            invalidateBookmarkedPostIds();
+        }
     }
 
     public static void deletePost(long blogId, long postId) {
         String[] args = new String[]{Long.toString(blogId), Long.toString(postId)};
-        ReaderDatabase.getWritableDb().delete("tbl_posts", "blog_id=? AND post_id=?", args);
+        SQLiteDatabase db = ReaderDatabase.getWritableDb();
+        db.beginTransaction();
+        try {
+            db.delete("tbl_post_tags", "blog_id=? AND post_id=?", args);
+            db.delete("tbl_posts", "blog_id=? AND post_id=?", args);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            invalidateBookmarkedPostIds();
+        }
     }
 
     /*
@@ -573,7 +834,7 @@ public class ReaderPostTable {
 
         // date field depends on the tag
         String dateColumn = getSortColumnForTag(tag);
-        String sql = "SELECT " + dateColumn + " FROM tbl_posts"
+        String sql = "SELECT " + dateColumn + FROM_POSTS_JOIN_TAGS
                      + " WHERE tag_name=? AND tag_type=?"
                      + " ORDER BY " + dateColumn + " LIMIT 1";
         String[] args = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt())};
@@ -584,15 +845,15 @@ public class ReaderPostTable {
      * returns the iso8601 pub date of the oldest post in the passed blog
      */
     public static String getOldestPubDateInBlog(long blogId) {
-        String sql = "SELECT date_published FROM tbl_posts"
-                     + " WHERE blog_id=? AND tag_name=''"
+        String sql = "SELECT date_published" + FROM_POSTS_JOIN_TAGS
+                     + " WHERE tbl_post_tags.blog_id=? AND tag_name=''"
                      + " ORDER BY date_published LIMIT 1";
         return SqlUtils.stringForQuery(ReaderDatabase.getReadableDb(), sql, new String[]{Long.toString(blogId)});
     }
 
     public static String getOldestPubDateInFeed(long feedId) {
-        String sql = "SELECT date_published FROM tbl_posts"
-                     + " WHERE feed_id=? AND tag_name=''"
+        String sql = "SELECT date_published" + FROM_POSTS_JOIN_TAGS
+                     + " WHERE tbl_post_tags.feed_id=? AND tag_name=''"
                      + " ORDER BY date_published LIMIT 1";
         return SqlUtils.stringForQuery(ReaderDatabase.getReadableDb(), sql, new String[]{Long.toString(feedId)});
     }
@@ -603,7 +864,8 @@ public class ReaderPostTable {
         }
 
         String[] args = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt())};
-        String sql = "UPDATE tbl_posts SET has_gap_marker=0 WHERE has_gap_marker!=0 AND tag_name=? AND tag_type=?";
+        String sql =
+                "UPDATE tbl_post_tags SET has_gap_marker=0 WHERE has_gap_marker!=0 AND tag_name=? AND tag_type=?";
         ReaderDatabase.getWritableDb().execSQL(sql, args);
     }
 
@@ -616,7 +878,8 @@ public class ReaderPostTable {
         }
 
         String[] args = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt())};
-        String sql = "SELECT blog_id, post_id FROM tbl_posts WHERE has_gap_marker!=0 AND tag_name=? AND tag_type=?";
+        String sql =
+                "SELECT blog_id, post_id FROM tbl_post_tags WHERE has_gap_marker!=0 AND tag_name=? AND tag_type=?";
         Cursor cursor = ReaderDatabase.getReadableDb().rawQuery(sql, args);
         try {
             if (cursor.moveToFirst()) {
@@ -643,7 +906,7 @@ public class ReaderPostTable {
                 Integer.toString(tag.tagType.toInt())
         };
         String sql =
-                "UPDATE tbl_posts SET has_gap_marker=1 WHERE blog_id=? AND post_id=? AND tag_name=? AND tag_type=?";
+                "UPDATE tbl_post_tags SET has_gap_marker=1 WHERE blog_id=? AND post_id=? AND tag_name=? AND tag_type=?";
         ReaderDatabase.getWritableDb().execSQL(sql, args);
     }
 
@@ -654,8 +917,14 @@ public class ReaderPostTable {
         }
 
         String dateColumn = getSortColumnForTag(tag);
-        String[] args = {Long.toString(ids.getBlogId()), Long.toString(ids.getPostId())};
-        String sql = "SELECT " + dateColumn + " FROM tbl_posts WHERE blog_id=? AND post_id=?";
+        String[] args = {
+                Long.toString(ids.getBlogId()),
+                Long.toString(ids.getPostId()),
+                tag.getTagSlug(),
+                Integer.toString(tag.tagType.toInt())
+        };
+        String sql = "SELECT " + dateColumn + FROM_POSTS_JOIN_TAGS
+                     + " WHERE tbl_post_tags.blog_id=? AND tbl_post_tags.post_id=? AND tag_name=? AND tag_type=?";
         return SqlUtils.stringForQuery(ReaderDatabase.getReadableDb(), sql, args);
     }
 
@@ -693,11 +962,17 @@ public class ReaderPostTable {
         }
 
         String dateColumn = getSortColumnForTag(tag);
-        String[] args = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt()), gapMarkerDate};
-        String where = "tag_name=? AND tag_type=? AND " + dateColumn + " < ?";
-        int numDeleted = ReaderDatabase.getWritableDb().delete("tbl_posts", where, args);
+        String tagName = tag.getTagSlug();
+        String tagType = Integer.toString(tag.tagType.toInt());
+        String[] args = {tagName, tagType, tagName, tagType, gapMarkerDate};
+        String where = "tag_name=? AND tag_type=? AND pseudo_id IN (SELECT tbl_post_tags.pseudo_id"
+                       + FROM_POSTS_JOIN_TAGS + " WHERE tag_name=? AND tag_type=? AND " + dateColumn + " < ?)";
+        int numDeleted = ReaderDatabase.getWritableDb().delete("tbl_post_tags", where, args);
         if (numDeleted > 0) {
             AppLog.d(AppLog.T.READER, "removed " + numDeleted + " posts older than gap marker");
+            if (tag.isBookmarked()) {
+                invalidateBookmarkedPostIds();
+            }
         }
     }
 
@@ -731,10 +1006,10 @@ public class ReaderPostTable {
             // if blog/feed is no longer followed, remove its posts tagged with "Followed Sites"
             if (!isFollowed) {
                 if (blogId != 0) {
-                    db.delete("tbl_posts", "blog_id=? AND tag_name=?",
+                    db.delete("tbl_post_tags", "blog_id=? AND tag_name=?",
                               new String[]{Long.toString(blogId), ReaderTag.TAG_TITLE_FOLLOWED_SITES});
                 } else {
-                    db.delete("tbl_posts", "feed_id=? AND tag_name=?",
+                    db.delete("tbl_post_tags", "feed_id=? AND tag_name=?",
                               new String[]{Long.toString(feedId), ReaderTag.TAG_TITLE_FOLLOWED_SITES});
                 }
             }
@@ -785,7 +1060,11 @@ public class ReaderPostTable {
                 "INSERT OR REPLACE INTO tbl_posts ("
                 + COLUMN_NAMES
                 + ") VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10,?11,?12,?13,?14,?15,?16,?17,?18,?19,?20,?21,?22,?23,?24,"
-                + "?25,?26,?27,?28,?29,?30,?31,?32,?33,?34,?35,?36,?37,?38,?39,?40,?41,?42,?43,?44, ?45, ?46)");
+                + "?25,?26,?27,?28,?29,?30,?31,?32,?33,?34,?35,?36,?37,?38,?39)");
+        SQLiteStatement stmtTags = db.compileStatement(
+                "INSERT OR REPLACE INTO tbl_post_tags ("
+                + TAG_COLUMN_NAMES
+                + ") VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10,?11)");
 
         db.beginTransaction();
         try {
@@ -818,39 +1097,49 @@ public class ReaderPostTable {
                 stmtPosts.bindString(18, post.getFeaturedImage());
                 stmtPosts.bindString(19, post.getFeaturedVideo());
                 stmtPosts.bindString(20, post.getPostAvatar());
-                stmtPosts.bindDouble(21, post.score);
-                stmtPosts.bindString(22, post.getDatePublished());
-                stmtPosts.bindString(23, post.getDateLiked());
-                stmtPosts.bindString(24, post.getDateTagged());
-                stmtPosts.bindLong(25, post.numReplies);
-                stmtPosts.bindLong(26, post.numLikes);
-                stmtPosts.bindLong(27, SqlUtils.boolToSql(post.isLikedByCurrentUser));
-                stmtPosts.bindLong(28, SqlUtils.boolToSql(post.isFollowedByCurrentUser));
-                stmtPosts.bindLong(29, SqlUtils.boolToSql(post.isCommentsOpen));
-                stmtPosts.bindLong(30, SqlUtils.boolToSql(post.isExternal));
-                stmtPosts.bindLong(31, SqlUtils.boolToSql(post.isPrivate));
-                stmtPosts.bindLong(32, SqlUtils.boolToSql(post.isVideoPress));
-                stmtPosts.bindLong(33, SqlUtils.boolToSql(post.isJetpack));
-                stmtPosts.bindString(34, post.getPrimaryTag());
-                stmtPosts.bindString(35, post.getSecondaryTag());
-                stmtPosts.bindString(36, post.getAttachmentsJson());
-                stmtPosts.bindString(37, post.getDiscoverJson());
-                stmtPosts.bindLong(38, post.xpostPostId);
-                stmtPosts.bindLong(39, post.xpostBlogId);
-                stmtPosts.bindString(40, post.getRailcarJson());
-                stmtPosts.bindString(41, tagName);
-                stmtPosts.bindLong(42, tagType);
-                stmtPosts.bindLong(43, SqlUtils.boolToSql(hasGapMarker));
-                stmtPosts.bindString(44, ReaderCardType.toString(post.getCardType()));
-                stmtPosts.bindLong(45, SqlUtils.boolToSql(post.useExcerpt));
-                stmtPosts.bindLong(46, SqlUtils.boolToSql(post.isBookmarked));
+                stmtPosts.bindString(21, post.getDatePublished());
+                stmtPosts.bindLong(22, post.numReplies);
+                stmtPosts.bindLong(23, post.numLikes);
+                stmtPosts.bindLong(24, SqlUtils.boolToSql(post.isLikedByCurrentUser));
+                stmtPosts.bindLong(25, SqlUtils.boolToSql(post.isFollowedByCurrentUser));
+                stmtPosts.bindLong(26, SqlUtils.boolToSql(post.isCommentsOpen));
+                stmtPosts.bindLong(27, SqlUtils.boolToSql(post.isExternal));
+                stmtPosts.bindLong(28, SqlUtils.boolToSql(post.isPrivate));
+                stmtPosts.bindLong(29, SqlUtils.boolToSql(post.isVideoPress));
+                stmtPosts.bindLong(30, SqlUtils.boolToSql(post.isJetpack));
+                stmtPosts.bindString(31, post.getPrimaryTag());
+                stmtPosts.bindString(32, post.getSecondaryTag());
+                stmtPosts.bindString(33, post.getAttachmentsJson());
+                stmtPosts.bindString(34, post.getDiscoverJson());
+                stmtPosts.bindLong(35, post.xpostPostId);
+                stmtPosts.bindLong(36, post.xpostBlogId);
+                stmtPosts.bindString(37, ReaderCardType.toString(post.getCardType()));
+                stmtPosts.bindLong(38, SqlUtils.boolToSql(post.useExcerpt));
+                stmtPosts.bindLong(39, SqlUtils.boolToSql(post.isBookmarked));
                 stmtPosts.execute();
+
+                stmtTags.bindString(1, post.getPseudoId());
+                stmtTags.bindLong(2, post.blogId);
+                stmtTags.bindLong(3, post.postId);
+                stmtTags.bindLong(4, post.feedId);
+                stmtTags.bindString(5, tagName);
+                stmtTags.bindLong(6, tagType);
+                stmtTags.bindLong(7, SqlUtils.boolToSql(hasGapMarker));
+                stmtTags.bindDouble(8, post.score);
+                stmtTags.bindString(9, post.getDateLiked());
+                stmtTags.bindString(10, post.getDateTagged());
+                stmtTags.bindString(11, post.getRailcarJson());
+                stmtTags.execute();
             }
 
             db.setTransactionSuccessful();
         } finally {
             db.endTransaction();
             SqlUtils.closeStatement(stmtPosts);
+            SqlUtils.closeStatement(stmtTags);
+            if (tag != null && tag.isBookmarked()) {
+                invalidateBookmarkedPostIds();
+            }
         }
     }
 
@@ -859,8 +1148,8 @@ public class ReaderPostTable {
             return new ReaderPostList();
         }
 
-        String columns = (excludeTextColumn ? COLUMN_NAMES_NO_TEXT : "*");
-        String sql = "SELECT " + columns + " FROM tbl_posts WHERE tag_name=? AND tag_type=?";
+        String columns = (excludeTextColumn ? COLUMN_NAMES_JOINED_NO_TEXT : COLUMN_NAMES_JOINED);
+        String sql = "SELECT " + columns + FROM_POSTS_JOIN_TAGS + " WHERE tag_name=? AND tag_type=?";
 
         if (tag.tagType == ReaderTagType.DEFAULT) {
             // skip posts that are no longer liked if this is "Posts I Like", skip posts that are no
@@ -888,9 +1177,9 @@ public class ReaderPostTable {
     }
 
     public static ReaderPostList getPostsInBlog(long blogId, int maxPosts, boolean excludeTextColumn) {
-        String columns = (excludeTextColumn ? COLUMN_NAMES_NO_TEXT : "*");
-        String sql =
-                "SELECT " + columns + " FROM tbl_posts WHERE blog_id=? AND tag_name='' ORDER BY date_published DESC";
+        String columns = (excludeTextColumn ? COLUMN_NAMES_JOINED_NO_TEXT : COLUMN_NAMES_JOINED);
+        String sql = "SELECT " + columns + FROM_POSTS_JOIN_TAGS
+                     + " WHERE tbl_post_tags.blog_id=? AND tag_name='' ORDER BY date_published DESC";
 
         if (maxPosts > 0) {
             sql += " LIMIT " + Integer.toString(maxPosts);
@@ -905,9 +1194,9 @@ public class ReaderPostTable {
     }
 
     public static ReaderPostList getPostsInFeed(long feedId, int maxPosts, boolean excludeTextColumn) {
-        String columns = (excludeTextColumn ? COLUMN_NAMES_NO_TEXT : "*");
-        String sql =
-                "SELECT " + columns + " FROM tbl_posts WHERE feed_id=? AND tag_name='' ORDER BY date_published DESC";
+        String columns = (excludeTextColumn ? COLUMN_NAMES_JOINED_NO_TEXT : COLUMN_NAMES_JOINED);
+        String sql = "SELECT " + columns + FROM_POSTS_JOIN_TAGS
+                     + " WHERE tbl_post_tags.feed_id=? AND tag_name='' ORDER BY date_published DESC";
 
         if (maxPosts > 0) {
             sql += " LIMIT " + Integer.toString(maxPosts);
@@ -929,7 +1218,8 @@ public class ReaderPostTable {
             return new ReaderBlogIdPostIdList();
         }
 
-        String sql = "SELECT blog_id, post_id FROM tbl_posts WHERE tag_name=? AND tag_type=?";
+        String sql = "SELECT tbl_post_tags.blog_id, tbl_post_tags.post_id" + FROM_POSTS_JOIN_TAGS
+                     + " WHERE tag_name=? AND tag_type=?";
 
         if (tag.tagType == ReaderTagType.DEFAULT) {
             if (tag.isPostsILike()) {
@@ -949,21 +1239,6 @@ public class ReaderPostTable {
         return getBlogIdPostIds(sql, args);
     }
 
-    private static ReaderBlogIdPostIdList getBlogIdPostIdsWithTagType(ReaderTagType tagType, int maxPosts) {
-        if (tagType == null) {
-            return new ReaderBlogIdPostIdList();
-        }
-
-        String sql = "SELECT blog_id, post_id FROM tbl_posts WHERE tag_type=?";
-
-        if (maxPosts > 0) {
-            sql += " LIMIT " + Integer.toString(maxPosts);
-        }
-
-        String[] args = {Integer.toString(tagType.toInt())};
-        return getBlogIdPostIds(sql, args);
-    }
-
     private static ReaderBlogIdPostIdList getBlogIdPostIds(@NonNull String sql, @NonNull String[] args) {
         ReaderBlogIdPostIdList idList = new ReaderBlogIdPostIdList();
         Cursor cursor = ReaderDatabase.getReadableDb().rawQuery(sql, args);
@@ -983,7 +1258,8 @@ public class ReaderPostTable {
      * same as getPostsInBlog() but only returns the blogId/postId pairs
      */
     public static ReaderBlogIdPostIdList getBlogIdPostIdsInBlog(long blogId, int maxPosts) {
-        String sql = "SELECT post_id FROM tbl_posts WHERE blog_id=? AND tag_name='' ORDER BY date_published DESC";
+        String sql = "SELECT tbl_post_tags.post_id" + FROM_POSTS_JOIN_TAGS
+                     + " WHERE tbl_post_tags.blog_id=? AND tag_name='' ORDER BY date_published DESC";
 
         if (maxPosts > 0) {
             sql += " LIMIT " + Integer.toString(maxPosts);
@@ -1008,77 +1284,17 @@ public class ReaderPostTable {
         if (c == null) {
             throw new IllegalArgumentException("getPostFromCursor > null cursor");
         }
-
-        ReaderPost post = new ReaderPost();
-
-        // text column is skipped when retrieving multiple rows
-        int idxText = c.getColumnIndex("text");
-        if (idxText > -1) {
-            post.setText(c.getString(idxText));
-        }
-
-        post.postId = c.getLong(c.getColumnIndex("post_id"));
-        post.blogId = c.getLong(c.getColumnIndex("blog_id"));
-        post.feedId = c.getLong(c.getColumnIndex("feed_id"));
-        post.feedItemId = c.getLong(c.getColumnIndex("feed_item_id"));
-        post.authorId = c.getLong(c.getColumnIndex("author_id"));
-        post.setPseudoId(c.getString(c.getColumnIndex("pseudo_id")));
-
-        post.setAuthorName(c.getString(c.getColumnIndex("author_name")));
-        post.setAuthorFirstName(c.getString(c.getColumnIndex("author_first_name")));
-        post.setBlogName(c.getString(c.getColumnIndex("blog_name")));
-        post.setBlogUrl(c.getString(c.getColumnIndex("blog_url")));
-        post.setBlogImageUrl(c.getString(c.getColumnIndex("blog_image_url")));
-        post.setExcerpt(c.getString(c.getColumnIndex("excerpt")));
-        post.setFormat(c.getString(c.getColumnIndex("format")));
-        post.setFeaturedImage(c.getString(c.getColumnIndex("featured_image")));
-        post.setFeaturedVideo(c.getString(c.getColumnIndex("featured_video")));
-
-        post.setTitle(c.getString(c.getColumnIndex("title")));
-        post.setUrl(c.getString(c.getColumnIndex("url")));
-        post.setShortUrl(c.getString(c.getColumnIndex("short_url")));
-        post.setPostAvatar(c.getString(c.getColumnIndex("post_avatar")));
-
-        post.setDatePublished(c.getString(c.getColumnIndex("date_published")));
-        post.setDateLiked(c.getString(c.getColumnIndex("date_liked")));
-        post.setDateTagged(c.getString(c.getColumnIndex("date_tagged")));
-
-        post.score = c.getDouble(c.getColumnIndex("score"));
-        post.numReplies = c.getInt(c.getColumnIndex("num_replies"));
-        post.numLikes = c.getInt(c.getColumnIndex("num_likes"));
-
-        post.isLikedByCurrentUser = SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_liked")));
-        post.isFollowedByCurrentUser = SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_followed")));
-        post.isCommentsOpen = SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_comments_open")));
-        post.isExternal = SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_external")));
-        post.isPrivate = SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_private")));
-        post.isVideoPress = SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_videopress")));
-        post.isJetpack = SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_jetpack")));
-        post.isBookmarked = SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("is_bookmarked")));
-
-        post.setPrimaryTag(c.getString(c.getColumnIndex("primary_tag")));
-        post.setSecondaryTag(c.getString(c.getColumnIndex("secondary_tag")));
-
-        post.setAttachmentsJson(c.getString(c.getColumnIndex("attachments_json")));
-        post.setDiscoverJson(c.getString(c.getColumnIndex("discover_json")));
-
-        post.xpostPostId = c.getLong(c.getColumnIndex("xpost_post_id"));
-        post.xpostBlogId = c.getLong(c.getColumnIndex("xpost_blog_id"));
-
-        post.setRailcarJson(c.getString(c.getColumnIndex("railcar_json")));
-        post.setCardType(ReaderCardType.fromString(c.getString(c.getColumnIndex("card_type"))));
-
-        post.useExcerpt = SqlUtils.sqlToBool(c.getInt(c.getColumnIndex("use_excerpt")));
-
-        return post;
+        return new PostCursorMapper(c).getPost(c);
     }
 
     private static ReaderPostList getPostListFromCursor(Cursor cursor) {
         ReaderPostList posts = new ReaderPostList();
         try {
             if (cursor != null && cursor.moveToFirst()) {
+                // resolve the column indexes once rather than for every row
+                PostCursorMapper mapper = new PostCursorMapper(cursor);
                 do {
-                    posts.add(getPostFromCursor(cursor));
+                    posts.add(mapper.getPost(cursor));
                 } while (cursor.moveToNext());
             }
         } catch (IllegalStateException e) {
@@ -1088,23 +1304,246 @@ public class ReaderPostTable {
         return posts;
     }
 
+    /*
+     * creates posts from the rows in a cursor - Cursor.getColumnIndex() searches the column names
+     * each time it's called, so the indexes are looked up once when the mapper is created and
+     * then reused for every row in the same cursor
+     */
+    private static class PostCursorMapper {
+        private final int mIdxText;
+        private final int mIdxPostId;
+        private final int mIdxBlogId;
+        private final int mIdxFeedId;
+        private final int mIdxFeedItemId;
+        private final int mIdxAuthorId;
+        private final int mIdxPseudoId;
+        private final int mIdxAuthorName;
+        private final int mIdxAuthorFirstName;
+        private final int mIdxBlogName;
+        private final int mIdxBlogUrl;
+        private final int mIdxBlogImageUrl;
+        private final int mIdxExcerpt;
+        private final int mIdxFormat;
+        private final int mIdxFeaturedImage;
+        private final int mIdxFeaturedVideo;
+        private final int mIdxTitle;
+        private final int mIdxUrl;
+        private final int mIdxShortUrl;
+        private final int mIdxPostAvatar;
+        private final int mIdxDatePublished;
+        private final int mIdxDateLiked;
+        private final int mIdxDateTagged;
+        private final int mIdxScore;
+        private final int mIdxNumReplies;
+        private final int mIdxNumLikes;
+        private final int mIdxIsLiked;
+        private final int mIdxIsFollowed;
+        private final int mIdxIsCommentsOpen;
+        private final int mIdxIsExternal;
+        private final int mIdxIsPrivate;
+        private final int mIdxIsVideoPress;
+        private final int mIdxIsJetpack;
+        private final int mIdxIsBookmarked;
+        private final int mIdxPrimaryTag;
+        private final int mIdxSecondaryTag;
+        private final int mIdxAttachmentsJson;
+        private final int mIdxDiscoverJson;
+        private final int mIdxXpostPostId;
+        private final int mIdxXpostBlogId;
+        private final int mIdxRailcarJson;
+        private final int mIdxCardType;
+        private final int mIdxUseExcerpt;
+
+        PostCursorMapper(@NonNull Cursor c) {
+            // text column is skipped when retrieving multiple rows
+            mIdxText = c.getColumnIndex("text");
+
+            mIdxPostId = c.getColumnIndex("post_id");
+            mIdxBlogId = c.getColumnIndex("blog_id");
+            mIdxFeedId = c.getColumnIndex("feed_id");
+            mIdxFeedItemId = c.getColumnIndex("feed_item_id");
+            mIdxAuthorId = c.getColumnIndex("author_id");
+            mIdxPseudoId = c.getColumnIndex("pseudo_id");
+
+            mIdxAuthorName = c.getColumnIndex("author_name");
+            mIdxAuthorFirstName = c.getColumnIndex("author_first_name");
+            mIdxBlogName = c.getColumnIndex("blog_name");
+            mIdxBlogUrl = c.getColumnIndex("blog_url");
+            mIdxBlogImageUrl = c.getColumnIndex("blog_image_url");
+            mIdxExcerpt = c.getColumnIndex("excerpt");
+            mIdxFormat = c.getColumnIndex("format");
+            mIdxFeaturedImage = c.getColumnIndex("featured_image");
+            mIdxFeaturedVideo = c.getColumnIndex("featured_video");
+
+            mIdxTitle = c.getColumnIndex("title");
+            mIdxUrl = c.getColumnIndex("url");
+            mIdxShortUrl = c.getColumnIndex("short_url");
+            mIdxPostAvatar = c.getColumnIndex("post_avatar");
+
+            mIdxDatePublished = c.getColumnIndex("date_published");
+            mIdxDateLiked = c.getColumnIndex("date_liked");
+            mIdxDateTagged = c.getColumnIndex("date_tagged");
+
+            mIdxScore = c.getColumnIndex("score");
+            mIdxNumReplies = c.getColumnIndex("num_replies");
+            mIdxNumLikes = c.getColumnIndex("num_likes");
+
+            mIdxIsLiked = c.getColumnIndex("is_liked");
+            mIdxIsFollowed = c.getColumnIndex("is_followed");
+            mIdxIsCommentsOpen = c.getColumnIndex("is_comments_open");
+            mIdxIsExternal = c.getColumnIndex("is_external");
+            mIdxIsPrivate = c.getColumnIndex("is_private");
+            mIdxIsVideoPress = c.getColumnIndex("is_videopress");
+            mIdxIsJetpack = c.getColumnIndex("is_jetpack");
+            mIdxIsBookmarked = c.getColumnIndex("is_bookmarked");
+
+            mIdxPrimaryTag = c.getColumnIndex("primary_tag");
+            mIdxSecondaryTag = c.getColumnIndex("secondary_tag");
+
+            mIdxAttachmentsJson = c.getColumnIndex("attachments_json");
+            mIdxDiscoverJson = c.getColumnIndex("discover_json");
+
+            mIdxXpostPostId = c.getColumnIndex("xpost_post_id");
+            mIdxXpostBlogId = c.getColumnIndex("xpost_blog_id");
+
+            mIdxRailcarJson = c.getColumnIndex("railcar_json");
+            mIdxCardType = c.getColumnIndex("card_type");
+
+            mIdxUseExcerpt = c.getColumnIndex("use_excerpt");
+        }
+
+        ReaderPost getPost(@NonNull Cursor c) {
+            ReaderPost post = new ReaderPost();
+
+            if (mIdxText > -1) {
+                post.setText(c.getString(mIdxText));
+            }
+
+            post.postId = c.getLong(mIdxPostId);
+            post.blogId = c.getLong(mIdxBlogId);
+            post.feedId = c.getLong(mIdxFeedId);
+            post.feedItemId = c.getLong(mIdxFeedItemId);
+            post.authorId = c.getLong(mIdxAuthorId);
+            post.setPseudoId(c.getString(mIdxPseudoId));
+
+            post.setAuthorName(c.getString(mIdxAuthorName));
+            post.setAuthorFirstName(c.getString(mIdxAuthorFirstName));
+            post.setBlogName(c.getString(mIdxBlogName));
+            post.setBlogUrl(c.getString(mIdxBlogUrl));
+            post.setBlogImageUrl(c.getString(mIdxBlogImageUrl));
+            post.setExcerpt(c.getString(mIdxExcerpt));
+            post.setFormat(c.getString(mIdxFormat));
+            post.setFeaturedImage(c.getString(mIdxFeaturedImage));
+            post.setFeaturedVideo(c.getString(mIdxFeaturedVideo));
+
+            post.setTitle(c.getString(mIdxTitle));
+            post.setUrl(c.getString(mIdxUrl));
+            post.setShortUrl(c.getString(mIdxShortUrl));
+            post.setPostAvatar(c.getString(mIdxPostAvatar));
+
+            post.setDatePublished(c.getString(mIdxDatePublished));
+            post.setDateLiked(c.getString(mIdxDateLiked));
+            post.setDateTagged(c.getString(mIdxDateTagged));
+
+            post.score = c.getDouble(mIdxScore);
+            post.numReplies = c.getInt(mIdxNumReplies);
+            post.numLikes = c.getInt(mIdxNumLikes);
+
+            post.isLikedByCurrentUser = SqlUtils.sqlToBool(c.getInt(mIdxIsLiked));
+            post.isFollowedByCurrentUser = SqlUtils.sqlToBool(c.getInt(mIdxIsFollowed));
+            post.isCommentsOpen = SqlUtils.sqlToBool(c.getInt(mIdxIsCommentsOpen));
+            post.isExternal = SqlUtils.sqlToBool(c.getInt(mIdxIsExternal));
+            post.isPrivate = SqlUtils.sqlToBool(c.getInt(mIdxIsPrivate));
+            post.isVideoPress = SqlUtils.sqlToBool(c.getInt(mIdxIsVideoPress));
+            post.isJetpack = SqlUtils.sqlToBool(c.getInt(mIdxIsJetpack));
+            post.isBookmarked = SqlUtils.sqlToBool(c.getInt(mIdxIsBookmarked));
+
+            post.setPrimaryTag(c.getString(mIdxPrimaryTag));
+            post.setSecondaryTag(c.getString(mIdxSecondaryTag));
+
+            post.setAttachmentsJson(c.getString(mIdxAttachmentsJson));
+            post.setDiscoverJson(c.getString(mIdxDiscoverJson));
+
+            post.xpostPostId = c.getLong(mIdxXpostPostId);
+            post.xpostBlogId = c.getLong(mIdxXpostBlogId);
+
+            post.setRailcarJson(c.getString(mIdxRailcarJson));
+            post.setCardType(ReaderCardType.fromString(c.getString(mIdxCardType)));
+
+            post.useExcerpt = SqlUtils.sqlToBool(c.getInt(mIdxUseExcerpt));
+
+            return post;
+        }
+    }
+
     /**
      * Currently "is_bookmarked" field is not supported by the server, therefore posts from the server have always
-     * is_bookmarked set to false. This method is a workaround which makes sure, that the field is always up to date
-     * and synced across all instances(rows) of each post.
+     * is_bookmarked set to false. This method is a workaround which makes sure the field is set on posts which have
+     * a bookmark tag.
      */
     private static void updateIsBookmarkedField(final ReaderPostList posts) {
-        ReaderBlogIdPostIdList bookmarkedPosts = getBookmarkedPostIds();
+        Set<ReaderBlogIdPostId> bookmarkedPostIds = getBookmarkedPostIds();
+        if (bookmarkedPostIds.isEmpty()) {
+            return;
+        }
         for (ReaderPost post : posts) {
-            for (ReaderBlogIdPostId bookmarkedPostId : bookmarkedPosts) {
-                if (post.blogId == bookmarkedPostId.getBlogId() && post.postId == bookmarkedPostId.getPostId()) {
-                    post.isBookmarked = true;
-                }
+            if (bookmarkedPostIds.contains(new ReaderBlogIdPostId(post.blogId, post.postId))) {
+                post.isBookmarked = true;
+            }
+        }
+    }
+
+    /*
+     * the ids of posts with a bookmark tag are cached in memory so they don't have to be queried every
+     * time posts are added - the cached set is never modified, it's replaced after it's invalidated.
+     * the query runs outside the lock, since invalidation happens inside transactions which hold the
+     * db's only connection - the generation makes sure a set loaded before an invalidation isn't cached.
+     */
+    private static final Object BOOKMARKED_IDS_LOCK = new Object();
+    private static volatile Set<ReaderBlogIdPostId> sBookmarkedPostIds;
+    private static int sBookmarkedPostIdsGeneration;
+
+    private static Set<ReaderBlogIdPostId> getBookmarkedPostIds() {
+        Set<ReaderBlogIdPostId> ids = sBookmarkedPostIds;
+        if (ids != null) {
+            return ids;
+        }
+
+        int generation;
+        synchronized (BOOKMARKED_IDS_LOCK) {
+            generation = sBookmarkedPostIdsGeneration;
+        }
+        ids = loadBookmarkedPostIds();
+        synchronized (BOOKMARKED_IDS_LOCK) {
+            if (generation == sBookmarkedPostIdsGeneration) {
+                sBookmarkedPostIds = ids;
+            }
+        }
+        return ids;
+    }
+
+    private static Set<ReaderBlogIdPostId> loadBookmarkedPostIds() {
+        Set<ReaderBlogIdPostId> ids = new HashSet<>();
+        String[] args = {Integer.toString(ReaderTagType.BOOKMARKED.toInt())};
+        Cursor cursor = ReaderDatabase.getReadableDb().rawQuery(
+                "SELECT blog_id, post_id FROM tbl_post_tags WHERE tag_type=?", args);
+        try {
+            while (cursor.moveToNext()) {
+                ids.add(new ReaderBlogIdPostId(cursor.getLong(0), cursor.getLong(1)));
             }
+            return ids;
+        } finally {
+            SqlUtils.closeCursor(cursor);
         }
     }
 
-    private static ReaderBlogIdPostIdList getBookmarkedPostIds() {
-        return getBlogIdPostIdsWithTagType(ReaderTagType.BOOKMARKED, 99999);
+    /*
+     * must be called whenever posts may have been added to or removed from a bookmark tag
+     */
+    private static void invalidateBookmarkedPostIds() {
+        synchronized (BOOKMARKED_IDS_LOCK) {
+            sBookmarkedPostIdsGeneration++;
+            sBookmarkedPostIds = null;
+        }
     }
 }
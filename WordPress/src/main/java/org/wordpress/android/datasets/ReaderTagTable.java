@@ -4,6 +4,7 @@ import android.database.Cursor;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.NonNull;
 import android.text.TextUtils;
 
 import org.wordpress.android.models.ReaderTag;
@@ -171,14 +172,48 @@ public class ReaderTagTable {
         if (c == null) {
             throw new IllegalArgumentException("null tag cursor");
         }
+        return new TagCursorMapper(c).getTag(c);
+    }
 
-        String tagSlug = c.getString(c.getColumnIndex("tag_slug"));
-        String tagDisplayName = c.getString(c.getColumnIndex("tag_display_name"));
-        String tagTitle = c.getString(c.getColumnIndex("tag_title"));
-        String endpoint = c.getString(c.getColumnIndex("endpoint"));
-        ReaderTagType tagType = ReaderTagType.fromInt(c.getInt(c.getColumnIndex("tag_type")));
+    private static ReaderTagList getTagListFromCursor(@NonNull Cursor c) {
+        ReaderTagList tagList = new ReaderTagList();
+        if (c.moveToFirst()) {
+            TagCursorMapper mapper = new TagCursorMapper(c);
+            do {
+                tagList.add(mapper.getTag(c));
+            } while (c.moveToNext());
+        }
+        return tagList;
+    }
 
-        return new ReaderTag(tagSlug, tagDisplayName, tagTitle, endpoint, tagType);
+    /*
+     * creates tags from the rows in a cursor, looking up the column indexes once per cursor
+     * rather than once per row
+     */
+    private static class TagCursorMapper {
+        private final int mIdxTagSlug;
+        private final int mIdxTagDisplayName;
+        private final int mIdxTagTitle;
+        private final int mIdxEndpoint;
+        private final int mIdxTagType;
+
+        TagCursorMapper(@NonNull Cursor c) {
+            mIdxTagSlug = c.getColumnIndex("tag_slug");
+            mIdxTagDisplayName = c.getColumnIndex("tag_display_name");
+            mIdxTagTitle = c.getColumnIndex("tag_title");
+            mIdxEndpoint = c.getColumnIndex("endpoint");
+            mIdxTagType = c.getColumnIndex("tag_type");
+        }
+
+        ReaderTag getTag(@NonNull Cursor c) {
+            String tagSlug = c.getString(mIdxTagSlug);
+            String tagDisplayName = c.getString(mIdxTagDisplayName);
+            String tagTitle = c.getString(mIdxTagTitle);
+            String endpoint = c.getString(mIdxEndpoint);
+            ReaderTagType tagType = ReaderTagType.fromInt(c.getInt(mIdxTagType));
+
+            return new ReaderTag(tagSlug, tagDisplayName, tagTitle, endpoint, tagType);
+        }
     }
 
     public static ReaderTag getTag(String tagSlug, ReaderTagType tagType) {
@@ -246,28 +281,7 @@ public class ReaderTagTable {
         Cursor c = ReaderDatabase.getReadableDb()
                                  .rawQuery("SELECT * FROM tbl_tags WHERE tag_type=? ORDER BY tag_slug", args);
         try {
-            ReaderTagList tagList = new ReaderTagList();
-            if (c.moveToFirst()) {
-                do {
-                    tagList.add(getTagFromCursor(c));
-                } while (c.moveToNext());
-            }
-            return tagList;
-        } finally {
-            SqlUtils.closeCursor(c);
-        }
-    }
-
-    static ReaderTagList getAllTags() {
-        Cursor c = ReaderDatabase.getReadableDb().rawQuery("SELECT * FROM tbl_tags ORDER BY tag_slug", null);
-        try {
-            ReaderTagList tagList = new ReaderTagList();
-            if (c.moveToFirst()) {
-                do {
-                    tagList.add(getTagFromCursor(c));
-                } while (c.moveToNext());
-            }
-            return tagList;
+            return getTagListFromCursor(c);
         } finally {
             SqlUtils.closeCursor(c);
         }
@@ -367,13 +381,7 @@ public class ReaderTagTable {
             c = ReaderDatabase.getReadableDb().rawQuery("SELECT * FROM tbl_tags_recommended ORDER BY tag_slug", null);
         }
         try {
-            ReaderTagList tagList = new ReaderTagList();
-            if (c.moveToFirst()) {
-                do {
-                    tagList.add(getTagFromCursor(c));
-                } while (c.moveToNext());
-            }
-            return tagList;
+            return getTagListFromCursor(c);
         } finally {
             SqlUtils.closeCursor(c);
         }
@@ -3,6 +3,7 @@ package org.wordpress.android.datasets;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.NonNull;
 
 import org.wordpress.android.models.ReaderUser;
 import org.wordpress.android.models.ReaderUserIdList;
@@ -169,8 +170,9 @@ public class ReaderUserTable {
         try {
             ReaderUserList users = new ReaderUserList();
             if (c.moveToFirst()) {
+                UserCursorMapper mapper = new UserCursorMapper(c);
                 do {
-                    users.add(getUserFromCursor(c));
+                    users.add(mapper.getUser(c));
                 } while (c.moveToNext());
             }
             return users;
@@ -193,8 +195,9 @@ public class ReaderUserTable {
         try {
             ReaderUserList users = new ReaderUserList();
             if (c.moveToFirst()) {
+                UserCursorMapper mapper = new UserCursorMapper(c);
                 do {
-                    users.add(getUserFromCursor(c));
+                    users.add(mapper.getUser(c));
                 } while (c.moveToNext());
             }
             return users;
@@ -204,16 +207,44 @@ public class ReaderUserTable {
     }
 
     private static ReaderUser getUserFromCursor(Cursor c) {
-        ReaderUser user = new ReaderUser();
+        return new UserCursorMapper(c).getUser(c);
+    }
 
-        user.userId = c.getLong(c.getColumnIndex("user_id"));
-        user.blogId = c.getLong(c.getColumnIndex("blog_id"));
-        user.setUserName(c.getString(c.getColumnIndex("user_name")));
-        user.setDisplayName(c.getString(c.getColumnIndex("display_name")));
-        user.setUrl(c.getString(c.getColumnIndex("url")));
-        user.setProfileUrl(c.getString(c.getColumnIndex("profile_url")));
-        user.setAvatarUrl(c.getString(c.getColumnIndex("avatar_url")));
+    /*
+     * creates users from the rows in a cursor, looking up the column indexes once per cursor
+     * rather than once per row
+     */
+    private static class UserCursorMapper {
+        private final int mIdxUserId;
+        private final int mIdxBlogId;
+        private final int mIdxUserName;
+        private final int mIdxDisplayName;
+        private final int mIdxUrl;
+        private final int mIdxProfileUrl;
+        private final int mIdxAvatarUrl;
+
+        UserCursorMapper(@NonNull Cursor c) {
+            mIdxUserId = c.getColumnIndex("user_id");
+            mIdxBlogId = c.getColumnIndex("blog_id");
+            mIdxUserName = c.getColumnIndex("user_name");
+            mIdxDisplayName = c.getColumnIndex("display_name");
+            mIdxUrl = c.getColumnIndex("url");
+            mIdxProfileUrl = c.getColumnIndex("profile_url");
+            mIdxAvatarUrl = c.getColumnIndex("avatar_url");
+        }
 
-        return user;
+        ReaderUser getUser(@NonNull Cursor c) {
+            ReaderUser user = new ReaderUser();
+
+            user.userId = c.getLong(mIdxUserId);
+            user.blogId = c.getLong(mIdxBlogId);
+            user.setUserName(c.getString(mIdxUserName));
+            user.setDisplayName(c.getString(mIdxDisplayName));
+            user.setUrl(c.getString(mIdxUrl));
+            user.setProfileUrl(c.getString(mIdxProfileUrl));
+            user.setAvatarUrl(c.getString(mIdxAvatarUrl));
+
+            return user;
+        }
     }
 }
@@ -52,6 +52,22 @@ public class Note {
     private JSONObject mNoteJSON;
     private final String mKey;
 
+    // notes read from the notes list columns in the db keep their raw JSON until something which
+    // isn't stored in a column is needed, so listing notes doesn't require parsing every one of them
+    private String mRawNoteData;
+    private boolean mHasListColumns;
+    private String mType;
+    private String mHash;
+    private boolean mIsUnread;
+    private boolean mIsComment;
+    private long mTimestamp;
+    private boolean mHasTimestamp;
+    private JSONArray mSubjectArray;
+    private String mSubjectData;
+    private String mIconUrl;
+    private String mNoticon;
+    private CommentStatus mCommentStatus;
+
     private final Object mSyncLock = new Object();
     private String mLocalStatus;
 
@@ -81,8 +97,48 @@ public class Note {
         mKey = mNoteJSON.optString("id", "");
     }
 
+    /*
+     * creates a note from the values stored in the notes list columns - the raw JSON is only parsed
+     * when something other than these values is requested
+     */
+    public Note(String key, String rawNoteData, String type, String hash, boolean isUnread, boolean isComment,
+                long timestamp, String subjectData, String iconUrl, String noticon, CommentStatus commentStatus) {
+        mKey = key;
+        mRawNoteData = rawNoteData;
+        mHasListColumns = true;
+        mType = type;
+        mHash = hash;
+        mIsUnread = isUnread;
+        mIsComment = isComment;
+        mTimestamp = timestamp;
+        mSubjectData = subjectData;
+        mIconUrl = iconUrl;
+        mNoticon = noticon;
+        mCommentStatus = commentStatus;
+    }
+
     public JSONObject getJSON() {
-        return mNoteJSON != null ? mNoteJSON : new JSONObject();
+        synchronized (mSyncLock) {
+            JSONObject noteJSON = getNoteJSON();
+            return noteJSON != null ? noteJSON : new JSONObject();
+        }
+    }
+
+    /*
+     * returns the note's JSON, parsing it first if it hasn't been parsed yet - must be called with
+     * mSyncLock held
+     */
+    private JSONObject getNoteJSON() {
+        if (mNoteJSON == null && mRawNoteData != null) {
+            try {
+                mNoteJSON = new JSONObject(mRawNoteData);
+            } catch (JSONException e) {
+                AppLog.e(AppLog.T.NOTIFS, "Can't parse notification with noteId:" + mKey, e);
+                mNoteJSON = new JSONObject();
+            }
+            mRawNoteData = null;
+        }
+        return mNoteJSON;
     }
 
     public String getId() {
@@ -90,16 +146,33 @@ public class Note {
     }
 
     public String getType() {
+        if (mHasListColumns) {
+            return mType;
+        }
         return queryJSON("type", NOTE_UNKNOWN_TYPE);
     }
 
+    /*
+     * hash of the note's content calculated by the server, which changes whenever the note changes - will be
+     * empty for notes which didn't come from the notifications endpoint (ex: built from a push notification)
+     */
+    public String getHash() {
+        if (mHasListColumns) {
+            return StringUtils.notNullStr(mHash);
+        }
+        return queryJSON("note_hash", "");
+    }
+
     private Boolean isType(String type) {
         return getType().equals(type);
     }
 
     public Boolean isCommentType() {
+        if (mHasListColumns) {
+            return mIsComment;
+        }
         synchronized (mSyncLock) {
-            return (isAutomattcherType() && JSONUtils.queryJSON(mNoteJSON, "meta.ids.comment", -1) != -1)
+            return (isAutomattcherType() && JSONUtils.queryJSON(getNoteJSON(), "meta.ids.comment", -1) != -1)
                    || isType(NOTE_COMMENT_TYPE);
         }
     }
@@ -182,18 +255,37 @@ public class Note {
     }
 
     public JSONObject getSubject() {
-        try {
-            synchronized (mSyncLock) {
-                JSONArray subjectArray = mNoteJSON.getJSONArray("subject");
-                if (subjectArray.length() > 0) {
-                    return subjectArray.getJSONObject(0);
+        JSONArray subjectArray = getSubjectArray();
+        if (subjectArray != null && subjectArray.length() > 0) {
+            return subjectArray.optJSONObject(0);
+        }
+        return null;
+    }
+
+    private JSONArray getSubjectArray() {
+        synchronized (mSyncLock) {
+            if (!mHasListColumns) {
+                return getNoteJSON() != null ? getNoteJSON().optJSONArray("subject") : null;
+            }
+            if (mSubjectArray == null && !TextUtils.isEmpty(mSubjectData)) {
+                try {
+                    mSubjectArray = new JSONArray(mSubjectData);
+                } catch (JSONException e) {
+                    AppLog.e(AppLog.T.NOTIFS, "Can't parse subject of notification with noteId:" + mKey, e);
+                    mSubjectArray = new JSONArray();
                 }
             }
-        } catch (JSONException e) {
-            return null;
+            return mSubjectArray;
         }
+    }
 
-        return null;
+    /*
+     * returns the JSON of the subject array, stored in its own column so the list can show the subject
+     * without parsing the whole note
+     */
+    public String getSubjectData() {
+        JSONArray subjectArray = getSubjectArray();
+        return subjectArray != null ? subjectArray.toString() : "";
     }
 
     public Spannable getFormattedSubject(NotificationsUtilsWrapper notificationsUtilsWrapper) {
@@ -205,12 +297,15 @@ public class Note {
     }
 
     public String getIconURL() {
+        if (mHasListColumns) {
+            return mIconUrl;
+        }
         return queryJSON("icon", "");
     }
 
     public String getCommentSubject() {
+        JSONArray subjectArray = getSubjectArray();
         synchronized (mSyncLock) {
-            JSONArray subjectArray = mNoteJSON.optJSONArray("subject");
             if (subjectArray != null) {
                 String commentSubject = JSONUtils.queryJSON(subjectArray, "subject[1].text", "");
 
@@ -227,7 +322,8 @@ public class Note {
     }
 
     public String getCommentSubjectNoticon() {
-        JSONArray subjectRanges = queryJSON("subject[0].ranges", new JSONArray());
+        JSONObject subject = getSubject();
+        JSONArray subjectRanges = subject != null ? subject.optJSONArray("ranges") : null;
         if (subjectRanges != null) {
             for (int i = 0; i < subjectRanges.length(); i++) {
                 try {
@@ -272,7 +368,9 @@ public class Note {
     public static class TimeStampComparator implements Comparator<Note> {
         @Override
         public int compare(Note a, Note b) {
-            return b.getTimestampString().compareTo(a.getTimestampString());
+            long timestampA = a.getTimestamp();
+            long timestampB = b.getTimestamp();
+            return timestampA < timestampB ? 1 : (timestampA == timestampB ? 0 : -1);
         }
     }
 
@@ -284,14 +382,20 @@ public class Note {
     }
 
     private Boolean isRead() {
+        if (mHasListColumns) {
+            return !mIsUnread;
+        }
         return queryJSON("read", 0) == 1;
     }
 
     public void setRead() {
-        try {
-            mNoteJSON.putOpt("read", 1);
-        } catch (JSONException e) {
-            AppLog.e(AppLog.T.NOTIFS, "Failed to set 'read' property", e);
+        synchronized (mSyncLock) {
+            mIsUnread = false;
+            try {
+                getNoteJSON().putOpt("read", 1);
+            } catch (JSONException e) {
+                AppLog.e(AppLog.T.NOTIFS, "Failed to set 'read' property", e);
+            }
         }
     }
 
@@ -299,7 +403,12 @@ public class Note {
      * Get the timestamp provided by the API for the note
      */
     public long getTimestamp() {
-        return DateTimeUtils.timestampFromIso8601(getTimestampString());
+        if (!mHasListColumns && !mHasTimestamp) {
+            // parsed once, since sorting notes asks for it repeatedly
+            mTimestamp = DateTimeUtils.timestampFromIso8601(getTimestampString());
+            mHasTimestamp = true;
+        }
+        return mTimestamp;
     }
 
     public String getTimestampString() {
@@ -309,7 +418,7 @@ public class Note {
     public JSONArray getBody() {
         try {
             synchronized (mSyncLock) {
-                return mNoteJSON.getJSONArray("body");
+                return getNoteJSON().getJSONArray("body");
             }
         } catch (JSONException e) {
             return new JSONArray();
@@ -318,6 +427,9 @@ public class Note {
 
     // returns character code for notification font
     public String getNoticonCharacter() {
+        if (mHasListColumns) {
+            return mNoticon;
+        }
         return queryJSON("noticon", "");
     }
 
@@ -397,10 +509,10 @@ public class Note {
      */
     private <U> U queryJSON(String query, U defaultObject) {
         synchronized (mSyncLock) {
-            if (mNoteJSON == null) {
+            if (getNoteJSON() == null) {
                 return defaultObject;
             }
-            return JSONUtils.queryJSON(mNoteJSON, query, defaultObject);
+            return JSONUtils.queryJSON(getNoteJSON(), query, defaultObject);
         }
     }
 
@@ -462,6 +574,9 @@ public class Note {
     }
 
     public CommentStatus getCommentStatus() {
+        if (mHasListColumns) {
+            return mCommentStatus;
+        }
         EnumSet<EnabledActions> enabledActions = getEnabledActions();
 
         if (enabledActions.contains(EnabledActions.ACTION_UNAPPROVE)) {
@@ -484,7 +599,7 @@ public class Note {
 
     public JSONArray getHeader() {
         synchronized (mSyncLock) {
-            return mNoteJSON.optJSONArray("header");
+            return getNoteJSON().optJSONArray("header");
         }
     }
 
@@ -0,0 +1,29 @@
+package org.wordpress.android.models;
+
+/*
+ * the tabs of the notifications list - each is a query on the indexed columns of NotificationsTable
+ */
+public enum NotesListFilter {
+    FILTER_ALL,
+    FILTER_COMMENT,
+    FILTER_FOLLOW,
+    FILTER_LIKE,
+    FILTER_UNREAD;
+
+    public String toString() {
+        switch (this) {
+            case FILTER_ALL:
+                return "all";
+            case FILTER_COMMENT:
+                return "comment";
+            case FILTER_FOLLOW:
+                return "follow";
+            case FILTER_LIKE:
+                return "like";
+            case FILTER_UNREAD:
+                return "unread";
+            default:
+                return "all";
+        }
+    }
+}
@@ -1,12 +1,30 @@
 package org.wordpress.android.models;
 
+import android.util.JsonReader;
+import android.util.JsonToken;
+
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
+import org.wordpress.android.networking.ParsedRestRequest.ResponseParser;
 import org.wordpress.android.ui.reader.models.ReaderBlogIdPostId;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 
 public class ReaderPostList extends ArrayList<ReaderPost> {
+    /*
+     * used with RestClientUtils.getParsed() to parse post list responses token by token, without building a
+     * JSONObject of the whole response first
+     */
+    public static final ResponseParser<ReaderPostList> RESPONSE_PARSER = new ResponseParser<ReaderPostList>() {
+        @Override
+        public ReaderPostList parse(Reader reader) throws IOException {
+            return fromJson(reader);
+        }
+    };
+
     public static ReaderPostList fromJson(JSONObject json) {
         if (json == null) {
             throw new IllegalArgumentException("null json post list");
@@ -23,6 +41,85 @@ public class ReaderPostList extends ArrayList<ReaderPost> {
         return posts;
     }
 
+    /*
+     * parses the "posts" array from the passed response stream one post at a time, so only a single
+     * post's json is in memory at once rather than the json for the entire response - the other
+     * top-level fields are skipped
+     */
+    public static ReaderPostList fromJson(Reader responseReader) throws IOException {
+        ReaderPostList posts = new ReaderPostList();
+        JsonReader reader = new JsonReader(responseReader);
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("posts") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        posts.add(ReaderPost.fromJson(readJsonObject(reader)));
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (JSONException e) {
+            throw new IOException(e);
+        } finally {
+            reader.close();
+        }
+
+        return posts;
+    }
+
+    private static JSONObject readJsonObject(JsonReader reader) throws IOException, JSONException {
+        JSONObject json = new JSONObject();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            json.put(name, readJsonValue(reader));
+        }
+        reader.endObject();
+        return json;
+    }
+
+    private static JSONArray readJsonArray(JsonReader reader) throws IOException, JSONException {
+        JSONArray json = new JSONArray();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            json.put(readJsonValue(reader));
+        }
+        reader.endArray();
+        return json;
+    }
+
+    /*
+     * returns the next value as the same type org.json would have used for it
+     */
+    private static Object readJsonValue(JsonReader reader) throws IOException, JSONException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                return readJsonObject(reader);
+            case BEGIN_ARRAY:
+                return readJsonArray(reader);
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NUMBER:
+                String number = reader.nextString();
+                try {
+                    return Long.parseLong(number);
+                } catch (NumberFormatException e) {
+                    return Double.parseDouble(number);
+                }
+            case NULL:
+                reader.nextNull();
+                return JSONObject.NULL;
+            case STRING:
+            default:
+                return reader.nextString();
+        }
+    }
+
     @Override
     public Object clone() {
         return super.clone();
@@ -1,27 +1,33 @@
 package org.wordpress.android.modules
 
 import android.content.Context
-import com.android.volley.RequestQueue
 import com.bumptech.glide.Glide
 import com.bumptech.glide.GlideBuilder
 import com.bumptech.glide.Registry
 import com.bumptech.glide.annotation.GlideModule
-import com.bumptech.glide.integration.volley.VolleyUrlLoader
 import com.bumptech.glide.load.model.GlideUrl
 import com.bumptech.glide.module.AppGlideModule
+import okhttp3.ConnectionPool
+import okhttp3.OkHttpClient
 import org.wordpress.android.WordPress
 import org.wordpress.android.networking.GlideRequestFactory
+import org.wordpress.android.networking.GlideUrlLoader
 import java.io.InputStream
+import java.util.concurrent.TimeUnit
 import javax.inject.Inject
 import javax.inject.Named
 
+private const val MAX_IDLE_CONNECTIONS = 5
+private const val KEEP_ALIVE_DURATION_MINUTES = 5L
+
 /**
- * Custom [AppGlideModule] that replaces Glide's default [RequestQueue] with FluxC's and sets custom GlideHeaderLoader
- * which adds support for custom authorization headers.
+ * Custom [AppGlideModule] that replaces Glide's default network stack with [GlideUrlLoader], which streams images
+ * on an OkHttp client of its own - with FluxC's custom SSL support, but a connection pool separate from the one of
+ * the REST requests - and uses [GlideRequestFactory] to add support for custom authorization headers.
  */
 @GlideModule
 class WordPressGlideModule : AppGlideModule() {
-    @Inject @field:Named("custom-ssl") lateinit var requestQueue: RequestQueue
+    @Inject @field:Named("custom-ssl") lateinit var okHttpClientBuilder: OkHttpClient.Builder
     @Inject lateinit var glideRequestFactory: GlideRequestFactory
 
     override fun applyOptions(context: Context, builder: GlideBuilder) {}
@@ -32,7 +38,10 @@ class WordPressGlideModule : AppGlideModule() {
 
     override fun registerComponents(context: Context, glide: Glide, registry: Registry) {
         (context as WordPress).component().inject(this)
+        val client = okHttpClientBuilder
+                .connectionPool(ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_DURATION_MINUTES, TimeUnit.MINUTES))
+                .build()
         registry.replace(GlideUrl::class.java, InputStream::class.java,
-                VolleyUrlLoader.Factory(requestQueue, glideRequestFactory))
+                GlideUrlLoader.Factory(client, glideRequestFactory))
     }
 }
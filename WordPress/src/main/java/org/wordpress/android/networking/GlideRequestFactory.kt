@@ -1,38 +1,35 @@
 package org.wordpress.android.networking
 
 import android.util.Base64
-import com.android.volley.Request
-import com.android.volley.Request.Priority
-import com.bumptech.glide.integration.volley.VolleyRequestFactory
-import com.bumptech.glide.integration.volley.VolleyStreamFetcher
-import com.bumptech.glide.load.data.DataFetcher.DataCallback
+import okhttp3.Request
 import org.wordpress.android.fluxc.network.HTTPAuthManager
 import org.wordpress.android.fluxc.network.UserAgent
 import org.wordpress.android.fluxc.network.rest.wpcom.auth.AccessToken
 import org.wordpress.android.util.UrlUtils
 import org.wordpress.android.util.WPUrlUtils
-import java.io.InputStream
 import javax.inject.Inject
 import javax.inject.Singleton
 
 /**
- * RequestFactory which adds authorization headers to all Glide requests and makes sure requests to WPcom endpoints
- * use https.
+ * Creates the requests of [GlideStreamFetcher], adding authorization headers to all Glide requests and making sure
+ * requests to WPcom endpoints use https.
  */
 @Singleton
 class GlideRequestFactory @Inject constructor(
     private val accessToken: AccessToken,
     private val httpAuthManager: HTTPAuthManager,
     private val userAgent: UserAgent
-) : VolleyRequestFactory {
-    override fun create(
-        url: String,
-        callback: DataCallback<in InputStream>,
-        priority: Priority,
-        headers: Map<String, String>
-    ): Request<ByteArray>? {
+) {
+    /**
+     * @throws IllegalArgumentException if the url isn't a valid http or https url
+     */
+    fun create(url: String, headers: Map<String, String>): Request {
         val httpsUrl: String = convertWPcomUrlToHttps(url)
-        return VolleyStreamFetcher.GlideRequest(httpsUrl, callback, priority, addAuthHeaders(url, headers))
+        val builder = Request.Builder().url(httpsUrl)
+        for ((name, value) in addAuthHeaders(url, headers)) {
+            builder.header(name, value)
+        }
+        return builder.build()
     }
 
     private fun convertWPcomUrlToHttps(url: String): String {
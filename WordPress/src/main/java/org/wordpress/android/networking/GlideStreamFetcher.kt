@@ -0,0 +1,83 @@
+package org.wordpress.android.networking
+
+import com.bumptech.glide.Priority
+import com.bumptech.glide.load.DataSource
+import com.bumptech.glide.load.HttpException
+import com.bumptech.glide.load.data.DataFetcher
+import com.bumptech.glide.load.data.DataFetcher.DataCallback
+import com.bumptech.glide.load.model.GlideUrl
+import com.bumptech.glide.util.ContentLengthInputStream
+import okhttp3.Call
+import okhttp3.OkHttpClient
+import okhttp3.ResponseBody
+import org.wordpress.android.util.AppLog
+import org.wordpress.android.util.AppLog.T
+import java.io.IOException
+import java.io.InputStream
+
+/**
+ * [DataFetcher] which hands Glide the body of the response as a stream, so images are decoded as their bytes arrive
+ * instead of being buffered whole in memory first.
+ *
+ * The request is executed on the calling thread - one of Glide's source threads, which pick up loads in order of
+ * their [Priority] - so a visible image is fetched before the prefetched ones queued behind it.
+ */
+class GlideStreamFetcher(
+    private val client: OkHttpClient,
+    private val requestFactory: GlideRequestFactory,
+    private val url: GlideUrl
+) : DataFetcher<InputStream> {
+    @Volatile private var call: Call? = null
+    private var responseBody: ResponseBody? = null
+    private var stream: InputStream? = null
+
+    override fun loadData(priority: Priority, callback: DataCallback<in InputStream>) {
+        val request = try {
+            requestFactory.create(url.toStringUrl(), url.headers)
+        } catch (e: IllegalArgumentException) {
+            callback.onLoadFailed(e)
+            return
+        }
+
+        val call = client.newCall(request)
+        this.call = call
+        try {
+            val response = call.execute()
+            val body = response.body()
+            responseBody = body
+            if (!response.isSuccessful || body == null) {
+                callback.onLoadFailed(HttpException(response.message(), response.code()))
+                return
+            }
+            val stream = ContentLengthInputStream.obtain(body.byteStream(), body.contentLength())
+            this.stream = stream
+            callback.onDataReady(stream)
+        } catch (e: IOException) {
+            if (!call.isCanceled) {
+                AppLog.w(T.UTILS, "Failed to load image " + url.toStringUrl() + ": " + e.message)
+            }
+            callback.onLoadFailed(e)
+        }
+    }
+
+    override fun cleanup() {
+        try {
+            stream?.close()
+        } catch (e: IOException) {
+            // the response body is closed below anyway
+        }
+        responseBody?.close()
+    }
+
+    override fun cancel() {
+        call?.cancel()
+    }
+
+    override fun getDataClass(): Class<InputStream> {
+        return InputStream::class.java
+    }
+
+    override fun getDataSource(): DataSource {
+        return DataSource.REMOTE
+    }
+}
@@ -0,0 +1,37 @@
+package org.wordpress.android.networking
+
+import com.bumptech.glide.load.Options
+import com.bumptech.glide.load.model.GlideUrl
+import com.bumptech.glide.load.model.ModelLoader
+import com.bumptech.glide.load.model.ModelLoader.LoadData
+import com.bumptech.glide.load.model.ModelLoaderFactory
+import com.bumptech.glide.load.model.MultiModelLoaderFactory
+import okhttp3.OkHttpClient
+import java.io.InputStream
+
+/**
+ * [ModelLoader] which streams images from the network via [GlideStreamFetcher].
+ */
+class GlideUrlLoader(
+    private val client: OkHttpClient,
+    private val requestFactory: GlideRequestFactory
+) : ModelLoader<GlideUrl, InputStream> {
+    override fun buildLoadData(model: GlideUrl, width: Int, height: Int, options: Options): LoadData<InputStream>? {
+        return LoadData(model, GlideStreamFetcher(client, requestFactory, model))
+    }
+
+    override fun handles(model: GlideUrl): Boolean {
+        return true
+    }
+
+    class Factory(
+        private val client: OkHttpClient,
+        private val requestFactory: GlideRequestFactory
+    ) : ModelLoaderFactory<GlideUrl, InputStream> {
+        override fun build(multiFactory: MultiModelLoaderFactory): ModelLoader<GlideUrl, InputStream> {
+            return GlideUrlLoader(client, requestFactory)
+        }
+
+        override fun teardown() {}
+    }
+}
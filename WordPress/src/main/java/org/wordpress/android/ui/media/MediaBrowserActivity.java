@@ -12,7 +12,9 @@ import android.content.ServiceConnection;
 import android.net.ConnectivityManager;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
 import android.os.IBinder;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.StringRes;
@@ -85,10 +87,13 @@ import org.wordpress.android.util.WPPermissionUtils;
 import org.wordpress.android.util.analytics.AnalyticsUtils;
 import org.wordpress.android.widgets.AppRatingDialog;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 import javax.inject.Inject;
 
@@ -108,6 +113,8 @@ public class MediaBrowserActivity extends AppCompatActivity implements MediaGrid
 
     private static final String SAVED_QUERY = "SAVED_QUERY";
     private static final String BUNDLE_MEDIA_CAPTURE_PATH = "mediaCapturePath";
+    // shared media is optimized one item at a time, independently of the activity's lifecycle
+    private static final Executor OPTIMIZE_EXECUTOR = Executors.newSingleThreadExecutor();
 
     @Inject Dispatcher mDispatcher;
     @Inject MediaStore mMediaStore;
@@ -805,19 +812,90 @@ public class MediaBrowserActivity extends AppCompatActivity implements MediaGrid
         if (uriList == null || uriList.size() == 0) {
             return;
         }
+        // shared media is fetched here rather than in the background since the uri permissions
+        // are only granted while the activity is active
+        final List<Uri> downloadedUris = new ArrayList<>();
         for (Uri uri : uriList) {
             if (uri != null) {
                 WPMediaUtils.fetchMediaAndDoNext(this, uri,
                         new WPMediaUtils.MediaFetchDoNext() {
                             @Override
                             public void doNext(Uri downloadedUri) {
-                                queueFileForUpload(
-                                        getOptimizedPictureIfNecessary(downloadedUri),
-                                        getContentResolver().getType(downloadedUri));
+                                downloadedUris.add(downloadedUri);
                             }
                         });
             }
         }
+        optimizeAndQueueForUpload(downloadedUris);
+    }
+
+    /*
+     * optimizes the passed media in the background and queues each item for upload as soon as it's
+     * ready, so earlier items upload while later ones are still being optimized rather than every
+     * item being optimized before any of them can start uploading
+     */
+    private void optimizeAndQueueForUpload(@NonNull List<Uri> uriList) {
+        OPTIMIZE_EXECUTOR.execute(new OptimizeAndQueueTask(this, uriList));
+    }
+
+    /*
+     * only holds a weak reference to the activity, and uses the application context while optimizing, so
+     * the activity isn't kept alive by the task - media optimized after the activity is finished is handed
+     * straight to the upload service rather than being queued by the activity
+     */
+    private static class OptimizeAndQueueTask implements Runnable {
+        private final WeakReference<MediaBrowserActivity> mActivityRef;
+        private final Context mContext;
+        private final SiteModel mSite;
+        private final Dispatcher mDispatcher;
+        private final MediaStore mMediaStore;
+        private final List<Uri> mUriList;
+        private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+        OptimizeAndQueueTask(@NonNull MediaBrowserActivity activity, @NonNull List<Uri> uriList) {
+            mActivityRef = new WeakReference<>(activity);
+            mContext = activity.getApplicationContext();
+            mSite = activity.mSite;
+            mDispatcher = activity.mDispatcher;
+            mMediaStore = activity.mMediaStore;
+            mUriList = uriList;
+        }
+
+        @Override
+        public void run() {
+            for (Uri uri : mUriList) {
+                final String mimeType = mContext.getContentResolver().getType(uri);
+                final Uri optimizedUri = getOptimizedPictureIfNecessary(mContext, mSite, uri);
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        MediaBrowserActivity activity = mActivityRef.get();
+                        if (activity != null && !activity.isFinishing()) {
+                            activity.queueFileForUpload(optimizedUri, mimeType);
+                        } else {
+                            uploadWithoutActivity(optimizedUri, mimeType);
+                        }
+                    }
+                });
+            }
+        }
+
+        private void uploadWithoutActivity(Uri uri, String mimeType) {
+            MediaModel media = FluxCUtils.mediaModelFromLocalUri(mContext, uri, mimeType, mMediaStore,
+                    mSite.getId());
+            if (media == null) {
+                AppLog.w(AppLog.T.MEDIA, "Unable to upload " + uri + ", file not found");
+                return;
+            }
+            if (!NetworkUtils.isNetworkAvailable(mContext)) {
+                AppLog.v(AppLog.T.MEDIA, "Unable to start UploadService, internet connection required.");
+                return;
+            }
+            mDispatcher.dispatch(MediaActionBuilder.newUpdateMediaAction(media));
+            ArrayList<MediaModel> mediaList = new ArrayList<>();
+            mediaList.add(media);
+            UploadService.uploadMedia(mContext, mediaList);
+        }
     }
 
     private final OnBackStackChangedListener mOnBackStackChangedListener = new OnBackStackChangedListener() {
@@ -972,19 +1050,23 @@ public class MediaBrowserActivity extends AppCompatActivity implements MediaGrid
     }
 
     private Uri getOptimizedPictureIfNecessary(Uri originalUri) {
-        String filePath = MediaUtils.getRealPathFromURI(this, originalUri);
+        return getOptimizedPictureIfNecessary(this, mSite, originalUri);
+    }
+
+    private static Uri getOptimizedPictureIfNecessary(Context context, SiteModel site, Uri originalUri) {
+        String filePath = MediaUtils.getRealPathFromURI(context, originalUri);
         if (TextUtils.isEmpty(filePath)) {
             return originalUri;
         }
-        Uri optimizedMedia = WPMediaUtils.getOptimizedMedia(this, filePath, false);
+        Uri optimizedMedia = WPMediaUtils.getOptimizedMedia(context, filePath, false);
         if (optimizedMedia != null) {
             return optimizedMedia;
         } else {
             // Optimization is OFF. Make sure the picture is in portrait for .org site
             // Fix for the rotation issue https://github.com/wordpress-mobile/WordPress-Android/issues/5737
-            if (!mSite.isWPCom()) {
+            if (!site.isWPCom()) {
                 // If it's not wpcom we must rotate the picture locally
-                Uri rotatedMedia = WPMediaUtils.fixOrientationIssue(this, filePath, false);
+                Uri rotatedMedia = WPMediaUtils.fixOrientationIssue(context, filePath, false);
                 if (rotatedMedia != null) {
                     return rotatedMedia;
                 }
@@ -48,6 +48,7 @@ import org.wordpress.android.util.WPActivityUtils;
 import org.wordpress.android.util.WPMediaUtils;
 import org.wordpress.android.util.helpers.SwipeToRefreshHelper;
 import org.wordpress.android.util.helpers.SwipeToRefreshHelper.RefreshListener;
+import org.wordpress.android.util.image.ImageLoadProfiler;
 import org.wordpress.android.util.widgets.CustomSwipeRefreshLayout;
 
 import java.io.File;
@@ -193,11 +194,13 @@ public class MediaGridFragment extends Fragment implements MediaGridAdapterCallb
     @Override
     public void onStart() {
         super.onStart();
+        ImageLoadProfiler.start("Media grid");
         mDispatcher.register(this);
     }
 
     @Override
     public void onStop() {
+        ImageLoadProfiler.stop();
         mDispatcher.unregister(this);
         super.onStop();
     }
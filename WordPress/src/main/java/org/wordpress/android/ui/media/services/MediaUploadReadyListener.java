@@ -5,11 +5,15 @@ import android.support.annotation.Nullable;
 import org.wordpress.android.fluxc.model.PostModel;
 import org.wordpress.android.util.helpers.MediaFile;
 
+import java.util.Map;
+
 /**
  * Callbacks - requests for editor capabilities to replace media once it's finished uploading
  * and mark media failed if could not be uploaded
  */
 public interface MediaUploadReadyListener {
     PostModel replaceMediaFileWithUrlInPost(@Nullable PostModel post, String localMediaId, MediaFile mediaFile);
+    // mediaFiles are keyed by local media id
+    PostModel replaceMediaFilesWithUrlsInPost(@Nullable PostModel post, Map<String, MediaFile> mediaFiles);
     PostModel markMediaUploadFailedInPost(@Nullable PostModel post, String localMediaId, MediaFile mediaFile);
 }
@@ -28,12 +28,12 @@ import org.wordpress.android.fluxc.store.AccountStore;
 import org.wordpress.android.fluxc.store.SiteStore;
 import org.wordpress.android.fluxc.tools.FormattableRangeType;
 import org.wordpress.android.models.Note;
+import org.wordpress.android.models.NotesListFilter;
 import org.wordpress.android.push.GCMMessageService;
 import org.wordpress.android.ui.ActivityLauncher;
 import org.wordpress.android.ui.WPWebViewActivity;
 import org.wordpress.android.ui.comments.CommentActions;
 import org.wordpress.android.ui.comments.CommentDetailFragment;
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter;
 import org.wordpress.android.ui.notifications.services.NotificationsUpdateServiceStarter;
 import org.wordpress.android.ui.notifications.utils.NotificationsActions;
 import org.wordpress.android.ui.notifications.utils.NotificationsUtils;
@@ -158,9 +158,9 @@ public class NotificationsDetailActivity extends AppCompatActivity implements
             }
         }
 
-        NotesAdapter.FILTERS filter = NotesAdapter.FILTERS.FILTER_ALL;
+        NotesListFilter filter = NotesListFilter.FILTER_ALL;
         if (getIntent().hasExtra(NotificationsListFragment.NOTE_CURRENT_LIST_FILTER_EXTRA)) {
-            filter = (NotesAdapter.FILTERS) getIntent()
+            filter = (NotesListFilter) getIntent()
                     .getSerializableExtra(NotificationsListFragment.NOTE_CURRENT_LIST_FILTER_EXTRA);
         }
 
@@ -299,13 +299,10 @@ public class NotificationsDetailActivity extends AppCompatActivity implements
     }
 
     private NotificationDetailFragmentAdapter buildNoteListAdapterAndSetPosition(Note note,
-                                                                                 NotesAdapter.FILTERS filter) {
+                                                                                 NotesListFilter filter) {
         NotificationDetailFragmentAdapter adapter;
-        ArrayList<Note> notes = NotificationsTable.getLatestNotes();
-        ArrayList<Note> filteredNotes = new ArrayList<>();
-
         // apply filter to the list so we show the same items that the list show vertically, but horizontally
-        NotesAdapter.buildFilteredNotesList(filteredNotes, notes, filter);
+        ArrayList<Note> filteredNotes = NotificationsTable.getLatestNotes(filter, NotificationsTable.NOTES_TO_RETRIEVE);
         adapter = new NotificationDetailFragmentAdapter(getSupportFragmentManager(), filteredNotes);
 
         mViewPager.setAdapter(adapter);
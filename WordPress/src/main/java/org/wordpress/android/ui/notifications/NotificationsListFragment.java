@@ -28,13 +28,12 @@ import org.wordpress.android.analytics.AnalyticsTracker;
 import org.wordpress.android.analytics.AnalyticsTracker.Stat;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.store.AccountStore;
+import org.wordpress.android.models.NotesListFilter;
 import org.wordpress.android.ui.JetpackConnectionWebViewActivity;
 import org.wordpress.android.ui.RequestCodes;
 import org.wordpress.android.ui.WPWebViewActivity;
 import org.wordpress.android.ui.main.MainToolbarFragment;
 import org.wordpress.android.ui.main.WPMainActivity;
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter;
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS;
 import org.wordpress.android.ui.notifications.services.NotificationsUpdateServiceStarter;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
@@ -116,22 +115,22 @@ public class NotificationsListFragment extends Fragment implements MainToolbarFr
 
                 switch (tab.getPosition()) {
                     case TAB_POSITION_ALL:
-                        properties.put(NOTIFICATIONS_SELECTED_FILTER, FILTERS.FILTER_ALL.toString());
+                        properties.put(NOTIFICATIONS_SELECTED_FILTER, NotesListFilter.FILTER_ALL.toString());
                         break;
                     case TAB_POSITION_COMMENT:
-                        properties.put(NOTIFICATIONS_SELECTED_FILTER, FILTERS.FILTER_COMMENT.toString());
+                        properties.put(NOTIFICATIONS_SELECTED_FILTER, NotesListFilter.FILTER_COMMENT.toString());
                         break;
                     case TAB_POSITION_FOLLOW:
-                        properties.put(NOTIFICATIONS_SELECTED_FILTER, FILTERS.FILTER_FOLLOW.toString());
+                        properties.put(NOTIFICATIONS_SELECTED_FILTER, NotesListFilter.FILTER_FOLLOW.toString());
                         break;
                     case TAB_POSITION_LIKE:
-                        properties.put(NOTIFICATIONS_SELECTED_FILTER, FILTERS.FILTER_LIKE.toString());
+                        properties.put(NOTIFICATIONS_SELECTED_FILTER, NotesListFilter.FILTER_LIKE.toString());
                         break;
                     case TAB_POSITION_UNREAD:
-                        properties.put(NOTIFICATIONS_SELECTED_FILTER, FILTERS.FILTER_UNREAD.toString());
+                        properties.put(NOTIFICATIONS_SELECTED_FILTER, NotesListFilter.FILTER_UNREAD.toString());
                         break;
                     default:
-                        properties.put(NOTIFICATIONS_SELECTED_FILTER, FILTERS.FILTER_ALL.toString());
+                        properties.put(NOTIFICATIONS_SELECTED_FILTER, NotesListFilter.FILTER_ALL.toString());
                         break;
                 }
 
@@ -243,7 +242,7 @@ public class NotificationsListFragment extends Fragment implements MainToolbarFr
     }
 
     public static void openNoteForReply(Activity activity, String noteId, boolean shouldShowKeyboard, String replyText,
-                                        NotesAdapter.FILTERS filter, boolean isTappedFromPushNotification) {
+                                        NotesListFilter filter, boolean isTappedFromPushNotification) {
         if (noteId == null || activity == null) {
             return;
         }
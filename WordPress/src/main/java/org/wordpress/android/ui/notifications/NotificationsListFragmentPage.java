@@ -52,6 +52,11 @@ import de.greenrobot.event.EventBus;
 
 import static android.app.Activity.RESULT_OK;
 import static org.wordpress.android.analytics.AnalyticsTracker.Stat.APP_REVIEWS_EVENT_INCREMENTED_BY_CHECKING_NOTIFICATION;
+import static org.wordpress.android.models.NotesListFilter.FILTER_ALL;
+import static org.wordpress.android.models.NotesListFilter.FILTER_COMMENT;
+import static org.wordpress.android.models.NotesListFilter.FILTER_FOLLOW;
+import static org.wordpress.android.models.NotesListFilter.FILTER_LIKE;
+import static org.wordpress.android.models.NotesListFilter.FILTER_UNREAD;
 import static org.wordpress.android.ui.notifications.NotificationsListFragment.NOTE_CURRENT_LIST_FILTER_EXTRA;
 import static org.wordpress.android.ui.notifications.NotificationsListFragment.NOTE_ID_EXTRA;
 import static org.wordpress.android.ui.notifications.NotificationsListFragment.NOTE_INSTANT_REPLY_EXTRA;
@@ -63,11 +68,6 @@ import static org.wordpress.android.ui.notifications.NotificationsListFragment.T
 import static org.wordpress.android.ui.notifications.NotificationsListFragment.TAB_POSITION_FOLLOW;
 import static org.wordpress.android.ui.notifications.NotificationsListFragment.TAB_POSITION_LIKE;
 import static org.wordpress.android.ui.notifications.NotificationsListFragment.TAB_POSITION_UNREAD;
-import static org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_ALL;
-import static org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_COMMENT;
-import static org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_FOLLOW;
-import static org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_LIKE;
-import static org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_UNREAD;
 import static org.wordpress.android.ui.notifications.services.NotificationsUpdateServiceStarter.IS_TAPPED_ON_NOTIFICATION;
 import static org.wordpress.android.util.WPSwipeToRefreshHelper.buildSwipeToRefreshHelper;
 
@@ -366,7 +366,7 @@ public class NotificationsListFragmentPage extends Fragment implements
     }
 
     public static void openNoteForReply(Activity activity, String noteId, boolean shouldShowKeyboard, String replyText,
-                                        NotesAdapter.FILTERS filter, boolean isTappedFromPushNotification) {
+                                        NotesListFilter filter, boolean isTappedFromPushNotification) {
         if (noteId == null || activity == null || activity.isFinishing()) {
             return;
         }
@@ -570,7 +570,8 @@ public class NotificationsListFragmentPage extends Fragment implements
         }
 
         mSwipeToRefreshHelper.setRefreshing(false);
-        mNotesAdapter.addAll(event.notes, true);
+        // the refreshed notes have been saved, and each tab reads its own notes from the db
+        mNotesAdapter.reloadNotesFromDBAsync();
     }
 
     @SuppressWarnings("unused")
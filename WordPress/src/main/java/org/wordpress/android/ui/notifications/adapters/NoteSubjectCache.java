@@ -0,0 +1,77 @@
+package org.wordpress.android.ui.notifications.adapters;
+
+import android.support.annotation.NonNull;
+import android.support.v4.util.LruCache;
+import android.text.SpannedString;
+import android.text.TextUtils;
+
+import org.wordpress.android.models.Note;
+import org.wordpress.android.ui.notifications.utils.NotificationsUtilsWrapper;
+
+import java.util.List;
+
+/*
+ * in-memory LRU cache of the formatted subjects shown in the notifications list, so binding a row
+ * doesn't rebuild the subject's Spannable from its formattable ranges. Entries are keyed on the note
+ * id and the server-side note hash, so a note which changes gets a new entry rather than a stale
+ * subject. Notes are formatted in the background when they're loaded, see NotesAdapter.
+ */
+class NoteSubjectCache {
+    // a little more than the number of notes the list shows, so every listed note stays formatted
+    private static final int MAX_ENTRIES = 250;
+
+    private static final LruCache<String, FormattedSubject> CACHE = new LruCache<>(MAX_ENTRIES);
+
+    static class FormattedSubject {
+        final CharSequence mSubject;
+        final String mSubjectNoticon;
+        final String mSnippet;
+
+        FormattedSubject(CharSequence subject, String subjectNoticon, String snippet) {
+            mSubject = subject;
+            mSubjectNoticon = subjectNoticon;
+            mSnippet = snippet;
+        }
+    }
+
+    private NoteSubjectCache() {
+        throw new AssertionError();
+    }
+
+    /*
+     * returns the note's formatted subject, formatting and caching it if it isn't cached yet
+     */
+    static @NonNull FormattedSubject get(@NonNull Note note, @NonNull NotificationsUtilsWrapper utilsWrapper) {
+        String key = getKey(note);
+        FormattedSubject formattedSubject = CACHE.get(key);
+        if (formattedSubject == null) {
+            formattedSubject = format(note, utilsWrapper);
+            CACHE.put(key, formattedSubject);
+        }
+        return formattedSubject;
+    }
+
+    /*
+     * formats the subjects of the passed notes which aren't cached yet - called from a background
+     * thread when notes are loaded, so the list doesn't format them while it's scrolling
+     */
+    static void prepare(@NonNull List<Note> notes, @NonNull NotificationsUtilsWrapper utilsWrapper) {
+        for (Note note : notes) {
+            get(note, utilsWrapper);
+        }
+    }
+
+    private static String getKey(@NonNull Note note) {
+        String hash = note.getHash();
+        // notes built from a push notification have no hash, so their timestamp identifies the version
+        return note.getId() + ":" + (TextUtils.isEmpty(hash) ? "t" + note.getTimestamp() : hash);
+    }
+
+    private static FormattedSubject format(@NonNull Note note, @NonNull NotificationsUtilsWrapper utilsWrapper) {
+        // Subject is stored in db as html to preserve text formatting
+        CharSequence subject = note.getFormattedSubject(utilsWrapper);
+        // Trim the '\n\n' added by Html.fromHtml()
+        subject = new SpannedString(subject.subSequence(0, TextUtils.getTrimmedLength(subject)));
+        return new FormattedSubject(subject, note.getCommentSubjectNoticon(), note.getCommentSubject());
+    }
+}
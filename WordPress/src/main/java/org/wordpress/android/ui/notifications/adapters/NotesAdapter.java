@@ -18,18 +18,24 @@ import org.wordpress.android.WordPress;
 import org.wordpress.android.datasets.NotificationsTable;
 import org.wordpress.android.fluxc.model.CommentStatus;
 import org.wordpress.android.models.Note;
+import org.wordpress.android.models.NotesListFilter;
 import org.wordpress.android.ui.comments.CommentUtils;
 import org.wordpress.android.ui.notifications.NotificationsListFragmentPage.OnNoteClickListener;
+import org.wordpress.android.ui.notifications.adapters.NoteSubjectCache.FormattedSubject;
 import org.wordpress.android.ui.notifications.utils.NotificationsUtilsWrapper;
+import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.GravatarUtils;
 import org.wordpress.android.util.RtlUtils;
+import org.wordpress.android.util.ScrollFrameTimeTracker;
 import org.wordpress.android.util.image.ImageManager;
 import org.wordpress.android.util.image.ImageType;
 import org.wordpress.android.widgets.NoticonTextView;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
@@ -42,36 +48,18 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
     private final DataLoadedListener mDataLoadedListener;
     private final OnLoadMoreListener mOnLoadMoreListener;
     private final ArrayList<Note> mNotes = new ArrayList<>();
-    private final ArrayList<Note> mFilteredNotes = new ArrayList<>();
+    private final ScrollFrameTimeTracker mFrameTimeTracker =
+            new ScrollFrameTimeTracker("NotesAdapter", AppLog.T.NOTIFS);
     @Inject protected ImageManager mImageManager;
     @Inject protected NotificationsUtilsWrapper mNotificationsUtilsWrapper;
 
-    public enum FILTERS {
-        FILTER_ALL,
-        FILTER_COMMENT,
-        FILTER_FOLLOW,
-        FILTER_LIKE,
-        FILTER_UNREAD;
-
-        public String toString() {
-            switch (this) {
-                case FILTER_ALL:
-                    return "all";
-                case FILTER_COMMENT:
-                    return "comment";
-                case FILTER_FOLLOW:
-                    return "follow";
-                case FILTER_LIKE:
-                    return "like";
-                case FILTER_UNREAD:
-                    return "unread";
-                default:
-                    return "all";
-            }
-        }
-    }
+    private static final long LOAD_NOTES_THREAD_KEEP_ALIVE_SECONDS = 30;
 
-    private FILTERS mCurrentFilter = FILTERS.FILTER_ALL;
+    private NotesListFilter mCurrentFilter = NotesListFilter.FILTER_ALL;
+    // incremented whenever the notes are reloaded, so a page loaded for the previous notes is dropped
+    private int mLoadGeneration;
+    private boolean mIsLoadingPage;
+    private boolean mHasMorePages;
 
     public interface DataLoadedListener {
         void onDataLoaded(int itemsCount);
@@ -83,11 +71,17 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
 
     private OnNoteClickListener mOnNoteClickListener;
 
+    // a single thread which exits once it's idle, so an adapter which is no longer used doesn't keep it alive
+    private final ThreadPoolExecutor mLoadNotesExecutor =
+            new ThreadPoolExecutor(1, 1, LOAD_NOTES_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>());
+
     public NotesAdapter(Context context, DataLoadedListener dataLoadedListener, OnLoadMoreListener onLoadMoreListener) {
         super();
         ((WordPress) context.getApplicationContext()).component().inject(this);
         mDataLoadedListener = dataLoadedListener;
         mOnLoadMoreListener = onLoadMoreListener;
+        mLoadNotesExecutor.allowCoreThreadTimeOut(true);
 
         // this is on purpose - we don't show more than a hundred or so notifications at a time so no need to set
         // stable IDs. This helps prevent crashes in case a note comes with no ID (we've code checking for that
@@ -101,29 +95,29 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
         mTextIndentSize = context.getResources().getDimensionPixelSize(R.dimen.notifications_text_indent_sz);
     }
 
-    public void setFilter(FILTERS newFilter) {
+    public void setFilter(NotesListFilter newFilter) {
         mCurrentFilter = newFilter;
-        myNotifyDatasetChanged();
+        reloadNotesFromDBAsync();
     }
 
-    public FILTERS getCurrentFilter() {
+    public NotesListFilter getCurrentFilter() {
         return mCurrentFilter;
     }
 
-    public void addAll(List<Note> notes, boolean clearBeforeAdding) {
-        Collections.sort(notes, new Note.TimeStampComparator());
-        try {
-            if (clearBeforeAdding) {
-                mNotes.clear();
-            }
-            mNotes.addAll(notes);
-        } finally {
-            myNotifyDatasetChanged();
-        }
+    @Override
+    public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        recyclerView.addOnScrollListener(mFrameTimeTracker);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        recyclerView.removeOnScrollListener(mFrameTimeTracker);
+        mFrameTimeTracker.stop();
+        super.onDetachedFromRecyclerView(recyclerView);
     }
 
     private void myNotifyDatasetChanged() {
-        buildFilteredNotesList(mFilteredNotes, mNotes, mCurrentFilter);
         notifyDataSetChanged();
         if (mDataLoadedListener != null) {
             mDataLoadedListener.onDataLoaded(getItemCount());
@@ -137,43 +131,9 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
         return new NoteViewHolder(view);
     }
 
-    // Instead of building the filtered notes list dynamically, create it once and re-use it.
-    // Otherwise it's re-created so many times during layout.
-    public static void buildFilteredNotesList(ArrayList<Note> filteredNotes, ArrayList<Note> notes, FILTERS filter) {
-        filteredNotes.clear();
-        if (notes.isEmpty() || filter == FILTERS.FILTER_ALL) {
-            filteredNotes.addAll(notes);
-            return;
-        }
-        for (Note currentNote : notes) {
-            switch (filter) {
-                case FILTER_COMMENT:
-                    if (currentNote.isCommentType()) {
-                        filteredNotes.add(currentNote);
-                    }
-                    break;
-                case FILTER_FOLLOW:
-                    if (currentNote.isFollowType()) {
-                        filteredNotes.add(currentNote);
-                    }
-                    break;
-                case FILTER_UNREAD:
-                    if (currentNote.isUnread()) {
-                        filteredNotes.add(currentNote);
-                    }
-                    break;
-                case FILTER_LIKE:
-                    if (currentNote.isLikeType()) {
-                        filteredNotes.add(currentNote);
-                    }
-                    break;
-            }
-        }
-    }
-
     private Note getNoteAtPosition(int position) {
         if (isValidPosition(position)) {
-            return mFilteredNotes.get(position);
+            return mNotes.get(position);
         }
 
         return null;
@@ -181,7 +141,7 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
 
     public void replaceNote(Note newNote) {
         if (newNote != null) {
-            int position = getPositionForNoteUnfiltered(newNote.getId());
+            int position = getPositionForNote(newNote.getId());
             if (position != RecyclerView.NO_POSITION && position < mNotes.size()) {
                 mNotes.set(position, newNote);
             }
@@ -189,12 +149,12 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
     }
 
     private boolean isValidPosition(int position) {
-        return (position >= 0 && position < mFilteredNotes.size());
+        return (position >= 0 && position < mNotes.size());
     }
 
     @Override
     public int getItemCount() {
-        return mFilteredNotes.size();
+        return mNotes.size();
     }
 
     @Override
@@ -241,13 +201,11 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
             commentStatus = CommentStatus.fromString(note.getLocalStatus());
         }
 
-        // Subject is stored in db as html to preserve text formatting
-        CharSequence noteSubjectSpanned = note.getFormattedSubject(mNotificationsUtilsWrapper);
-        // Trim the '\n\n' added by Html.fromHtml()
-        noteSubjectSpanned = noteSubjectSpanned.subSequence(0, TextUtils.getTrimmedLength(noteSubjectSpanned));
-        noteViewHolder.mTxtSubject.setText(noteSubjectSpanned);
+        // normally formatted when the note was loaded
+        FormattedSubject formattedSubject = NoteSubjectCache.get(note, mNotificationsUtilsWrapper);
+        noteViewHolder.mTxtSubject.setText(formattedSubject.mSubject);
 
-        String noteSubjectNoticon = note.getCommentSubjectNoticon();
+        String noteSubjectNoticon = formattedSubject.mSubjectNoticon;
         if (!TextUtils.isEmpty(noteSubjectNoticon)) {
             ViewParent parent = noteViewHolder.mTxtSubject.getParent();
             // Fix position of the subject noticon in the RtL mode
@@ -267,7 +225,7 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
             noteViewHolder.mTxtSubjectNoticon.setVisibility(View.GONE);
         }
 
-        String noteSnippet = note.getCommentSubject();
+        String noteSnippet = formattedSubject.mSnippet;
         if (!TextUtils.isEmpty(noteSnippet)) {
             noteViewHolder.mTxtSubject.setMaxLines(2);
             noteViewHolder.mTxtDetail.setText(noteSnippet);
@@ -299,23 +257,19 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
         }
 
         // request to load more comments when we near the end
-        if (mOnLoadMoreListener != null && position >= getItemCount() - 1) {
-            mOnLoadMoreListener.onLoadMore(note.getTimestamp());
+        if (position >= getItemCount() - 1) {
+            if (mHasMorePages && !mIsLoadingPage) {
+                loadNextPageAsync();
+            } else if (mOnLoadMoreListener != null) {
+                mOnLoadMoreListener.onLoadMore(note.getTimestamp());
+            }
         }
     }
 
     public int getPositionForNote(String noteId) {
-        return getPositionForNoteInArray(noteId, mFilteredNotes);
-    }
-
-    private int getPositionForNoteUnfiltered(String noteId) {
-        return getPositionForNoteInArray(noteId, mNotes);
-    }
-
-    private int getPositionForNoteInArray(String noteId, ArrayList<Note> notes) {
-        if (notes != null && noteId != null) {
-            for (int i = 0; i < notes.size(); i++) {
-                String noteKey = notes.get(i).getId();
+        if (noteId != null) {
+            for (int i = 0; i < mNotes.size(); i++) {
+                String noteKey = mNotes.get(i).getId();
                 if (noteKey != null && noteKey.equals(noteId)) {
                     return i;
                 }
@@ -329,18 +283,49 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
     }
 
     public void reloadNotesFromDBAsync() {
-        new ReloadNotesFromDBTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        mLoadGeneration++;
+        mIsLoadingPage = true;
+        new LoadNotesTask(mCurrentFilter, 0, mLoadGeneration).executeOnExecutor(mLoadNotesExecutor);
     }
 
-    private class ReloadNotesFromDBTask extends AsyncTask<Void, Void, ArrayList<Note>> {
+    private void loadNextPageAsync() {
+        mIsLoadingPage = true;
+        new LoadNotesTask(mCurrentFilter, mNotes.size(), mLoadGeneration).executeOnExecutor(mLoadNotesExecutor);
+    }
+
+    /*
+     * loads a page of the current filter's notes from the db, after formatting their subjects - the first page
+     * replaces the notes shown. Runs on the adapter's own single thread so notes are loaded in the order
+     * requested, without queueing behind the app's other serial AsyncTasks
+     */
+    private class LoadNotesTask extends AsyncTask<Void, Void, List<Note>> {
+        private final NotesListFilter mFilter;
+        private final int mOffset;
+        private final int mGeneration;
+
+        LoadNotesTask(NotesListFilter filter, int offset, int generation) {
+            mFilter = filter;
+            mOffset = offset;
+            mGeneration = generation;
+        }
+
         @Override
-        protected ArrayList<Note> doInBackground(Void... voids) {
-            return NotificationsTable.getLatestNotes();
+        protected List<Note> doInBackground(Void... voids) {
+            List<Note> notes = NotificationsTable.getNotes(mFilter, mOffset, NotificationsTable.NOTES_TO_RETRIEVE);
+            NoteSubjectCache.prepare(notes, mNotificationsUtilsWrapper);
+            return notes;
         }
 
         @Override
-        protected void onPostExecute(ArrayList<Note> notes) {
-            mNotes.clear();
+        protected void onPostExecute(List<Note> notes) {
+            if (mGeneration != mLoadGeneration) {
+                return;
+            }
+            mIsLoadingPage = false;
+            mHasMorePages = notes.size() == NotificationsTable.NOTES_TO_RETRIEVE;
+            if (mOffset == 0) {
+                mNotes.clear();
+            }
             mNotes.addAll(notes);
             myNotifyDatasetChanged();
         }
@@ -0,0 +1,43 @@
+package org.wordpress.android.ui.notifications.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the note hashes returned by the server with the ones stored locally, to work out which notes
+ * need to be downloaded and which should be deleted.
+ */
+class NotificationsSyncDelta {
+    private final List<String> mChangedNoteIds = new ArrayList<>();
+    private final List<String> mRemovedNoteIds = new ArrayList<>();
+
+    /**
+     * @param remoteHashes the hashes of the latest notes on the server, keyed by note id
+     * @param localHashes the hashes of the stored notes, keyed by note id
+     */
+    NotificationsSyncDelta(Map<String, String> remoteHashes, Map<String, String> localHashes) {
+        for (Map.Entry<String, String> remote : remoteHashes.entrySet()) {
+            String remoteHash = remote.getValue();
+            String localHash = localHashes.get(remote.getKey());
+            // a note without a hash can't be compared, so it's always downloaded
+            if (remoteHash == null || remoteHash.length() == 0 || !remoteHash.equals(localHash)) {
+                mChangedNoteIds.add(remote.getKey());
+            }
+        }
+        // notes which are no longer among the latest on the server have been deleted or have aged out
+        for (String localNoteId : localHashes.keySet()) {
+            if (!remoteHashes.containsKey(localNoteId)) {
+                mRemovedNoteIds.add(localNoteId);
+            }
+        }
+    }
+
+    List<String> getChangedNoteIds() {
+        return mChangedNoteIds;
+    }
+
+    List<String> getRemovedNoteIds() {
+        return mRemovedNoteIds;
+    }
+}
@@ -6,6 +6,7 @@ import com.android.volley.NetworkResponse;
 import com.android.volley.VolleyError;
 import com.wordpress.rest.RestRequest;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.wordpress.android.WordPress;
@@ -19,6 +20,7 @@ import org.wordpress.android.util.AppLog;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -47,43 +49,106 @@ public class NotificationsUpdateLogic {
         mRunning = true;
         mNoteId = noteId;
         mIsStartedByTappingOnNotification = isStartedByTappingOnNotification;
+
+        // only fetch the ids and hashes of the latest notes, the notes themselves are only downloaded
+        // if they've changed since they were stored
+        Map<String, String> params = new HashMap<>();
+        params.put("number", String.valueOf(NotificationsTable.NOTES_TO_RETRIEVE));
+        params.put("fields", RestClientUtils.NOTIFICATION_HASH_FIELDS);
+        NoteHashesListener listener = new NoteHashesListener();
+        WordPress.getRestClientUtilsV1_1().getNotifications(params, listener, listener);
+    }
+
+    private void fetchChangedNotes(List<String> changedNoteIds, final List<String> removedNoteIds) {
         Map<String, String> params = new HashMap<>();
-        params.put("number", "200");
+        params.put("ids", TextUtils.join(",", changedNoteIds));
+        params.put("number", String.valueOf(changedNoteIds.size()));
         params.put("num_note_items", "20");
         params.put("fields", RestClientUtils.NOTIFICATION_FIELDS);
         if (!TextUtils.isEmpty(mLocale)) {
             params.put("locale", mLocale.toLowerCase(Locale.ENGLISH));
         }
-        RestListener listener = new RestListener();
+        RestListener listener = new RestListener(removedNoteIds);
         WordPress.getRestClientUtilsV1_1().getNotifications(params, listener, listener);
     }
 
-    private class RestListener implements RestRequest.Listener, RestRequest.ErrorListener {
+    private void saveChangedNotes(List<Note> changedNotes, List<String> removedNoteIds) {
+        // if we have a note id, we were started from NotificationsDetailActivity.
+        // That means we need to re-set the *read* flag on this note.
+        if (mIsStartedByTappingOnNotification && mNoteId != null) {
+            setNoteRead(mNoteId, changedNotes);
+        }
+        NotificationsTable.saveChangedNotes(changedNotes, removedNoteIds);
+        AppLog.i(AppLog.T.NOTIFS, "notifications update service > saved " + changedNotes.size()
+                                  + " changed notes, removed " + removedNoteIds.size());
+        EventBus.getDefault().post(
+                new NotificationEvents.NotificationsRefreshCompleted(NotificationsTable.getLatestNotes()));
+        completed();
+    }
+
+    private class NoteHashesListener implements RestRequest.Listener, RestRequest.ErrorListener {
         @Override
         public void onResponse(final JSONObject response) {
-            List<Note> notes;
             if (response == null) {
                 // Not sure this could ever happen, but make sure we're catching all response types
-                AppLog.w(AppLog.T.NOTIFS, "Success, but did not receive any notes");
+                AppLog.w(AppLog.T.NOTIFS, "Success, but did not receive any note hashes");
                 EventBus.getDefault().post(
                         new NotificationEvents.NotificationsRefreshCompleted(new ArrayList<Note>(0)));
+                completed();
+                return;
+            }
+
+            NotificationsSyncDelta delta;
+            try {
+                delta = new NotificationsSyncDelta(parseNoteHashes(response), NotificationsTable.getNoteHashes());
+            } catch (JSONException e) {
+                AppLog.e(AppLog.T.NOTIFS, "Success, but can't parse the note hashes", e);
+                EventBus.getDefault().post(new NotificationEvents.NotificationsRefreshError());
+                completed();
+                return;
+            }
+
+            if (delta.getChangedNoteIds().isEmpty()) {
+                saveChangedNotes(new ArrayList<Note>(0), delta.getRemovedNoteIds());
             } else {
-                try {
-                    notes = NotificationsActions.parseNotes(response);
-                    // if we have a note id, we were started from NotificationsDetailActivity.
-                    // That means we need to re-set the *read* flag on this note.
-                    if (mIsStartedByTappingOnNotification && mNoteId != null) {
-                        setNoteRead(mNoteId, notes);
-                    }
-                    NotificationsTable.saveNotes(notes, true);
-                    EventBus.getDefault().post(new NotificationEvents.NotificationsRefreshCompleted(notes));
-                } catch (JSONException e) {
-                    AppLog.e(AppLog.T.NOTIFS, "Success, but can't parse the response", e);
-                    EventBus.getDefault().post(new NotificationEvents.NotificationsRefreshError());
-                }
+                fetchChangedNotes(delta.getChangedNoteIds(), delta.getRemovedNoteIds());
             }
+        }
+
+        @Override
+        public void onErrorResponse(final VolleyError volleyError) {
+            logVolleyErrorDetails(volleyError);
+            EventBus.getDefault().post(new NotificationEvents.NotificationsRefreshError(volleyError));
             completed();
         }
+    }
+
+    private class RestListener implements RestRequest.Listener, RestRequest.ErrorListener {
+        private final List<String> mRemovedNoteIds;
+
+        RestListener(List<String> removedNoteIds) {
+            mRemovedNoteIds = removedNoteIds;
+        }
+
+        @Override
+        public void onResponse(final JSONObject response) {
+            if (response == null) {
+                // Not sure this could ever happen, but make sure we're catching all response types
+                AppLog.w(AppLog.T.NOTIFS, "Success, but did not receive any notes");
+                EventBus.getDefault().post(
+                        new NotificationEvents.NotificationsRefreshCompleted(new ArrayList<Note>(0)));
+                completed();
+                return;
+            }
+
+            try {
+                saveChangedNotes(NotificationsActions.parseNotes(response), mRemovedNoteIds);
+            } catch (JSONException e) {
+                AppLog.e(AppLog.T.NOTIFS, "Success, but can't parse the response", e);
+                EventBus.getDefault().post(new NotificationEvents.NotificationsRefreshError());
+                completed();
+            }
+        }
 
         @Override
         public void onErrorResponse(final VolleyError volleyError) {
@@ -93,10 +158,30 @@ public class NotificationsUpdateLogic {
         }
     }
 
+    /*
+     * returns the hash of each note in the response keyed by note id, in the order returned
+     */
+    private static Map<String, String> parseNoteHashes(JSONObject response) throws JSONException {
+        JSONArray notesJSON = response.getJSONArray("notes");
+        Map<String, String> hashes = new LinkedHashMap<>(notesJSON.length());
+        for (int i = 0; i < notesJSON.length(); i++) {
+            JSONObject noteJSON = notesJSON.getJSONObject(i);
+            hashes.put(noteJSON.optString("id", ""), noteJSON.optString("note_hash", ""));
+        }
+        return hashes;
+    }
+
     private void setNoteRead(String noteId, List<Note> notes) {
         int notePos = NotificationsUtils.findNoteInNoteArray(notes, noteId);
         if (notePos != -1) {
             notes.get(notePos).setRead();
+            return;
+        }
+        // the note hasn't changed, so update the stored copy
+        Note note = NotificationsTable.getNoteById(noteId);
+        if (note != null && note.isUnread()) {
+            note.setRead();
+            notes.add(note);
         }
     }
 
@@ -183,6 +183,9 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -252,6 +255,12 @@ public class EditPostActivity extends AppCompatActivity implements
             "https://make.wordpress.org/mobile/whats-new-in-android-media-uploading/";
     private static final int CHANGE_SAVE_DELAY = 500;
     public static final int MAX_UNSAVED_POSTS = 50;
+    // autosaved edits are journaled, and the whole post is written to the db after this many edits or this long - so
+    // the db is never more than a second behind the editor for the post list, the upload service and the like
+    private static final int MAX_JOURNALED_AUTOSAVES = 50;
+    private static final long AUTOSAVE_CHECKPOINT_INTERVAL_MS = 750;
+    // all saves run one after the other on a single background thread
+    private static final Executor SAVE_EXECUTOR = Executors.newSingleThreadExecutor();
     private AztecImageLoader mAztecImageLoader;
 
     enum AddExistingdMediaSource {
@@ -268,6 +277,11 @@ public class EditPostActivity extends AppCompatActivity implements
 
     private Handler mHandler;
     private int mDebounceCounter = 0;
+    private final AtomicBoolean mIsAutosavePending = new AtomicBoolean();
+    private PostAutosaveJournal mAutosaveJournal;
+    private String mJournaledTitle;
+    private String mJournaledContent;
+    private long mLastCheckpointTime;
     private boolean mShowAztecEditor;
     private boolean mShowNewEditor;
     private boolean mShowGutenbergEditor;
@@ -383,6 +397,9 @@ public class EditPostActivity extends AppCompatActivity implements
         // Create a new post
         mPost = mPostStore.instantiatePostModel(mSite, mIsPage, null, null);
         mPost.setStatus(PostStatus.DRAFT.toString());
+        // a new post has nothing to recover, but still journals its autosaves
+        mAutosaveJournal = new PostAutosaveJournal(getFilesDir(), mPost.getId());
+        resetAutosaveJournal();
         EventBus.getDefault().postSticky(
                 new PostEvents.PostOpenedInEditor(mPost.getLocalSiteId(), mPost.getId()));
         mShortcutUtils.reportShortcutUsed(Shortcut.CREATE_NEW_POST);
@@ -601,6 +618,7 @@ public class EditPostActivity extends AppCompatActivity implements
         if (mPost != null) {
             mOriginalPost = mPost.clone();
             mOriginalPostHadLocalChangesOnOpen = mOriginalPost.isLocallyChanged();
+            recoverAutosavedEdits();
             mPost = UploadService.updatePostWithCurrentlyCompletedUploads(mPost);
             if (mShowAztecEditor) {
                 mMediaMarkedUploadingOnStartIds =
@@ -622,6 +640,35 @@ public class EditPostActivity extends AppCompatActivity implements
         }
     }
 
+    /*
+     * autosaved edits are only in the post's autosave journal until the post is next written to the db, so if
+     * the app was killed while the post was being edited they're replayed here and the recovered post saved
+     */
+    private void recoverAutosavedEdits() {
+        mAutosaveJournal = new PostAutosaveJournal(getFilesDir(), mPost.getId());
+        PostAutosaveJournal.Recovered recovered = mAutosaveJournal.replay(mPost.getTitle(), mPost.getContent());
+        if (recovered != null) {
+            AppLog.i(T.EDITOR, "Recovered " + recovered.mEntryCount + " autosaved edits of post " + mPost.getId());
+            mPost.setTitle(recovered.mTitle);
+            mPost.setContent(recovered.mContent);
+            if (!mPost.isLocalDraft()) {
+                mPost.setIsLocallyChanged(true);
+            }
+            mPost.setDateLocallyChanged(DateTimeUtils.iso8601FromTimestamp(System.currentTimeMillis() / 1000));
+            mDispatcher.dispatch(PostActionBuilder.newUpdatePostAction(mPost));
+        }
+        resetAutosaveJournal();
+    }
+
+    private synchronized void resetAutosaveJournal() {
+        mJournaledTitle = mPost.getTitle();
+        mJournaledContent = mPost.getContent();
+        mLastCheckpointTime = System.currentTimeMillis();
+        if (mAutosaveJournal != null) {
+            mAutosaveJournal.clear();
+        }
+    }
+
     private void purgeMediaToPostAssociationsIfNotInPostAnymore() {
         boolean useAztec = AppPrefs.isAztecEditorEnabled();
         boolean useGutenberg = AppPrefs.isGutenbergEditorEnabled();
@@ -686,9 +733,14 @@ public class EditPostActivity extends AppCompatActivity implements
     private Runnable mSave = new Runnable() {
         @Override
         public void run() {
-            new Thread(new Runnable() {
+            // an autosave which hasn't started yet will pick up this change too
+            if (!mIsAutosavePending.compareAndSet(false, true)) {
+                return;
+            }
+            SAVE_EXECUTOR.execute(new Runnable() {
                 @Override
                 public void run() {
+                    mIsAutosavePending.set(false);
                     mDebounceCounter = 0;
                     try {
                         updatePostObject(true);
@@ -696,12 +748,66 @@ public class EditPostActivity extends AppCompatActivity implements
                         AppLog.e(T.EDITOR, "Impossible to save the post, we weren't able to update it.");
                         return;
                     }
-                    savePostToDb();
+                    autosavePostToDb();
                 }
-            }).start();
+            });
+        }
+    };
+
+    /*
+     * writes the journaled edits to the db once typing has gone on for a while, so a burst of autosaves is written
+     * to the db once rather than after every pause in typing
+     */
+    private Runnable mCheckpoint = new Runnable() {
+        @Override
+        public void run() {
+            SAVE_EXECUTOR.execute(new Runnable() {
+                @Override
+                public void run() {
+                    checkpointAutosavedEdits();
+                }
+            });
         }
     };
 
+    private synchronized void checkpointAutosavedEdits() {
+        if (mPost != null && mAutosaveJournal != null && mAutosaveJournal.getEntryCount() > 0) {
+            savePostToDb();
+        }
+    }
+
+    /*
+     * journals the title and content edits made since the last autosave, and only writes the whole post to the db
+     * once enough edits or time have built up since it was last written, or if the edits couldn't be journaled
+     */
+    private synchronized void autosavePostToDb() {
+        if (mPost == null) {
+            return;
+        }
+        String title = mPost.getTitle();
+        String content = mPost.getContent();
+        if (!PostAutosaveJournal.hasChanged(mJournaledContent, content)
+            && !PostAutosaveJournal.hasChanged(mJournaledTitle, title)) {
+            return;
+        }
+
+        long sinceCheckpoint = System.currentTimeMillis() - mLastCheckpointTime;
+        boolean isCheckpointDue = mAutosaveJournal == null || mJournaledContent == null
+                                  || mAutosaveJournal.getEntryCount() >= MAX_JOURNALED_AUTOSAVES
+                                  || sinceCheckpoint >= AUTOSAVE_CHECKPOINT_INTERVAL_MS;
+        if (isCheckpointDue || !mAutosaveJournal.append(mJournaledTitle, mJournaledContent, title, content)) {
+            savePostToDb();
+        } else {
+            mJournaledTitle = title;
+            mJournaledContent = content;
+            Handler handler = mHandler;
+            if (handler != null && mAutosaveJournal.getEntryCount() == 1) {
+                // the first edit since the db was written, which the db will catch up with shortly
+                handler.postDelayed(mCheckpoint, AUTOSAVE_CHECKPOINT_INTERVAL_MS);
+            }
+        }
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -771,6 +877,7 @@ public class EditPostActivity extends AppCompatActivity implements
         mDispatcher.unregister(this);
         if (mHandler != null) {
             mHandler.removeCallbacks(mSave);
+            mHandler.removeCallbacks(mCheckpoint);
             mHandler = null;
         }
         cancelAddMediaListThread();
@@ -1617,7 +1724,7 @@ public class EditPostActivity extends AppCompatActivity implements
     }
 
     private void savePostAsync(final AfterSavePostListener listener) {
-        new Thread(new Runnable() {
+        SAVE_EXECUTOR.execute(new Runnable() {
             @Override
             public void run() {
                 try {
@@ -1631,7 +1738,7 @@ public class EditPostActivity extends AppCompatActivity implements
                     listener.onPostSave();
                 }
             }
-        }).start();
+        });
     }
 
     @Override
@@ -1799,6 +1906,9 @@ public class EditPostActivity extends AppCompatActivity implements
     private synchronized void savePostToDb() {
         mDispatcher.dispatch(PostActionBuilder.newUpdatePostAction(mPost));
 
+        // the db now has every autosaved edit, so the journal can start again from here
+        resetAutosaveJournal();
+
         // update the original post object, so we'll know of new changes
         mOriginalPost = mPost.clone();
 
@@ -1920,6 +2030,7 @@ public class EditPostActivity extends AppCompatActivity implements
             if (mOriginalPost != null && !PostUtils.postHasEdits(mOriginalPost, mPost)) {
                 // If no changes have been made to the post, set it back to the original - don't save it
                 mDispatcher.dispatch(PostActionBuilder.newUpdatePostAction(mOriginalPost));
+                resetAutosaveJournal();
                 return false;
             } else {
                 // Changes have been made - save the post and ask for the post list to refresh
@@ -2615,7 +2726,7 @@ public class EditPostActivity extends AppCompatActivity implements
         } else if (isCurrentMediaMarkedUploadingDifferentToOriginal(content)) {
             contentChanged = true;
         } else {
-            contentChanged = mPost.getContent().compareTo(content) != 0;
+            contentChanged = PostAutosaveJournal.hasChanged(mPost.getContent(), content);
         }
         if (contentChanged) {
             mPost.setContent(content);
@@ -3877,6 +3988,7 @@ public class EditPostActivity extends AppCompatActivity implements
                     mIsDiscardingChanges = false;
                     mPost = mPostStore.getPostByLocalPostId(mPost.getId());
                     mDispatcher.dispatch(PostActionBuilder.newUpdatePostAction(mPost));
+                    resetAutosaveJournal();
                     mIsUpdatingPost = true;
                 }
             } else {
@@ -0,0 +1,232 @@
+package org.wordpress.android.ui.posts;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Append-only journal of the title and content edits autosaved by {@link EditPostActivity} since the post was last
+ * written to the database, so a long post isn't rewritten in full after every burst of typing.
+ *
+ * Each entry records the single range of the content which changed - found by skipping the prefix and suffix the
+ * old and new content have in common - along with hashes of the content before and after the edit. After a crash
+ * the entries are replayed in order on top of the post stored in the database: entries the database already
+ * contains (written just before the crash, but not yet cleared from the journal) are skipped, replay starts at the
+ * entry made against the stored post, and stops at the first one which doesn't follow on, such as a last entry cut
+ * short by the crash.
+ */
+class PostAutosaveJournal {
+    private static final String JOURNAL_DIRECTORY_NAME = "post_autosave";
+    private static final int FORMAT_VERSION = 1;
+
+    private final File mFile;
+    private int mEntryCount;
+
+    static class Recovered {
+        final String mTitle;
+        final String mContent;
+        final int mEntryCount;
+
+        Recovered(String title, String content, int entryCount) {
+            mTitle = title;
+            mContent = content;
+            mEntryCount = entryCount;
+        }
+    }
+
+    PostAutosaveJournal(@NonNull File directory, int localPostId) {
+        mFile = new File(new File(directory, JOURNAL_DIRECTORY_NAME), "post_" + localPostId + ".journal");
+    }
+
+    /**
+     * Returns true if the content differs - the lengths and hashes are checked first, so most edits are told apart
+     * without comparing the content a character at a time.
+     */
+    static boolean hasChanged(@Nullable String oldContent, @Nullable String newContent) {
+        if (oldContent == null || newContent == null) {
+            return oldContent != newContent;
+        }
+        if (oldContent.length() != newContent.length() || oldContent.hashCode() != newContent.hashCode()) {
+            return true;
+        }
+        return !oldContent.equals(newContent);
+    }
+
+    /**
+     * Records the edit which turned the old title and content into the new ones. Returns false if the entry
+     * couldn't be written, in which case the post should be written to the database instead.
+     */
+    synchronized boolean append(@Nullable String oldTitle, @NonNull String oldContent,
+                                @Nullable String newTitle, @NonNull String newContent) {
+        int prefixLength = 0;
+        int maxLength = Math.min(oldContent.length(), newContent.length());
+        while (prefixLength < maxLength && oldContent.charAt(prefixLength) == newContent.charAt(prefixLength)) {
+            prefixLength++;
+        }
+        int suffixLength = 0;
+        while (suffixLength < maxLength - prefixLength
+               && oldContent.charAt(oldContent.length() - suffixLength - 1)
+                  == newContent.charAt(newContent.length() - suffixLength - 1)) {
+            suffixLength++;
+        }
+
+        FileOutputStream outputStream = null;
+        try {
+            ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+            DataOutputStream entry = new DataOutputStream(entryBytes);
+            entry.writeInt(contentHash(oldContent));
+            entry.writeInt(prefixLength);
+            entry.writeInt(oldContent.length() - prefixLength - suffixLength);
+            writeString(entry, newContent.substring(prefixLength, newContent.length() - suffixLength));
+            boolean titleChanged = hasChanged(oldTitle, newTitle);
+            entry.writeBoolean(titleChanged);
+            if (titleChanged) {
+                writeString(entry, newTitle);
+            }
+            entry.writeInt(contentHash(newContent));
+
+            boolean isNewFile = !mFile.exists();
+            if (isNewFile && !mFile.getParentFile().exists() && !mFile.getParentFile().mkdirs()) {
+                throw new IOException("Unable to create " + mFile.getParent());
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(entryBytes.size() + 8);
+            DataOutputStream data = new DataOutputStream(bytes);
+            if (isNewFile) {
+                data.writeInt(FORMAT_VERSION);
+            }
+            data.writeInt(entryBytes.size());
+            entryBytes.writeTo(data);
+
+            // the entry is written in a single call, so a crash leaves at most this last entry incomplete
+            outputStream = new FileOutputStream(mFile, true);
+            bytes.writeTo(outputStream);
+            mEntryCount++;
+            return true;
+        } catch (IOException e) {
+            AppLog.e(T.EDITOR, "PostAutosaveJournal > Failed to append to journal", e);
+            return false;
+        } finally {
+            close(outputStream);
+        }
+    }
+
+    /**
+     * Replays the journaled edits on top of the title and content stored in the database. Returns null if there's
+     * nothing to recover, or if none of the entries were recorded against the stored version of the post.
+     */
+    synchronized @Nullable Recovered replay(@Nullable String title, @NonNull String content) {
+        int entryCount = 0;
+        DataInputStream inputStream = null;
+        try {
+            inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(mFile)));
+            if (inputStream.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            while (inputStream.available() > 0) {
+                int entryLength = readLength(inputStream);
+                if (entryLength > inputStream.available()) {
+                    // the last entry was cut short, so the edits before it are all that can be recovered
+                    break;
+                }
+                byte[] entryBytes = new byte[entryLength];
+                inputStream.readFully(entryBytes);
+                DataInputStream entry = new DataInputStream(new ByteArrayInputStream(entryBytes));
+
+                if (entry.readInt() != contentHash(content)) {
+                    if (entryCount == 0) {
+                        // an edit the stored post already contains - replay starts at the entry made against it
+                        continue;
+                    }
+                    break;
+                }
+                int start = entry.readInt();
+                int removedLength = entry.readInt();
+                String inserted = readString(entry);
+                if (start < 0 || removedLength < 0 || start + removedLength > content.length()) {
+                    break;
+                }
+                String newContent = content.substring(0, start) + inserted + content.substring(start + removedLength);
+                String newTitle = entry.readBoolean() ? readString(entry) : title;
+                if (entry.readInt() != contentHash(newContent)) {
+                    break;
+                }
+
+                title = newTitle;
+                content = newContent;
+                entryCount++;
+            }
+        } catch (FileNotFoundException e) {
+            // nothing has been journaled since the post was last saved
+        } catch (EOFException e) {
+            // the journal is empty or its last entry is malformed, so the edits before it are all that can be recovered
+        } catch (IOException e) {
+            AppLog.e(T.EDITOR, "PostAutosaveJournal > Failed to read journal", e);
+        } finally {
+            close(inputStream);
+        }
+        return entryCount > 0 ? new Recovered(title, content, entryCount) : null;
+    }
+
+    /**
+     * Discards the journaled edits, once the post they apply to has been written to the database.
+     */
+    synchronized void clear() {
+        if (mFile.exists() && !mFile.delete()) {
+            AppLog.w(T.EDITOR, "PostAutosaveJournal > Failed to delete journal");
+        }
+        mEntryCount = 0;
+    }
+
+    synchronized int getEntryCount() {
+        return mEntryCount;
+    }
+
+    private static int contentHash(@NonNull String content) {
+        return 31 * content.hashCode() + content.length();
+    }
+
+    private static void writeString(@NonNull DataOutputStream data, @Nullable String value) throws IOException {
+        byte[] bytes = value != null ? value.getBytes("UTF-8") : new byte[0];
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static String readString(@NonNull DataInputStream data) throws IOException {
+        byte[] bytes = new byte[readLength(data)];
+        data.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    private static int readLength(@NonNull DataInputStream data) throws IOException {
+        int length = data.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid length " + length);
+        }
+        return length;
+    }
+
+    private static void close(@Nullable Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // nothing to do
+            }
+        }
+    }
+}
@@ -98,6 +98,8 @@ import org.wordpress.android.ui.reader.services.post.ReaderPostServiceStarter.Up
 import org.wordpress.android.ui.reader.services.search.ReaderSearchServiceStarter;
 import org.wordpress.android.ui.reader.services.update.ReaderUpdateLogic.UpdateTask;
 import org.wordpress.android.ui.reader.services.update.ReaderUpdateServiceStarter;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor.Priority;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.ui.reader.viewmodels.ReaderPostListViewModel;
 import org.wordpress.android.ui.reader.views.ReaderSiteHeaderView;
@@ -113,6 +115,7 @@ import org.wordpress.android.util.StringUtils;
 import org.wordpress.android.util.ToastUtils;
 import org.wordpress.android.util.WPActivityUtils;
 import org.wordpress.android.util.analytics.AnalyticsUtils;
+import org.wordpress.android.util.image.ImageLoadProfiler;
 import org.wordpress.android.util.image.ImageManager;
 import org.wordpress.android.widgets.AppRatingDialog;
 import org.wordpress.android.widgets.RecyclerItemDecoration;
@@ -457,6 +460,7 @@ public class ReaderPostListFragment extends Fragment
     @Override
     public void onStart() {
         super.onStart();
+        ImageLoadProfiler.start("Reader post list");
         mDispatcher.register(this);
         EventBus.getDefault().registerSticky(this);
 
@@ -472,6 +476,7 @@ public class ReaderPostListFragment extends Fragment
 
     @Override
     public void onStop() {
+        ImageLoadProfiler.stop();
         super.onStop();
         mDispatcher.unregister(this);
         EventBus.getDefault().unregister(this);
@@ -1863,7 +1868,7 @@ public class ReaderPostListFragment extends Fragment
         if (!isAdded() || !hasCurrentTag()) {
             return;
         }
-        new Thread() {
+        ReaderExecutor.execute(Priority.BACKGROUND, new Runnable() {
             @Override
             public void run() {
                 if (ReaderTagTable.shouldAutoUpdateTag(getCurrentTag()) && isAdded()) {
@@ -1875,7 +1880,7 @@ public class ReaderPostListFragment extends Fragment
                     });
                 }
             }
-        }.start();
+        });
     }
 
     private boolean isUpdating() {
@@ -40,6 +40,8 @@ import org.wordpress.android.ui.reader.actions.ReaderPostActions;
 import org.wordpress.android.ui.reader.models.ReaderBlogIdPostId;
 import org.wordpress.android.ui.reader.models.ReaderBlogIdPostIdList;
 import org.wordpress.android.ui.reader.services.post.ReaderPostServiceStarter;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor.Priority;
 import org.wordpress.android.util.ActivityUtils;
 import org.wordpress.android.util.analytics.AnalyticsUtils;
 import org.wordpress.android.util.AniUtils;
@@ -120,6 +122,7 @@ public class ReaderPostPagerActivity extends AppCompatActivity
     private boolean mBackFromLogin;
 
     private final HashSet<Integer> mTrackedPositions = new HashSet<>();
+    private final ReaderPostPrefetcher mPrefetcher = new ReaderPostPrefetcher(this);
 
     @Inject SiteStore mSiteStore;
 
@@ -231,6 +234,7 @@ public class ReaderPostPagerActivity extends AppCompatActivity
 
                 mLastSelectedPosition = position;
                 updateTitle(position);
+                prefetchPostsAfterPosition(position);
             }
         });
 
@@ -539,6 +543,12 @@ public class ReaderPostPagerActivity extends AppCompatActivity
         EventBus.getDefault().unregister(this);
     }
 
+    @Override
+    protected void onDestroy() {
+        mPrefetcher.cancel();
+        super.onDestroy();
+    }
+
     @Override
     public boolean onOptionsItemSelected(final MenuItem item) {
         if (item.getItemId() == android.R.id.home) {
@@ -608,6 +618,16 @@ public class ReaderPostPagerActivity extends AppCompatActivity
         return adapter.getBlogIdPostIdAtPosition(position);
     }
 
+    /*
+     * prepare the posts the user is likely to swipe to next so they display immediately
+     */
+    private void prefetchPostsAfterPosition(int position) {
+        PostPagerAdapter adapter = getPagerAdapter();
+        if (adapter != null) {
+            mPrefetcher.onPostSelected(adapter.getIdList(), position, mViewPager.getOffscreenPageLimit(), mIsFeed);
+        }
+    }
+
     @Override
     public void onBackPressed() {
         ReaderPostDetailFragment fragment = getActiveDetailFragment();
@@ -661,7 +681,7 @@ public class ReaderPostPagerActivity extends AppCompatActivity
      * one will be made active
      */
     private void loadPosts(final long blogId, final long postId) {
-        new Thread() {
+        ReaderExecutor.execute(Priority.RENDER, new Runnable() {
             @Override
             public void run() {
                 final ReaderBlogIdPostIdList idList;
@@ -716,7 +736,7 @@ public class ReaderPostPagerActivity extends AppCompatActivity
                     }
                 });
             }
-        }.start();
+        });
     }
 
     private ReaderTag getCurrentTag() {
@@ -953,6 +973,10 @@ public class ReaderPostPagerActivity extends AppCompatActivity
             return getBlogIdPostIdAtPosition(mViewPager.getCurrentItem());
         }
 
+        ReaderBlogIdPostIdList getIdList() {
+            return mIdList;
+        }
+
         ReaderBlogIdPostId getBlogIdPostIdAtPosition(int position) {
             if (isValidPosition(position)) {
                 return mIdList.get(position);
@@ -0,0 +1,188 @@
+package org.wordpress.android.ui.reader;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.v4.app.Fragment;
+import android.support.v4.app.FragmentActivity;
+import android.support.v4.app.FragmentManager;
+
+import org.wordpress.android.datasets.ReaderPostTable;
+import org.wordpress.android.models.ReaderPost;
+import org.wordpress.android.ui.reader.models.ReaderBlogIdPostId;
+import org.wordpress.android.ui.reader.models.ReaderBlogIdPostIdList;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor.Priority;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.NetworkUtils;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * prefetches the posts the user is likely to swipe to next in ReaderPostPagerActivity so they
+ * display immediately. The pager already creates the detail fragments within its offscreen page
+ * limit, so this works on the posts just beyond that in the direction the user is swiping:
+ *  - posts are loaded from the db and pre-rendered into ReaderRenderCache on a background thread
+ *  - on wifi, the nearest of those posts is loaded into an offscreen webView so its featured
+ *    and inline images are in the webView's cache by the time the pager shows it
+ * Each selection replaces the previous prefetch, so work for posts which are no longer ahead of
+ * the user (because they changed direction or left the pager) is abandoned. Only a weak reference
+ * to the activity is kept, and pre-rendering on the background thread uses the application context
+ * so a prefetch can't keep a destroyed activity alive.
+ */
+class ReaderPostPrefetcher {
+    // number of posts beyond the pager's offscreen pages to pre-render
+    private static final int NUM_POSTS_TO_PREFETCH = 3;
+
+    // max chars of post content pre-rendered per selection - kept well below the size of the
+    // render cache so prefetching can't evict the post the user is reading
+    private static final int MAX_PREFETCH_CHARS = 512 * 1024;
+
+    private static final String TAG_IMAGE_PREFETCH = "reader_image_prefetch";
+
+    private final WeakReference<FragmentActivity> mWeakActivity;
+    private final AtomicInteger mGeneration = new AtomicInteger();
+    private int mLastPosition = -1;
+    private boolean mIsForward = true;
+
+    ReaderPostPrefetcher(@NonNull FragmentActivity activity) {
+        mWeakActivity = new WeakReference<>(activity);
+    }
+
+    /*
+     * called when the post at the passed position is selected in the pager
+     */
+    void onPostSelected(@NonNull ReaderBlogIdPostIdList idList,
+                        int position,
+                        int offscreenPageLimit,
+                        final boolean isFeed) {
+        FragmentActivity activity = getActivity();
+        if (activity == null || position == mLastPosition) {
+            return;
+        }
+
+        boolean isForward = position > mLastPosition;
+        if (mLastPosition > -1 && isForward != mIsForward) {
+            AppLog.d(AppLog.T.READER, "reader prefetch > direction changed");
+            removeImagePrefetch();
+        }
+        mIsForward = isForward;
+        mLastPosition = position;
+
+        // skip the pages the pager has already created
+        int step = isForward ? 1 : -1;
+        int first = position + (step * (offscreenPageLimit + 1));
+        final List<ReaderBlogIdPostId> ids = new ArrayList<>();
+        for (int i = 0; i < NUM_POSTS_TO_PREFETCH; i++) {
+            int index = first + (step * i);
+            if (index < 0 || index >= idList.size()) {
+                break;
+            }
+            ids.add(idList.get(index));
+        }
+
+        // any prefetch still running for the previous selection stops when it sees this change
+        final int generation = mGeneration.incrementAndGet();
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        // the caching fragment only supports blog posts
+        if (!isFeed && NetworkUtils.isWiFiConnected(activity)) {
+            prefetchImages(ids.get(0));
+        }
+
+        final Context appContext = activity.getApplicationContext();
+        ReaderExecutor.execute(Priority.BACKGROUND, new Runnable() {
+            @Override
+            public void run() {
+                prerenderPosts(appContext, ids, isFeed, generation);
+            }
+        });
+    }
+
+    /*
+     * stops any prefetch in progress - called when the pager is going away
+     */
+    void cancel() {
+        mGeneration.incrementAndGet();
+        removeImagePrefetch();
+    }
+
+    /*
+     * returns the activity if it's still alive, null if it has been destroyed or is going away
+     */
+    private FragmentActivity getActivity() {
+        FragmentActivity activity = mWeakActivity.get();
+        if (activity == null || activity.isFinishing()) {
+            return null;
+        }
+        return activity;
+    }
+
+    private boolean isCancelled(int generation) {
+        return generation != mGeneration.get() || getActivity() == null;
+    }
+
+    private void prerenderPosts(@NonNull Context appContext, List<ReaderBlogIdPostId> ids, boolean isFeed,
+                                int generation) {
+        int numChars = 0;
+        int numRendered = 0;
+        for (ReaderBlogIdPostId id : ids) {
+            if (isCancelled(generation)) {
+                AppLog.d(AppLog.T.READER, "reader prefetch > cancelled");
+                return;
+            }
+
+            ReaderPost post = isFeed ? ReaderPostTable.getFeedPost(id.getBlogId(), id.getPostId(), false)
+                    : ReaderPostTable.getBlogPost(id.getBlogId(), id.getPostId(), false);
+            if (post == null) {
+                continue;
+            }
+
+            numChars += post.getText().length();
+            if (numChars > MAX_PREFETCH_CHARS) {
+                break;
+            }
+
+            ReaderPostRenderer.prerender(appContext, post);
+            numRendered++;
+        }
+
+        AppLog.d(AppLog.T.READER, String.format(Locale.ENGLISH,
+                "reader prefetch > pre-rendered %d of %d posts", numRendered, ids.size()));
+    }
+
+    private void prefetchImages(@NonNull ReaderBlogIdPostId id) {
+        removeImagePrefetch();
+        FragmentActivity activity = getActivity();
+        if (activity == null) {
+            return;
+        }
+        activity.getSupportFragmentManager()
+                 .beginTransaction()
+                 .add(ReaderPostWebViewCachingFragment.newInstance(id.getBlogId(), id.getPostId()),
+                         TAG_IMAGE_PREFETCH)
+                 .commitAllowingStateLoss();
+    }
+
+    /*
+     * removes the offscreen webView used to prefetch images, if it hasn't already finished
+     */
+    private void removeImagePrefetch() {
+        FragmentActivity activity = mWeakActivity.get();
+        if (activity == null) {
+            return;
+        }
+        FragmentManager fm = activity.getSupportFragmentManager();
+        Fragment fragment = fm.findFragmentByTag(TAG_IMAGE_PREFETCH);
+        if (fragment != null) {
+            fm.beginTransaction()
+              .remove(fragment)
+              .commitAllowingStateLoss();
+        }
+    }
+}
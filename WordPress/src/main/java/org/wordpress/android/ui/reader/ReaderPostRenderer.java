@@ -1,8 +1,10 @@
 package org.wordpress.android.ui.reader;
 
 import android.annotation.SuppressLint;
+import android.content.Context;
 import android.net.Uri;
 import android.os.Handler;
+import android.support.annotation.NonNull;
 
 import org.wordpress.android.R;
 import org.wordpress.android.WordPress;
@@ -10,10 +12,11 @@ import org.wordpress.android.models.ReaderPost;
 import org.wordpress.android.models.ReaderPostDiscoverData;
 import org.wordpress.android.ui.reader.utils.ImageSizeMap;
 import org.wordpress.android.ui.reader.utils.ImageSizeMap.ImageSize;
-import org.wordpress.android.ui.reader.utils.ReaderEmbedScanner;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor.Priority;
+import org.wordpress.android.ui.reader.utils.ReaderHtmlTagScanner;
+import org.wordpress.android.ui.reader.utils.ReaderHtmlTagScanner.TagType;
 import org.wordpress.android.ui.reader.utils.ReaderHtmlUtils;
-import org.wordpress.android.ui.reader.utils.ReaderIframeScanner;
-import org.wordpress.android.ui.reader.utils.ReaderImageScanner;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.ui.reader.views.ReaderWebView;
 import org.wordpress.android.util.AppLog;
@@ -39,63 +42,88 @@ import java.util.regex.Pattern;
  * http://developer.android.com/guide/webapps/targeting.html
  */
 public class ReaderPostRenderer {
+    private static final Pattern TILED_GALLERY_PATTERN = Pattern.compile("tiled-gallery[\\s\"']");
+
+    // adds a custom CSS class to (any) tiled gallery elements to make them easier selectable for various rules
+    private static final List<Pattern> GALLERY_CLASS_PATTERNS = Arrays.asList(
+            Pattern.compile("(tiled-gallery) ([\\s\"\'])"),
+            Pattern.compile("(gallery-row) ([\\s\"'])"),
+            Pattern.compile("(gallery-group) ([\\s\"'])"),
+            Pattern.compile("(tiled-gallery-item) ([\\s\"'])"));
+
     private final ReaderResourceVars mResourceVars;
     private final ReaderPost mPost;
     private final int mMinFullSizeWidthDp;
     private final int mMinMidSizeWidthDp;
     private final WeakReference<ReaderWebView> mWeakWebView;
 
-    private StringBuilder mRenderBuilder;
     private String mRenderedHtml;
     private ImageSizeMap mAttachmentSizes;
 
     @SuppressLint("SetJavaScriptEnabled")
     public ReaderPostRenderer(ReaderWebView webView, ReaderPost post) {
-        if (webView == null) {
-            throw new IllegalArgumentException("ReaderPostRenderer requires a webView");
-        }
+        this(requireWebView(webView).getContext(), webView, post);
+
+        // enable JavaScript in the webView, otherwise videos and other embedded content won't
+        // work - note that the content is scrubbed on the backend so this is considered safe
+        webView.getSettings().setJavaScriptEnabled(true);
+    }
+
+    /*
+     * webView will be null when the renderer is only used to pre-render the post's HTML
+     */
+    private ReaderPostRenderer(Context context, ReaderWebView webView, ReaderPost post) {
         if (post == null) {
             throw new IllegalArgumentException("ReaderPostRenderer requires a post");
         }
 
         mPost = post;
         mWeakWebView = new WeakReference<>(webView);
-        mResourceVars = new ReaderResourceVars(webView.getContext());
+        mResourceVars = new ReaderResourceVars(context);
 
         mMinFullSizeWidthDp = pxToDp(mResourceVars.mFullSizeImageWidthPx / 3);
         mMinMidSizeWidthDp = mMinFullSizeWidthDp / 2;
+    }
 
-        // enable JavaScript in the webView, otherwise videos and other embedded content won't
-        // work - note that the content is scrubbed on the backend so this is considered safe
-        webView.getSettings().setJavaScriptEnabled(true);
+    private static ReaderWebView requireWebView(ReaderWebView webView) {
+        if (webView == null) {
+            throw new IllegalArgumentException("ReaderPostRenderer requires a webView");
+        }
+        return webView;
+    }
+
+    /*
+     * generates the HTML for the passed post and adds it to the render cache without displaying
+     * it, so the post renders immediately when it's later shown at the same width - this does
+     * the same work as beginRender() so it must be called from a background thread
+     */
+    static void prerender(@NonNull Context context, @NonNull ReaderPost post) {
+        ReaderPostRenderer renderer = new ReaderPostRenderer(context, null, post);
+        String content = renderer.getPostContent();
+        String cacheKey = ReaderRenderCache.getKey(post, content, renderer.mResourceVars);
+        if (ReaderRenderCache.get(cacheKey) == null) {
+            ReaderRenderCache.put(cacheKey, renderer.makeHtmlContent(content));
+        }
     }
 
     public void beginRender() {
+        final String content = getPostContent();
+
+        // skip the scanning and formatting below if this exact content was already rendered
+        final String cacheKey = ReaderRenderCache.getKey(mPost, content, mResourceVars);
+        String cachedHtml = ReaderRenderCache.get(cacheKey);
+        if (cachedHtml != null) {
+            renderHtmlContent(cachedHtml);
+            return;
+        }
+
         final Handler handler = new Handler();
-        mRenderBuilder = new StringBuilder(getPostContent());
 
-        new Thread() {
+        ReaderExecutor.execute(Priority.RENDER, new Runnable() {
             @Override
             public void run() {
-                final boolean hasTiledGallery = hasTiledGallery(mRenderBuilder.toString());
-
-                if (!(hasTiledGallery && mResourceVars.mIsWideDisplay)) {
-                    resizeImages();
-                }
-
-                resizeIframes();
-
-                // Get the set of JS scripts to inject in our Webview to support some specific Embeds.
-                Set<String> jsToInject = injectJSForSpecificEmbedSupport();
-
-                final String htmlContent =
-                        formatPostContentForWebView(
-                                mRenderBuilder.toString(),
-                                jsToInject,
-                                hasTiledGallery,
-                                mResourceVars.mIsWideDisplay);
-
-                mRenderBuilder = null;
+                final String htmlContent = makeHtmlContent(content);
+                ReaderRenderCache.put(cacheKey, htmlContent);
                 handler.post(new Runnable() {
                     @Override
                     public void run() {
@@ -103,58 +131,73 @@ public class ReaderPostRenderer {
                     }
                 });
             }
-        }.start();
+        });
+    }
+
+    /*
+     * returns the full HTML document used to display the passed content in the webView
+     */
+    private String makeHtmlContent(final String content) {
+        final boolean hasTiledGallery = hasTiledGallery(content);
+        boolean resizeImages = !(hasTiledGallery && mResourceVars.mIsWideDisplay);
+
+        // Get the set of JS scripts to inject in our Webview to support some specific Embeds.
+        Set<String> jsToInject = new HashSet<>();
+
+        String resizedContent = resizeContent(content, resizeImages, jsToInject);
+
+        return formatPostContentForWebView(
+                resizedContent,
+                jsToInject,
+                hasTiledGallery,
+                mResourceVars.mIsWideDisplay);
     }
 
     public static boolean hasTiledGallery(String text) {
         // determine whether a tiled-gallery exists in the content
-        return Pattern.compile("tiled-gallery[\\s\"']").matcher(text).find();
+        return TILED_GALLERY_PATTERN.matcher(text).find();
     }
 
     /*
-     * scan the content for images and make sure they're correctly sized for the device
+     * scans the content once for images, iframes and embeds - images and iframes are replaced
+     * with tags correctly sized for the device, and the scripts required by embeds are added to
+     * the passed set. Replacements are appended in order as the scanner finds them, so the
+     * content is only copied once no matter how many tags it contains.
      */
-    private void resizeImages() {
-        ReaderHtmlUtils.HtmlScannerListener imageListener = new ReaderHtmlUtils.HtmlScannerListener() {
-            @Override
-            public void onTagFound(String imageTag, String imageUrl) {
-                if (!imageUrl.contains("wpcom-smileys")) {
-                    replaceImageTag(imageTag, imageUrl);
-                }
-            }
-        };
-        String content = mRenderBuilder.toString();
-        ReaderImageScanner scanner = new ReaderImageScanner(content, mPost.isPrivate);
-        scanner.beginScan(imageListener);
-    }
+    private String resizeContent(final String content, final boolean resizeImages, final Set<String> jsToInject) {
+        final StringBuilder sbContent = new StringBuilder(content.length() + content.length() / 8);
+        final int[] copiedUpTo = {0};
 
-    /*
-     * scan the content for iframes and make sure they're correctly sized for the device
-     */
-    private void resizeIframes() {
-        ReaderHtmlUtils.HtmlScannerListener iframeListener = new ReaderHtmlUtils.HtmlScannerListener() {
+        ReaderHtmlTagScanner.scan(content, ReaderHtmlTagScanner.ALL_TAG_TYPES, new ReaderHtmlTagScanner.TagListener() {
             @Override
-            public void onTagFound(String tag, String src) {
-                replaceIframeTag(tag, src);
+            public boolean onTagFound(@NonNull TagType tagType, int start, int end, @NonNull String src) {
+                final String newTag;
+                switch (tagType) {
+                    case IMAGE:
+                        if (!resizeImages || src.contains("wpcom-smileys")) {
+                            return true;
+                        }
+                        newTag = makeResizedImageTag(content.substring(start, end), src);
+                        break;
+                    case IFRAME:
+                        newTag = makeResizedIframeTag(content.substring(start, end), src);
+                        break;
+                    case EMBED:
+                    default:
+                        jsToInject.add(src);
+                        return true;
+                }
+                sbContent.append(content, copiedUpTo[0], start).append(newTag);
+                copiedUpTo[0] = end;
+                return true;
             }
-        };
-        String content = mRenderBuilder.toString();
-        ReaderIframeScanner scanner = new ReaderIframeScanner(content);
-        scanner.beginScan(iframeListener);
-    }
+        });
 
-    private Set<String> injectJSForSpecificEmbedSupport() {
-        final Set<String> jsToInject = new HashSet<>();
-        ReaderHtmlUtils.HtmlScannerListener embedListener = new ReaderHtmlUtils.HtmlScannerListener() {
-            @Override
-            public void onTagFound(String tag, String src) {
-                jsToInject.add(src);
-            }
-        };
-        String content = mRenderBuilder.toString();
-        ReaderEmbedScanner scanner = new ReaderEmbedScanner(content);
-        scanner.beginScan(embedListener);
-        return jsToInject;
+        if (copiedUpTo[0] == 0) {
+            return content;
+        }
+        sbContent.append(content, copiedUpTo[0], content.length());
+        return sbContent.toString();
     }
 
     /*
@@ -178,11 +221,11 @@ public class ReaderPostRenderer {
     }
 
     /*
-     * called when image scanner finds an image, tries to replace the image tag with one that
-     * has height & width attributes set correctly for the current display, if that fails
-     * replaces it with one that has our 'size-none' class
+     * called when the scanner finds an image, returns an image tag to replace it with that has
+     * height & width attributes set correctly for the current display, if that fails returns
+     * one that has our 'size-none' class
      */
-    private void replaceImageTag(final String imageTag, final String imageUrl) {
+    private String makeResizedImageTag(final String imageTag, final String imageUrl) {
         ImageSize origSize = getImageSize(imageTag, imageUrl);
         boolean hasWidth = (origSize != null && origSize.width > 0);
         boolean isFullSize = hasWidth && (origSize.width >= mMinFullSizeWidthDp);
@@ -190,24 +233,15 @@ public class ReaderPostRenderer {
                             && (origSize.width >= mMinMidSizeWidthDp)
                             && (origSize.width < mMinFullSizeWidthDp);
 
-        final String newImageTag;
         if (isFullSize) {
-            newImageTag = makeFullSizeImageTag(imageUrl, origSize.width, origSize.height);
+            return makeFullSizeImageTag(imageUrl, origSize.width, origSize.height);
         } else if (isMidSize) {
-            newImageTag = makeImageTag(imageUrl, origSize.width, origSize.height, "size-medium");
+            return makeImageTag(imageUrl, origSize.width, origSize.height, "size-medium");
         } else if (hasWidth) {
-            newImageTag = makeImageTag(imageUrl, origSize.width, origSize.height, "size-none");
+            return makeImageTag(imageUrl, origSize.width, origSize.height, "size-none");
         } else {
-            newImageTag = "<img class='size-none' src='" + imageUrl + "' />";
+            return "<img class='size-none' src='" + imageUrl + "' />";
         }
-
-        int start = mRenderBuilder.indexOf(imageTag);
-        if (start == -1) {
-            AppLog.w(AppLog.T.READER, "reader renderer > image not found in builder");
-            return;
-        }
-
-        mRenderBuilder.replace(start, start + imageTag.length(), newImageTag);
     }
 
     private String makeImageTag(final String imageUrl, int width, int height, final String imageClass) {
@@ -312,9 +346,9 @@ public class ReaderPostRenderer {
     }
 
     /*
-     * replace the passed iframe tag with one that's correctly sized for the device
+     * returns an iframe tag to replace the passed one with that's correctly sized for the device
      */
-    private void replaceIframeTag(final String tag, final String src) {
+    private String makeResizedIframeTag(final String tag, final String src) {
         int width = ReaderHtmlUtils.getWidthAttrValue(tag);
         int height = ReaderHtmlUtils.getHeightAttrValue(tag);
 
@@ -329,18 +363,10 @@ public class ReaderPostRenderer {
             newHeight = mResourceVars.mVideoHeightPx;
         }
 
-        String newTag = "<iframe src='" + src + "'"
-                        + " frameborder='0' allowfullscreen='true' allowtransparency='true'"
-                        + " width='" + pxToDp(newWidth) + "'"
-                        + " height='" + pxToDp(newHeight) + "' />";
-
-        int start = mRenderBuilder.indexOf(tag);
-        if (start == -1) {
-            AppLog.w(AppLog.T.READER, "reader renderer > iframe not found in builder");
-            return;
-        }
-
-        mRenderBuilder.replace(start, start + tag.length(), newTag);
+        return "<iframe src='" + src + "'"
+               + " frameborder='0' allowfullscreen='true' allowtransparency='true'"
+               + " width='" + pxToDp(newWidth) + "'"
+               + " height='" + pxToDp(newHeight) + "' />";
     }
 
     /*
@@ -515,15 +541,9 @@ public class ReaderPostRenderer {
                 .append(" .OUTBRAIN, .adsbygoogle { display: none; }")
                 .append("</style>");
 
-        // add a custom CSS class to (any) tiled gallery elements to make them easier selectable for various rules
-        final List<String> classAmendRegexes = Arrays.asList(
-                "(tiled-gallery) ([\\s\"\'])",
-                "(gallery-row) ([\\s\"'])",
-                "(gallery-group) ([\\s\"'])",
-                "(tiled-gallery-item) ([\\s\"'])");
         String contentCustomised = content;
-        for (String classToAmend : classAmendRegexes) {
-            contentCustomised = contentCustomised.replaceAll(classToAmend, "$1 " + galleryOnlyClass + "$2");
+        for (Pattern classToAmend : GALLERY_CLASS_PATTERNS) {
+            contentCustomised = classToAmend.matcher(contentCustomised).replaceAll("$1 " + galleryOnlyClass + "$2");
         }
 
         for (String jsUrl : jsToInject) {
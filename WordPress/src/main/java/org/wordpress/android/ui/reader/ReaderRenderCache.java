@@ -0,0 +1,54 @@
+package org.wordpress.android.ui.reader;
+
+import android.support.v4.util.LruCache;
+
+import org.wordpress.android.models.ReaderPost;
+import org.wordpress.android.util.StringUtils;
+
+import java.util.Locale;
+
+/*
+ * in-memory LRU cache of the HTML generated by ReaderPostRenderer, so swiping back and forth
+ * between posts (or opening a post that was pre-rendered by ReaderPostWebViewCachingFragment or
+ * ReaderPostPrefetcher) doesn't re-scan and re-format the content. Entries are keyed on the post's pseudo ID, a hash
+ * of the content being rendered, a hash of the attachments (whose sizes are used when resizing images) and the
+ * display width, so edited posts and configuration changes result in a new entry rather than stale HTML.
+ */
+class ReaderRenderCache {
+    // max size is measured in chars rather than entries since posts vary enormously in length
+    private static final int MAX_CACHE_CHARS = 2 * 1024 * 1024;
+    // posts larger than this aren't cached so a single huge post can't push out everything else
+    private static final int MAX_ENTRY_CHARS = MAX_CACHE_CHARS / 4;
+
+    private static final LruCache<String, String> CACHE = new LruCache<String, String>(MAX_CACHE_CHARS) {
+        @Override
+        protected int sizeOf(String key, String html) {
+            return html.length();
+        }
+    };
+
+    private ReaderRenderCache() {
+        throw new AssertionError();
+    }
+
+    static String getKey(ReaderPost post, String content, ReaderResourceVars resourceVars) {
+        // private posts use different image urls, so the privacy flag is part of the key
+        return String.format(Locale.ENGLISH, "%s:%d:%d:%b:%d:%b",
+                post.getPseudoId(),
+                content.hashCode(),
+                StringUtils.notNullStr(post.getAttachmentsJson()).hashCode(),
+                post.isPrivate,
+                resourceVars.mFullSizeImageWidthPx,
+                resourceVars.mIsWideDisplay);
+    }
+
+    static String get(String key) {
+        return CACHE.get(key);
+    }
+
+    static void put(String key, String html) {
+        if (html.length() <= MAX_ENTRY_CHARS) {
+            CACHE.put(key, html);
+        }
+    }
+}
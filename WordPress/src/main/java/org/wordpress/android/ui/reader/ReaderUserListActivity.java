@@ -14,6 +14,8 @@ import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.datasets.ReaderUserTable;
 import org.wordpress.android.models.ReaderUserList;
 import org.wordpress.android.ui.reader.adapters.ReaderUserAdapter;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor.Priority;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.ui.reader.views.ReaderRecyclerView;
 import org.wordpress.android.util.DisplayUtils;
@@ -101,7 +103,7 @@ public class ReaderUserListActivity extends AppCompatActivity {
     private void loadUsers(final long blogId,
                            final long postId,
                            final long commentId) {
-        new Thread() {
+        ReaderExecutor.execute(Priority.RENDER, new Runnable() {
             @Override
             public void run() {
                 final String title = getTitleString(blogId, postId, commentId);
@@ -131,7 +133,7 @@ public class ReaderUserListActivity extends AppCompatActivity {
                     }
                 });
             }
-        }.start();
+        });
     }
 
     private String getTitleString(final long blogId,
@@ -33,6 +33,8 @@ import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResult;
 import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResultListener;
 import org.wordpress.android.ui.reader.models.ReaderSimplePost;
 import org.wordpress.android.ui.reader.models.ReaderSimplePostList;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor.Priority;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 import org.wordpress.android.util.DateTimeUtils;
@@ -151,7 +153,7 @@ public class ReaderPostActions {
 
         final Handler handler = new Handler();
 
-        new Thread() {
+        ReaderExecutor.executeDbWrite(Priority.STREAM, new Runnable() {
             @Override
             public void run() {
                 ReaderPost serverPost = ReaderPost.fromJson(jsonObject);
@@ -203,7 +205,7 @@ public class ReaderPostActions {
                     });
                 }
             }
-        }.start();
+        });
     }
 
     /*
@@ -396,7 +398,7 @@ public class ReaderPostActions {
             return;
         }
 
-        new Thread() {
+        ReaderExecutor.execute(Priority.BACKGROUND, new Runnable() {
             @Override
             public void run() {
                 JSONArray jsonPosts = jsonObject.optJSONArray("posts");
@@ -416,7 +418,7 @@ public class ReaderPostActions {
                                                                                     globalRelatedPosts));
                 }
             }
-        }.start();
+        });
     }
 
     public static void addToBookmarked(@NonNull final ReaderPost post) {
@@ -20,4 +20,22 @@ public class ReaderBlogIdPostId implements Serializable {
     public long getPostId() {
         return mPostId;
     }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ReaderBlogIdPostId)) {
+            return false;
+        }
+        ReaderBlogIdPostId ids = (ReaderBlogIdPostId) other;
+        return mBlogId == ids.mBlogId && mPostId == ids.mPostId;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (mBlogId ^ (mBlogId >>> 32));
+        return 31 * result + (int) (mPostId ^ (mPostId >>> 32));
+    }
 }
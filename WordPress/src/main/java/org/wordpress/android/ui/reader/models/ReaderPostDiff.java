@@ -0,0 +1,58 @@
+package org.wordpress.android.ui.reader.models;
+
+import android.support.annotation.NonNull;
+
+import org.wordpress.android.ui.reader.actions.ReaderActions;
+
+/**
+ * result of comparing a list of posts (usually retrieved from the server) with the posts
+ * already in the local db - see ReaderPostTable.getPostDiff()
+ */
+public class ReaderPostDiff {
+    private final ReaderBlogIdPostIdList mNewPosts = new ReaderBlogIdPostIdList();
+    private final ReaderBlogIdPostIdList mChangedPosts = new ReaderBlogIdPostIdList();
+    private final ReaderBlogIdPostIdList mExistingPosts = new ReaderBlogIdPostIdList();
+
+    public void addNewPost(@NonNull ReaderBlogIdPostId ids) {
+        mNewPosts.add(ids);
+    }
+
+    /*
+     * existing posts are those which are already in the db, whether or not they've changed
+     */
+    public void addExistingPost(@NonNull ReaderBlogIdPostId ids, boolean isChanged) {
+        mExistingPosts.add(ids);
+        if (isChanged) {
+            mChangedPosts.add(ids);
+        }
+    }
+
+    public ReaderBlogIdPostIdList getNewPosts() {
+        return mNewPosts;
+    }
+
+    public ReaderBlogIdPostIdList getChangedPosts() {
+        return mChangedPosts;
+    }
+
+    public ReaderBlogIdPostIdList getExistingPosts() {
+        return mExistingPosts;
+    }
+
+    /*
+     * returns true if any of the compared posts already exist in the db
+     */
+    public boolean hasOverlap() {
+        return !mExistingPosts.isEmpty();
+    }
+
+    public ReaderActions.UpdateResult getUpdateResult() {
+        if (!mNewPosts.isEmpty()) {
+            return ReaderActions.UpdateResult.HAS_NEW;
+        } else if (!mChangedPosts.isEmpty()) {
+            return ReaderActions.UpdateResult.CHANGED;
+        } else {
+            return ReaderActions.UpdateResult.UNCHANGED;
+        }
+    }
+}
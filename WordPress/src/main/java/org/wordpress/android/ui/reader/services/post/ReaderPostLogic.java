@@ -2,10 +2,9 @@ package org.wordpress.android.ui.reader.services.post;
 
 import android.text.TextUtils;
 
+import com.android.volley.Response;
 import com.android.volley.VolleyError;
-import com.wordpress.rest.RestRequest;
 
-import org.json.JSONObject;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.datasets.ReaderTagTable;
@@ -17,8 +16,11 @@ import org.wordpress.android.ui.reader.ReaderConstants;
 import org.wordpress.android.ui.reader.ReaderEvents;
 import org.wordpress.android.ui.reader.actions.ReaderActions;
 import org.wordpress.android.ui.reader.models.ReaderBlogIdPostId;
+import org.wordpress.android.ui.reader.models.ReaderPostDiff;
 import org.wordpress.android.ui.reader.services.ServiceCompletionListener;
 import org.wordpress.android.ui.reader.services.post.ReaderPostServiceStarter.UpdateAction;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor.Priority;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.StringUtils;
@@ -123,17 +125,17 @@ public class ReaderPostLogic {
 
         sb.append("&meta=site,likes");
 
-        com.wordpress.rest.RestRequest.Listener listener = new RestRequest.Listener() {
+        Response.Listener<ReaderPostList> listener = new Response.Listener<ReaderPostList>() {
             @Override
-            public void onResponse(JSONObject jsonObject) {
+            public void onResponse(ReaderPostList serverPosts) {
                 // remember when this tag was updated if newer posts were requested
                 if (updateAction == UpdateAction.REQUEST_NEWER) {
                     ReaderTagTable.setTagLastUpdated(tag);
                 }
-                handleUpdatePostsResponse(tag, jsonObject, updateAction, resultListener);
+                handleUpdatePostsResponse(tag, serverPosts, updateAction, resultListener);
             }
         };
-        RestRequest.ErrorListener errorListener = new RestRequest.ErrorListener() {
+        Response.ErrorListener errorListener = new Response.ErrorListener() {
             @Override
             public void onErrorResponse(VolleyError volleyError) {
                 AppLog.e(AppLog.T.READER, volleyError);
@@ -141,7 +143,8 @@ public class ReaderPostLogic {
             }
         };
 
-        WordPress.getRestClientUtilsV1_2().get(sb.toString(), null, null, listener, errorListener);
+        WordPress.getRestClientUtilsV1_2().getParsed(sb.toString(), null, ReaderPostList.RESPONSE_PARSER,
+                listener, errorListener);
     }
 
     private static void requestPostsForBlog(final long blogId,
@@ -157,13 +160,13 @@ public class ReaderPostLogic {
             }
         }
 
-        com.wordpress.rest.RestRequest.Listener listener = new RestRequest.Listener() {
+        Response.Listener<ReaderPostList> listener = new Response.Listener<ReaderPostList>() {
             @Override
-            public void onResponse(JSONObject jsonObject) {
-                handleUpdatePostsResponse(null, jsonObject, updateAction, resultListener);
+            public void onResponse(ReaderPostList serverPosts) {
+                handleUpdatePostsResponse(null, serverPosts, updateAction, resultListener);
             }
         };
-        RestRequest.ErrorListener errorListener = new RestRequest.ErrorListener() {
+        Response.ErrorListener errorListener = new Response.ErrorListener() {
             @Override
             public void onErrorResponse(VolleyError volleyError) {
                 AppLog.e(AppLog.T.READER, volleyError);
@@ -171,7 +174,8 @@ public class ReaderPostLogic {
             }
         };
         AppLog.d(AppLog.T.READER, "updating posts in blog " + blogId);
-        WordPress.getRestClientUtilsV1_2().get(path, null, null, listener, errorListener);
+        WordPress.getRestClientUtilsV1_2().getParsed(path, null, ReaderPostList.RESPONSE_PARSER,
+                listener, errorListener);
     }
 
     private static void requestPostsForFeed(final long feedId,
@@ -185,13 +189,13 @@ public class ReaderPostLogic {
             }
         }
 
-        com.wordpress.rest.RestRequest.Listener listener = new RestRequest.Listener() {
+        Response.Listener<ReaderPostList> listener = new Response.Listener<ReaderPostList>() {
             @Override
-            public void onResponse(JSONObject jsonObject) {
-                handleUpdatePostsResponse(null, jsonObject, updateAction, resultListener);
+            public void onResponse(ReaderPostList serverPosts) {
+                handleUpdatePostsResponse(null, serverPosts, updateAction, resultListener);
             }
         };
-        RestRequest.ErrorListener errorListener = new RestRequest.ErrorListener() {
+        Response.ErrorListener errorListener = new Response.ErrorListener() {
             @Override
             public void onErrorResponse(VolleyError volleyError) {
                 AppLog.e(AppLog.T.READER, volleyError);
@@ -200,26 +204,29 @@ public class ReaderPostLogic {
         };
 
         AppLog.d(AppLog.T.READER, "updating posts in feed " + feedId);
-        WordPress.getRestClientUtilsV1_2().get(path, null, null, listener, errorListener);
+        WordPress.getRestClientUtilsV1_2().getParsed(path, null, ReaderPostList.RESPONSE_PARSER,
+                listener, errorListener);
     }
 
     /*
      * called after requesting posts with a specific tag or in a specific blog/feed
      */
     private static void handleUpdatePostsResponse(final ReaderTag tag,
-                                                  final JSONObject jsonObject,
+                                                  final ReaderPostList serverPosts,
                                                   final UpdateAction updateAction,
                                                   final ReaderActions.UpdateResultListener resultListener) {
-        if (jsonObject == null) {
+        if (serverPosts == null) {
             resultListener.onUpdateResult(ReaderActions.UpdateResult.FAILED);
             return;
         }
 
-        new Thread() {
+        ReaderExecutor.executeDbWrite(Priority.STREAM, new Runnable() {
             @Override
             public void run() {
-                ReaderPostList serverPosts = ReaderPostList.fromJson(jsonObject);
-                ReaderActions.UpdateResult updateResult = ReaderPostTable.comparePosts(serverPosts);
+                // compare server posts with local ones in a single pass - the diff is used both to
+                // determine the update result and to detect gaps below
+                ReaderPostDiff postDiff = ReaderPostTable.getPostDiff(serverPosts);
+                ReaderActions.UpdateResult updateResult = postDiff.getUpdateResult();
                 if (updateResult.isNewOrChanged()) {
                     // gap detection - only applies to posts with a specific tag
                     ReaderPost postWithGap = null;
@@ -232,7 +239,7 @@ public class ReaderPostLogic {
                                 int numServerPosts = serverPosts.size();
                                 if (numServerPosts >= 2
                                     && ReaderPostTable.getNumPostsWithTag(tag) > 0
-                                    && !ReaderPostTable.hasOverlap(serverPosts)) {
+                                    && !postDiff.hasOverlap()) {
                                     // treat the second to last server post as having a gap
                                     postWithGap = serverPosts.get(numServerPosts - 2);
                                     // remove the last server post to deal with the edge case of
@@ -274,7 +281,7 @@ public class ReaderPostLogic {
                 AppLog.d(AppLog.T.READER, "requested posts response = " + updateResult.toString());
                 resultListener.onUpdateResult(updateResult);
             }
-        }.start();
+        });
     }
 
     /*
@@ -1,15 +1,16 @@
 package org.wordpress.android.ui.reader.services.search;
 
+import com.android.volley.Response;
 import com.android.volley.VolleyError;
-import com.wordpress.rest.RestRequest;
 
-import org.json.JSONObject;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.models.ReaderPostList;
 import org.wordpress.android.ui.reader.ReaderConstants;
 import org.wordpress.android.ui.reader.ReaderEvents;
 import org.wordpress.android.ui.reader.services.ServiceCompletionListener;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor.Priority;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.UrlUtils;
 
@@ -33,17 +34,17 @@ public class ReaderSearchLogic {
                       + "&offset=" + offset
                       + "&meta=site,likes";
 
-        RestRequest.Listener listener = new RestRequest.Listener() {
+        Response.Listener<ReaderPostList> listener = new Response.Listener<ReaderPostList>() {
             @Override
-            public void onResponse(JSONObject jsonObject) {
-                if (jsonObject != null) {
-                    handleSearchResponse(query, offset, jsonObject);
+            public void onResponse(ReaderPostList serverPosts) {
+                if (serverPosts != null) {
+                    handleSearchResponse(query, offset, serverPosts);
                 } else {
                     EventBus.getDefault().post(new ReaderEvents.SearchPostsEnded(query, offset, false));
                 }
             }
         };
-        RestRequest.ErrorListener errorListener = new RestRequest.ErrorListener() {
+        Response.ErrorListener errorListener = new Response.ErrorListener() {
             @Override
             public void onErrorResponse(VolleyError volleyError) {
                 AppLog.e(AppLog.T.READER, volleyError);
@@ -54,18 +55,18 @@ public class ReaderSearchLogic {
 
         AppLog.d(AppLog.T.READER, "reader search service > starting search for " + query);
         EventBus.getDefault().post(new ReaderEvents.SearchPostsStarted(query, offset));
-        WordPress.getRestClientUtilsV1_2().get(path, null, null, listener, errorListener);
+        WordPress.getRestClientUtilsV1_2().getParsed(path, null, ReaderPostList.RESPONSE_PARSER,
+                listener, errorListener);
     }
 
-    private void handleSearchResponse(final String query, final int offset, final JSONObject jsonObject) {
-        new Thread() {
+    private void handleSearchResponse(final String query, final int offset, final ReaderPostList serverPosts) {
+        ReaderExecutor.executeDbWrite(Priority.STREAM, new Runnable() {
             @Override
             public void run() {
-                ReaderPostList serverPosts = ReaderPostList.fromJson(jsonObject);
                 ReaderPostTable.addOrUpdatePosts(getTagForSearchQuery(query), serverPosts);
                 EventBus.getDefault().post(new ReaderEvents.SearchPostsEnded(query, offset, true));
                 mCompletionListener.onCompleted(mListenerCompanion);
             }
-        }.start();
+        });
     }
 }
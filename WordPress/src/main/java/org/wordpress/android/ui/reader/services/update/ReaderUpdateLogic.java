@@ -22,6 +22,8 @@ import org.wordpress.android.models.ReaderTagType;
 import org.wordpress.android.ui.reader.ReaderConstants;
 import org.wordpress.android.ui.reader.ReaderEvents;
 import org.wordpress.android.ui.reader.services.ServiceCompletionListener;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor;
+import org.wordpress.android.ui.reader.utils.ReaderExecutor.Priority;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.JSONUtils;
 import org.wordpress.android.util.LocaleManager;
@@ -118,7 +120,7 @@ public class ReaderUpdateLogic {
     }
 
     private void handleUpdateTagsResponse(final JSONObject jsonObject) {
-        new Thread() {
+        ReaderExecutor.executeDbWrite(Priority.BACKGROUND, new Runnable() {
             @Override
             public void run() {
                 // get server topics, both default & followed - but use "recommended" for logged-out
@@ -167,7 +169,7 @@ public class ReaderUpdateLogic {
 
                 taskCompleted(UpdateTask.TAGS);
             }
-        }.start();
+        });
     }
 
     /*
@@ -251,7 +253,7 @@ public class ReaderUpdateLogic {
     }
 
     private void handleFollowedBlogsResponse(final JSONObject jsonObject) {
-        new Thread() {
+        ReaderExecutor.executeDbWrite(Priority.BACKGROUND, new Runnable() {
             @Override
             public void run() {
                 ReaderBlogList serverBlogs = ReaderBlogList.fromJson(jsonObject);
@@ -273,7 +275,7 @@ public class ReaderUpdateLogic {
 
                 taskCompleted(UpdateTask.FOLLOWED_BLOGS);
             }
-        }.start();
+        });
     }
 
     /***
@@ -302,7 +304,7 @@ public class ReaderUpdateLogic {
     }
 
     private void handleRecommendedBlogsResponse(final JSONObject jsonObject) {
-        new Thread() {
+        ReaderExecutor.executeDbWrite(Priority.BACKGROUND, new Runnable() {
             @Override
             public void run() {
                 ReaderRecommendBlogList serverBlogs = ReaderRecommendBlogList.fromJson(jsonObject);
@@ -315,6 +317,6 @@ public class ReaderUpdateLogic {
 
                 taskCompleted(UpdateTask.RECOMMENDED_BLOGS);
             }
-        }.start();
+        });
     }
 }
@@ -0,0 +1,145 @@
+package org.wordpress.android.ui.reader.utils;
+
+import android.support.annotation.NonNull;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.Locale;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs reader background work on a small, shared set of threads rather than spawning a new
+ * thread for every task. Tasks are run in priority order (then in the order they were submitted),
+ * and tasks which write to the reader database should use executeDbWrite() so they're run one
+ * at a time on a single writer thread.
+ */
+public class ReaderExecutor {
+    public enum Priority {
+        RENDER, // work the user is waiting to see, such as rendering the post they're viewing
+        STREAM, // reading or writing the posts/comments in the stream being displayed
+        BACKGROUND // prefetching, purging and other work the user isn't waiting on
+    }
+
+    private static final int NUM_POOL_THREADS =
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final ThreadPoolExecutor POOL_EXECUTOR =
+            createExecutor(NUM_POOL_THREADS, "reader-pool");
+    private static final ThreadPoolExecutor WRITER_EXECUTOR =
+            createExecutor(1, "reader-writer");
+
+    private static final AtomicLong TASK_SEQUENCE = new AtomicLong();
+    private static final AtomicInteger MAX_POOL_QUEUE_DEPTH = new AtomicInteger();
+    private static final AtomicInteger MAX_WRITER_QUEUE_DEPTH = new AtomicInteger();
+
+    private ReaderExecutor() {
+        throw new AssertionError();
+    }
+
+    /*
+     * runs the passed task on the shared reader thread pool - use this for work which doesn't
+     * write to the reader database
+     */
+    public static void execute(@NonNull Priority priority, @NonNull Runnable task) {
+        POOL_EXECUTOR.execute(new PrioritizedTask(priority, task));
+        updateMaxQueueDepth(POOL_EXECUTOR, MAX_POOL_QUEUE_DEPTH, "pool");
+    }
+
+    /*
+     * runs the passed task on the single reader database writer thread, so writes from different
+     * responses are never interleaved
+     */
+    public static void executeDbWrite(@NonNull Priority priority, @NonNull Runnable task) {
+        WRITER_EXECUTOR.execute(new PrioritizedTask(priority, task));
+        updateMaxQueueDepth(WRITER_EXECUTOR, MAX_WRITER_QUEUE_DEPTH, "writer");
+    }
+
+    public static int getPoolQueueDepth() {
+        return POOL_EXECUTOR.getQueue().size();
+    }
+
+    public static int getWriterQueueDepth() {
+        return WRITER_EXECUTOR.getQueue().size();
+    }
+
+    public static int getMaxPoolQueueDepth() {
+        return MAX_POOL_QUEUE_DEPTH.get();
+    }
+
+    public static int getMaxWriterQueueDepth() {
+        return MAX_WRITER_QUEUE_DEPTH.get();
+    }
+
+    private static void updateMaxQueueDepth(@NonNull ThreadPoolExecutor executor,
+                                            @NonNull AtomicInteger maxDepth,
+                                            @NonNull String name) {
+        int depth = executor.getQueue().size();
+        int currentMax = maxDepth.get();
+        while (depth > currentMax) {
+            if (maxDepth.compareAndSet(currentMax, depth)) {
+                AppLog.d(T.READER, String.format(Locale.ENGLISH,
+                        "reader executor > %s queue depth reached %d", name, depth));
+                return;
+            }
+            currentMax = maxDepth.get();
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor(int numThreads, @NonNull final String threadName) {
+        ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger mThreadNumber = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(@NonNull Runnable runnable) {
+                Thread thread = new Thread(runnable, threadName + "-" + mThreadNumber.getAndIncrement());
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            }
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                numThreads,
+                numThreads,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(),
+                threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /*
+     * orders tasks by priority, then by the order they were submitted in
+     */
+    private static class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+        private final Priority mPriority;
+        private final long mSequence;
+        private final Runnable mTask;
+
+        PrioritizedTask(@NonNull Priority priority, @NonNull Runnable task) {
+            mPriority = priority;
+            mSequence = TASK_SEQUENCE.getAndIncrement();
+            mTask = task;
+        }
+
+        @Override
+        public void run() {
+            mTask.run();
+        }
+
+        @Override
+        public int compareTo(@NonNull PrioritizedTask other) {
+            int result = mPriority.compareTo(other.mPriority);
+            if (result == 0) {
+                result = mSequence < other.mSequence ? -1 : (mSequence == other.mSequence ? 0 : 1);
+            }
+            return result;
+        }
+    }
+}
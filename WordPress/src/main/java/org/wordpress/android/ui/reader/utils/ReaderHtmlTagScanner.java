@@ -0,0 +1,183 @@
+package org.wordpress.android.ui.reader.utils;
+
+import android.support.annotation.NonNull;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Finds the tags the reader cares about (images, iframes and embeds which require a script) in a
+ * single linear pass over post content, without regex backtracking and without allocating
+ * anything other than the src values it reports. Listeners receive the start/end offsets of each
+ * tag so callers can build an edit list and apply it in one go rather than searching for and
+ * replacing each tag individually.
+ */
+public class ReaderHtmlTagScanner {
+    public enum TagType {
+        IMAGE,
+        IFRAME,
+        EMBED
+    }
+
+    public interface TagListener {
+        /*
+         * start and end are the offsets of the tag in the content, src is the tag's src attribute
+         * or, for embeds, the url of the script the embed requires - return false to stop scanning
+         */
+        boolean onTagFound(@NonNull TagType tagType, int start, int end, @NonNull String src);
+    }
+
+    public static final Set<TagType> ALL_TAG_TYPES = EnumSet.allOf(TagType.class);
+
+    private static final String INSTAGRAM_EMBED_SCRIPT = "https://platform.instagram.com/en_US/embeds.js";
+    private static final String FACEBOOK_EMBED_SCRIPT =
+            "https://connect.facebook.net/en_US/sdk.js#xfbml=1&amp;version=v2.8";
+
+    private static final String IMG = "img";
+    private static final String IFRAME = "iframe";
+    private static final String BLOCKQUOTE = "blockquote";
+    private static final String INSTAGRAM_CLASS = "class=\"instagram-";
+    private static final String FB_POST = "fb:post";
+    private static final String SRC = "src=";
+
+    private ReaderHtmlTagScanner() {
+        throw new AssertionError();
+    }
+
+    public static void scan(@NonNull String content, @NonNull Set<TagType> tagTypes, @NonNull TagListener listener) {
+        boolean scanImages = tagTypes.contains(TagType.IMAGE);
+        boolean scanIframes = tagTypes.contains(TagType.IFRAME);
+        boolean scanEmbeds = tagTypes.contains(TagType.EMBED);
+
+        // each embed script is only reported once no matter how many embeds use it
+        boolean foundInstagram = false;
+        boolean foundFacebook = false;
+
+        int pos = content.indexOf('<');
+        while (pos != -1) {
+            int next = pos + 1;
+            if (scanImages && isTagName(content, pos + 1, IMG)) {
+                int end = getTagEnd(content, pos + 1 + IMG.length());
+                if (end == -1) {
+                    // the tag is never closed, skip it rather than giving up on the rest of the content
+                    pos = content.indexOf('<', next);
+                    continue;
+                }
+                // image src values are expected to be double-quoted
+                String src = getSrcAttrValue(content, pos, end, '"');
+                if (src != null && !listener.onTagFound(TagType.IMAGE, pos, end, src)) {
+                    return;
+                }
+                next = end;
+            } else if (scanIframes && isTagName(content, pos + 1, IFRAME)) {
+                int end = getTagEnd(content, pos + 1 + IFRAME.length());
+                if (end == -1) {
+                    // the tag is never closed, skip it rather than giving up on the rest of the content
+                    pos = content.indexOf('<', next);
+                    continue;
+                }
+                // iframe src values are expected to be single-quoted, as they are in wp.com content
+                String src = getSrcAttrValue(content, pos, end, '\'');
+                if (src != null && !listener.onTagFound(TagType.IFRAME, pos, end, src)) {
+                    return;
+                }
+                next = end;
+            } else if (scanEmbeds && !foundInstagram && isInstagramEmbed(content, pos)) {
+                foundInstagram = true;
+                int end = pos + 2 + BLOCKQUOTE.length() + INSTAGRAM_CLASS.length();
+                if (!listener.onTagFound(TagType.EMBED, pos, end, INSTAGRAM_EMBED_SCRIPT)) {
+                    return;
+                }
+            } else if (scanEmbeds && !foundFacebook && content.regionMatches(true, pos + 1, FB_POST, 0,
+                    FB_POST.length())) {
+                foundFacebook = true;
+                if (!listener.onTagFound(TagType.EMBED, pos, pos + 1 + FB_POST.length(), FACEBOOK_EMBED_SCRIPT)) {
+                    return;
+                }
+            }
+            pos = content.indexOf('<', next);
+        }
+    }
+
+    /*
+     * returns true if the passed tag name starts at the passed offset and isn't just the start
+     * of a longer tag name
+     */
+    private static boolean isTagName(@NonNull String content, int offset, @NonNull String tagName) {
+        if (!content.regionMatches(true, offset, tagName, 0, tagName.length())) {
+            return false;
+        }
+        int afterName = offset + tagName.length();
+        if (afterName >= content.length()) {
+            return false;
+        }
+        char c = content.charAt(afterName);
+        return Character.isWhitespace(c) || c == '>' || c == '/';
+    }
+
+    /*
+     * instagram embeds are blockquotes whose class starts with "instagram-"
+     */
+    private static boolean isInstagramEmbed(@NonNull String content, int pos) {
+        int classStart = pos + 2 + BLOCKQUOTE.length();
+        if (classStart >= content.length()
+            || !content.regionMatches(true, pos + 1, BLOCKQUOTE, 0, BLOCKQUOTE.length())) {
+            return false;
+        }
+        char separator = content.charAt(classStart - 1);
+        return separator != '<' && separator != '>'
+               && content.regionMatches(true, classStart, INSTAGRAM_CLASS, 0, INSTAGRAM_CLASS.length());
+    }
+
+    /*
+     * returns the offset just past the ">" which closes the tag, ignoring any ">" which appear
+     * in quoted attribute values - if a quote is never closed this falls back to the first ">"
+     * as the legacy patterns did, and returns -1 only if there's no ">" at all
+     */
+    private static int getTagEnd(@NonNull String content, int from) {
+        char quote = 0;
+        char lastNonSpace = 0;
+        int length = content.length();
+        for (int i = from; i < length; i++) {
+            char c = content.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if ((c == '"' || c == '\'') && lastNonSpace == '=') {
+                quote = c;
+            } else if (c == '>') {
+                return i + 1;
+            }
+            if (!Character.isWhitespace(c)) {
+                lastNonSpace = c;
+            }
+        }
+        if (quote == 0) {
+            return -1;
+        }
+        int close = content.indexOf('>', from);
+        return close == -1 ? -1 : close + 1;
+    }
+
+    /*
+     * returns the value of the first src attribute in the tag between start and end which is
+     * enclosed in the passed quote character, or null if there isn't one
+     */
+    private static String getSrcAttrValue(@NonNull String content, int start, int end, char quote) {
+        int last = end - SRC.length() - 2;
+        for (int i = start; i < last; i++) {
+            if (Character.isWhitespace(content.charAt(i))
+                && content.regionMatches(true, i + 1, SRC, 0, SRC.length())
+                && content.charAt(i + 1 + SRC.length()) == quote) {
+                int valueStart = i + 2 + SRC.length();
+                int valueEnd = content.indexOf(quote, valueStart);
+                if (valueEnd == -1 || valueEnd >= end) {
+                    return null;
+                }
+                return content.substring(valueStart, valueEnd);
+            }
+        }
+        return null;
+    }
+}
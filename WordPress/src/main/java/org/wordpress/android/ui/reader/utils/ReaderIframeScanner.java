@@ -1,43 +1,36 @@
 package org.wordpress.android.ui.reader.utils;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import android.support.annotation.NonNull;
+
+import org.wordpress.android.ui.reader.utils.ReaderHtmlTagScanner.TagType;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 public class ReaderIframeScanner {
-    private final String mContent;
+    private static final Set<TagType> IFRAME_TAGS = EnumSet.of(TagType.IFRAME);
 
-    private static final Pattern IFRAME_TAG_PATTERN = Pattern.compile(
-            "<iframe[^>]* src=\\\'([^\\\']*)\\\'[^>]*>",
-            Pattern.CASE_INSENSITIVE);
+    private final String mContent;
 
     public ReaderIframeScanner(String contentOfPost) {
         mContent = contentOfPost;
     }
 
-    public void beginScan(ReaderHtmlUtils.HtmlScannerListener listener) {
-        if (listener == null) {
-            throw new IllegalArgumentException("HtmlScannerListener is required");
-        }
-
-        Matcher matcher = IFRAME_TAG_PATTERN.matcher(mContent);
-        while (matcher.find()) {
-            String tag = matcher.group(0);
-            String src = matcher.group(1);
-            listener.onTagFound(tag, src);
-        }
-    }
-
     /*
      * scans the post for iframes containing usable videos, returns the first one found
      */
     public String getFirstUsableVideo() {
-        Matcher matcher = IFRAME_TAG_PATTERN.matcher(mContent);
-        while (matcher.find()) {
-            String src = matcher.group(1);
-            if (ReaderVideoUtils.canShowVideoThumbnail(src)) {
-                return src;
+        final String[] video = {null};
+        ReaderHtmlTagScanner.scan(mContent, IFRAME_TAGS, new ReaderHtmlTagScanner.TagListener() {
+            @Override
+            public boolean onTagFound(@NonNull TagType tagType, int start, int end, @NonNull String src) {
+                if (ReaderVideoUtils.canShowVideoThumbnail(src)) {
+                    video[0] = src;
+                    return false;
+                }
+                return true;
             }
-        }
-        return null;
+        });
+        return video[0];
     }
 }
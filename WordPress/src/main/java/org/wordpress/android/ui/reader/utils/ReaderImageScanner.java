@@ -3,74 +3,54 @@ package org.wordpress.android.ui.reader.utils;
 import android.support.annotation.NonNull;
 
 import org.wordpress.android.ui.reader.models.ReaderImageList;
+import org.wordpress.android.ui.reader.utils.ReaderHtmlTagScanner.TagType;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.EnumSet;
+import java.util.Set;
 
 public class ReaderImageScanner {
+    private static final Set<TagType> IMAGE_TAGS = EnumSet.of(TagType.IMAGE);
+
     private final String mContent;
     private final boolean mIsPrivate;
     private final boolean mContentContainsImages;
 
-    private static final Pattern IMG_TAG_PATTERN = Pattern.compile(
-            "<img[^>]* src=\\\"([^\\\"]*)\\\"[^>]*>",
-            Pattern.CASE_INSENSITIVE);
-
     public ReaderImageScanner(String contentOfPost, boolean isPrivate) {
         mContent = contentOfPost;
         mIsPrivate = isPrivate;
         mContentContainsImages = mContent != null && mContent.contains("<img");
     }
 
-    /*
-     * start scanning the content for images and notify the passed listener about each one
-     */
-    public void beginScan(ReaderHtmlUtils.HtmlScannerListener listener) {
-        if (listener == null) {
-            throw new IllegalArgumentException("HtmlScannerListener is required");
-        }
-
-        if (!mContentContainsImages) {
-            return;
-        }
-
-        Matcher imgMatcher = IMG_TAG_PATTERN.matcher(mContent);
-        while (imgMatcher.find()) {
-            String imageTag = imgMatcher.group(0);
-            String imageUrl = imgMatcher.group(1);
-            listener.onTagFound(imageTag, imageUrl);
-        }
-    }
-
     /*
      * returns a list of image URLs in the content up to the max above a certain width - pass zero
      * to include all images regardless of size
      */
-    public ReaderImageList getImageList(int maxImageCount, int minImageWidth) {
-        ReaderImageList imageList = new ReaderImageList(mIsPrivate);
+    public ReaderImageList getImageList(final int maxImageCount, final int minImageWidth) {
+        final ReaderImageList imageList = new ReaderImageList(mIsPrivate);
 
         if (!mContentContainsImages) {
             return imageList;
         }
 
-        Matcher imgMatcher = IMG_TAG_PATTERN.matcher(mContent);
-        while (imgMatcher.find()) {
-            String imageTag = imgMatcher.group(0);
-            String imageUrl = imgMatcher.group(1);
-
-            if (minImageWidth == 0) {
-                imageList.addImageUrl(imageUrl);
-            } else {
-                int width = Math.max(ReaderHtmlUtils.getWidthAttrValue(imageTag),
-                                     ReaderHtmlUtils.getIntQueryParam(imageUrl, "w"));
-                if (width >= minImageWidth) {
+        ReaderHtmlTagScanner.scan(mContent, IMAGE_TAGS, new ReaderHtmlTagScanner.TagListener() {
+            @Override
+            public boolean onTagFound(@NonNull TagType tagType, int start, int end, @NonNull String imageUrl) {
+                if (minImageWidth == 0) {
                     imageList.addImageUrl(imageUrl);
-                    if (maxImageCount > 0 && imageList.size() >= maxImageCount) {
-                        break;
+                } else {
+                    String imageTag = mContent.substring(start, end);
+                    int width = Math.max(ReaderHtmlUtils.getWidthAttrValue(imageTag),
+                                         ReaderHtmlUtils.getIntQueryParam(imageUrl, "w"));
+                    if (width >= minImageWidth) {
+                        imageList.addImageUrl(imageUrl);
+                        if (maxImageCount > 0 && imageList.size() >= maxImageCount) {
+                            return false;
+                        }
                     }
                 }
+                return true;
             }
-        }
+        });
 
         return imageList;
     }
@@ -87,30 +67,31 @@ public class ReaderImageScanner {
      * used when a post doesn't have a featured image assigned, searches post's content
      * for an image that may be large enough to be suitable as a featured image
      */
-    public String getLargestImage(int minImageWidth) {
+    public String getLargestImage(final int minImageWidth) {
         if (!mContentContainsImages) {
             return null;
         }
 
-        String currentImageUrl = null;
-        int currentMaxWidth = minImageWidth;
-
-        Matcher imgMatcher = IMG_TAG_PATTERN.matcher(mContent);
-        while (imgMatcher.find()) {
-            String imageTag = imgMatcher.group(0);
-            String imageUrl = imgMatcher.group(1);
-
-            int width = Math.max(ReaderHtmlUtils.getWidthAttrValue(imageTag),
-                                 ReaderHtmlUtils.getIntQueryParam(imageUrl, "w"));
-            if (width > currentMaxWidth) {
-                currentImageUrl = imageUrl;
-                currentMaxWidth = width;
-            } else if (currentImageUrl == null && hasSuitableClassForFeaturedImage(imageTag)) {
-                currentImageUrl = imageUrl;
+        final String[] currentImageUrl = {null};
+        final int[] currentMaxWidth = {minImageWidth};
+
+        ReaderHtmlTagScanner.scan(mContent, IMAGE_TAGS, new ReaderHtmlTagScanner.TagListener() {
+            @Override
+            public boolean onTagFound(@NonNull TagType tagType, int start, int end, @NonNull String imageUrl) {
+                String imageTag = mContent.substring(start, end);
+                int width = Math.max(ReaderHtmlUtils.getWidthAttrValue(imageTag),
+                                     ReaderHtmlUtils.getIntQueryParam(imageUrl, "w"));
+                if (width > currentMaxWidth[0]) {
+                    currentImageUrl[0] = imageUrl;
+                    currentMaxWidth[0] = width;
+                } else if (currentImageUrl[0] == null && hasSuitableClassForFeaturedImage(imageTag)) {
+                    currentImageUrl[0] = imageUrl;
+                }
+                return true;
             }
-        }
+        });
 
-        return currentImageUrl;
+        return currentImageUrl[0];
     }
 
     /*
@@ -17,7 +17,9 @@ import java.io.OutputStream;
  */
 public class StatsDatabaseHelper extends SQLiteOpenHelper {
     private static final String DB_NAME = "stats.db";
-    private static final int DB_VERSION = 1;
+    // 2: stats are stored compressed
+    // 3: stats are unique per page
+    private static final int DB_VERSION = 3;
 
     /*
      * database singleton
@@ -62,14 +64,14 @@ public class StatsDatabaseHelper extends SQLiteOpenHelper {
     }
 
     /*
-     * drop & recreate all tables (essentially clears the db of all data)
+     * drop & recreate all tables (essentially clears the db of all data) - must not be called while the db is
+     * being opened, ie. from onUpgrade() or onDowngrade()
      */
     public void reset() {
         SQLiteDatabase db = getWritableDatabase();
         db.beginTransaction();
         try {
-            dropAllTables(db);
-            createAllTables(db);
+            recreateAllTables(db);
             db.setTransactionSuccessful();
         } finally {
             db.endTransaction();
@@ -86,14 +88,15 @@ public class StatsDatabaseHelper extends SQLiteOpenHelper {
         // for now just reset the db when upgrading, future versions may want to avoid this
         // and modify table structures, etc., on upgrade while preserving data
         AppLog.i(AppLog.T.STATS, "Upgrading database from version " + oldVersion + " to version " + newVersion);
-        reset();
+        // onUpgrade() and onDowngrade() already run in a transaction on the db being opened
+        recreateAllTables(db);
     }
 
     @Override
     public void onDowngrade(SQLiteDatabase db, int oldVersion, int newVersion) {
         // IMPORTANT: do NOT call super() here - doing so throws a SQLiteException
         AppLog.w(AppLog.T.STATS, "Downgrading database from version " + oldVersion + " to version " + newVersion);
-        reset();
+        recreateAllTables(db);
     }
 
     private void createAllTables(SQLiteDatabase db) {
@@ -104,6 +107,11 @@ public class StatsDatabaseHelper extends SQLiteOpenHelper {
         StatsTable.dropTables(db);
     }
 
+    private void recreateAllTables(SQLiteDatabase db) {
+        dropAllTables(db);
+        createAllTables(db);
+    }
+
     /*
      * used during development to copy database to external storage so we can access it via DDMS
     */
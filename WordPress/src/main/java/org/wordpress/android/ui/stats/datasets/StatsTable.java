@@ -4,17 +4,48 @@ import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.VisibleForTesting;
 
 import org.wordpress.android.ui.stats.StatsTimeframe;
 import org.wordpress.android.ui.stats.service.StatsServiceLogic.StatsEndpointsEnum;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.SqlUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
 public class StatsTable {
     private static final String TABLE_NAME = "tbl_stats";
-    public static final int CACHE_TTL_MINUTES = 10;
+    // stats older than their endpoint's TTL are still served while they're revalidated, until they reach this age
+    public static final long MAX_STALE_AGE_MS = TimeUnit.DAYS.toMillis(7);
     private static final int MAX_RESPONSE_LEN = (int) (1024 * 1024 * 1.8); // 1.8 MB Approx
 
+    /*
+     * stats read from the cache, along with whether they're older than their endpoint's TTL
+     */
+    public static class CachedStats {
+        private final String mJson;
+        private final boolean mIsStale;
+
+        CachedStats(String json, boolean isStale) {
+            mJson = json;
+            mIsStale = isStale;
+        }
+
+        public String getJson() {
+            return mJson;
+        }
+
+        public boolean isStale() {
+            return mIsStale;
+        }
+    }
+
     static void createTables(SQLiteDatabase db) {
         db.execSQL("CREATE TABLE " + TABLE_NAME + " ("
                    + " id INTEGER PRIMARY KEY ASC,"
@@ -23,11 +54,12 @@ public class StatsTable {
                    + " type INTEGER DEFAULT 0," // The type of the stats. TopPost, followers, etc..
                    + " timeframe INTEGER DEFAULT 0," // This could be days, week, years - It's an enum
                    + " date TEXT NOT NULL,"
-                   + " jsonData TEXT NOT NULL,"
+                   + " jsonData BLOB NOT NULL," // The gzipped JSON response
                    + " maxResult INTEGER DEFAULT 0,"
                    + " page INTEGER DEFAULT 0,"
                    + " timestamp INTEGER NOT NULL," // The unix timestamp of the response
-                   + " UNIQUE (blogID, type, timeframe, date) ON CONFLICT REPLACE"
+                   // a newer response replaces the one stored for the same page, whatever its maxResult
+                   + " UNIQUE (blogID, type, timeframe, date, page) ON CONFLICT REPLACE"
                    + ")");
     }
 
@@ -41,7 +73,7 @@ public class StatsTable {
     }
 
 
-    public static String getStats(final Context ctx, final long blogId, final StatsTimeframe timeframe,
+    public static CachedStats getStats(final Context ctx, final long blogId, final StatsTimeframe timeframe,
                                   final String date, final StatsEndpointsEnum sectionToUpdate, final int
                                           maxResultsRequested, final int pageRequested) {
         if (ctx == null) {
@@ -51,6 +83,13 @@ public class StatsTable {
             return null;
         }
 
+        return getStats(StatsDatabaseHelper.getReadableDb(ctx), blogId, timeframe, date, sectionToUpdate,
+                        maxResultsRequested, pageRequested);
+    }
+
+    @VisibleForTesting
+    static CachedStats getStats(SQLiteDatabase db, long blogId, StatsTimeframe timeframe, String date,
+                                StatsEndpointsEnum sectionToUpdate, int maxResultsRequested, int pageRequested) {
         String sql = "SELECT * FROM " + TABLE_NAME + " WHERE blogID = ? "
                      + " AND type=?"
                      + " AND timeframe=?"
@@ -69,7 +108,7 @@ public class StatsTable {
                 Integer.toString(maxResultsRequested),
         };
 
-        Cursor cursor = StatsDatabaseHelper.getReadableDb(ctx).rawQuery(sql, args);
+        Cursor cursor = db.rawQuery(sql, args);
 
         try {
             if (cursor != null && cursor.moveToFirst()) {
@@ -81,17 +120,18 @@ public class StatsTable {
                     return null;
                 }
 
-                deltaMS = deltaMS / 1000; // seconds
-                // check if the cache is fresh
-                if ((deltaMS / 60) > CACHE_TTL_MINUTES) {
+                // stale stats are returned too, so they can be shown while they're revalidated
+                if (deltaMS > MAX_STALE_AGE_MS) {
                     return null; // cache is expired
                 }
+                boolean isStale = deltaMS > TimeUnit.MINUTES.toMillis(sectionToUpdate.getCacheTtlMinutes());
 
-                return cursor.getString(cursor.getColumnIndex("jsonData"));
+                String json = decompress(cursor.getBlob(cursor.getColumnIndex("jsonData")));
+                return new CachedStats(json, isStale);
             } else {
                 return null;
             }
-        } catch (IllegalStateException e) {
+        } catch (IllegalStateException | IOException e) {
             AppLog.e(AppLog.T.STATS, e);
         } finally {
             SqlUtils.closeCursor(cursor);
@@ -111,6 +151,14 @@ public class StatsTable {
             return;
         }
 
+        insertStats(StatsDatabaseHelper.getWritableDb(ctx), blogId, timeframe, date, sectionToUpdate,
+                    maxResultsRequested, pageRequested, jsonResponse, responseTimestamp);
+    }
+
+    @VisibleForTesting
+    static void insertStats(SQLiteDatabase db, long blogId, StatsTimeframe timeframe, String date,
+                            StatsEndpointsEnum sectionToUpdate, int maxResultsRequested, int pageRequested,
+                            String jsonResponse, long responseTimestamp) {
         /*
          * Android's CursorWindow has a max size of 2MB per row which can be exceeded
          * with a very large text column, causing an IllegalStateException when the
@@ -119,16 +167,26 @@ public class StatsTable {
          * http://bit.ly/2oOKCJc
          */
 
-        // Check if the response document from the server is less than 1.8MB. getBytes uses UTF-8 on Android.
-        if (jsonResponse.getBytes().length > MAX_RESPONSE_LEN) {
+        // Stats responses are mostly repeated keys and numbers, so they shrink to a small fraction of their size
+        byte[] compressedResponse;
+        try {
+            compressedResponse = compress(jsonResponse);
+        } catch (IOException e) {
+            AppLog.e(AppLog.T.STATS, "Can't compress the stats response", e);
+            return;
+        }
+
+        // Check if the compressed response from the server is less than 1.8MB.
+        if (compressedResponse.length > MAX_RESPONSE_LEN) {
             AppLog.w(AppLog.T.STATS, "Stats JSON response length > max allowed length of 1.8MB."
                                      + " Current response will not be stored in cache.");
             return;
         }
 
-        SQLiteDatabase db = StatsDatabaseHelper.getWritableDb(ctx);
         db.beginTransaction();
-        SQLiteStatement stmt = db.compileStatement("INSERT INTO " + TABLE_NAME + " (blogID, type, timeframe, date, "
+        // replaces the response previously stored for this page, so the table doesn't grow with every refresh
+        SQLiteStatement stmt = db.compileStatement("INSERT OR REPLACE INTO " + TABLE_NAME
+                                                   + " (blogID, type, timeframe, date, "
                                                    + "jsonData, maxResult, page, timestamp) "
                                                    + "VALUES (?1,?2,?3,?4,?5,?6,?7,?8)");
         try {
@@ -136,7 +194,7 @@ public class StatsTable {
             stmt.bindLong(2, sectionToUpdate.ordinal());
             stmt.bindLong(3, timeframe.ordinal());
             stmt.bindString(4, date);
-            stmt.bindString(5, jsonResponse);
+            stmt.bindBlob(5, compressedResponse);
             stmt.bindLong(6, maxResultsRequested);
             stmt.bindLong(7, pageRequested);
             stmt.bindLong(8, responseTimestamp);
@@ -149,6 +207,64 @@ public class StatsTable {
         }
     }
 
+    /**
+     * Mark cached stats as fresh, used when revalidating them returned the same response
+     */
+    public static void touchStats(final Context ctx, final long blogId, final StatsTimeframe timeframe,
+                                  final String date, final StatsEndpointsEnum sectionToUpdate,
+                                  final int maxResultsRequested, final int pageRequested,
+                                  final long responseTimestamp) {
+        if (ctx == null) {
+            AppLog.e(AppLog.T.STATS, "Cannot update stats since the passed context is null. Context is required "
+                                     + "to access the DB.");
+            return;
+        }
+
+        SQLiteDatabase db = StatsDatabaseHelper.getWritableDb(ctx);
+        // matches the rows getStats() reads from
+        SQLiteStatement stmt = db.compileStatement("UPDATE " + TABLE_NAME + " SET timestamp=?1"
+                                                   + " WHERE blogID=?2 AND type=?3 AND timeframe=?4 AND date=?5"
+                                                   + " AND page=?6 AND maxResult>=?7");
+        try {
+            stmt.bindLong(1, responseTimestamp);
+            stmt.bindLong(2, blogId);
+            stmt.bindLong(3, sectionToUpdate.ordinal());
+            stmt.bindLong(4, timeframe.ordinal());
+            stmt.bindString(5, date);
+            stmt.bindLong(6, pageRequested);
+            stmt.bindLong(7, maxResultsRequested);
+            stmt.execute();
+        } finally {
+            SqlUtils.closeStatement(stmt);
+        }
+    }
+
+    private static byte[] compress(String json) throws IOException {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        GZIPOutputStream gzipStream = new GZIPOutputStream(byteStream);
+        try {
+            gzipStream.write(json.getBytes("UTF-8"));
+        } finally {
+            gzipStream.close();
+        }
+        return byteStream.toByteArray();
+    }
+
+    private static String decompress(byte[] data) throws IOException {
+        InputStream gzipStream = new GZIPInputStream(new ByteArrayInputStream(data));
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream(data.length * 4);
+        try {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = gzipStream.read(buffer)) != -1) {
+                byteStream.write(buffer, 0, read);
+            }
+        } finally {
+            gzipStream.close();
+        }
+        return byteStream.toString("UTF-8");
+    }
+
     /**
      * Delete expired Stats data from StatsDB
      */
@@ -139,6 +139,42 @@ public class StatsServiceLogic {
             }
         }
 
+        /**
+         * How long a cached response is considered fresh. Older responses are still shown, but they're
+         * revalidated in the background.
+         */
+        public int getCacheTtlMinutes() {
+            switch (this) {
+                case VISITS:
+                case INSIGHTS_TODAY:
+                case INSIGHTS_LATEST_POST_VIEWS:
+                    // today's numbers change constantly
+                    return 5;
+                case TOP_POSTS:
+                case REFERRERS:
+                case CLICKS:
+                case GEO_VIEWS:
+                case AUTHORS:
+                case VIDEO_PLAYS:
+                case SEARCH_TERMS:
+                    return 10;
+                case COMMENTS:
+                case FOLLOWERS_WPCOM:
+                case FOLLOWERS_EMAIL:
+                case COMMENT_FOLLOWERS:
+                case TAGS_AND_CATEGORIES:
+                case PUBLICIZE:
+                case INSIGHTS_LATEST_POST_SUMMARY:
+                    return 30;
+                case INSIGHTS_POPULAR:
+                case INSIGHTS_ALL_TIME:
+                    // these are calculated over long periods and barely move within an hour
+                    return 60;
+                default:
+                    return 10;
+            }
+        }
+
         public StatsEvents.SectionUpdatedAbstract getEndpointUpdateEvent(final long siteId,
                                                                          final StatsTimeframe timeframe,
                                                                          final String date,
@@ -316,7 +352,7 @@ public class StatsServiceLogic {
     }
 
     // Check if we already have Stats
-    private String getCachedStats(final long siteId, final StatsTimeframe timeframe, final String date,
+    private StatsTable.CachedStats getCachedStats(final long siteId, final StatsTimeframe timeframe, final String date,
                                   final StatsServiceLogic.StatsEndpointsEnum sectionToUpdate,
                                   final int maxResultsRequested,
                                   final int pageRequested) {
@@ -330,20 +366,26 @@ public class StatsServiceLogic {
     private void startTasks(final long blogId, final StatsTimeframe timeframe, final String date,
                             final StatsServiceLogic.StatsEndpointsEnum sectionToUpdate, final int maxResultsRequested,
                             final int pageRequested) {
-        String cachedStats =
+        StatsTable.CachedStats cachedStats =
                 getCachedStats(blogId, timeframe, date, sectionToUpdate, maxResultsRequested, pageRequested);
+        // the cached response which was shown while it's revalidated, if it's stale
+        String staleJson = null;
         if (cachedStats != null) {
             BaseStatsModel mResponseObjectModel;
             try {
-                JSONObject response = new JSONObject(cachedStats);
+                JSONObject response = new JSONObject(cachedStats.getJson());
                 mResponseObjectModel = StatsUtils.parseResponse(sectionToUpdate, blogId, response);
 
                 EventBus.getDefault().post(sectionToUpdate.getEndpointUpdateEvent(blogId, timeframe, date,
                         maxResultsRequested, pageRequested, mResponseObjectModel));
 
                 updateWidgetsUI(blogId, sectionToUpdate, timeframe, date, pageRequested, mResponseObjectModel);
-                checkAllRequestsFinished(null);
-                return;
+                if (!cachedStats.isStale()) {
+                    checkAllRequestsFinished(null);
+                    return;
+                }
+                AppLog.d(T.STATS, "Showing stale " + sectionToUpdate.name() + " stats while revalidating them");
+                staleJson = cachedStats.getJson();
             } catch (JSONException e) {
                 AppLog.e(T.STATS, e);
             }
@@ -353,8 +395,8 @@ public class StatsServiceLogic {
 
         String period = timeframe.getLabelForRestCall();
 
-        RestListener vListener =
-                new RestListener(sectionToUpdate, blogId, timeframe, date, maxResultsRequested, pageRequested);
+        RestListener vListener = new RestListener(sectionToUpdate, blogId, timeframe, date, maxResultsRequested,
+                pageRequested, staleJson);
 
         final String periodDateMaxPlaceholder = "?period=%s&date=%s&max=%s";
 
@@ -523,16 +565,18 @@ public class StatsServiceLogic {
         private final String mDate;
         private Request<JSONObject> mCurrentRequest;
         private final int mMaxResultsRequested, mPageRequested;
+        private final String mStaleJson;
 
         RestListener(StatsServiceLogic.StatsEndpointsEnum endpointName, long blogId, StatsTimeframe timeframe,
                      String date,
-                     final int maxResultsRequested, final int pageRequested) {
+                     final int maxResultsRequested, final int pageRequested, final String staleJson) {
             mRequestBlogId = blogId;
             mTimeframe = timeframe;
             mEndpointName = endpointName;
             mDate = date;
             mMaxResultsRequested = maxResultsRequested;
             mPageRequested = pageRequested;
+            mStaleJson = staleJson;
         }
 
         @Override
@@ -540,6 +584,15 @@ public class StatsServiceLogic {
             mSingleThreadNetworkHandler.submit(new Thread() {
                 @Override
                 public void run() {
+                    // the stats being revalidated haven't changed, so there's nothing new to show
+                    if (response != null && mStaleJson != null && mStaleJson.equals(response.toString())) {
+                        AppLog.d(T.STATS, "Stale " + mEndpointName.name() + " stats are unchanged");
+                        StatsTable.touchStats(mApplication, mRequestBlogId, mTimeframe, mDate, mEndpointName,
+                                              mMaxResultsRequested, mPageRequested, System.currentTimeMillis());
+                        checkAllRequestsFinished(mCurrentRequest);
+                        return;
+                    }
+
                     // do other stuff here
                     BaseStatsModel mResponseObjectModel = null;
                     if (response != null) {
@@ -573,6 +626,11 @@ public class StatsServiceLogic {
                 public void run() {
                     AppLog.e(T.STATS, "Error while loading Stats!");
                     StatsUtils.logVolleyErrorDetails(volleyError);
+                    if (mStaleJson != null) {
+                        // keep showing the stale stats rather than replacing them with an error
+                        checkAllRequestsFinished(mCurrentRequest);
+                        return;
+                    }
                     BaseStatsModel mResponseObjectModel = null;
                     EventBus.getDefault()
                             .post(new StatsEvents.SectionUpdateError(mEndpointName, mRequestBlogId, mTimeframe, mDate,
@@ -0,0 +1,213 @@
+package org.wordpress.android.ui.uploads;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.support.v4.util.AtomicFile;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Persisted index of the content hashes of uploaded media, so media with the same bytes as an earlier upload to
+ * the same site can be resolved to the existing library item instead of being uploaded again.
+ *
+ * Only the most recently used entries are kept. Like {@link MediaUploadJournal}, entries are kept in memory and
+ * written to disk on a background thread via {@link AtomicFile}, with writes coalesced.
+ */
+class MediaContentHashIndex {
+    private static final String INDEX_FILE_NAME = "media_content_hashes.json";
+    private static final int MAX_ENTRIES = 1000;
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private static final String KEY_LOCAL_SITE_ID = "local_site_id";
+    private static final String KEY_HASH = "hash";
+    private static final String KEY_REMOTE_MEDIA_ID = "remote_media_id";
+    private static final String KEY_URL = "url";
+
+    private final AtomicFile mFile;
+    private final Executor mWriteExecutor;
+    // keyed by site and hash, in access order so the least recently used entries are dropped first
+    private final LinkedHashMap<String, Entry> mEntries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private boolean mIsWriteScheduled;
+
+    static class Entry {
+        final int mLocalSiteId;
+        final String mHash;
+        final long mRemoteMediaId;
+        final String mUrl;
+
+        Entry(int localSiteId, @NonNull String hash, long remoteMediaId, @NonNull String url) {
+            mLocalSiteId = localSiteId;
+            mHash = hash;
+            mRemoteMediaId = remoteMediaId;
+            mUrl = url;
+        }
+    }
+
+    MediaContentHashIndex(@NonNull File directory) {
+        this(directory, Executors.newSingleThreadExecutor());
+    }
+
+    @VisibleForTesting
+    MediaContentHashIndex(@NonNull File directory, @NonNull Executor writeExecutor) {
+        mFile = new AtomicFile(new File(directory, INDEX_FILE_NAME));
+        mWriteExecutor = writeExecutor;
+        read();
+    }
+
+    /**
+     * Returns the SHA-256 hash of the file's contents as a hex string. The file is read in small chunks, so this
+     * doesn't load the whole file into memory, but it does read all of it - don't call this on the main thread.
+     */
+    static @NonNull String hashFile(@NonNull String filePath) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+
+        InputStream inputStream = new FileInputStream(filePath);
+        try {
+            byte[] buffer = new byte[HASH_BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            inputStream.close();
+        }
+
+        String hash = new BigInteger(1, digest.digest()).toString(16);
+        StringBuilder sb = new StringBuilder(64);
+        for (int i = hash.length(); i < 64; i++) {
+            sb.append('0');
+        }
+        return sb.append(hash).toString();
+    }
+
+    /**
+     * Returns the media previously uploaded to the site with the given content hash, or null if there isn't any.
+     */
+    synchronized @Nullable Entry get(int localSiteId, @NonNull String hash) {
+        return mEntries.get(getKey(localSiteId, hash));
+    }
+
+    /**
+     * Records that media with the given content hash has been uploaded to the site.
+     */
+    synchronized void put(int localSiteId, @NonNull String hash, long remoteMediaId, @NonNull String url) {
+        mEntries.put(getKey(localSiteId, hash), new Entry(localSiteId, hash, remoteMediaId, url));
+        scheduleWrite();
+    }
+
+    /**
+     * Removes an entry which no longer refers to an existing library item.
+     */
+    synchronized void remove(int localSiteId, @NonNull String hash) {
+        if (mEntries.remove(getKey(localSiteId, hash)) != null) {
+            scheduleWrite();
+        }
+    }
+
+    private static String getKey(int localSiteId, @NonNull String hash) {
+        return localSiteId + ":" + hash;
+    }
+
+    private void scheduleWrite() {
+        if (mIsWriteScheduled) {
+            return;
+        }
+        mIsWriteScheduled = true;
+        mWriteExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                String json;
+                synchronized (MediaContentHashIndex.this) {
+                    mIsWriteScheduled = false;
+                    json = toJson(mEntries.values()).toString();
+                }
+                write(json);
+            }
+        });
+    }
+
+    private void write(@NonNull String json) {
+        FileOutputStream outputStream = null;
+        try {
+            outputStream = mFile.startWrite();
+            outputStream.write(json.getBytes("UTF-8"));
+            mFile.finishWrite(outputStream);
+        } catch (IOException e) {
+            AppLog.e(T.MEDIA, "MediaContentHashIndex > Failed to write index", e);
+            if (outputStream != null) {
+                mFile.failWrite(outputStream);
+            }
+        }
+    }
+
+    private synchronized void read() {
+        try {
+            byte[] data = mFile.readFully();
+            JSONArray jsonEntries = new JSONArray(new String(data, "UTF-8"));
+            for (int i = 0; i < jsonEntries.length(); i++) {
+                Entry entry = fromJson(jsonEntries.getJSONObject(i));
+                mEntries.put(getKey(entry.mLocalSiteId, entry.mHash), entry);
+            }
+        } catch (FileNotFoundException e) {
+            // nothing has been indexed yet
+        } catch (IOException | JSONException e) {
+            AppLog.e(T.MEDIA, "MediaContentHashIndex > Failed to read index, discarding it", e);
+            mEntries.clear();
+            mFile.delete();
+        }
+    }
+
+    private static JSONArray toJson(@NonNull Iterable<Entry> entries) {
+        JSONArray jsonEntries = new JSONArray();
+        for (Entry entry : entries) {
+            JSONObject json = new JSONObject();
+            try {
+                json.put(KEY_LOCAL_SITE_ID, entry.mLocalSiteId);
+                json.put(KEY_HASH, entry.mHash);
+                json.put(KEY_REMOTE_MEDIA_ID, entry.mRemoteMediaId);
+                json.put(KEY_URL, entry.mUrl);
+            } catch (JSONException e) {
+                AppLog.e(T.MEDIA, e);
+                continue;
+            }
+            jsonEntries.put(json);
+        }
+        return jsonEntries;
+    }
+
+    private static Entry fromJson(@NonNull JSONObject json) throws JSONException {
+        return new Entry(json.getInt(KEY_LOCAL_SITE_ID),
+                         json.getString(KEY_HASH),
+                         json.getLong(KEY_REMOTE_MEDIA_ID),
+                         json.getString(KEY_URL));
+    }
+}
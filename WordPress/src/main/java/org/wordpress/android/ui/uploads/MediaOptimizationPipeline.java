@@ -0,0 +1,125 @@
+package org.wordpress.android.ui.uploads;
+
+import android.support.annotation.NonNull;
+
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optimizes media ahead of its turn to upload, so the next item is being optimized while the current one uploads
+ * rather than the network sitting idle while each item is optimized in turn.
+ *
+ * Media is optimized one item at a time in queue order. Media which has been dequeued for upload and is waiting on
+ * optimization always comes first. Media further back in the queue is only optimized ahead while the optimized
+ * files which are waiting to be uploaded take up less than the storage budget, so a long queue of large videos
+ * can't fill the cache dir with temp files.
+ */
+class MediaOptimizationPipeline {
+    interface Optimizer {
+        boolean canOptimize(@NonNull MediaModel media);
+
+        /**
+         * Starts optimizing the media - {@link #onOptimizationCompleted(MediaModel)} must be called when done,
+         * whether or not it succeeded.
+         */
+        void startOptimizing(@NonNull MediaModel media);
+    }
+
+    static final long DEFAULT_MAX_OPTIMIZED_BYTES = 200L * 1024 * 1024;
+
+    private static final int NO_MEDIA_ID = -1;
+
+    private final Optimizer mOptimizer;
+    private final long mMaxOptimizedBytes;
+
+    private int mOptimizingMediaId = NO_MEDIA_ID;
+    // size of each optimized file waiting to be uploaded, by media id
+    private final Map<Integer, Long> mOptimizedBytesById = new HashMap<>();
+    private long mOptimizedBytes;
+
+    MediaOptimizationPipeline(@NonNull Optimizer optimizer, long maxOptimizedBytes) {
+        mOptimizer = optimizer;
+        mMaxOptimizedBytes = maxOptimizedBytes;
+    }
+
+    /**
+     * Returns true if the media doesn't need optimizing or has already been optimized.
+     */
+    synchronized boolean isReadyToUpload(@NonNull MediaModel media) {
+        return !mOptimizer.canOptimize(media) || mOptimizedBytesById.containsKey(media.getId());
+    }
+
+    /**
+     * Starts optimizing the next media unless something is already being optimized. Media in the waiting list
+     * (dequeued for upload but not yet optimized) is optimized first, then media in the upcoming list (still
+     * queued) while the storage budget allows.
+     */
+    void optimizeNext(@NonNull List<MediaModel> waiting, @NonNull List<MediaModel> upcoming) {
+        MediaModel next;
+        synchronized (this) {
+            if (mOptimizingMediaId != NO_MEDIA_ID) {
+                return;
+            }
+            next = getFirstToOptimize(waiting);
+            if (next == null && mOptimizedBytes < mMaxOptimizedBytes) {
+                next = getFirstToOptimize(upcoming);
+            }
+            if (next == null) {
+                return;
+            }
+            mOptimizingMediaId = next.getId();
+        }
+
+        // started outside the lock since optimizers may complete immediately (ex: when the file is missing)
+        AppLog.d(T.MEDIA, "MediaOptimizationPipeline > optimizing media " + next.getId());
+        mOptimizer.startOptimizing(next);
+    }
+
+    /**
+     * Called by the optimizer when the media has been optimized (or failed to be), records the size of the file
+     * which will be uploaded against the storage budget.
+     */
+    synchronized void onOptimizationCompleted(@NonNull MediaModel media) {
+        if (mOptimizingMediaId == media.getId()) {
+            mOptimizingMediaId = NO_MEDIA_ID;
+        }
+        long bytes = getFileSize(media);
+        Long previousBytes = mOptimizedBytesById.put(media.getId(), bytes);
+        mOptimizedBytes += bytes - (previousBytes != null ? previousBytes : 0);
+    }
+
+    /**
+     * Called once the media has been uploaded, cancelled or failed, so its optimized file no longer counts against
+     * the storage budget.
+     */
+    synchronized void release(int mediaId) {
+        Long bytes = mOptimizedBytesById.remove(mediaId);
+        if (bytes != null) {
+            mOptimizedBytes -= bytes;
+        }
+    }
+
+    synchronized long getOptimizedBytes() {
+        return mOptimizedBytes;
+    }
+
+    private MediaModel getFirstToOptimize(@NonNull List<MediaModel> mediaList) {
+        for (MediaModel media : mediaList) {
+            if (mOptimizer.canOptimize(media) && !mOptimizedBytesById.containsKey(media.getId())) {
+                return media;
+            }
+        }
+        return null;
+    }
+
+    private static long getFileSize(@NonNull MediaModel media) {
+        String filePath = media.getFilePath();
+        return filePath != null ? new File(filePath).length() : 0;
+    }
+}
@@ -1,6 +1,12 @@
 package org.wordpress.android.ui.uploads;
 
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.text.TextUtils;
 
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
@@ -9,41 +15,84 @@ import org.wordpress.android.analytics.AnalyticsTracker;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.generated.MediaActionBuilder;
 import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.fluxc.model.MediaModel.MediaUploadState;
 import org.wordpress.android.fluxc.model.PostModel;
 import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.store.MediaStore;
 import org.wordpress.android.fluxc.store.MediaStore.CancelMediaPayload;
 import org.wordpress.android.fluxc.store.MediaStore.OnMediaUploaded;
+import org.wordpress.android.fluxc.store.MediaStore.ProgressPayload;
 import org.wordpress.android.fluxc.store.MediaStore.UploadMediaPayload;
 import org.wordpress.android.fluxc.store.SiteStore;
 import org.wordpress.android.ui.prefs.AppPrefs;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
-import org.wordpress.android.util.StringUtils;
+import org.wordpress.android.util.NetworkUtils;
 import org.wordpress.android.util.WPMediaUtils;
 import org.wordpress.android.util.analytics.AnalyticsUtils;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 import javax.inject.Inject;
 
 import de.greenrobot.event.EventBus;
 
 public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptimizer.VideoOptimizationListener {
-    private static List<MediaModel> sPendingUploads = new ArrayList<>();
-    private static List<MediaModel> sInProgressUploads = new ArrayList<>();
+    private static MediaUploadQueue sUploadQueue = new MediaUploadQueue();
+    private static MediaUploadScheduler sUploadScheduler = new MediaUploadScheduler();
     private static ConcurrentHashMap<Integer, Float> sOptimizationProgressByMediaId = new ConcurrentHashMap<>();
+    private static MediaUploadJournal sUploadJournal;
+    private static MediaContentHashIndex sContentHashIndex;
+    // content hashes of the media being uploaded, so they can be indexed once the uploads complete
+    private static ConcurrentHashMap<Integer, String> sContentHashByMediaId = new ConcurrentHashMap<>();
+    private static final Executor HASH_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    // interrupted uploads which have already been restarted this many times aren't restarted again
+    private static final int MAX_UPLOAD_ATTEMPTS = 3;
+    // number of queued media the optimization pipeline looks at when optimizing ahead
+    private static final int MAX_MEDIA_TO_OPTIMIZE_AHEAD = 10;
+
+    private final MediaOptimizationPipeline mOptimizationPipeline;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    // true once the service is stopping, so uploads cancelled as a result stay in the journal
+    private boolean mIsStopping;
 
     @Inject Dispatcher mDispatcher;
     @Inject SiteStore mSiteStore;
+    @Inject MediaStore mMediaStore;
 
     MediaUploadHandler() {
         ((WordPress) WordPress.getContext().getApplicationContext()).component().inject(this);
         AppLog.i(T.MEDIA, "MediaUploadHandler > Created");
+        // the journal and the hash index are read from disk, so they're loaded ahead of the first upload in the
+        // background rather than here on the main thread
+        HASH_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                getUploadJournal();
+                getContentHashIndex();
+            }
+        });
+        mOptimizationPipeline = new MediaOptimizationPipeline(new MediaOptimizationPipeline.Optimizer() {
+            @Override
+            public boolean canOptimize(@NonNull MediaModel media) {
+                return media.isVideo() && WPMediaUtils.isVideoOptimizationEnabled();
+            }
+
+            @Override
+            public void startOptimizing(@NonNull MediaModel media) {
+                new VideoOptimizer(media, MediaUploadHandler.this).start();
+            }
+        }, MediaOptimizationPipeline.DEFAULT_MAX_OPTIMIZED_BYTES);
         mDispatcher.register(this);
         EventBus.getDefault().register(this);
     }
@@ -56,12 +105,13 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
 
     @Override
     public boolean hasInProgressUploads() {
-        return !sInProgressUploads.isEmpty() || !sPendingUploads.isEmpty();
+        return !sUploadQueue.isEmpty();
     }
 
     @Override
     public void cancelInProgressUploads() {
-        for (MediaModel oneUpload : sInProgressUploads) {
+        mIsStopping = true;
+        for (MediaModel oneUpload : sUploadQueue.getAllInProgress()) {
             cancelUpload(oneUpload, false);
         }
     }
@@ -72,35 +122,77 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
         uploadNextInQueue();
     }
 
-    static boolean hasInProgressMediaUploadsForPost(PostModel postModel) {
-        if (postModel == null) {
-            return false;
+    private static synchronized @NonNull MediaUploadJournal getUploadJournal() {
+        if (sUploadJournal == null) {
+            sUploadJournal = new MediaUploadJournal(WordPress.getContext().getFilesDir());
         }
+        return sUploadJournal;
+    }
 
-        synchronized (sInProgressUploads) {
-            for (MediaModel queuedMedia : sInProgressUploads) {
-                if (queuedMedia.getLocalPostId() == postModel.getId()) {
-                    return true;
-                }
+    @VisibleForTesting
+    static synchronized void setUploadJournal(@NonNull MediaUploadJournal uploadJournal) {
+        sUploadJournal = uploadJournal;
+    }
+
+    private static synchronized @NonNull MediaContentHashIndex getContentHashIndex() {
+        if (sContentHashIndex == null) {
+            sContentHashIndex = new MediaContentHashIndex(WordPress.getContext().getFilesDir());
+        }
+        return sContentHashIndex;
+    }
+
+    /**
+     * Returns the local ids of media whose uploads were interrupted by the service or the app being stopped, so
+     * they can be restarted. Uploads which have already been restarted too many times are dropped from the journal
+     * rather than returned, so media which can't be uploaded doesn't restart on every launch.
+     */
+    static @NonNull List<Integer> getInterruptedMediaUploadIds() {
+        List<Integer> mediaIds = new ArrayList<>();
+        for (MediaUploadJournal.Entry entry : getUploadJournal().getEntries()) {
+            if (sUploadQueue.isPendingOrInProgress(entry.mMediaId)) {
+                continue;
             }
+            if (entry.mAttempts >= MAX_UPLOAD_ATTEMPTS) {
+                AppLog.w(T.MEDIA, "MediaUploadHandler > Giving up on interrupted upload of media " + entry.mMediaId);
+                getUploadJournal().remove(entry.mMediaId);
+                continue;
+            }
+            AppLog.i(T.MEDIA, "MediaUploadHandler > Found interrupted upload of media " + entry.mMediaId + " after "
+                              + entry.mBytesUploaded + " of " + entry.mTotalBytes + " bytes");
+            mediaIds.add(entry.mMediaId);
         }
+        return mediaIds;
+    }
 
-        return false;
+    /**
+     * Removes an interrupted upload from the journal without restarting it, used when the media no longer exists.
+     */
+    static void discardInterruptedMediaUpload(int mediaId) {
+        getUploadJournal().remove(mediaId);
     }
 
-    static boolean hasPendingMediaUploadsForPost(PostModel postModel) {
+    /**
+     * Returns true if the media's upload is in the journal, because it's been accepted but hasn't finished or
+     * because it was interrupted and is being restarted.
+     */
+    static boolean isJournaledMediaUpload(int mediaId) {
+        return getUploadJournal().contains(mediaId);
+    }
+
+    static boolean hasInProgressMediaUploadsForPost(PostModel postModel) {
         if (postModel == null) {
             return false;
         }
 
-        synchronized (sPendingUploads) {
-            for (MediaModel queuedMedia : sPendingUploads) {
-                if (queuedMedia.getLocalPostId() == postModel.getId()) {
-                    return true;
-                }
-            }
+        return sUploadQueue.hasInProgressForPost(postModel.getId());
+    }
+
+    static boolean hasPendingMediaUploadsForPost(PostModel postModel) {
+        if (postModel == null) {
+            return false;
         }
-        return false;
+
+        return sUploadQueue.hasPendingForPost(postModel.getId());
     }
 
     static boolean hasPendingOrInProgressMediaUploadsForPost(PostModel postModel) {
@@ -117,42 +209,21 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
             return Collections.emptyList();
         }
 
-        List<MediaModel> mediaList = new ArrayList<>();
-        synchronized (sInProgressUploads) {
-            for (MediaModel queuedMedia : sInProgressUploads) {
-                if (queuedMedia.getLocalPostId() == postModel.getId()) {
-                    mediaList.add(queuedMedia);
-                }
-            }
-        }
+        return sUploadQueue.getPendingOrInProgressForPost(postModel.getId());
+    }
 
-        synchronized (sPendingUploads) {
-            for (MediaModel queuedMedia : sPendingUploads) {
-                if (queuedMedia.getLocalPostId() == postModel.getId()) {
-                    mediaList.add(queuedMedia);
-                }
-            }
+    /**
+     * Uploads the pending media attached to the given post ahead of other media, used when the post is waiting for
+     * its media to finish uploading before it's published.
+     */
+    static void prioritizeMediaUploadsForPost(PostModel postModel) {
+        if (postModel != null) {
+            sUploadQueue.prioritizePost(postModel.getId());
         }
-        return mediaList;
     }
 
     static boolean isPendingOrInProgressMediaUpload(@NonNull MediaModel media) {
-        synchronized (sInProgressUploads) {
-            for (MediaModel uploadingMedia : sInProgressUploads) {
-                if (uploadingMedia.getId() == media.getId()) {
-                    return true;
-                }
-            }
-        }
-
-        synchronized (sPendingUploads) {
-            for (MediaModel queuedMedia : sPendingUploads) {
-                if (queuedMedia.getId() == media.getId()) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return sUploadQueue.isPendingOrInProgress(media.getId());
     }
 
     /**
@@ -172,6 +243,10 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
             AppLog.i(T.MEDIA, "MediaUploadHandler > Upload successfully canceled");
             trackUploadMediaEvents(AnalyticsTracker.Stat.MEDIA_UPLOAD_CANCELED,
                                    getMediaFromInProgressQueueById(event.media.getId()), null);
+            sUploadScheduler.onUploadCancelled(event.media.getId());
+            if (!mIsStopping) {
+                getUploadJournal().remove(event.media.getId());
+            }
             completeUploadWithId(event.media.getId());
             uploadNextInQueue();
         } else if (event.completed) {
@@ -179,10 +254,14 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
                               + event.media.getTitle());
             trackUploadMediaEvents(AnalyticsTracker.Stat.MEDIA_UPLOAD_SUCCESS,
                                    getMediaFromInProgressQueueById(event.media.getId()), null);
+            sUploadScheduler.onUploadCompleted(event.media.getId());
+            getUploadJournal().remove(event.media.getId());
+            indexUploadedMedia(event.media);
             completeUploadWithId(event.media.getId());
             uploadNextInQueue();
         } else {
             AppLog.i(T.MEDIA, "MediaUploadHandler > " + event.media.getId() + " - progress: " + event.progress);
+            getUploadJournal().onProgress(event.media.getId(), event.progress);
         }
     }
 
@@ -197,66 +276,89 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
         properties.put("error_type", event.error.type.name());
         trackUploadMediaEvents(AnalyticsTracker.Stat.MEDIA_UPLOAD_ERROR, media, properties);
 
+        sUploadScheduler.onUploadFailed(event.media.getId());
+        getUploadJournal().remove(event.media.getId());
         completeUploadWithId(event.media.getId());
         uploadNextInQueue();
     }
 
     private synchronized void uploadNextInQueue() {
-        MediaModel next = getNextMediaToUpload();
+        sUploadScheduler.setConnectionType(getConnectionType());
+
+        // start as many uploads as the scheduler has free lanes for
+        boolean startedUpload = false;
+        while (sUploadScheduler.canStartUpload(sUploadQueue.getInProgressCount())) {
+            MediaModel next = getNextMediaToUpload();
+            if (next == null) {
+                break;
+            }
+            prepareForUpload(next);
+            startedUpload = true;
+        }
 
-        if (next == null) {
+        if (!startedUpload && sUploadQueue.getPendingCount() == 0) {
             AppLog.w(T.MEDIA, "MediaUploadHandler > No more media items to upload. Skipping this request.");
             checkIfUploadsComplete();
-            return;
         }
 
-        prepareForUpload(next);
+        optimizeNextInQueue();
+    }
+
+    /*
+     * optimizes media which is waiting to upload, or if there isn't any, the next media in the queue - this
+     * keeps optimization running while earlier media uploads
+     */
+    private void optimizeNextInQueue() {
+        List<MediaModel> waiting = new ArrayList<>();
+        for (MediaModel media : sUploadQueue.getAllInProgress()) {
+            if (!mOptimizationPipeline.isReadyToUpload(media)) {
+                waiting.add(media);
+            }
+        }
+        mOptimizationPipeline.optimizeNext(waiting, sUploadQueue.peekPending(MAX_MEDIA_TO_OPTIMIZE_AHEAD));
+    }
+
+    private static MediaUploadScheduler.ConnectionType getConnectionType() {
+        Context context = WordPress.getContext();
+        if (NetworkUtils.isWiFiConnected(context)) {
+            return MediaUploadScheduler.ConnectionType.WIFI;
+        } else if (NetworkUtils.isMobileConnected(context)) {
+            return MediaUploadScheduler.ConnectionType.MOBILE;
+        }
+        return MediaUploadScheduler.ConnectionType.OTHER;
     }
 
     private synchronized void completeUploadWithId(int id) {
-        MediaModel media = getMediaFromInProgressQueueById(id);
+        MediaModel media = sUploadQueue.removeInProgress(id);
+        mOptimizationPipeline.release(id);
+        sContentHashByMediaId.remove(id);
         if (media != null) {
-            sInProgressUploads.remove(media);
             trackUploadMediaEvents(AnalyticsTracker.Stat.MEDIA_UPLOAD_STARTED, media, null);
         }
     }
 
     private MediaModel getMediaFromInProgressQueueById(int id) {
-        for (MediaModel media : sInProgressUploads) {
-            if (media.getId() == id) {
-                return media;
-            }
-        }
-        return null;
+        return sUploadQueue.getInProgress(id);
     }
 
     private MediaModel getNextMediaToUpload() {
-        if (!sPendingUploads.isEmpty()) {
-            return sPendingUploads.remove(0);
-        }
-        return null;
+        return sUploadQueue.pollPending();
     }
 
     private void addUniqueMediaToQueue(MediaModel media) {
-        if (media != null) {
-            if (mediaAlreadyQueuedOrUploading(media)) {
-                return;
-            }
-
-            // no match found in queue
-            sPendingUploads.add(media);
+        if (media == null) {
+            return;
+        }
+        if (sUploadQueue.addPending(media)) {
+            getUploadJournal().onQueued(media);
+        } else {
+            AppLog.i(T.MEDIA, "MediaUploadHandler > Media with path " + media.getFilePath() + " and site id "
+                              + media.getLocalSiteId() + " is already queued or uploading");
         }
     }
 
     private void addUniqueMediaToInProgressUploads(@NonNull MediaModel mediaToAdd) {
-        synchronized (sInProgressUploads) {
-            for (MediaModel media : sInProgressUploads) {
-                if (media.getId() == mediaToAdd.getId()) {
-                    return;
-                }
-            }
-            sInProgressUploads.add(mediaToAdd);
-        }
+        sUploadQueue.addInProgress(mediaToAdd);
     }
 
     private void cancelUpload(MediaModel oneUpload, boolean delete) {
@@ -272,11 +374,11 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
     }
 
     private void prepareForUpload(@NonNull MediaModel media) {
-        if (media.isVideo() && WPMediaUtils.isVideoOptimizationEnabled()) {
-            addUniqueMediaToInProgressUploads(media);
-            new VideoOptimizer(media, this).start();
-        } else {
+        if (mOptimizationPipeline.isReadyToUpload(media)) {
             dispatchUploadAction(media);
+        } else {
+            // the upload is dispatched once the optimization pipeline has optimized the media
+            addUniqueMediaToInProgressUploads(media);
         }
     }
 
@@ -290,9 +392,95 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
             return;
         }
 
+        addUniqueMediaToInProgressUploads(media);
+        hashAndUpload(media, site);
+    }
+
+    /*
+     * hashes the media's content in the background, then either resolves it to an earlier upload of
+     * the same content or uploads it
+     */
+    private void hashAndUpload(@NonNull final MediaModel media, @NonNull final SiteModel site) {
+        final String filePath = media.getFilePath();
+        if (TextUtils.isEmpty(filePath)) {
+            startUpload(media, site);
+            return;
+        }
+
+        HASH_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                String hash = null;
+                try {
+                    hash = MediaContentHashIndex.hashFile(filePath);
+                } catch (IOException e) {
+                    AppLog.w(T.MEDIA, "MediaUploadHandler > Can't hash media with path " + filePath);
+                }
+                final String contentHash = hash;
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onMediaHashed(media, site, contentHash);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onMediaHashed(@NonNull MediaModel media, @NonNull SiteModel site, @Nullable String hash) {
+        // the upload may have been cancelled while the media was being hashed
+        if (!sUploadQueue.isInProgress(media.getId())) {
+            return;
+        }
+        if (hash != null) {
+            sContentHashByMediaId.put(media.getId(), hash);
+            if (resolveDuplicateUpload(media, site, hash)) {
+                return;
+            }
+        }
+        startUpload(media, site);
+    }
+
+    /*
+     * if media with the same content has already been uploaded to the site and is still in its library,
+     * completes this upload with the existing library item rather than uploading the same bytes again
+     */
+    private boolean resolveDuplicateUpload(@NonNull MediaModel media, @NonNull SiteModel site, @NonNull String hash) {
+        MediaContentHashIndex.Entry entry = getContentHashIndex().get(media.getLocalSiteId(), hash);
+        if (entry == null) {
+            return false;
+        }
+        MediaModel existing = mMediaStore.getSiteMediaWithId(site, entry.mRemoteMediaId);
+        if (existing == null || TextUtils.isEmpty(existing.getUrl())) {
+            getContentHashIndex().remove(media.getLocalSiteId(), hash);
+            return false;
+        }
+
+        AppLog.i(T.MEDIA, "MediaUploadHandler > Media with local id: " + media.getId()
+                          + " has the same content as remote media " + existing.getMediaId() + ", skipping upload");
+        media.setMediaId(existing.getMediaId());
+        media.setUrl(existing.getUrl());
+        media.setThumbnailUrl(existing.getThumbnailUrl());
+        media.setUploadState(MediaUploadState.UPLOADED);
+        // report the upload as complete just as FluxC does when an upload finishes, so the post and the
+        // upload store are updated the same way
+        ProgressPayload payload = new ProgressPayload(media, 1f, true, false);
+        mDispatcher.dispatch(MediaActionBuilder.newUploadedMediaAction(payload));
+        return true;
+    }
+
+    private void indexUploadedMedia(@NonNull MediaModel media) {
+        String hash = sContentHashByMediaId.remove(media.getId());
+        if (hash != null && media.getMediaId() > 0 && !TextUtils.isEmpty(media.getUrl())) {
+            getContentHashIndex().put(media.getLocalSiteId(), hash, media.getMediaId(), media.getUrl());
+        }
+    }
+
+    private void startUpload(@NonNull MediaModel media, @NonNull SiteModel site) {
         AppLog.i(T.MEDIA, "MediaUploadHandler > Dispatching upload action for media with local id: "
                           + media.getId() + " and path: " + media.getFilePath());
-        addUniqueMediaToInProgressUploads(media);
+        int lane = sUploadScheduler.onUploadStarted(media);
+        AppLog.d(T.MEDIA, "MediaUploadHandler > Uploading media with local id: " + media.getId() + " in lane " + lane);
 
         mDispatcher.dispatch(MediaActionBuilder.newUpdateMediaAction(media));
         UploadMediaPayload payload = new UploadMediaPayload(site, media, AppPrefs.isStripImageLocation());
@@ -307,7 +495,7 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
     }
 
     private boolean checkIfUploadsComplete() {
-        if (sPendingUploads.isEmpty() && sInProgressUploads.isEmpty()) {
+        if (sUploadQueue.isEmpty()) {
             AppLog.i(T.MEDIA, "MediaUploadHandler > Completed");
             return true;
         }
@@ -321,19 +509,8 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
         if (event.post == null) {
             return;
         }
-        synchronized (sInProgressUploads) {
-            for (MediaModel inProgressUpload : sInProgressUploads) {
-                if (inProgressUpload.getLocalPostId() == event.post.getId()) {
-                    cancelUpload(inProgressUpload, true);
-                }
-            }
-        }
-        synchronized (sPendingUploads) {
-            for (MediaModel pendingUpload : sPendingUploads) {
-                if (pendingUpload.getLocalPostId() == event.post.getId()) {
-                    cancelUpload(pendingUpload, true);
-                }
-            }
+        for (MediaModel upload : sUploadQueue.getPendingOrInProgressForPost(event.post.getId())) {
+            cancelUpload(upload, true);
         }
     }
 
@@ -378,34 +555,6 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
         AnalyticsTracker.track(stat, mediaProperties);
     }
 
-    private boolean mediaAlreadyQueuedOrUploading(MediaModel mediaModel) {
-        for (MediaModel queuedMedia : sInProgressUploads) {
-            AppLog.i(T.MEDIA, "MediaUploadHandler > Attempting to add media with path " + mediaModel.getFilePath()
-                              + " and site id " + mediaModel.getLocalSiteId() + ". Comparing with " + queuedMedia
-                                      .getFilePath()
-                              + ", " + queuedMedia.getLocalSiteId());
-            if (compareBySiteAndFilePath(queuedMedia, mediaModel)) {
-                return true;
-            }
-        }
-
-        for (MediaModel queuedMedia : sPendingUploads) {
-            AppLog.i(T.MEDIA, "MediaUploadHandler > Attempting to add media with path " + mediaModel.getFilePath()
-                              + " and site id " + mediaModel.getLocalSiteId() + ". Comparing with " + queuedMedia
-                                      .getFilePath()
-                              + ", " + queuedMedia.getLocalSiteId());
-            if (compareBySiteAndFilePath(queuedMedia, mediaModel)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean compareBySiteAndFilePath(MediaModel media1, MediaModel media2) {
-        return (media1.getLocalSiteId() == media2.getLocalSiteId()
-                && StringUtils.equals(media1.getFilePath(), media2.getFilePath()));
-    }
-
     @Override
     public void onVideoOptimizationProgress(@NonNull MediaModel media, float progress) {
         sOptimizationProgressByMediaId.put(media.getId(), progress);
@@ -417,11 +566,15 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
     @Override
     public void onVideoOptimizationCompleted(@NonNull MediaModel media) {
         sOptimizationProgressByMediaId.remove(media.getId());
-        // make sure this media should still be uploaded (may have been cancelled during optimization)
-        if (sInProgressUploads.contains(media)) {
+        mOptimizationPipeline.onOptimizationCompleted(media);
+        // make sure this media should still be uploaded (may have been cancelled during optimization) - media
+        // which is still queued was optimized ahead of its turn, and will be uploaded once it's dequeued
+        if (sUploadQueue.isInProgress(media.getId())) {
             dispatchUploadAction(media);
-        } else {
+        } else if (!sUploadQueue.isPendingOrInProgress(media.getId())) {
             AppLog.d(T.MEDIA, "MediaUploadHandler > skipping upload of optimized media");
+            mOptimizationPipeline.release(media.getId());
         }
+        optimizeNextInQueue();
     }
 }
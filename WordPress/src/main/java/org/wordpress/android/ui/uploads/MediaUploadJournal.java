@@ -0,0 +1,217 @@
+package org.wordpress.android.ui.uploads;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+import android.support.v4.util.AtomicFile;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Persisted record of the media uploads {@link MediaUploadHandler} has accepted but not yet finished, so uploads
+ * interrupted by the service or the app being killed can be restarted when {@link UploadService} is next created.
+ *
+ * Each entry records how many bytes of the media had been sent, based on the upload progress reported by FluxC.
+ * Entries are kept in memory and written to disk on a background thread, with writes coalesced so a burst of
+ * progress events results in a single write. The file is written via {@link AtomicFile} so a crash mid-write
+ * leaves the previous version intact.
+ */
+class MediaUploadJournal {
+    private static final String JOURNAL_FILE_NAME = "media_upload_journal.json";
+
+    // progress is only persisted when it has moved on by at least this fraction of the file
+    private static final float MIN_PROGRESS_TO_PERSIST = 0.05f;
+
+    private static final String KEY_MEDIA_ID = "media_id";
+    private static final String KEY_LOCAL_SITE_ID = "local_site_id";
+    private static final String KEY_LOCAL_POST_ID = "local_post_id";
+    private static final String KEY_TOTAL_BYTES = "total_bytes";
+    private static final String KEY_BYTES_UPLOADED = "bytes_uploaded";
+    private static final String KEY_ATTEMPTS = "attempts";
+
+    private final AtomicFile mFile;
+    private final Executor mWriteExecutor;
+    private final LinkedHashMap<Integer, Entry> mEntries = new LinkedHashMap<>();
+    private boolean mIsWriteScheduled;
+
+    static class Entry {
+        final int mMediaId;
+        final int mLocalSiteId;
+        final int mLocalPostId;
+        final long mTotalBytes;
+        long mBytesUploaded;
+        int mAttempts;
+
+        Entry(int mediaId, int localSiteId, int localPostId, long totalBytes) {
+            mMediaId = mediaId;
+            mLocalSiteId = localSiteId;
+            mLocalPostId = localPostId;
+            mTotalBytes = totalBytes;
+        }
+
+        Entry(@NonNull Entry entry) {
+            this(entry.mMediaId, entry.mLocalSiteId, entry.mLocalPostId, entry.mTotalBytes);
+            mBytesUploaded = entry.mBytesUploaded;
+            mAttempts = entry.mAttempts;
+        }
+    }
+
+    MediaUploadJournal(@NonNull File directory) {
+        this(directory, Executors.newSingleThreadExecutor());
+    }
+
+    @VisibleForTesting
+    MediaUploadJournal(@NonNull File directory, @NonNull Executor writeExecutor) {
+        mFile = new AtomicFile(new File(directory, JOURNAL_FILE_NAME));
+        mWriteExecutor = writeExecutor;
+        read();
+    }
+
+    /**
+     * Records that the media has been queued for upload - if it's already in the journal (because it's being
+     * restarted after an interruption) its attempt count is increased.
+     */
+    synchronized void onQueued(@NonNull MediaModel media) {
+        Entry entry = mEntries.get(media.getId());
+        if (entry == null) {
+            String filePath = media.getFilePath();
+            long totalBytes = filePath != null ? new File(filePath).length() : 0;
+            entry = new Entry(media.getId(), media.getLocalSiteId(), media.getLocalPostId(), totalBytes);
+            mEntries.put(media.getId(), entry);
+        }
+        entry.mAttempts++;
+        scheduleWrite();
+    }
+
+    /**
+     * Records the upload progress (0 to 1) reported for the media.
+     */
+    synchronized void onProgress(int mediaId, float progress) {
+        Entry entry = mEntries.get(mediaId);
+        if (entry == null || entry.mTotalBytes <= 0) {
+            return;
+        }
+        long bytesUploaded = (long) (entry.mTotalBytes * Math.min(1f, Math.max(0f, progress)));
+        if (bytesUploaded - entry.mBytesUploaded >= entry.mTotalBytes * MIN_PROGRESS_TO_PERSIST) {
+            entry.mBytesUploaded = bytesUploaded;
+            scheduleWrite();
+        }
+    }
+
+    /**
+     * Removes the media from the journal once its upload has completed, failed or been cancelled by the user.
+     */
+    synchronized void remove(int mediaId) {
+        if (mEntries.remove(mediaId) != null) {
+            scheduleWrite();
+        }
+    }
+
+    synchronized boolean contains(int mediaId) {
+        return mEntries.containsKey(mediaId);
+    }
+
+    /**
+     * Returns a copy of the entries for uploads which haven't finished, in the order they were queued.
+     */
+    synchronized @NonNull List<Entry> getEntries() {
+        List<Entry> entries = new ArrayList<>(mEntries.size());
+        for (Entry entry : mEntries.values()) {
+            entries.add(new Entry(entry));
+        }
+        return entries;
+    }
+
+    private void scheduleWrite() {
+        if (mIsWriteScheduled) {
+            return;
+        }
+        mIsWriteScheduled = true;
+        mWriteExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                String json;
+                synchronized (MediaUploadJournal.this) {
+                    mIsWriteScheduled = false;
+                    json = toJson(mEntries.values()).toString();
+                }
+                write(json);
+            }
+        });
+    }
+
+    private void write(@NonNull String json) {
+        FileOutputStream outputStream = null;
+        try {
+            outputStream = mFile.startWrite();
+            outputStream.write(json.getBytes("UTF-8"));
+            mFile.finishWrite(outputStream);
+        } catch (IOException e) {
+            AppLog.e(T.MEDIA, "MediaUploadJournal > Failed to write journal", e);
+            if (outputStream != null) {
+                mFile.failWrite(outputStream);
+            }
+        }
+    }
+
+    private synchronized void read() {
+        try {
+            byte[] data = mFile.readFully();
+            JSONArray jsonEntries = new JSONArray(new String(data, "UTF-8"));
+            for (int i = 0; i < jsonEntries.length(); i++) {
+                Entry entry = fromJson(jsonEntries.getJSONObject(i));
+                mEntries.put(entry.mMediaId, entry);
+            }
+        } catch (FileNotFoundException e) {
+            // nothing has been journaled yet
+        } catch (IOException | JSONException e) {
+            AppLog.e(T.MEDIA, "MediaUploadJournal > Failed to read journal, discarding it", e);
+            mEntries.clear();
+            mFile.delete();
+        }
+    }
+
+    private static JSONArray toJson(@NonNull Iterable<Entry> entries) {
+        JSONArray jsonEntries = new JSONArray();
+        for (Entry entry : entries) {
+            JSONObject json = new JSONObject();
+            try {
+                json.put(KEY_MEDIA_ID, entry.mMediaId);
+                json.put(KEY_LOCAL_SITE_ID, entry.mLocalSiteId);
+                json.put(KEY_LOCAL_POST_ID, entry.mLocalPostId);
+                json.put(KEY_TOTAL_BYTES, entry.mTotalBytes);
+                json.put(KEY_BYTES_UPLOADED, entry.mBytesUploaded);
+                json.put(KEY_ATTEMPTS, entry.mAttempts);
+            } catch (JSONException e) {
+                AppLog.e(T.MEDIA, e);
+                continue;
+            }
+            jsonEntries.put(json);
+        }
+        return jsonEntries;
+    }
+
+    private static Entry fromJson(@NonNull JSONObject json) throws JSONException {
+        Entry entry = new Entry(json.getInt(KEY_MEDIA_ID),
+                                json.getInt(KEY_LOCAL_SITE_ID),
+                                json.getInt(KEY_LOCAL_POST_ID),
+                                json.getLong(KEY_TOTAL_BYTES));
+        entry.mBytesUploaded = json.optLong(KEY_BYTES_UPLOADED);
+        entry.mAttempts = json.optInt(KEY_ATTEMPTS);
+        return entry;
+    }
+}
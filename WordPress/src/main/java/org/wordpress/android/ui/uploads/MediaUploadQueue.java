@@ -0,0 +1,296 @@
+package org.wordpress.android.ui.uploads;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Queue of media waiting to be uploaded (pending) and media currently being optimized or uploaded (in progress),
+ * used by {@link MediaUploadHandler}.
+ *
+ * Both lists are indexed by media id, by local site id + file path, and by local post id, so membership checks
+ * and per-post lookups don't scan the queue - important when hundreds of photos are added at once. All access
+ * goes through this object's lock, which is only held for constant-time map updates (or a copy of the entries
+ * for a single post).
+ *
+ * Pending media attached to a post which is waiting to be published are kept in a separate priority list, so they
+ * are uploaded ahead of media added from the media library.
+ */
+class MediaUploadQueue {
+    private final MediaList mPending = new MediaList();
+    private final MediaList mPriorityPending = new MediaList();
+    private final MediaList mInProgress = new MediaList();
+    private final Set<Integer> mPriorityPostIds = new HashSet<>();
+
+    private int mMaxPendingCount;
+    private int mMaxInProgressCount;
+
+    /**
+     * Adds the media to the end of the pending list, unless media with the same site and file path is already
+     * pending or in progress. Returns true if the media was added.
+     */
+    synchronized boolean addPending(@NonNull MediaModel media) {
+        String pathKey = getPathKey(media);
+        if (mPending.containsPath(pathKey) || mPriorityPending.containsPath(pathKey)
+            || mInProgress.containsPath(pathKey)) {
+            return false;
+        }
+        MediaList list = mPriorityPostIds.contains(media.getLocalPostId()) ? mPriorityPending : mPending;
+        if (!list.add(media)) {
+            return false;
+        }
+        int pendingCount = getPendingCount();
+        if (pendingCount > mMaxPendingCount) {
+            mMaxPendingCount = pendingCount;
+            logQueueDepth("pending", mMaxPendingCount);
+        }
+        return true;
+    }
+
+    /**
+     * Removes and returns the next media to upload - media for prioritized posts come first, then the rest in the
+     * order they were added. Returns null if nothing is pending.
+     */
+    synchronized @Nullable MediaModel pollPending() {
+        MediaModel media = mPriorityPending.removeFirst();
+        return media != null ? media : mPending.removeFirst();
+    }
+
+    /**
+     * Returns a copy of up to the given number of media from the front of the pending list, in the order
+     * they'll be uploaded, without removing them.
+     */
+    synchronized @NonNull List<MediaModel> peekPending(int maxCount) {
+        List<MediaModel> mediaList = new ArrayList<>(Math.min(maxCount, getPendingCount()));
+        mPriorityPending.addFirstMediaTo(maxCount, mediaList);
+        mPending.addFirstMediaTo(maxCount, mediaList);
+        return mediaList;
+    }
+
+    /**
+     * Moves the pending media for the given post ahead of other pending media, along with any media added for it
+     * later - used when the post is waiting for its media before it can be published.
+     */
+    synchronized void prioritizePost(int localPostId) {
+        if (mPriorityPostIds.add(localPostId)) {
+            for (MediaModel media : mPending.removePostMedia(localPostId)) {
+                mPriorityPending.add(media);
+            }
+        }
+    }
+
+    /**
+     * Adds the media to the in-progress list, unless media with the same id is already there.
+     */
+    synchronized void addInProgress(@NonNull MediaModel media) {
+        if (mInProgress.add(media) && mInProgress.size() > mMaxInProgressCount) {
+            mMaxInProgressCount = mInProgress.size();
+            logQueueDepth("in-progress", mMaxInProgressCount);
+        }
+    }
+
+    synchronized @Nullable MediaModel getInProgress(int mediaId) {
+        return mInProgress.get(mediaId);
+    }
+
+    synchronized @Nullable MediaModel removeInProgress(int mediaId) {
+        MediaModel media = mInProgress.remove(mediaId);
+        if (media != null && !mPriorityPending.containsPost(media.getLocalPostId())
+            && !mInProgress.containsPost(media.getLocalPostId())) {
+            // all of the post's media are done
+            mPriorityPostIds.remove(media.getLocalPostId());
+        }
+        return media;
+    }
+
+    synchronized boolean isInProgress(int mediaId) {
+        return mInProgress.get(mediaId) != null;
+    }
+
+    synchronized boolean isPendingOrInProgress(int mediaId) {
+        return mInProgress.get(mediaId) != null || mPending.get(mediaId) != null
+               || mPriorityPending.get(mediaId) != null;
+    }
+
+    synchronized boolean hasInProgressForPost(int localPostId) {
+        return mInProgress.containsPost(localPostId);
+    }
+
+    synchronized boolean hasPendingForPost(int localPostId) {
+        return mPending.containsPost(localPostId) || mPriorityPending.containsPost(localPostId);
+    }
+
+    /**
+     * Returns a copy of the in-progress media for the given post followed by its pending media.
+     */
+    synchronized @NonNull List<MediaModel> getPendingOrInProgressForPost(int localPostId) {
+        List<MediaModel> mediaList = new ArrayList<>();
+        mInProgress.addPostMediaTo(localPostId, mediaList);
+        mPriorityPending.addPostMediaTo(localPostId, mediaList);
+        mPending.addPostMediaTo(localPostId, mediaList);
+        return mediaList;
+    }
+
+    /**
+     * Returns a copy of the in-progress list, so callers can act on each item without holding the lock.
+     */
+    synchronized @NonNull List<MediaModel> getAllInProgress() {
+        return mInProgress.toList();
+    }
+
+    synchronized boolean isEmpty() {
+        return getPendingCount() == 0 && mInProgress.size() == 0;
+    }
+
+    synchronized int getPendingCount() {
+        return mPending.size() + mPriorityPending.size();
+    }
+
+    synchronized int getInProgressCount() {
+        return mInProgress.size();
+    }
+
+    /**
+     * Returns the largest number of pending media seen at once since the queue was created.
+     */
+    synchronized int getMaxPendingCount() {
+        return mMaxPendingCount;
+    }
+
+    synchronized int getMaxInProgressCount() {
+        return mMaxInProgressCount;
+    }
+
+    private static void logQueueDepth(String queueName, int depth) {
+        // only log every power of two so a large batch doesn't produce a line per item
+        if ((depth & (depth - 1)) == 0) {
+            AppLog.i(T.MEDIA, String.format(Locale.ENGLISH,
+                    "MediaUploadQueue > %s queue depth reached %d", queueName, depth));
+        }
+    }
+
+    private static String getPathKey(@NonNull MediaModel media) {
+        return media.getLocalSiteId() + ":" + media.getFilePath();
+    }
+
+    /**
+     * Insertion-ordered list of media with indexes by id, by site + path and by post. The site + path key is
+     * captured when the media is added, since the file path can change while the media is queued (for example
+     * when a video is optimized).
+     */
+    private static class MediaList {
+        private final LinkedHashMap<Integer, MediaModel> mById = new LinkedHashMap<>();
+        private final Map<Integer, String> mPathKeyById = new HashMap<>();
+        private final Map<String, Integer> mCountByPathKey = new HashMap<>();
+        private final Map<Integer, Set<Integer>> mIdsByPost = new HashMap<>();
+
+        boolean add(@NonNull MediaModel media) {
+            int id = media.getId();
+            if (mById.containsKey(id)) {
+                return false;
+            }
+            mById.put(id, media);
+
+            String pathKey = getPathKey(media);
+            mPathKeyById.put(id, pathKey);
+            Integer count = mCountByPathKey.get(pathKey);
+            mCountByPathKey.put(pathKey, count == null ? 1 : count + 1);
+
+            Set<Integer> postIds = mIdsByPost.get(media.getLocalPostId());
+            if (postIds == null) {
+                postIds = new LinkedHashSet<>();
+                mIdsByPost.put(media.getLocalPostId(), postIds);
+            }
+            postIds.add(id);
+            return true;
+        }
+
+        @Nullable MediaModel get(int id) {
+            return mById.get(id);
+        }
+
+        @Nullable MediaModel remove(int id) {
+            MediaModel media = mById.remove(id);
+            if (media == null) {
+                return null;
+            }
+
+            String pathKey = mPathKeyById.remove(id);
+            Integer count = mCountByPathKey.get(pathKey);
+            if (count == null || count <= 1) {
+                mCountByPathKey.remove(pathKey);
+            } else {
+                mCountByPathKey.put(pathKey, count - 1);
+            }
+
+            Set<Integer> postIds = mIdsByPost.get(media.getLocalPostId());
+            if (postIds != null) {
+                postIds.remove(id);
+                if (postIds.isEmpty()) {
+                    mIdsByPost.remove(media.getLocalPostId());
+                }
+            }
+            return media;
+        }
+
+        @Nullable MediaModel removeFirst() {
+            Iterator<Integer> iterator = mById.keySet().iterator();
+            return iterator.hasNext() ? remove(iterator.next()) : null;
+        }
+
+        boolean containsPath(@NonNull String pathKey) {
+            return mCountByPathKey.containsKey(pathKey);
+        }
+
+        boolean containsPost(int localPostId) {
+            return mIdsByPost.containsKey(localPostId);
+        }
+
+        void addPostMediaTo(int localPostId, @NonNull List<MediaModel> mediaList) {
+            Set<Integer> postIds = mIdsByPost.get(localPostId);
+            if (postIds != null) {
+                for (Integer id : postIds) {
+                    mediaList.add(mById.get(id));
+                }
+            }
+        }
+
+        @NonNull List<MediaModel> removePostMedia(int localPostId) {
+            List<MediaModel> mediaList = new ArrayList<>();
+            addPostMediaTo(localPostId, mediaList);
+            for (MediaModel media : mediaList) {
+                remove(media.getId());
+            }
+            return mediaList;
+        }
+
+        void addFirstMediaTo(int maxCount, @NonNull List<MediaModel> mediaList) {
+            Iterator<MediaModel> iterator = mById.values().iterator();
+            while (mediaList.size() < maxCount && iterator.hasNext()) {
+                mediaList.add(iterator.next());
+            }
+        }
+
+        @NonNull List<MediaModel> toList() {
+            return new ArrayList<>(mById.values());
+        }
+
+        int size() {
+            return mById.size();
+        }
+    }
+}
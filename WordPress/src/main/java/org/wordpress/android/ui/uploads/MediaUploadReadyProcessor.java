@@ -11,6 +11,8 @@ import org.wordpress.android.ui.posts.PostUtils;
 import org.wordpress.android.ui.prefs.AppPrefs;
 import org.wordpress.android.util.helpers.MediaFile;
 
+import java.util.Map;
+
 
 public class MediaUploadReadyProcessor implements MediaUploadReadyListener {
     @Override
@@ -35,6 +37,27 @@ public class MediaUploadReadyProcessor implements MediaUploadReadyListener {
         return post;
     }
 
+    @Override
+    public PostModel replaceMediaFilesWithUrlsInPost(@Nullable PostModel post, Map<String, MediaFile> mediaFiles) {
+        if (post != null) {
+            boolean showAztecEditor = AppPrefs.isAztecEditorEnabled();
+            boolean showGutenbergEditor = AppPrefs.isGutenbergEditorEnabled();
+
+            if (showAztecEditor
+                && !(showGutenbergEditor && PostUtils.contentContainsGutenbergBlocks(post.getContent()))) {
+                // all the media is replaced in a single pass over the post's content
+                post.setContent(AztecEditorFragment.replaceMediaFilesWithUrls(WordPress.getContext(),
+                                                                              post.getContent(), mediaFiles));
+            } else {
+                for (Map.Entry<String, MediaFile> entry : mediaFiles.entrySet()) {
+                    post = replaceMediaFileWithUrlInPost(post, entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        return post;
+    }
+
     @Override
     public PostModel markMediaUploadFailedInPost(@Nullable PostModel post, String localMediaId,
                                                  final MediaFile mediaFile) {
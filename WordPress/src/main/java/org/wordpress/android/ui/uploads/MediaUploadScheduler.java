@@ -0,0 +1,276 @@
+package org.wordpress.android.ui.uploads;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Decides how many media uploads {@link MediaUploadHandler} runs in parallel, and assigns each upload a lane so
+ * throughput can be measured per lane.
+ *
+ * The maximum number of lanes depends on the connection type. Within that maximum, the lane limit starts low and
+ * is raised one lane at a time while doing so increases overall throughput, then lowered again once an extra lane
+ * no longer helps (the connection is saturated, so more lanes would only slow down each upload). Failed uploads
+ * halve the limit, since they're usually a sign of a poor connection.
+ */
+class MediaUploadScheduler {
+    enum ConnectionType {
+        WIFI,
+        MOBILE,
+        OTHER
+    }
+
+    static final int DEFAULT_MAX_LANES_WIFI = 4;
+    static final int DEFAULT_MAX_LANES_MOBILE = 2;
+
+    // number of uploads which must finish at the current lane limit before it's adjusted
+    private static final int SAMPLES_PER_ADJUSTMENT = 2;
+    // an extra lane must improve overall throughput by at least this much to be kept
+    private static final float MIN_THROUGHPUT_GAIN = 1.1f;
+
+    private final int mMaxLanesWifi;
+    private final int mMaxLanesMobile;
+
+    private ConnectionType mConnectionType = ConnectionType.OTHER;
+    private int mLaneLimit = 1;
+    private boolean mIsSaturated;
+
+    // throughput measured at the current lane limit, and at the limit before it was last raised
+    private long mSampleBytes;
+    private long mSampleMs;
+    private int mSampleCount;
+    private float mPreviousThroughput;
+
+    private final List<LaneStats> mLaneStats = new ArrayList<>();
+    private final Map<Integer, ActiveUpload> mActiveUploads = new HashMap<>();
+
+    /**
+     * Bytes uploaded and time spent uploading in a single lane.
+     */
+    static class LaneStats {
+        private int mUploadCount;
+        private long mBytes;
+        private long mElapsedMs;
+
+        int getUploadCount() {
+            return mUploadCount;
+        }
+
+        long getBytes() {
+            return mBytes;
+        }
+
+        /**
+         * Returns the lane's average throughput in bytes per second, or 0 if nothing has been uploaded in it.
+         */
+        long getThroughput() {
+            return mElapsedMs > 0 ? (mBytes * 1000) / mElapsedMs : 0;
+        }
+    }
+
+    private static class ActiveUpload {
+        private final int mLane;
+        private final long mBytes;
+        private final long mStartMs;
+
+        ActiveUpload(int lane, long bytes, long startMs) {
+            mLane = lane;
+            mBytes = bytes;
+            mStartMs = startMs;
+        }
+    }
+
+    MediaUploadScheduler() {
+        this(DEFAULT_MAX_LANES_WIFI, DEFAULT_MAX_LANES_MOBILE);
+    }
+
+    MediaUploadScheduler(int maxLanesWifi, int maxLanesMobile) {
+        mMaxLanesWifi = Math.max(1, maxLanesWifi);
+        mMaxLanesMobile = Math.max(1, maxLanesMobile);
+    }
+
+    /**
+     * Called before uploads are started, resets the lane limit when the connection type changes since throughput
+     * measured on another connection no longer applies.
+     */
+    synchronized void setConnectionType(@NonNull ConnectionType connectionType) {
+        if (connectionType != mConnectionType) {
+            AppLog.i(T.MEDIA, "MediaUploadScheduler > connection type changed to " + connectionType);
+            mConnectionType = connectionType;
+            mLaneLimit = Math.min(2, getMaxLanes());
+            mIsSaturated = false;
+            mPreviousThroughput = 0;
+            resetSample();
+        }
+    }
+
+    synchronized int getMaxLanes() {
+        switch (mConnectionType) {
+            case WIFI:
+                return mMaxLanesWifi;
+            case MOBILE:
+                return mMaxLanesMobile;
+            case OTHER:
+            default:
+                return 1;
+        }
+    }
+
+    synchronized int getLaneLimit() {
+        return mLaneLimit;
+    }
+
+    /**
+     * Returns true if another upload can start given the number of uploads already in progress.
+     */
+    synchronized boolean canStartUpload(int inProgressCount) {
+        return inProgressCount < mLaneLimit;
+    }
+
+    /**
+     * Assigns the media to the lowest free lane and starts timing it. Returns the lane.
+     */
+    synchronized int onUploadStarted(@NonNull MediaModel media) {
+        ActiveUpload existing = mActiveUploads.get(media.getId());
+        if (existing != null) {
+            return existing.mLane;
+        }
+
+        int lane = 0;
+        while (isLaneBusy(lane)) {
+            lane++;
+        }
+        while (mLaneStats.size() <= lane) {
+            mLaneStats.add(new LaneStats());
+        }
+        mActiveUploads.put(media.getId(), new ActiveUpload(lane, getUploadSize(media), getElapsedTimeMs()));
+        return lane;
+    }
+
+    /**
+     * Records the throughput of a completed upload, and raises or lowers the lane limit when enough uploads have
+     * completed at the current limit.
+     */
+    synchronized void onUploadCompleted(int mediaId) {
+        ActiveUpload upload = removeActiveUpload(mediaId);
+        if (upload == null) {
+            return;
+        }
+
+        long elapsedMs = Math.max(1, getElapsedTimeMs() - upload.mStartMs);
+        LaneStats stats = mLaneStats.get(upload.mLane);
+        stats.mUploadCount++;
+        stats.mBytes += upload.mBytes;
+        stats.mElapsedMs += elapsedMs;
+
+        mSampleBytes += upload.mBytes;
+        mSampleMs += elapsedMs;
+        mSampleCount++;
+        if (mSampleCount >= SAMPLES_PER_ADJUSTMENT) {
+            adjustLaneLimit();
+        }
+    }
+
+    /**
+     * Frees the lane used by a failed upload and halves the lane limit.
+     */
+    synchronized void onUploadFailed(int mediaId) {
+        if (removeActiveUpload(mediaId) == null) {
+            return;
+        }
+        int newLimit = Math.max(1, mLaneLimit / 2);
+        if (newLimit != mLaneLimit) {
+            AppLog.i(T.MEDIA, "MediaUploadScheduler > upload failed, reducing lanes to " + newLimit);
+            mLaneLimit = newLimit;
+        }
+        mIsSaturated = false;
+        mPreviousThroughput = 0;
+        resetSample();
+    }
+
+    /**
+     * Frees the lane used by a cancelled upload without recording anything about it.
+     */
+    synchronized void onUploadCancelled(int mediaId) {
+        removeActiveUpload(mediaId);
+    }
+
+    /**
+     * Returns a copy of the stats for each lane which has been used.
+     */
+    synchronized @NonNull List<LaneStats> getLaneStats() {
+        List<LaneStats> copy = new ArrayList<>(mLaneStats.size());
+        for (LaneStats stats : mLaneStats) {
+            LaneStats statsCopy = new LaneStats();
+            statsCopy.mUploadCount = stats.mUploadCount;
+            statsCopy.mBytes = stats.mBytes;
+            statsCopy.mElapsedMs = stats.mElapsedMs;
+            copy.add(statsCopy);
+        }
+        return copy;
+    }
+
+    @VisibleForTesting
+    long getElapsedTimeMs() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    private void adjustLaneLimit() {
+        // overall throughput is the average per-upload throughput times the number of lanes sharing the connection
+        float throughput = ((float) mSampleBytes * 1000 / mSampleMs) * mLaneLimit;
+        int oldLimit = mLaneLimit;
+
+        if (mPreviousThroughput > 0 && throughput < mPreviousThroughput * MIN_THROUGHPUT_GAIN && mLaneLimit > 1) {
+            // the last lane added didn't help enough, so drop it and stop probing for more
+            mLaneLimit--;
+            mIsSaturated = true;
+            mPreviousThroughput = 0;
+        } else if (!mIsSaturated && mLaneLimit < getMaxLanes()) {
+            mLaneLimit++;
+            mPreviousThroughput = throughput;
+        }
+
+        if (mLaneLimit != oldLimit) {
+            AppLog.i(T.MEDIA, String.format(Locale.ENGLISH,
+                    "MediaUploadScheduler > %d lanes at %d bytes/sec, changing to %d lanes",
+                    oldLimit, (long) throughput, mLaneLimit));
+        }
+        resetSample();
+    }
+
+    private void resetSample() {
+        mSampleBytes = 0;
+        mSampleMs = 0;
+        mSampleCount = 0;
+    }
+
+    private boolean isLaneBusy(int lane) {
+        for (ActiveUpload upload : mActiveUploads.values()) {
+            if (upload.mLane == lane) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ActiveUpload removeActiveUpload(int mediaId) {
+        return mActiveUploads.remove(mediaId);
+    }
+
+    @VisibleForTesting
+    long getUploadSize(@NonNull MediaModel media) {
+        String filePath = media.getFilePath();
+        return filePath != null ? new File(filePath).length() : 0;
+    }
+}
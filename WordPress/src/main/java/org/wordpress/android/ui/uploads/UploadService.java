@@ -40,11 +40,14 @@ import org.wordpress.android.util.NetworkUtils;
 import org.wordpress.android.util.StringUtils;
 import org.wordpress.android.util.ToastUtils;
 import org.wordpress.android.util.WPMediaUtils;
+import org.wordpress.android.util.helpers.MediaFile;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -86,7 +89,6 @@ public class UploadService extends Service {
         AppLog.i(T.MAIN, "UploadService > Created");
         mDispatcher.register(this);
         sInstance = this;
-        // TODO: Recover any posts/media uploads that were interrupted by the service being stopped
 
         if (mMediaUploadHandler == null) {
             mMediaUploadHandler = new MediaUploadHandler();
@@ -152,31 +154,8 @@ public class UploadService extends Service {
     }
 
     private void unpackMediaIntent(@NonNull Intent intent) {
-        // TODO right now, in the case we had pending uploads and the app/service was restarted,
-        // we don't really have a way to tell which media was supposed to be added to which post,
-        // unless we open each draft post from the PostStore and try to see if there was any locally added media to try
-        // and match their IDs.
-        // So let's hold on a bit on this functionality, the service won't be recovering any
-        // pending / missing / cancelled / interrupted uploads for now
-
-// // add local queued media from store
-// List<MediaModel> localMedia = mMediaStore.getLocalSiteMedia(site);
-// if (localMedia != null && !localMedia.isEmpty()) {
-// // uploading is updated to queued, queued media added to the queue, failed media added to completed list
-// for (MediaModel mediaItem : localMedia) {
-//
-// if (MediaUploadState.UPLOADING.name().equals(mediaItem.getUploadState())) {
-// mediaItem.setUploadState(MediaUploadState.QUEUED.name());
-// mDispatcher.dispatch(MediaActionBuilder.newUpdateMediaAction(mediaItem));
-// }
-//
-// if (MediaUploadState.QUEUED.name().equals(mediaItem.getUploadState())) {
-// addUniqueMediaToQueue(mediaItem);
-// } else if (MediaUploadState.FAILED.name().equals(mediaItem.getUploadState())) {
-// getCompletedItems().add(mediaItem);
-// }
-// }
-// }
+        // note that media uploads interrupted by the app/service being stopped are restarted via this intent too,
+        // see recoverInterruptedMediaUploads()
 
         // add new media
         @SuppressWarnings("unchecked")
@@ -274,6 +253,7 @@ public class UploadService extends Service {
                 // If the post is already registered, the new media will be added to its list
                 List<MediaModel> activeMedia = MediaUploadHandler.getPendingOrInProgressMediaUploadsForPost(post);
                 mUploadStore.registerPostModel(post, activeMedia);
+                MediaUploadHandler.prioritizeMediaUploadsForPost(post);
             }
         }
     }
@@ -439,11 +419,9 @@ public class UploadService extends Service {
             // updates in one go and save only once
             MediaUploadReadyListener processor = new MediaUploadReadyProcessor();
             Set<MediaModel> completedMedia = sInstance.mUploadStore.getCompletedMediaForPost(post);
-            for (MediaModel media : completedMedia) {
-                post = updatePostWithMediaUrl(post, media, processor);
-            }
-
             if (completedMedia != null && !completedMedia.isEmpty()) {
+                post = updatePostWithMediaUrls(post, completedMedia, processor);
+
                 // finally remove all completed uploads for this post, as they've been taken care of
                 ClearMediaPayload clearMediaPayload = new ClearMediaPayload(post, completedMedia);
                 sInstance.mDispatcher.dispatch(UploadActionBuilder.newClearMediaForPostAction(clearMediaPayload));
@@ -535,9 +513,40 @@ public class UploadService extends Service {
         return MediaUploadHandler.isPendingOrInProgressMediaUpload(media);
     }
 
+    /**
+     * Restarts the media uploads which were interrupted by the service or the app being stopped, using the journal
+     * kept by MediaUploadHandler - the posts waiting on that media are registered again when the service picks the
+     * media up, so they're uploaded once their media is done. Called at startup, from a background thread, ahead of
+     * sanitizeMediaUploadStateForSite().
+     */
+    public static void recoverInterruptedMediaUploads(@NonNull Context context, @NonNull MediaStore mediaStore) {
+        ArrayList<MediaModel> mediaToRecover = new ArrayList<>();
+        for (int mediaId : MediaUploadHandler.getInterruptedMediaUploadIds()) {
+            MediaModel media = mediaStore.getMediaWithLocalId(mediaId);
+            if (media != null && (MediaUploadState.QUEUED.toString().equals(media.getUploadState())
+                                  || MediaUploadState.UPLOADING.toString().equals(media.getUploadState()))) {
+                mediaToRecover.add(media);
+            } else {
+                MediaUploadHandler.discardInterruptedMediaUpload(mediaId);
+            }
+        }
+
+        if (!mediaToRecover.isEmpty()) {
+            AppLog.i(T.MAIN, "UploadService > Recovering " + mediaToRecover.size() + " interrupted media uploads");
+            try {
+                context.startService(getUploadMediaServiceIntent(context, mediaToRecover, false));
+            } catch (IllegalStateException e) {
+                // the app was started in the background - the media stays journaled and is recovered the next
+                // time the app comes to the foreground
+                AppLog.w(T.MAIN, "UploadService > Can't restart interrupted media uploads in the background");
+            }
+        }
+    }
+
     /**
      * Rechecks all media in the MediaStore marked UPLOADING/QUEUED against the UploadingService to see
-     * if it's actually uploading or queued and change it accordingly, to recover from an inconsistent state
+     * if it's actually uploading or queued and change it accordingly, to recover from an inconsistent state.
+     * Media whose upload is journaled is left alone, since recoverInterruptedMediaUploads() restarts it.
      */
     public static void sanitizeMediaUploadStateForSite(@NonNull MediaStore mediaStore, @NonNull Dispatcher dispatcher,
                                                        @NonNull SiteModel site) {
@@ -555,7 +564,8 @@ public class UploadService extends Service {
         uploadingOrQueuedMedia.addAll(queuedMedia);
 
         for (final MediaModel media : uploadingOrQueuedMedia) {
-            if (!UploadService.isPendingOrInProgressMediaUpload(media)) {
+            if (!UploadService.isPendingOrInProgressMediaUpload(media)
+                && !MediaUploadHandler.isJournaledMediaUpload(media.getId())) {
                 // it is NOT being uploaded or queued in the actual UploadService, mark it failed
                 media.setUploadState(MediaUploadState.FAILED);
                 dispatcher.dispatch(MediaActionBuilder.newUpdateMediaAction(media));
@@ -563,12 +573,15 @@ public class UploadService extends Service {
         }
     }
 
-    private static synchronized PostModel updatePostWithMediaUrl(PostModel post, MediaModel media,
-                                                                 MediaUploadReadyListener processor) {
-        if (media != null && post != null && processor != null) {
-            // actually replace the media ID with the media uri
-            PostModel modifiedPost = processor.replaceMediaFileWithUrlInPost(post, String.valueOf(media.getId()),
-                                                                             FluxCUtils.mediaFileFromMediaModel(media));
+    private static synchronized PostModel updatePostWithMediaUrls(PostModel post, Set<MediaModel> mediaList,
+                                                                  MediaUploadReadyListener processor) {
+        if (post != null && processor != null) {
+            // actually replace the media IDs with the media uris, in a single pass over the post's content
+            Map<String, MediaFile> mediaFiles = new HashMap<>(mediaList.size());
+            for (MediaModel media : mediaList) {
+                mediaFiles.put(String.valueOf(media.getId()), FluxCUtils.mediaFileFromMediaModel(media));
+            }
+            PostModel modifiedPost = processor.replaceMediaFilesWithUrlsInPost(post, mediaFiles);
             if (modifiedPost != null) {
                 post = modifiedPost;
             }
@@ -772,7 +785,8 @@ public class UploadService extends Service {
                 mDispatcher.dispatch(PostActionBuilder.newUpdatePostAction(post));
             }
 
-            // no retry uploading the media items
+            // no retry uploading the media items, ahead of any media library uploads
+            MediaUploadHandler.prioritizeMediaUploadsForPost(post);
             for (MediaModel media : mediaToRetry) {
                 mMediaUploadHandler.upload(media);
             }
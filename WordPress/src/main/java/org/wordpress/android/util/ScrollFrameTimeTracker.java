@@ -0,0 +1,85 @@
+package org.wordpress.android.util;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.Choreographer;
+
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures frame times while a RecyclerView scrolls, and logs a summary each time scrolling stops - the number
+ * of frames, how many of them missed the frame deadline and the slowest one. Used to check the effect of
+ * changes to list binding on scrolling smoothness.
+ */
+public class ScrollFrameTimeTracker extends RecyclerView.OnScrollListener implements Choreographer.FrameCallback {
+    // frames which take longer than this have missed a 60fps frame deadline
+    private static final long JANK_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(17);
+
+    private final String mName;
+    private final T mLogTag;
+
+    private boolean mIsTracking;
+    private long mLastFrameTimeNanos;
+    private int mFrameCount;
+    private int mJankyFrameCount;
+    private long mWorstFrameNanos;
+
+    public ScrollFrameTimeTracker(@NonNull String name, @NonNull T logTag) {
+        mName = name;
+        mLogTag = logTag;
+    }
+
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            stop();
+        } else if (!mIsTracking) {
+            start();
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mIsTracking) {
+            return;
+        }
+        if (mLastFrameTimeNanos != 0) {
+            long frameNanos = frameTimeNanos - mLastFrameTimeNanos;
+            mFrameCount++;
+            if (frameNanos > JANK_THRESHOLD_NANOS) {
+                mJankyFrameCount++;
+            }
+            mWorstFrameNanos = Math.max(mWorstFrameNanos, frameNanos);
+        }
+        mLastFrameTimeNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private void start() {
+        mIsTracking = true;
+        mLastFrameTimeNanos = 0;
+        mFrameCount = 0;
+        mJankyFrameCount = 0;
+        mWorstFrameNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /*
+     * stops tracking, logging the frames seen since scrolling started
+     */
+    public void stop() {
+        if (!mIsTracking) {
+            return;
+        }
+        mIsTracking = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+        if (mFrameCount > 0) {
+            AppLog.d(mLogTag, String.format(Locale.US, "%s > scrolled %d frames, %d janky (%.1f%%), worst %.1f ms",
+                    mName, mFrameCount, mJankyFrameCount, 100f * mJankyFrameCount / mFrameCount,
+                    mWorstFrameNanos / 1000000f));
+        }
+    }
+}
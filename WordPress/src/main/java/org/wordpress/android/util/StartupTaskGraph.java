@@ -0,0 +1,153 @@
+package org.wordpress.android.util;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the initialization tasks of the app as a graph, where each task declares the tasks it depends on and when
+ * it needs to run:
+ * - MAIN_THREAD tasks run on the main thread as soon as the graph is started, so they're done before any
+ * activity, service or receiver is created
+ * - BACKGROUND tasks run on a background thread once the tasks they depend on have finished
+ * - FIRST_ACTIVITY tasks are only needed once the user sees the app, so they're skipped when the process is
+ * started for a push notification or a job, and run when the first activity is shown
+ *
+ * Tasks can only depend on tasks added before them, which keeps the graph free of cycles. Each task is timed via
+ * {@link ProfilingUtils#timing(String, long)}.
+ */
+public class StartupTaskGraph {
+    public enum Mode {
+        MAIN_THREAD,
+        BACKGROUND,
+        FIRST_ACTIVITY
+    }
+
+    private static class Task {
+        final String mName;
+        final Mode mMode;
+        final Runnable mRunnable;
+        final Task[] mDependencies;
+        final AtomicBoolean mIsStarted = new AtomicBoolean();
+        final CountDownLatch mIsFinished = new CountDownLatch(1);
+
+        Task(String name, Mode mode, Runnable runnable, Task[] dependencies) {
+            mName = name;
+            mMode = mode;
+            mRunnable = runnable;
+            mDependencies = dependencies;
+        }
+    }
+
+    private final LinkedHashMap<String, Task> mTasks = new LinkedHashMap<>();
+    private final Executor mBackgroundExecutor;
+
+    public StartupTaskGraph() {
+        // a single thread, so background tasks don't compete with the main thread for cores during startup
+        this(Executors.newSingleThreadExecutor());
+    }
+
+    public StartupTaskGraph(@NonNull Executor backgroundExecutor) {
+        mBackgroundExecutor = backgroundExecutor;
+    }
+
+    public StartupTaskGraph add(@NonNull String name, @NonNull Mode mode, @NonNull Runnable runnable,
+                                String... dependencyNames) {
+        if (mTasks.containsKey(name)) {
+            throw new IllegalArgumentException("Startup task " + name + " was already added");
+        }
+        Task[] dependencies = new Task[dependencyNames.length];
+        for (int i = 0; i < dependencyNames.length; i++) {
+            dependencies[i] = mTasks.get(dependencyNames[i]);
+            if (dependencies[i] == null) {
+                throw new IllegalArgumentException("Startup task " + name + " depends on " + dependencyNames[i]
+                                                   + ", which must be added before it");
+            }
+            if (dependencies[i].mMode == Mode.FIRST_ACTIVITY && mode != Mode.FIRST_ACTIVITY) {
+                throw new IllegalArgumentException("Startup task " + name + " can't depend on " + dependencyNames[i]
+                                                   + ", which only runs once an activity is shown");
+            }
+        }
+        mTasks.put(name, new Task(name, mode, runnable, dependencies));
+        return this;
+    }
+
+    /**
+     * Runs the MAIN_THREAD tasks, and queues the BACKGROUND ones - must be called on the main thread
+     */
+    public void start() {
+        for (final Task task : mTasks.values()) {
+            if (task.mMode == Mode.MAIN_THREAD) {
+                run(task);
+            } else if (task.mMode == Mode.BACKGROUND) {
+                mBackgroundExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        StartupTaskGraph.this.run(task);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Runs the FIRST_ACTIVITY tasks which haven't run yet - must be called on the main thread
+     */
+    public void onFirstActivityShown() {
+        for (Task task : mTasks.values()) {
+            if (task.mMode == Mode.FIRST_ACTIVITY) {
+                run(task);
+            }
+        }
+    }
+
+    /**
+     * Makes sure the task has run, running it on the calling thread if it hasn't started yet or waiting for it
+     * to finish if it's running elsewhere
+     */
+    public void ensureFinished(@NonNull String name) {
+        Task task = mTasks.get(name);
+        if (task == null) {
+            throw new IllegalArgumentException("Unknown startup task " + name);
+        }
+        run(task);
+    }
+
+    private void run(@NonNull Task task) {
+        if (!task.mIsStarted.compareAndSet(false, true)) {
+            awaitFinished(task);
+            return;
+        }
+        try {
+            for (Task dependency : task.mDependencies) {
+                run(dependency);
+            }
+            long startTime = SystemClock.elapsedRealtime();
+            task.mRunnable.run();
+            ProfilingUtils.timing(task.mName + " (" + task.mMode + ", " + Thread.currentThread().getName() + ")",
+                                  SystemClock.elapsedRealtime() - startTime);
+        } finally {
+            task.mIsFinished.countDown();
+        }
+    }
+
+    private static void awaitFinished(@NonNull Task task) {
+        boolean isInterrupted = false;
+        while (true) {
+            try {
+                task.mIsFinished.await();
+                break;
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.wordpress.android.util.image
+
+import android.os.SystemClock
+import com.bumptech.glide.load.DataSource
+import org.wordpress.android.util.AppLog
+import org.wordpress.android.util.AppLog.T
+import org.wordpress.android.util.ProfilingUtils
+
+/**
+ * Measures how the images of an image-heavy screen (the reader or the media grid) load while the screen is shown:
+ * the time from the screen being started to its first image being ready to draw, and the peak heap used while its
+ * images are loaded. Only the images loaded via [ImageManager.load] are measured.
+ */
+object ImageLoadProfiler {
+    private var screen: String? = null
+    private var startTime = 0L
+    private var imageCount = 0
+    private var peakHeapBytes = 0L
+
+    val isProfiling: Boolean
+        @Synchronized get() = screen != null
+
+    @JvmStatic
+    @Synchronized
+    fun start(screen: String) {
+        this.screen = screen
+        startTime = SystemClock.elapsedRealtime()
+        imageCount = 0
+        peakHeapBytes = getUsedHeapBytes()
+    }
+
+    @Synchronized
+    fun onImageReady(dataSource: DataSource?) {
+        val screen = this.screen ?: return
+        if (imageCount == 0) {
+            ProfilingUtils.timing("$screen: time to first pixel, from $dataSource",
+                    SystemClock.elapsedRealtime() - startTime)
+        }
+        imageCount++
+        peakHeapBytes = Math.max(peakHeapBytes, getUsedHeapBytes())
+    }
+
+    @JvmStatic
+    @Synchronized
+    fun stop() {
+        val screen = this.screen ?: return
+        AppLog.d(T.PROFILING, "$screen: $imageCount images loaded, peak heap ${peakHeapBytes / 1024} KB")
+        this.screen = null
+    }
+
+    private fun getUsedHeapBytes(): Long {
+        val runtime = Runtime.getRuntime()
+        return runtime.totalMemory() - runtime.freeMemory()
+    }
+}
@@ -70,6 +70,7 @@ class ImageManager @Inject constructor(val placeholderManager: ImagePlaceholderM
                 .addFallback(context, imageType)
                 .addPlaceholder(context, imageType)
                 .applyScaleType(scaleType)
+                .attachProfilingListener()
                 .into(imageView)
                 .clearOnDetach()
     }
@@ -328,6 +329,34 @@ class ImageManager @Inject constructor(val placeholderManager: ImagePlaceholderM
         }
     }
 
+    private fun <T : Any> GlideRequest<T>.attachProfilingListener(): GlideRequest<T> {
+        return if (!ImageLoadProfiler.isProfiling) {
+            this
+        } else {
+            this.listener(object : com.bumptech.glide.request.RequestListener<T> {
+                override fun onLoadFailed(
+                    e: GlideException?,
+                    model: Any?,
+                    target: Target<T>?,
+                    isFirstResource: Boolean
+                ): Boolean {
+                    return false
+                }
+
+                override fun onResourceReady(
+                    resource: T?,
+                    model: Any?,
+                    target: Target<T>?,
+                    dataSource: DataSource?,
+                    isFirstResource: Boolean
+                ): Boolean {
+                    ImageLoadProfiler.onImageReady(dataSource)
+                    return false
+                }
+            })
+        }
+    }
+
     @Deprecated("Object for backward compatibility with code which doesn't support DI")
     companion object {
         @JvmStatic
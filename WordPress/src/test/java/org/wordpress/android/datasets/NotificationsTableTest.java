@@ -0,0 +1,114 @@
+package org.wordpress.android.datasets;
+
+import android.content.ContentValues;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Build;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.wordpress.android.TestApplication;
+import org.wordpress.android.models.Note;
+import org.wordpress.android.models.NotesListFilter;
+
+import java.util.ArrayList;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = TestApplication.class, sdk = Build.VERSION_CODES.JELLY_BEAN)
+public class NotificationsTableTest {
+    private SQLiteDatabase mDb;
+
+    @Before
+    public void setUp() {
+        mDb = SQLiteDatabase.create(null);
+        NotificationsTable.createTables(mDb);
+        addNote("1", Note.NOTE_LIKE_TYPE, false, true);
+        addNote("2", Note.NOTE_COMMENT_LIKE_TYPE, false, false);
+        addNote("3", Note.NOTE_COMMENT_TYPE, true, true);
+        addNote("4", Note.NOTE_FOLLOW_TYPE, false, false);
+        addNote("5", Note.NOTE_NEW_POST_TYPE, false, true);
+        addNote("6", Note.NOTE_REBLOG_TYPE, false, false);
+    }
+
+    @After
+    public void tearDown() {
+        mDb.close();
+    }
+
+    @Test
+    public void testFiltersMatchNoteTypes() {
+        ArrayList<Note> allNotes = NotificationsTable.getNotes(mDb, NotesListFilter.FILTER_ALL, 0, 100);
+        Assert.assertEquals(6, allNotes.size());
+
+        for (NotesListFilter filter : NotesListFilter.values()) {
+            ArrayList<Note> filteredNotes = new ArrayList<>();
+            for (Note note : allNotes) {
+                if (matches(note, filter)) {
+                    filteredNotes.add(note);
+                }
+            }
+            Assert.assertEquals("Filter " + filter, getIds(filteredNotes),
+                    getIds(NotificationsTable.getNotes(mDb, filter, 0, 100)));
+        }
+    }
+
+    @Test
+    public void testLikesFilterIncludesCommentLikes() {
+        ArrayList<Note> likes = NotificationsTable.getNotes(mDb, NotesListFilter.FILTER_LIKE, 0, 100);
+
+        Assert.assertEquals(2, likes.size());
+        Assert.assertTrue(getIds(likes).contains("1"));
+        Assert.assertTrue(getIds(likes).contains("2"));
+    }
+
+    @Test
+    public void testNotesArePaged() {
+        ArrayList<Note> firstPage = NotificationsTable.getNotes(mDb, NotesListFilter.FILTER_ALL, 0, 4);
+        ArrayList<Note> secondPage = NotificationsTable.getNotes(mDb, NotesListFilter.FILTER_ALL, 4, 4);
+
+        Assert.assertEquals(4, firstPage.size());
+        Assert.assertEquals("6", firstPage.get(0).getId());
+        Assert.assertEquals(2, secondPage.size());
+        Assert.assertEquals("2", secondPage.get(0).getId());
+        Assert.assertEquals("1", secondPage.get(1).getId());
+    }
+
+    private static boolean matches(Note note, NotesListFilter filter) {
+        switch (filter) {
+            case FILTER_COMMENT:
+                return note.isCommentType();
+            case FILTER_FOLLOW:
+                return note.isFollowType();
+            case FILTER_LIKE:
+                return note.isLikeType();
+            case FILTER_UNREAD:
+                return note.isUnread();
+            default:
+                return true;
+        }
+    }
+
+    private void addNote(String id, String type, boolean isComment, boolean isUnread) {
+        ContentValues values = new ContentValues();
+        values.put("note_id", id);
+        values.put("type", type);
+        values.put("raw_note_data", "{}");
+        values.put("timestamp", Long.parseLong(id));
+        values.put("is_comment", isComment ? 1 : 0);
+        values.put("is_unread", isUnread ? 1 : 0);
+        values.put("comment_status", "all");
+        mDb.insertOrThrow("tbl_notifications", null, values);
+    }
+
+    private static ArrayList<String> getIds(ArrayList<Note> notes) {
+        ArrayList<String> ids = new ArrayList<>();
+        for (Note note : notes) {
+            ids.add(note.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,177 @@
+package org.wordpress.android.datasets;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Build;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.wordpress.android.TestApplication;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = TestApplication.class, sdk = Build.VERSION_CODES.JELLY_BEAN)
+public class ReaderDatabaseTest {
+    private ReaderDatabase mReaderDatabase;
+
+    @After
+    public void tearDown() {
+        if (mReaderDatabase != null) {
+            mReaderDatabase.close();
+        }
+        RuntimeEnvironment.application.deleteDatabase(ReaderDatabase.DB_NAME);
+    }
+
+    @Test
+    public void testUpgradeFromVersionWithoutMigrationScript() {
+        Context context = RuntimeEnvironment.application;
+        SQLiteDatabase oldDb = context.openOrCreateDatabase(ReaderDatabase.DB_NAME, Context.MODE_PRIVATE, null);
+        oldDb.execSQL("CREATE TABLE tbl_posts (post_id INTEGER DEFAULT 0, blog_id INTEGER DEFAULT 0,"
+                      + " pseudo_id TEXT NOT NULL, tag_name TEXT, PRIMARY KEY (pseudo_id, tag_name))");
+        oldDb.execSQL("INSERT INTO tbl_posts (post_id, blog_id, pseudo_id, tag_name) VALUES (1, 2, 'pseudo', 'tag')");
+        oldDb.setVersion(136);
+        oldDb.close();
+
+        mReaderDatabase = new ReaderDatabase(context);
+        SQLiteDatabase db = mReaderDatabase.getWritableDatabase();
+
+        Assert.assertTrue(hasTable(db, "tbl_posts"));
+        Assert.assertTrue(hasTable(db, "tbl_post_tags"));
+        Assert.assertFalse(hasTable(db, "tbl_posts_denormalized"));
+        Assert.assertEquals(0, count(db, "tbl_posts"));
+    }
+
+    @Test
+    public void testUpgradeNormalizesPosts() {
+        Context context = RuntimeEnvironment.application;
+        SQLiteDatabase oldDb = context.openOrCreateDatabase(ReaderDatabase.DB_NAME, Context.MODE_PRIVATE, null);
+        createVersion137Tables(oldDb);
+        // the same post stored once for each of the two tags it appeared in, and another post in one tag
+        addVersion137Post(oldDb, 1, "pseudo1", "text1", "tag1", 1, "2018-01-02", "{\"railcar\":1}");
+        addVersion137Post(oldDb, 1, "pseudo1", "text1", "tag2", 2, "2018-01-03", null);
+        addVersion137Post(oldDb, 2, "pseudo2", "text2", "tag1", 1, "2018-01-01", null);
+        oldDb.setVersion(137);
+        oldDb.close();
+
+        mReaderDatabase = new ReaderDatabase(context);
+        SQLiteDatabase db = mReaderDatabase.getWritableDatabase();
+
+        Assert.assertEquals(138, db.getVersion());
+        Assert.assertFalse(hasTable(db, "tbl_posts_denormalized"));
+        Assert.assertEquals(2, count(db, "tbl_posts"));
+        Assert.assertEquals(3, count(db, "tbl_post_tags"));
+
+        Cursor cursor = db.rawQuery("SELECT post_id, blog_id, text, is_bookmarked FROM tbl_posts"
+                                    + " ORDER BY pseudo_id", null);
+        try {
+            Assert.assertTrue(cursor.moveToFirst());
+            Assert.assertEquals(1, cursor.getLong(0));
+            Assert.assertEquals(10, cursor.getLong(1));
+            Assert.assertEquals("text1", cursor.getString(2));
+            Assert.assertEquals(1, cursor.getInt(3));
+            Assert.assertTrue(cursor.moveToNext());
+            Assert.assertEquals(2, cursor.getLong(0));
+            Assert.assertEquals("text2", cursor.getString(2));
+        } finally {
+            cursor.close();
+        }
+
+        cursor = db.rawQuery("SELECT pseudo_id, post_id, blog_id, tag_name, tag_type, date_tagged, railcar_json"
+                             + " FROM tbl_post_tags ORDER BY pseudo_id, tag_name", null);
+        try {
+            Assert.assertTrue(cursor.moveToFirst());
+            assertTagRow(cursor, "pseudo1", 1, "tag1", 1, "2018-01-02", "{\"railcar\":1}");
+            Assert.assertTrue(cursor.moveToNext());
+            assertTagRow(cursor, "pseudo1", 1, "tag2", 2, "2018-01-03", null);
+            Assert.assertTrue(cursor.moveToNext());
+            assertTagRow(cursor, "pseudo2", 2, "tag1", 1, "2018-01-01", null);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /*
+     * creates the reader tables as they were in version 137, when tbl_posts stored a copy of each
+     * post for every tag it appeared in
+     */
+    private static void createVersion137Tables(SQLiteDatabase db) {
+        ReaderCommentTable.createTables(db);
+        ReaderLikeTable.createTables(db);
+        ReaderTagTable.createTables(db);
+        ReaderUserTable.createTables(db);
+        ReaderThumbnailTable.createTables(db);
+        ReaderBlogTable.createTables(db);
+        ReaderSearchTable.createTables(db);
+        db.execSQL("CREATE TABLE tbl_posts ("
+                   + " post_id INTEGER DEFAULT 0, blog_id INTEGER DEFAULT 0, feed_id INTEGER DEFAULT 0,"
+                   + " feed_item_id INTEGER DEFAULT 0, pseudo_id TEXT NOT NULL, author_name TEXT,"
+                   + " author_first_name TEXT, author_id INTEGER DEFAULT 0, title  TEXT, text TEXT, excerpt TEXT,"
+                   + " format TEXT, url TEXT, short_url TEXT, blog_name TEXT, blog_url TEXT, blog_image_url TEXT,"
+                   + " featured_image TEXT, featured_video TEXT, post_avatar TEXT, score REAL DEFAULT 0,"
+                   + " date_published TEXT, date_liked TEXT, date_tagged TEXT, num_replies INTEGER DEFAULT 0,"
+                   + " num_likes INTEGER DEFAULT 0, is_liked INTEGER DEFAULT 0, is_followed INTEGER DEFAULT 0,"
+                   + " is_comments_open INTEGER DEFAULT 0, is_external INTEGER DEFAULT 0,"
+                   + " is_private INTEGER DEFAULT 0, is_videopress INTEGER DEFAULT 0, is_jetpack INTEGER DEFAULT 0,"
+                   + " primary_tag TEXT, secondary_tag TEXT, attachments_json TEXT, discover_json TEXT,"
+                   + " xpost_post_id INTEGER DEFAULT 0, xpost_blog_id INTEGER DEFAULT 0, railcar_json TEXT,"
+                   + " tag_name TEXT NOT NULL COLLATE NOCASE, tag_type INTEGER DEFAULT 0,"
+                   + " has_gap_marker INTEGER DEFAULT 0, card_type TEXT, use_excerpt INTEGER DEFAULT 0,"
+                   + " is_bookmarked INTEGER DEFAULT 0, PRIMARY KEY (pseudo_id, tag_name, tag_type))");
+        db.execSQL("CREATE INDEX idx_posts_post_id_blog_id ON tbl_posts(post_id, blog_id)");
+        db.execSQL("CREATE INDEX idx_posts_date_published ON tbl_posts(date_published)");
+        db.execSQL("CREATE INDEX idx_posts_date_tagged ON tbl_posts(date_tagged)");
+        db.execSQL("CREATE INDEX idx_posts_tag_name ON tbl_posts(tag_name)");
+    }
+
+    private static void addVersion137Post(SQLiteDatabase db, long postId, String pseudoId, String text,
+                                          String tagName, int tagType, String dateTagged, String railcarJson) {
+        ContentValues values = new ContentValues();
+        values.put("post_id", postId);
+        values.put("blog_id", postId * 10);
+        values.put("pseudo_id", pseudoId);
+        values.put("text", text);
+        values.put("date_tagged", dateTagged);
+        values.put("railcar_json", railcarJson);
+        values.put("tag_name", tagName);
+        values.put("tag_type", tagType);
+        values.put("is_bookmarked", postId == 1 ? 1 : 0);
+        db.insertOrThrow("tbl_posts", null, values);
+    }
+
+    private static void assertTagRow(Cursor cursor, String pseudoId, long postId, String tagName, int tagType,
+                                     String dateTagged, String railcarJson) {
+        Assert.assertEquals(pseudoId, cursor.getString(0));
+        Assert.assertEquals(postId, cursor.getLong(1));
+        Assert.assertEquals(postId * 10, cursor.getLong(2));
+        Assert.assertEquals(tagName, cursor.getString(3));
+        Assert.assertEquals(tagType, cursor.getInt(4));
+        Assert.assertEquals(dateTagged, cursor.getString(5));
+        Assert.assertEquals(railcarJson, cursor.getString(6));
+    }
+
+    private static boolean hasTable(SQLiteDatabase db, String tableName) {
+        Cursor cursor = db.rawQuery("SELECT 1 FROM sqlite_master WHERE type='table' AND name=?",
+                new String[]{tableName});
+        try {
+            return cursor.moveToFirst();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static long count(SQLiteDatabase db, String tableName) {
+        Cursor cursor = db.rawQuery("SELECT count(*) FROM " + tableName, null);
+        try {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.wordpress.android.datasets;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Build;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.wordpress.android.TestApplication;
+import org.wordpress.android.models.ReaderPost;
+import org.wordpress.android.models.ReaderPostList;
+import org.wordpress.android.models.ReaderTagType;
+import org.wordpress.android.ui.reader.actions.ReaderActions;
+import org.wordpress.android.ui.reader.models.ReaderPostDiff;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = TestApplication.class, sdk = Build.VERSION_CODES.JELLY_BEAN)
+public class ReaderPostTableTest {
+    private static final long BLOG_ID = 100;
+
+    private SQLiteDatabase mDb;
+
+    @Before
+    public void setUp() {
+        mDb = SQLiteDatabase.create(null);
+        ReaderPostTable.createTables(mDb);
+    }
+
+    @After
+    public void tearDown() {
+        mDb.close();
+    }
+
+    @Test
+    public void testTagsExceedingMaxPostsAreFound() {
+        addPostTags("exceeding", ReaderPostTable.MAX_POSTS_PER_TAG + 1);
+        addPostTags("at-max", ReaderPostTable.MAX_POSTS_PER_TAG);
+
+        Cursor cursor = ReaderPostTable.queryTagsExceedingMaxPosts(mDb);
+        try {
+            Assert.assertEquals(1, cursor.getCount());
+            Assert.assertTrue(cursor.moveToFirst());
+            Assert.assertEquals("exceeding", cursor.getString(0));
+            Assert.assertEquals(ReaderTagType.FOLLOWED.toInt(), cursor.getInt(1));
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Test
+    public void testPostDiffDetectsEditedText() {
+        addPost(1, "Title", "Text");
+        addPost(2, "Title", "Text");
+
+        ReaderPostList posts = new ReaderPostList();
+        posts.add(makePost(1, "Title", "Text"));
+        posts.add(makePost(2, "Title", "Edited text"));
+        posts.add(makePost(3, "Title", "Text"));
+        ReaderPostDiff diff = ReaderPostTable.getPostDiff(mDb, posts);
+
+        Assert.assertEquals(2, diff.getExistingPosts().size());
+        Assert.assertEquals(1, diff.getChangedPosts().size());
+        Assert.assertEquals(2, diff.getChangedPosts().get(0).getPostId());
+        Assert.assertEquals(1, diff.getNewPosts().size());
+        Assert.assertEquals(3, diff.getNewPosts().get(0).getPostId());
+    }
+
+    @Test
+    public void testPostDiffOfUnchangedPosts() {
+        addPost(1, "Title", "Text");
+
+        ReaderPostList posts = new ReaderPostList();
+        posts.add(makePost(1, "Title", "Text"));
+
+        ReaderPostDiff diff = ReaderPostTable.getPostDiff(mDb, posts);
+
+        Assert.assertEquals(ReaderActions.UpdateResult.UNCHANGED, diff.getUpdateResult());
+    }
+
+    private void addPost(long postId, String title, String text) {
+        ContentValues values = new ContentValues();
+        values.put("pseudo_id", "pseudo-" + postId);
+        values.put("blog_id", BLOG_ID);
+        values.put("post_id", postId);
+        values.put("title", title);
+        values.put("text", text);
+        mDb.insertOrThrow("tbl_posts", null, values);
+    }
+
+    private static ReaderPost makePost(long postId, String title, String text) {
+        ReaderPost post = new ReaderPost();
+        post.blogId = BLOG_ID;
+        post.postId = postId;
+        post.setTitle(title);
+        post.setText(text);
+        return post;
+    }
+
+    private void addPostTags(String tagName, int count) {
+        for (int i = 0; i < count; i++) {
+            ContentValues values = new ContentValues();
+            values.put("pseudo_id", "pseudo-" + i);
+            values.put("post_id", i);
+            values.put("tag_name", tagName);
+            values.put("tag_type", ReaderTagType.FOLLOWED.toInt());
+            mDb.insertOrThrow("tbl_post_tags", null, values);
+        }
+    }
+}
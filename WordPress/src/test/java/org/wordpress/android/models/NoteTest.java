@@ -0,0 +1,63 @@
+package org.wordpress.android.models;
+
+import android.os.Build;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.wordpress.android.TestApplication;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = TestApplication.class, sdk = Build.VERSION_CODES.JELLY_BEAN)
+public class NoteTest {
+    private static final String NOTE_JSON = "{\"id\":\"123\",\"type\":\"comment\",\"read\":0,"
+            + "\"timestamp\":\"2018-06-01T10:00:00+00:00\",\"icon\":\"https://example.com/avatar.png\","
+            + "\"noticon\":\"\\uf300\",\"url\":\"https://example.com/post\","
+            + "\"subject\":[{\"text\":\"Someone commented on your post\"},"
+            + "{\"text\":\"Nice post!\",\"ranges\":[{\"value\":\"\\uf467\"}]}]}";
+
+    @Test
+    public void testListColumnsMatchParsedNote() throws JSONException {
+        Note parsed = new Note("123", new JSONObject(NOTE_JSON));
+        Note fromColumns = fromColumns(parsed);
+
+        Assert.assertEquals(parsed.getType(), fromColumns.getType());
+        Assert.assertEquals(parsed.getHash(), fromColumns.getHash());
+        Assert.assertEquals(parsed.isUnread(), fromColumns.isUnread());
+        Assert.assertEquals(parsed.isCommentType(), fromColumns.isCommentType());
+        Assert.assertEquals(parsed.getTimestamp(), fromColumns.getTimestamp());
+        Assert.assertEquals(parsed.getSubject().toString(), fromColumns.getSubject().toString());
+        Assert.assertEquals(parsed.getCommentSubject(), fromColumns.getCommentSubject());
+        Assert.assertEquals(parsed.getCommentSubjectNoticon(), fromColumns.getCommentSubjectNoticon());
+        Assert.assertEquals(parsed.getIconURL(), fromColumns.getIconURL());
+        Assert.assertEquals(parsed.getNoticonCharacter(), fromColumns.getNoticonCharacter());
+        Assert.assertEquals(parsed.getCommentStatus(), fromColumns.getCommentStatus());
+    }
+
+    @Test
+    public void testRawDataIsParsedWhenNeeded() throws JSONException {
+        Note fromColumns = fromColumns(new Note("123", new JSONObject(NOTE_JSON)));
+
+        Assert.assertEquals("https://example.com/post", fromColumns.getUrl());
+        Assert.assertEquals("123", fromColumns.getJSON().getString("id"));
+    }
+
+    @Test
+    public void testSetReadUpdatesColumnsAndJson() throws JSONException {
+        Note fromColumns = fromColumns(new Note("123", new JSONObject(NOTE_JSON)));
+        fromColumns.setRead();
+
+        Assert.assertFalse(fromColumns.isUnread());
+        Assert.assertEquals(1, fromColumns.getJSON().getInt("read"));
+    }
+
+    private static Note fromColumns(Note note) {
+        return new Note(note.getId(), note.getJSON().toString(), note.getType(), note.getHash(),
+                        note.isUnread(), note.isCommentType(), note.getTimestamp(), note.getSubjectData(),
+                        note.getIconURL(), note.getNoticonCharacter(), note.getCommentStatus());
+    }
+}
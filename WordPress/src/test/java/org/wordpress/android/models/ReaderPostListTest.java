@@ -0,0 +1,73 @@
+package org.wordpress.android.models;
+
+import android.os.Build;
+
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.wordpress.android.TestApplication;
+
+import java.io.StringReader;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = TestApplication.class, sdk = Build.VERSION_CODES.JELLY_BEAN)
+public class ReaderPostListTest {
+    private static final String RESPONSE_JSON = "{"
+            + "\"found\": 2,"
+            + "\"meta\": {\"next_page\": \"value=2018-01-01T00:00:00+00:00\"},"
+            + "\"posts\": ["
+            + "  {"
+            + "    \"ID\": 101, \"site_ID\": 1, \"feed_ID\": 11, \"pseudo_ID\": \"abc\","
+            + "    \"title\": \"First &amp; best\", \"content\": \"<p>Hello <img src=\\\"a.jpg\\\"></p>\","
+            + "    \"excerpt\": \"<p>Hello</p>\", \"date\": \"2018-01-02T00:00:00+00:00\", \"score\": 1.5,"
+            + "    \"like_count\": 3, \"i_like\": true, \"site_is_private\": false, \"featured_image\": null,"
+            + "    \"author\": {\"ID\": 5, \"name\": \"Author\", \"avatar_URL\": \"http://a.b/c.png\"},"
+            + "    \"discussion\": {\"comments_open\": true, \"comment_count\": 7},"
+            + "    \"tags\": {\"one\": {\"slug\": \"one\", \"post_count\": 4}, \"two\": {\"slug\": \"two\"}},"
+            + "    \"metadata\": [{\"id\": \"1\", \"key\": \"xpost_origin\", \"value\": \"22:33\"}],"
+            + "    \"railcar\": {\"railcar\": \"xyz\", \"fetch_position\": 0}"
+            + "  },"
+            + "  {"
+            + "    \"ID\": 102, \"site_ID\": 1, \"global_ID\": \"def\", \"title\": \"\","
+            + "    \"content\": \"Second\", \"excerpt\": \"An untitled post\","
+            + "    \"meta\": {\"data\": {\"site\": {\"ID\": 2, \"name\": \"Site\", \"URL\": \"http://site.com\"}}}"
+            + "  }"
+            + "]"
+            + "}";
+
+    @Test
+    public void testStreamingParserMatchesJsonObjectParser() throws Exception {
+        ReaderPostList expected = ReaderPostList.fromJson(new JSONObject(RESPONSE_JSON));
+        ReaderPostList actual = ReaderPostList.fromJson(new StringReader(RESPONSE_JSON));
+
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            ReaderPost expectedPost = expected.get(i);
+            ReaderPost actualPost = actual.get(i);
+            Assert.assertEquals(expectedPost.getPseudoId(), actualPost.getPseudoId());
+            Assert.assertEquals(expectedPost.blogId, actualPost.blogId);
+            Assert.assertEquals(expectedPost.postId, actualPost.postId);
+            Assert.assertEquals(expectedPost.getTitle(), actualPost.getTitle());
+            Assert.assertEquals(expectedPost.getText(), actualPost.getText());
+            Assert.assertEquals(expectedPost.getExcerpt(), actualPost.getExcerpt());
+            Assert.assertEquals(expectedPost.getBlogName(), actualPost.getBlogName());
+            Assert.assertEquals(expectedPost.getPrimaryTag(), actualPost.getPrimaryTag());
+            Assert.assertEquals(expectedPost.getRailcarJson(), actualPost.getRailcarJson());
+            Assert.assertEquals(expectedPost.getFeaturedImage(), actualPost.getFeaturedImage());
+            Assert.assertEquals(expectedPost.score, actualPost.score, 0);
+            Assert.assertEquals(expectedPost.xpostPostId, actualPost.xpostPostId);
+            Assert.assertEquals(expectedPost.numReplies, actualPost.numReplies);
+            Assert.assertEquals(expectedPost.isLikedByCurrentUser, actualPost.isLikedByCurrentUser);
+            Assert.assertTrue(expectedPost.isSamePost(actualPost));
+        }
+    }
+
+    @Test
+    public void testStreamingParserSkipsMissingPosts() throws Exception {
+        ReaderPostList posts = ReaderPostList.fromJson(new StringReader("{\"found\": 0, \"meta\": {}}"));
+        Assert.assertTrue(posts.isEmpty());
+    }
+}
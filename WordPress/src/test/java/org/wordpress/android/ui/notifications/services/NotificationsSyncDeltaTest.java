@@ -0,0 +1,54 @@
+package org.wordpress.android.ui.notifications.services;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class NotificationsSyncDeltaTest {
+    @Test
+    public void testOnlyChangedNotesAreDownloaded() {
+        Map<String, String> remote = new LinkedHashMap<>();
+        remote.put("3", "new");
+        remote.put("2", "changed");
+        remote.put("1", "same");
+        Map<String, String> local = new HashMap<>();
+        local.put("2", "original");
+        local.put("1", "same");
+
+        NotificationsSyncDelta delta = new NotificationsSyncDelta(remote, local);
+        assertEquals(Arrays.asList("3", "2"), delta.getChangedNoteIds());
+        assertEquals(Collections.emptyList(), delta.getRemovedNoteIds());
+    }
+
+    @Test
+    public void testNotesWithoutHashesAreDownloaded() {
+        Map<String, String> remote = new LinkedHashMap<>();
+        remote.put("2", "");
+        remote.put("1", "hash");
+        Map<String, String> local = new HashMap<>();
+        local.put("2", "");
+        local.put("1", "");
+
+        NotificationsSyncDelta delta = new NotificationsSyncDelta(remote, local);
+        assertEquals(Arrays.asList("2", "1"), delta.getChangedNoteIds());
+    }
+
+    @Test
+    public void testMissingNotesAreRemoved() {
+        Map<String, String> remote = new LinkedHashMap<>();
+        remote.put("2", "hash");
+        Map<String, String> local = new HashMap<>();
+        local.put("2", "hash");
+        local.put("1", "hash");
+
+        NotificationsSyncDelta delta = new NotificationsSyncDelta(remote, local);
+        assertEquals(Collections.emptyList(), delta.getChangedNoteIds());
+        assertEquals(Collections.singletonList("1"), delta.getRemovedNoteIds());
+    }
+}
@@ -0,0 +1,129 @@
+package org.wordpress.android.ui.posts;
+
+import android.os.Build;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.wordpress.android.TestApplication;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = TestApplication.class, sdk = Build.VERSION_CODES.JELLY_BEAN)
+public class PostAutosaveJournalTest {
+    private static final int LOCAL_POST_ID = 42;
+    private static final String TITLE = "Title";
+    private static final String CONTENT = "<p>The first paragraph</p><p>The second paragraph</p>";
+
+    @Rule public TemporaryFolder mTempFolder = new TemporaryFolder();
+
+    @Test
+    public void testEditsAreReplayed() throws IOException {
+        File directory = mTempFolder.newFolder();
+        String inserted = "<p>The first paragraph</p><p>An inserted paragraph</p><p>The second paragraph</p>";
+        String deleted = "<p>An inserted paragraph</p><p>The second paragraph</p>";
+        String appended = deleted + "<p>The last paragraph</p>";
+
+        PostAutosaveJournal journal = new PostAutosaveJournal(directory, LOCAL_POST_ID);
+        Assert.assertTrue(journal.append(TITLE, CONTENT, TITLE, inserted));
+        Assert.assertTrue(journal.append(TITLE, inserted, "New title", deleted));
+        Assert.assertTrue(journal.append("New title", deleted, "New title", appended));
+        Assert.assertEquals(3, journal.getEntryCount());
+
+        PostAutosaveJournal.Recovered recovered =
+                new PostAutosaveJournal(directory, LOCAL_POST_ID).replay(TITLE, CONTENT);
+        Assert.assertNotNull(recovered);
+        Assert.assertEquals("New title", recovered.mTitle);
+        Assert.assertEquals(appended, recovered.mContent);
+        Assert.assertEquals(3, recovered.mEntryCount);
+    }
+
+    @Test
+    public void testJournalOfAnotherVersionIsNotReplayed() throws IOException {
+        File directory = mTempFolder.newFolder();
+
+        new PostAutosaveJournal(directory, LOCAL_POST_ID).append(TITLE, CONTENT, TITLE, CONTENT + "<p>More</p>");
+
+        Assert.assertNull(new PostAutosaveJournal(directory, LOCAL_POST_ID).replay(TITLE, "<p>Updated on the web</p>"));
+    }
+
+    @Test
+    public void testEditsAlreadyStoredAreSkipped() throws IOException {
+        File directory = mTempFolder.newFolder();
+        String first = CONTENT + "<p>First</p>";
+        String second = first + "<p>Second</p>";
+        String third = second + "<p>Third</p>";
+
+        PostAutosaveJournal journal = new PostAutosaveJournal(directory, LOCAL_POST_ID);
+        journal.append(TITLE, CONTENT, TITLE, first);
+        journal.append(TITLE, first, TITLE, second);
+        journal.append(TITLE, second, TITLE, third);
+
+        // the post was written to the db with two of the edits, but the app was killed before the journal was cleared
+        PostAutosaveJournal.Recovered recovered =
+                new PostAutosaveJournal(directory, LOCAL_POST_ID).replay(TITLE, second);
+        Assert.assertNotNull(recovered);
+        Assert.assertEquals(third, recovered.mContent);
+        Assert.assertEquals(1, recovered.mEntryCount);
+    }
+
+    @Test
+    public void testEntryCutShortIsSkipped() throws IOException {
+        File directory = mTempFolder.newFolder();
+        String first = CONTENT + "<p>First</p>";
+        String second = first + "<p>Second</p>";
+
+        PostAutosaveJournal journal = new PostAutosaveJournal(directory, LOCAL_POST_ID);
+        journal.append(TITLE, CONTENT, TITLE, first);
+        journal.append(TITLE, first, TITLE, second);
+        truncate(getJournalFile(directory), 3);
+
+        PostAutosaveJournal.Recovered recovered =
+                new PostAutosaveJournal(directory, LOCAL_POST_ID).replay(TITLE, CONTENT);
+        Assert.assertNotNull(recovered);
+        Assert.assertEquals(first, recovered.mContent);
+        Assert.assertEquals(1, recovered.mEntryCount);
+    }
+
+    @Test
+    public void testClearDiscardsEdits() throws IOException {
+        File directory = mTempFolder.newFolder();
+
+        PostAutosaveJournal journal = new PostAutosaveJournal(directory, LOCAL_POST_ID);
+        journal.append(TITLE, CONTENT, TITLE, CONTENT + "<p>More</p>");
+        journal.clear();
+
+        Assert.assertEquals(0, journal.getEntryCount());
+        Assert.assertFalse(getJournalFile(directory).exists());
+        Assert.assertNull(new PostAutosaveJournal(directory, LOCAL_POST_ID).replay(TITLE, CONTENT));
+    }
+
+    @Test
+    public void testHasChanged() {
+        Assert.assertFalse(PostAutosaveJournal.hasChanged(CONTENT, new String(CONTENT)));
+        Assert.assertTrue(PostAutosaveJournal.hasChanged(CONTENT, CONTENT.replace("first", "final")));
+        Assert.assertTrue(PostAutosaveJournal.hasChanged(CONTENT, CONTENT + " "));
+        Assert.assertTrue(PostAutosaveJournal.hasChanged(null, CONTENT));
+        Assert.assertFalse(PostAutosaveJournal.hasChanged(null, null));
+    }
+
+    private static File getJournalFile(File directory) {
+        return new File(new File(directory, "post_autosave"), "post_" + LOCAL_POST_ID + ".journal");
+    }
+
+    private static void truncate(File file, int bytesToRemove) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(randomAccessFile.length() - bytesToRemove);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+}
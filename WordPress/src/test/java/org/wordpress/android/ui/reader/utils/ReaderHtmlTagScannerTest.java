@@ -0,0 +1,216 @@
+package org.wordpress.android.ui.reader.utils;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+import org.wordpress.android.ui.reader.utils.ReaderHtmlTagScanner.TagType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReaderHtmlTagScannerTest {
+    // the patterns used by the reader before the single-pass scanner, used to check for parity
+    private static final Pattern LEGACY_IMG_TAG_PATTERN = Pattern.compile(
+            "<img[^>]* src=\\\"([^\\\"]*)\\\"[^>]*>",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern LEGACY_IFRAME_TAG_PATTERN = Pattern.compile(
+            "<iframe[^>]* src=\\\'([^\\\']*)\\\'[^>]*>",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern LEGACY_INSTAGRAM_PATTERN = Pattern.compile(
+            "<blockquote[^<>]class=\"instagram-",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern LEGACY_FACEBOOK_PATTERN = Pattern.compile(
+            "<fb:post",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final int BENCHMARK_CONTENT_LENGTH = 500 * 1024;
+    private static final int BENCHMARK_RUNS = 10;
+
+    @Test
+    public void testFindsImagesAndIframes() {
+        String content = "<p>text</p><img class=\"a\" src=\"http://a.com/1.jpg\" width=\"100\">"
+                         + "<IMG SRC=\"http://a.com/2.jpg\"/>"
+                         + "<iframe src='https://www.youtube.com/embed/abc' width='640'></iframe>"
+                         + "<imgx src=\"http://a.com/3.jpg\">";
+        List<String> found = scan(content, ReaderHtmlTagScanner.ALL_TAG_TYPES);
+        assertEquals(3, found.size());
+        assertEquals("IMAGE:<img class=\"a\" src=\"http://a.com/1.jpg\" width=\"100\">:http://a.com/1.jpg",
+                found.get(0));
+        assertEquals("IMAGE:<IMG SRC=\"http://a.com/2.jpg\"/>:http://a.com/2.jpg", found.get(1));
+        assertEquals("IFRAME:<iframe src='https://www.youtube.com/embed/abc' width='640'>"
+                     + ":https://www.youtube.com/embed/abc", found.get(2));
+    }
+
+    @Test
+    public void testIgnoresQuotedGreaterThan() {
+        String content = "<img alt=\"a > b\" src=\"http://a.com/1.jpg\">";
+        List<String> found = scan(content, ReaderHtmlTagScanner.ALL_TAG_TYPES);
+        assertEquals(1, found.size());
+        assertEquals("IMAGE:" + content + ":http://a.com/1.jpg", found.get(0));
+    }
+
+    @Test
+    public void testUnbalancedQuoteDoesNotHideLaterTags() {
+        String content = "<img alt=\"6'2\" tall src=\"http://a.com/1.jpg\"><p>text</p>"
+                         + "<img alt='unclosed src=\"http://a.com/2.jpg\">"
+                         + "<img src=\"http://a.com/3.jpg\">";
+        List<String> found = scan(content, ReaderHtmlTagScanner.ALL_TAG_TYPES);
+        assertEquals(3, found.size());
+        assertEquals("IMAGE:<img alt='unclosed src=\"http://a.com/2.jpg\">:http://a.com/2.jpg", found.get(1));
+        assertEquals("IMAGE:<img src=\"http://a.com/3.jpg\">:http://a.com/3.jpg", found.get(2));
+    }
+
+    @Test
+    public void testUnclosedTagIsSkipped() {
+        String content = "<blockquote class=\"instagram-media\"></blockquote><img src=\"http://a.com/1.jpg\"";
+        List<String> found = scan(content, ReaderHtmlTagScanner.ALL_TAG_TYPES);
+        assertEquals(1, found.size());
+        assertTrue(found.get(0).startsWith("EMBED:"));
+    }
+
+    @Test
+    public void testReportsEachEmbedScriptOnce() {
+        String content = "<blockquote class=\"instagram-media\"></blockquote>"
+                         + "<blockquote class=\"instagram-media\"></blockquote>"
+                         + "<fb:post href='x'></fb:post>";
+        List<String> found = scan(content, ReaderHtmlTagScanner.ALL_TAG_TYPES);
+        assertEquals(2, found.size());
+        assertTrue(found.get(0).startsWith("EMBED:"));
+        assertTrue(found.get(0).endsWith("instagram.com/en_US/embeds.js"));
+        assertTrue(found.get(1).startsWith("EMBED:<fb:post"));
+    }
+
+    @Test
+    public void testStopsWhenListenerReturnsFalse() {
+        String content = "<img src=\"http://a.com/1.jpg\"><img src=\"http://a.com/2.jpg\">";
+        final List<String> found = new ArrayList<>();
+        ReaderHtmlTagScanner.scan(content, ReaderHtmlTagScanner.ALL_TAG_TYPES, new ReaderHtmlTagScanner.TagListener() {
+            @Override
+            public boolean onTagFound(@NonNull TagType tagType, int start, int end, @NonNull String src) {
+                found.add(src);
+                return false;
+            }
+        });
+        assertEquals(1, found.size());
+    }
+
+    @Test
+    public void testMatchesLegacyPatterns() {
+        String content = makeLongFormContent(BENCHMARK_CONTENT_LENGTH);
+        assertEquals(scanWithLegacyPatterns(content), scan(content, ReaderHtmlTagScanner.ALL_TAG_TYPES));
+    }
+
+    /*
+     * prints how long the legacy patterns and the single-pass scanner take to scan a long-form post
+     * with hundreds of images - look for "reader benchmark" in the test output
+     */
+    @Test
+    public void testScannerBenchmark() {
+        String content = makeLongFormContent(BENCHMARK_CONTENT_LENGTH);
+
+        long startMs = System.currentTimeMillis();
+        for (int i = 0; i < BENCHMARK_RUNS; i++) {
+            scanWithLegacyPatterns(content);
+        }
+        long legacyMs = System.currentTimeMillis() - startMs;
+
+        startMs = System.currentTimeMillis();
+        for (int i = 0; i < BENCHMARK_RUNS; i++) {
+            scan(content, ReaderHtmlTagScanner.ALL_TAG_TYPES);
+        }
+        long scannerMs = System.currentTimeMillis() - startMs;
+
+        System.out.println(String.format(Locale.ENGLISH,
+                "reader benchmark > scanned %d chars %d times, legacy patterns %d ms, scanner %d ms",
+                content.length(), BENCHMARK_RUNS, legacyMs, scannerMs));
+    }
+
+    private static List<String> scan(final String content, Set<TagType> tagTypes) {
+        final List<String> found = new ArrayList<>();
+        final List<String> embeds = new ArrayList<>();
+        ReaderHtmlTagScanner.scan(content, tagTypes, new ReaderHtmlTagScanner.TagListener() {
+            @Override
+            public boolean onTagFound(@NonNull TagType tagType, int start, int end, @NonNull String src) {
+                String item = tagType.name() + ":" + content.substring(start, end) + ":" + src;
+                if (tagType == TagType.EMBED) {
+                    embeds.add(item);
+                } else {
+                    found.add(item);
+                }
+                return true;
+            }
+        });
+        found.addAll(embeds);
+        return found;
+    }
+
+    /*
+     * returns the same results as scan() using the legacy patterns - tags are listed in the order
+     * they appear in the content, followed by embeds
+     */
+    private static List<String> scanWithLegacyPatterns(String content) {
+        // sorted by offset so image and iframe matches are merged into document order
+        TreeMap<Integer, String> tags = new TreeMap<>();
+        addLegacyMatches(content, LEGACY_IMG_TAG_PATTERN, "IMAGE", tags);
+        addLegacyMatches(content, LEGACY_IFRAME_TAG_PATTERN, "IFRAME", tags);
+        List<String> found = new ArrayList<>(tags.values());
+
+        Matcher matcher = LEGACY_INSTAGRAM_PATTERN.matcher(content);
+        if (matcher.find()) {
+            found.add("EMBED:" + matcher.group(0) + ":https://platform.instagram.com/en_US/embeds.js");
+        }
+        matcher = LEGACY_FACEBOOK_PATTERN.matcher(content);
+        if (matcher.find()) {
+            found.add("EMBED:" + matcher.group(0)
+                      + ":https://connect.facebook.net/en_US/sdk.js#xfbml=1&amp;version=v2.8");
+        }
+        return found;
+    }
+
+    private static void addLegacyMatches(String content, Pattern pattern, String type, TreeMap<Integer, String> tags) {
+        Matcher matcher = pattern.matcher(content);
+        while (matcher.find()) {
+            tags.put(matcher.start(), type + ":" + matcher.group(0) + ":" + matcher.group(1));
+        }
+    }
+
+    /*
+     * generates long-form content similar to a photo-heavy post - paragraphs with links, captioned
+     * images with the attributes wp.com adds, occasional video iframes and social embeds
+     */
+    private static String makeLongFormContent(int length) {
+        StringBuilder sb = new StringBuilder(length + 1024);
+        int i = 0;
+        while (sb.length() < length) {
+            sb.append("<p>Paragraph ").append(i)
+              .append(" lorem ipsum dolor sit amet, <a href=\"https://example.com/").append(i)
+              .append("\">consectetur</a> adipiscing elit, sed do eiusmod tempor incididunt ut labore.</p>");
+            sb.append("<figure class=\"wp-caption aligncenter\"><img class=\"size-full wp-image-").append(i)
+              .append("\" data-orig-size=\"2048,1365\" data-attachment-id=\"").append(i)
+              .append("\" src=\"https://example.files.wordpress.com/2018/01/photo-").append(i)
+              .append(".jpg?w=1024&#038;h=683\" alt=\"Photo ").append(i)
+              .append("\" width=\"1024\" height=\"683\" srcset=\"https://example.files.wordpress.com/2018/01/photo-")
+              .append(i).append(".jpg?w=2048 2048w\" />")
+              .append("<figcaption class=\"wp-caption-text\">Caption ").append(i).append("</figcaption></figure>");
+            if (i % 40 == 0) {
+                sb.append("<iframe class='youtube-player' type='text/html' width='640' height='360'")
+                  .append(" src='https://www.youtube.com/embed/video").append(i)
+                  .append("?version=3&#038;rel=1' allowfullscreen='true'></iframe>");
+            }
+            if (i % 150 == 0) {
+                sb.append("<blockquote class=\"instagram-media\" data-instgrm-version=\"7\"><p>post</p></blockquote>")
+                  .append("<fb:post href=\"https://www.facebook.com/post/").append(i).append("\"></fb:post>");
+            }
+            i++;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,126 @@
+package org.wordpress.android.ui.stats.datasets;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Build;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.wordpress.android.TestApplication;
+import org.wordpress.android.ui.stats.StatsTimeframe;
+import org.wordpress.android.ui.stats.service.StatsServiceLogic.StatsEndpointsEnum;
+
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = TestApplication.class, sdk = Build.VERSION_CODES.JELLY_BEAN)
+public class StatsTableTest {
+    private static final long BLOG_ID = 1;
+    private static final String DATE = "2018-10-18";
+    private static final StatsEndpointsEnum ENDPOINT = StatsEndpointsEnum.VISITS;
+
+    private SQLiteDatabase mDb;
+
+    @Before
+    public void setUp() {
+        mDb = SQLiteDatabase.create(null);
+        StatsTable.createTables(mDb);
+    }
+
+    @After
+    public void tearDown() {
+        mDb.close();
+    }
+
+    @Test
+    public void testStatsAreStoredCompressed() {
+        String json = makeJson(500);
+
+        insert(json, 10, 1, System.currentTimeMillis());
+
+        StatsTable.CachedStats cachedStats = get(10, 1);
+        Assert.assertNotNull(cachedStats);
+        Assert.assertEquals(json, cachedStats.getJson());
+        Assert.assertFalse(cachedStats.isStale());
+        Cursor cursor = mDb.rawQuery("SELECT length(jsonData) FROM tbl_stats", null);
+        try {
+            Assert.assertTrue(cursor.moveToFirst());
+            Assert.assertTrue(cursor.getInt(0) < json.length() / 4);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Test
+    public void testStatsOlderThanTtlAreServedStale() {
+        long ttlMs = TimeUnit.MINUTES.toMillis(ENDPOINT.getCacheTtlMinutes());
+        insert(makeJson(1), 10, 1, System.currentTimeMillis() - ttlMs - TimeUnit.MINUTES.toMillis(1));
+
+        StatsTable.CachedStats cachedStats = get(10, 1);
+        Assert.assertNotNull(cachedStats);
+        Assert.assertTrue(cachedStats.isStale());
+    }
+
+    @Test
+    public void testStatsOlderThanMaxStaleAgeAreNotServed() {
+        insert(makeJson(1), 10, 1,
+               System.currentTimeMillis() - StatsTable.MAX_STALE_AGE_MS - TimeUnit.MINUTES.toMillis(1));
+
+        Assert.assertNull(get(10, 1));
+    }
+
+    @Test
+    public void testStatsAreMatchedOnPageAndMaxResult() {
+        insert(makeJson(1), 10, 1, System.currentTimeMillis());
+
+        Assert.assertNotNull(get(5, 1));
+        Assert.assertNull(get(20, 1));
+        Assert.assertNull(get(10, 2));
+    }
+
+    @Test
+    public void testNewerStatsReplaceTheOnesOfTheSamePage() {
+        insert(makeJson(1), 10, 1, System.currentTimeMillis());
+        insert(makeJson(2), 20, 1, System.currentTimeMillis());
+        insert(makeJson(3), 10, 2, System.currentTimeMillis());
+
+        Assert.assertEquals(2, count());
+        Assert.assertEquals(makeJson(2), get(10, 1).getJson());
+        Assert.assertEquals(makeJson(3), get(10, 2).getJson());
+    }
+
+    private void insert(String json, int maxResult, int page, long timestamp) {
+        StatsTable.insertStats(mDb, BLOG_ID, StatsTimeframe.DAY, DATE, ENDPOINT, maxResult, page, json, timestamp);
+    }
+
+    private StatsTable.CachedStats get(int maxResult, int page) {
+        return StatsTable.getStats(mDb, BLOG_ID, StatsTimeframe.DAY, DATE, ENDPOINT, maxResult, page);
+    }
+
+    private long count() {
+        Cursor cursor = mDb.rawQuery("SELECT count(*) FROM tbl_stats", null);
+        try {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static String makeJson(int days) {
+        StringBuilder json = new StringBuilder("{\"data\":[");
+        for (int i = 0; i < days; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"period\":\"2018-10-18\",\"views\":").append(i).append(",\"visitors\":").append(i)
+                .append('}');
+        }
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,101 @@
+package org.wordpress.android.ui.uploads;
+
+import android.os.Build;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.wordpress.android.TestApplication;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = TestApplication.class, sdk = Build.VERSION_CODES.JELLY_BEAN)
+public class MediaContentHashIndexTest {
+    // runs index writes immediately so the file can be checked straight away
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Rule public TemporaryFolder mTempFolder = new TemporaryFolder();
+
+    @Test
+    public void testHashIsSha256OfContent() throws IOException {
+        File file = makeFile("abc", "abc".getBytes("UTF-8"));
+        Assert.assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                MediaContentHashIndex.hashFile(file.getPath()));
+    }
+
+    @Test
+    public void testSameContentAtDifferentPathsHasSameHash() throws IOException {
+        // larger than the hash buffer, so the file is hashed in several chunks
+        byte[] content = new byte[200 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        File first = makeFile("first", content);
+        File second = makeFile("second", content);
+        content[content.length - 1]++;
+        File changed = makeFile("changed", content);
+
+        String hash = MediaContentHashIndex.hashFile(first.getPath());
+        Assert.assertEquals(hash, MediaContentHashIndex.hashFile(second.getPath()));
+        Assert.assertNotEquals(hash, MediaContentHashIndex.hashFile(changed.getPath()));
+    }
+
+    @Test
+    public void testEntriesSurviveRestart() throws IOException {
+        File directory = mTempFolder.newFolder();
+        new MediaContentHashIndex(directory, DIRECT_EXECUTOR).put(1, "hash", 100, "https://example.com/a.jpg");
+
+        MediaContentHashIndex.Entry entry = new MediaContentHashIndex(directory, DIRECT_EXECUTOR).get(1, "hash");
+        Assert.assertNotNull(entry);
+        Assert.assertEquals(100, entry.mRemoteMediaId);
+        Assert.assertEquals("https://example.com/a.jpg", entry.mUrl);
+    }
+
+    @Test
+    public void testEntriesArePerSite() throws IOException {
+        MediaContentHashIndex index = new MediaContentHashIndex(mTempFolder.newFolder(), DIRECT_EXECUTOR);
+        index.put(1, "hash", 100, "https://example.com/a.jpg");
+
+        Assert.assertNull(index.get(2, "hash"));
+        index.remove(1, "hash");
+        Assert.assertNull(index.get(1, "hash"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreDropped() throws IOException {
+        MediaContentHashIndex index = new MediaContentHashIndex(mTempFolder.newFolder(), DIRECT_EXECUTOR);
+        index.put(1, "first", 1, "https://example.com/1.jpg");
+        index.put(1, "second", 2, "https://example.com/2.jpg");
+        index.get(1, "first");
+        for (int i = 0; i < 999; i++) {
+            index.put(1, "hash" + i, 10 + i, "https://example.com/" + i + ".jpg");
+        }
+
+        Assert.assertNotNull(index.get(1, "first"));
+        Assert.assertNull(index.get(1, "second"));
+    }
+
+    private File makeFile(String name, byte[] content) throws IOException {
+        File file = mTempFolder.newFile(name);
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(content);
+        } finally {
+            outputStream.close();
+        }
+        return file;
+    }
+}
@@ -0,0 +1,135 @@
+package org.wordpress.android.ui.uploads;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wordpress.android.fluxc.model.MediaModel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MediaOptimizationPipelineTest {
+    private static final int FILE_SIZE = 1000;
+
+    @Rule public TemporaryFolder mTempFolder = new TemporaryFolder();
+
+    /**
+     * Optimizer which records the media it's asked to optimize - tests complete them by calling
+     * {@link MediaOptimizationPipeline#onOptimizationCompleted(MediaModel)}.
+     */
+    private static class TestOptimizer implements MediaOptimizationPipeline.Optimizer {
+        private final List<Integer> mStartedIds = new ArrayList<>();
+
+        @Override
+        public boolean canOptimize(@NonNull MediaModel media) {
+            return media.isVideo();
+        }
+
+        @Override
+        public void startOptimizing(@NonNull MediaModel media) {
+            mStartedIds.add(media.getId());
+        }
+    }
+
+    @Test
+    public void testOptimizesOneItemAtATime() throws IOException {
+        TestOptimizer optimizer = new TestOptimizer();
+        MediaOptimizationPipeline pipeline = new MediaOptimizationPipeline(optimizer, 10 * FILE_SIZE);
+        MediaModel first = makeVideo(1);
+        MediaModel second = makeVideo(2);
+        List<MediaModel> upcoming = Arrays.asList(first, second);
+
+        pipeline.optimizeNext(Collections.<MediaModel>emptyList(), upcoming);
+        pipeline.optimizeNext(Collections.<MediaModel>emptyList(), upcoming);
+        assertEquals(Collections.singletonList(1), optimizer.mStartedIds);
+
+        pipeline.onOptimizationCompleted(first);
+        assertTrue(pipeline.isReadyToUpload(first));
+        assertFalse(pipeline.isReadyToUpload(second));
+        pipeline.optimizeNext(Collections.<MediaModel>emptyList(), upcoming);
+        assertEquals(Arrays.asList(1, 2), optimizer.mStartedIds);
+    }
+
+    @Test
+    public void testWaitingMediaComesFirst() throws IOException {
+        TestOptimizer optimizer = new TestOptimizer();
+        MediaOptimizationPipeline pipeline = new MediaOptimizationPipeline(optimizer, 10 * FILE_SIZE);
+
+        pipeline.optimizeNext(Collections.singletonList(makeVideo(2)), Collections.singletonList(makeVideo(1)));
+        assertEquals(Collections.singletonList(2), optimizer.mStartedIds);
+    }
+
+    @Test
+    public void testMediaWhichCantBeOptimizedIsReady() throws IOException {
+        TestOptimizer optimizer = new TestOptimizer();
+        MediaOptimizationPipeline pipeline = new MediaOptimizationPipeline(optimizer, 10 * FILE_SIZE);
+        MediaModel image = makeMedia(1, "image/jpeg");
+
+        assertTrue(pipeline.isReadyToUpload(image));
+        pipeline.optimizeNext(Collections.<MediaModel>emptyList(), Collections.singletonList(image));
+        assertTrue(optimizer.mStartedIds.isEmpty());
+    }
+
+    @Test
+    public void testStopsOptimizingAheadWhenBudgetIsUsed() throws IOException {
+        TestOptimizer optimizer = new TestOptimizer();
+        MediaOptimizationPipeline pipeline = new MediaOptimizationPipeline(optimizer, 2 * FILE_SIZE);
+        List<MediaModel> upcoming = new ArrayList<>();
+        for (int id = 1; id <= 4; id++) {
+            upcoming.add(makeVideo(id));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            pipeline.optimizeNext(Collections.<MediaModel>emptyList(), upcoming);
+        }
+        pipeline.onOptimizationCompleted(upcoming.get(0));
+        pipeline.optimizeNext(Collections.<MediaModel>emptyList(), upcoming);
+        pipeline.onOptimizationCompleted(upcoming.get(1));
+        pipeline.optimizeNext(Collections.<MediaModel>emptyList(), upcoming);
+        assertEquals(Arrays.asList(1, 2), optimizer.mStartedIds);
+        assertEquals(2 * FILE_SIZE, pipeline.getOptimizedBytes());
+
+        // media which is waiting to upload is optimized even when the budget is used up
+        MediaModel waiting = upcoming.remove(3);
+        pipeline.optimizeNext(Collections.singletonList(waiting), upcoming);
+        assertEquals(Arrays.asList(1, 2, 4), optimizer.mStartedIds);
+        pipeline.onOptimizationCompleted(waiting);
+
+        // uploading media frees up space for the next one
+        pipeline.release(upcoming.remove(0).getId());
+        pipeline.release(waiting.getId());
+        pipeline.optimizeNext(Collections.<MediaModel>emptyList(), upcoming);
+        assertEquals(Arrays.asList(1, 2, 4, 3), optimizer.mStartedIds);
+    }
+
+    private MediaModel makeVideo(int id) throws IOException {
+        return makeMedia(id, "video/mp4");
+    }
+
+    private MediaModel makeMedia(int id, String mimeType) throws IOException {
+        File file = mTempFolder.newFile("media" + id);
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(FILE_SIZE);
+        } finally {
+            randomAccessFile.close();
+        }
+
+        MediaModel media = new MediaModel();
+        media.setId(id);
+        media.setMimeType(mimeType);
+        media.setFilePath(file.getAbsolutePath());
+        return media;
+    }
+}
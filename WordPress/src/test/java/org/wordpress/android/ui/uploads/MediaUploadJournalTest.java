@@ -0,0 +1,108 @@
+package org.wordpress.android.ui.uploads;
+
+import android.os.Build;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.wordpress.android.TestApplication;
+import org.wordpress.android.fluxc.model.MediaModel;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = TestApplication.class, sdk = Build.VERSION_CODES.JELLY_BEAN)
+public class MediaUploadJournalTest {
+    // runs journal writes immediately so the file can be checked straight away
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Rule public TemporaryFolder mTempFolder = new TemporaryFolder();
+
+    @Test
+    public void testEntriesSurviveRestart() throws IOException {
+        File directory = mTempFolder.newFolder();
+        MediaModel first = makeMedia(1, 100, 1000);
+        MediaModel second = makeMedia(2, 0, 2000);
+
+        MediaUploadJournal journal = new MediaUploadJournal(directory, DIRECT_EXECUTOR);
+        journal.onQueued(first);
+        journal.onQueued(second);
+        journal.onProgress(first.getId(), 0.5f);
+
+        List<MediaUploadJournal.Entry> entries = new MediaUploadJournal(directory, DIRECT_EXECUTOR).getEntries();
+        Assert.assertEquals(2, entries.size());
+        Assert.assertEquals(1, entries.get(0).mMediaId);
+        Assert.assertEquals(100, entries.get(0).mLocalPostId);
+        Assert.assertEquals(1000, entries.get(0).mTotalBytes);
+        Assert.assertEquals(500, entries.get(0).mBytesUploaded);
+        Assert.assertEquals(1, entries.get(0).mAttempts);
+        Assert.assertEquals(2, entries.get(1).mMediaId);
+        Assert.assertEquals(0, entries.get(1).mBytesUploaded);
+    }
+
+    @Test
+    public void testFinishedUploadsAreRemoved() throws IOException {
+        File directory = mTempFolder.newFolder();
+        MediaModel media = makeMedia(1, 100, 1000);
+
+        MediaUploadJournal journal = new MediaUploadJournal(directory, DIRECT_EXECUTOR);
+        journal.onQueued(media);
+        journal.remove(media.getId());
+
+        Assert.assertTrue(new MediaUploadJournal(directory, DIRECT_EXECUTOR).getEntries().isEmpty());
+    }
+
+    @Test
+    public void testRestartedUploadsCountAttempts() throws IOException {
+        File directory = mTempFolder.newFolder();
+        MediaModel media = makeMedia(1, 100, 1000);
+
+        new MediaUploadJournal(directory, DIRECT_EXECUTOR).onQueued(media);
+        MediaUploadJournal journal = new MediaUploadJournal(directory, DIRECT_EXECUTOR);
+        journal.onQueued(media);
+
+        Assert.assertEquals(2, journal.getEntries().get(0).mAttempts);
+    }
+
+    @Test
+    public void testSmallProgressIsNotPersisted() throws IOException {
+        File directory = mTempFolder.newFolder();
+        MediaModel media = makeMedia(1, 100, 1000);
+
+        MediaUploadJournal journal = new MediaUploadJournal(directory, DIRECT_EXECUTOR);
+        journal.onQueued(media);
+        journal.onProgress(media.getId(), 0.01f);
+
+        Assert.assertEquals(0, journal.getEntries().get(0).mBytesUploaded);
+    }
+
+    private MediaModel makeMedia(int id, int localPostId, int fileSize) throws IOException {
+        File file = mTempFolder.newFile("media" + id);
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(new byte[fileSize]);
+        } finally {
+            outputStream.close();
+        }
+
+        MediaModel media = new MediaModel();
+        media.setId(id);
+        media.setLocalSiteId(1);
+        media.setLocalPostId(localPostId);
+        media.setFilePath(file.getAbsolutePath());
+        return media;
+    }
+}
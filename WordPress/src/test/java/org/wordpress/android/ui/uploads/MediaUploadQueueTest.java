@@ -0,0 +1,112 @@
+package org.wordpress.android.ui.uploads;
+
+import org.junit.Test;
+import org.wordpress.android.fluxc.model.MediaModel;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MediaUploadQueueTest {
+    @Test
+    public void testRejectsDuplicateSiteAndPath() {
+        MediaUploadQueue queue = new MediaUploadQueue();
+        assertTrue(queue.addPending(makeMedia(1, 10, 100, "/photos/1.jpg")));
+        assertFalse(queue.addPending(makeMedia(2, 10, 100, "/photos/1.jpg")));
+        // same path on a different site is a different upload
+        assertTrue(queue.addPending(makeMedia(3, 11, 100, "/photos/1.jpg")));
+
+        // still a duplicate once the original has moved to the in-progress list
+        queue.addInProgress(queue.pollPending());
+        assertFalse(queue.addPending(makeMedia(4, 10, 100, "/photos/1.jpg")));
+
+        queue.removeInProgress(1);
+        assertTrue(queue.addPending(makeMedia(4, 10, 100, "/photos/1.jpg")));
+    }
+
+    @Test
+    public void testPendingIsFirstInFirstOut() {
+        MediaUploadQueue queue = new MediaUploadQueue();
+        for (int i = 1; i <= 5; i++) {
+            queue.addPending(makeMedia(i, 10, 100, "/photos/" + i + ".jpg"));
+        }
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(i, queue.pollPending().getId());
+        }
+        assertNull(queue.pollPending());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testPrioritizedPostComesFirst() {
+        MediaUploadQueue queue = new MediaUploadQueue();
+        queue.addPending(makeMedia(1, 10, 0, "/photos/1.jpg"));
+        queue.addPending(makeMedia(2, 10, 100, "/photos/2.jpg"));
+        queue.addPending(makeMedia(3, 10, 0, "/photos/3.jpg"));
+
+        queue.prioritizePost(100);
+        // media added for the post after it was prioritized also go first
+        queue.addPending(makeMedia(4, 10, 100, "/photos/4.jpg"));
+        assertTrue(queue.hasPendingForPost(100));
+        assertEquals(4, queue.getPendingCount());
+
+        assertEquals(2, queue.pollPending().getId());
+        assertEquals(4, queue.pollPending().getId());
+        assertEquals(1, queue.pollPending().getId());
+        assertEquals(3, queue.pollPending().getId());
+    }
+
+    @Test
+    public void testLookupsByPost() {
+        MediaUploadQueue queue = new MediaUploadQueue();
+        queue.addPending(makeMedia(1, 10, 100, "/photos/1.jpg"));
+        queue.addPending(makeMedia(2, 10, 200, "/photos/2.jpg"));
+        queue.addPending(makeMedia(3, 10, 100, "/photos/3.jpg"));
+        queue.addInProgress(queue.pollPending());
+
+        assertTrue(queue.hasInProgressForPost(100));
+        assertTrue(queue.hasPendingForPost(100));
+        assertFalse(queue.hasInProgressForPost(200));
+        assertTrue(queue.hasPendingForPost(200));
+        assertFalse(queue.hasPendingForPost(300));
+
+        // in-progress media are listed before pending media
+        List<MediaModel> forPost = queue.getPendingOrInProgressForPost(100);
+        assertEquals(2, forPost.size());
+        assertEquals(1, forPost.get(0).getId());
+        assertEquals(3, forPost.get(1).getId());
+
+        queue.removeInProgress(1);
+        assertFalse(queue.hasInProgressForPost(100));
+        assertFalse(queue.isPendingOrInProgress(1));
+        assertTrue(queue.isPendingOrInProgress(3));
+    }
+
+    @Test
+    public void testTracksQueueDepth() {
+        MediaUploadQueue queue = new MediaUploadQueue();
+        for (int i = 1; i <= 500; i++) {
+            queue.addPending(makeMedia(i, 10, 100, "/photos/" + i + ".jpg"));
+        }
+        queue.addInProgress(queue.pollPending());
+        queue.addInProgress(queue.pollPending());
+
+        assertEquals(498, queue.getPendingCount());
+        assertEquals(2, queue.getInProgressCount());
+        assertEquals(500, queue.getMaxPendingCount());
+        assertEquals(2, queue.getMaxInProgressCount());
+        assertEquals(500, queue.getPendingOrInProgressForPost(100).size());
+    }
+
+    private static MediaModel makeMedia(int id, int localSiteId, int localPostId, String filePath) {
+        MediaModel media = new MediaModel();
+        media.setId(id);
+        media.setLocalSiteId(localSiteId);
+        media.setLocalPostId(localPostId);
+        media.setFilePath(filePath);
+        return media;
+    }
+}
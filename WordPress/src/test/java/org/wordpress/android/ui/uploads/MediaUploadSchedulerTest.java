@@ -0,0 +1,139 @@
+package org.wordpress.android.ui.uploads;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.ui.uploads.MediaUploadScheduler.ConnectionType;
+import org.wordpress.android.ui.uploads.MediaUploadScheduler.LaneStats;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MediaUploadSchedulerTest {
+    private static final long UPLOAD_SIZE = 1024 * 1024;
+
+    /**
+     * Scheduler with a fake clock and a fixed upload size, so tests can simulate connections with different
+     * characteristics.
+     */
+    private static class TestScheduler extends MediaUploadScheduler {
+        private long mNowMs;
+        private int mNextMediaId = 1;
+
+        @Override
+        long getElapsedTimeMs() {
+            return mNowMs;
+        }
+
+        @Override
+        long getUploadSize(@NonNull MediaModel media) {
+            return UPLOAD_SIZE;
+        }
+
+        /**
+         * Starts as many uploads as there are lanes, then completes them all after the passed time.
+         */
+        void runRound(long uploadMs) {
+            int laneLimit = getLaneLimit();
+            int firstId = mNextMediaId;
+            for (int i = 0; i < laneLimit; i++) {
+                MediaModel media = new MediaModel();
+                media.setId(mNextMediaId++);
+                onUploadStarted(media);
+            }
+            mNowMs += uploadMs;
+            for (int id = firstId; id < mNextMediaId; id++) {
+                onUploadCompleted(id);
+            }
+        }
+    }
+
+    @Test
+    public void testLaneLimitDependsOnConnectionType() {
+        TestScheduler scheduler = new TestScheduler();
+        assertEquals(1, scheduler.getMaxLanes());
+
+        scheduler.setConnectionType(ConnectionType.MOBILE);
+        assertEquals(MediaUploadScheduler.DEFAULT_MAX_LANES_MOBILE, scheduler.getMaxLanes());
+        assertTrue(scheduler.canStartUpload(1));
+        assertFalse(scheduler.canStartUpload(2));
+
+        scheduler.setConnectionType(ConnectionType.WIFI);
+        assertEquals(MediaUploadScheduler.DEFAULT_MAX_LANES_WIFI, scheduler.getMaxLanes());
+    }
+
+    @Test
+    public void testAddsLanesWhileThroughputImproves() {
+        TestScheduler scheduler = new TestScheduler();
+        scheduler.setConnectionType(ConnectionType.WIFI);
+
+        // latency-bound connection - each upload takes the same time no matter how many run at once
+        for (int i = 0; i < 5; i++) {
+            scheduler.runRound(1000);
+        }
+        assertEquals(MediaUploadScheduler.DEFAULT_MAX_LANES_WIFI, scheduler.getLaneLimit());
+    }
+
+    @Test
+    public void testDropsLaneWhenConnectionIsSaturated() {
+        TestScheduler scheduler = new TestScheduler();
+        scheduler.setConnectionType(ConnectionType.WIFI);
+
+        // bandwidth-bound connection - uploads share a fixed bandwidth, so extra lanes don't help
+        for (int i = 0; i < 5; i++) {
+            scheduler.runRound(scheduler.getLaneLimit() * 1000);
+        }
+        assertEquals(2, scheduler.getLaneLimit());
+    }
+
+    @Test
+    public void testFailureHalvesLanes() {
+        TestScheduler scheduler = new TestScheduler();
+        scheduler.setConnectionType(ConnectionType.WIFI);
+        for (int i = 0; i < 5; i++) {
+            scheduler.runRound(1000);
+        }
+        assertEquals(4, scheduler.getLaneLimit());
+
+        MediaModel media = new MediaModel();
+        media.setId(1000);
+        scheduler.onUploadStarted(media);
+        scheduler.onUploadFailed(media.getId());
+        assertEquals(2, scheduler.getLaneLimit());
+    }
+
+    @Test
+    public void testPerLaneStats() {
+        TestScheduler scheduler = new TestScheduler();
+        scheduler.setConnectionType(ConnectionType.MOBILE);
+
+        MediaModel first = new MediaModel();
+        first.setId(1);
+        MediaModel second = new MediaModel();
+        second.setId(2);
+        MediaModel third = new MediaModel();
+        third.setId(3);
+
+        assertEquals(0, scheduler.onUploadStarted(first));
+        assertEquals(1, scheduler.onUploadStarted(second));
+        scheduler.mNowMs += 1000;
+        scheduler.onUploadCompleted(first.getId());
+        // the first lane is free again
+        assertEquals(0, scheduler.onUploadStarted(third));
+        scheduler.mNowMs += 1000;
+        scheduler.onUploadCompleted(second.getId());
+        scheduler.onUploadCancelled(third.getId());
+
+        List<LaneStats> stats = scheduler.getLaneStats();
+        assertEquals(2, stats.size());
+        assertEquals(1, stats.get(0).getUploadCount());
+        assertEquals(UPLOAD_SIZE, stats.get(0).getBytes());
+        assertEquals(UPLOAD_SIZE, stats.get(0).getThroughput());
+        assertEquals(1, stats.get(1).getUploadCount());
+        assertEquals(UPLOAD_SIZE / 2, stats.get(1).getThroughput());
+    }
+}
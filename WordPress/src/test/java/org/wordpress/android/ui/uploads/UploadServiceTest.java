@@ -0,0 +1,99 @@
+package org.wordpress.android.ui.uploads;
+
+import android.content.Intent;
+import android.os.Build;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.Shadows;
+import org.robolectric.annotation.Config;
+import org.wordpress.android.TestApplication;
+import org.wordpress.android.fluxc.Dispatcher;
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.fluxc.model.MediaModel.MediaUploadState;
+import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.store.MediaStore;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = TestApplication.class, sdk = Build.VERSION_CODES.JELLY_BEAN)
+public class UploadServiceTest {
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Rule public TemporaryFolder mTempFolder = new TemporaryFolder();
+
+    private MediaUploadJournal mJournal;
+    private MediaStore mMediaStore;
+    private SiteModel mSite;
+
+    @Before
+    public void setUp() throws IOException {
+        mJournal = new MediaUploadJournal(mTempFolder.newFolder(), DIRECT_EXECUTOR);
+        MediaUploadHandler.setUploadJournal(mJournal);
+        mMediaStore = mock(MediaStore.class);
+        mSite = new SiteModel();
+    }
+
+    @Test
+    public void testInterruptedUploadsSurviveSanitize() {
+        MediaModel interrupted = makeMedia(1, MediaUploadState.UPLOADING);
+        MediaModel stale = makeMedia(2, MediaUploadState.QUEUED);
+        mJournal.onQueued(interrupted);
+        when(mMediaStore.getSiteMediaWithState(mSite, MediaUploadState.UPLOADING))
+                .thenReturn(Collections.singletonList(interrupted));
+        when(mMediaStore.getSiteMediaWithState(mSite, MediaUploadState.QUEUED))
+                .thenReturn(Collections.singletonList(stale));
+
+        // the order the app runs them in at startup
+        UploadService.recoverInterruptedMediaUploads(RuntimeEnvironment.application, mMediaStore);
+        UploadService.sanitizeMediaUploadStateForSite(mMediaStore, mock(Dispatcher.class), mSite);
+
+        Assert.assertEquals(MediaUploadState.UPLOADING.toString(), interrupted.getUploadState());
+        Assert.assertEquals(MediaUploadState.FAILED.toString(), stale.getUploadState());
+
+        Intent intent = Shadows.shadowOf(RuntimeEnvironment.application).getNextStartedService();
+        Assert.assertNotNull(intent);
+        @SuppressWarnings("unchecked")
+        List<MediaModel> recoveredMedia = (List<MediaModel>) intent.getSerializableExtra("mediaList");
+        Assert.assertEquals(1, recoveredMedia.size());
+        Assert.assertEquals(interrupted.getId(), recoveredMedia.get(0).getId());
+    }
+
+    @Test
+    public void testUploadsOfFinishedMediaAreDiscarded() {
+        MediaModel uploaded = makeMedia(1, MediaUploadState.UPLOADED);
+        mJournal.onQueued(uploaded);
+
+        UploadService.recoverInterruptedMediaUploads(RuntimeEnvironment.application, mMediaStore);
+
+        Assert.assertFalse(mJournal.contains(uploaded.getId()));
+        Assert.assertNull(Shadows.shadowOf(RuntimeEnvironment.application).getNextStartedService());
+    }
+
+    private MediaModel makeMedia(int id, MediaUploadState uploadState) {
+        MediaModel media = new MediaModel();
+        media.setId(id);
+        media.setLocalSiteId(1);
+        media.setUploadState(uploadState);
+        when(mMediaStore.getMediaWithLocalId(id)).thenReturn(media);
+        return media;
+    }
+}
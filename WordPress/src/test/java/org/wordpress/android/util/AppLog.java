@@ -2,6 +2,8 @@ package org.wordpress.android.util;
 
 import android.support.annotation.NonNull;
 
+import java.io.File;
+
 /**
  * simple wrapper for Android log calls, enables recording and displaying log
  *
@@ -55,6 +57,12 @@ public class AppLog {
     public static void enableRecording(boolean enable) {
     }
 
+    public static void enableRecording(@NonNull File file) {
+    }
+
+    public static void clearRecordedLog() {
+    }
+
     public static void addListener(@NonNull AppLogListener listener) {
     }
 
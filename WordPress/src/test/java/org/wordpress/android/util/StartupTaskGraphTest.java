@@ -0,0 +1,146 @@
+package org.wordpress.android.util;
+
+import android.os.Build;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.wordpress.android.TestApplication;
+import org.wordpress.android.util.StartupTaskGraph.Mode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = TestApplication.class, sdk = Build.VERSION_CODES.JELLY_BEAN)
+public class StartupTaskGraphTest {
+    private final List<String> mRunTasks = Collections.synchronizedList(new ArrayList<String>());
+    // background tasks are queued here and only run when the test runs them
+    private final List<Runnable> mQueuedTasks = new ArrayList<>();
+    private final Executor mQueueingExecutor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            mQueuedTasks.add(command);
+        }
+    };
+
+    private StartupTaskGraph mGraph;
+
+    @Before
+    public void setUp() {
+        mGraph = new StartupTaskGraph(mQueueingExecutor);
+    }
+
+    @Test
+    public void testDependenciesRunFirst() {
+        mGraph.add("prefs", Mode.MAIN_THREAD, record("prefs"))
+              .add("db", Mode.BACKGROUND, record("db"), "prefs")
+              .add("network", Mode.BACKGROUND, record("network"), "prefs")
+              .add("sync", Mode.BACKGROUND, record("sync"), "db", "network");
+
+        mGraph.start();
+        Assert.assertEquals(Collections.singletonList("prefs"), mRunTasks);
+
+        // run the queued tasks newest first, so each has to run its dependencies itself
+        for (int i = mQueuedTasks.size() - 1; i >= 0; i--) {
+            mQueuedTasks.get(i).run();
+        }
+        Assert.assertEquals(Arrays.asList("prefs", "db", "network", "sync"), mRunTasks);
+    }
+
+    @Test
+    public void testMainThreadTaskRunsQueuedBackgroundDependency() {
+        mGraph.add("db", Mode.BACKGROUND, record("db"))
+              .add("ui", Mode.MAIN_THREAD, record("ui"), "db");
+
+        mGraph.start();
+        Assert.assertEquals(Arrays.asList("db", "ui"), mRunTasks);
+
+        // the background thread getting to it later doesn't run it again
+        for (Runnable queuedTask : mQueuedTasks) {
+            queuedTask.run();
+        }
+        Assert.assertEquals(Arrays.asList("db", "ui"), mRunTasks);
+    }
+
+    @Test
+    public void testMainThreadWaitsForRunningBackgroundDependency() throws InterruptedException {
+        final CountDownLatch isStarted = new CountDownLatch(1);
+        final CountDownLatch canFinish = new CountDownLatch(1);
+        ExecutorService backgroundExecutor = Executors.newSingleThreadExecutor();
+        try {
+            mGraph = new StartupTaskGraph(backgroundExecutor);
+            mGraph.add("db", Mode.BACKGROUND, new Runnable() {
+                @Override
+                public void run() {
+                    isStarted.countDown();
+                    try {
+                        canFinish.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    mRunTasks.add("db");
+                }
+            });
+            mGraph.start();
+            Assert.assertTrue(isStarted.await(5, TimeUnit.SECONDS));
+
+            new Thread() {
+                @Override
+                public void run() {
+                    mRunTasks.add("released");
+                    canFinish.countDown();
+                }
+            }.start();
+            mGraph.ensureFinished("db");
+            mRunTasks.add("main thread");
+
+            Assert.assertEquals(Arrays.asList("released", "db", "main thread"), mRunTasks);
+        } finally {
+            backgroundExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFirstActivityTasksWaitForFirstActivity() {
+        mGraph.add("prefs", Mode.MAIN_THREAD, record("prefs"))
+              .add("editor", Mode.FIRST_ACTIVITY, record("editor"), "prefs");
+
+        mGraph.start();
+        Assert.assertEquals(Collections.singletonList("prefs"), mRunTasks);
+
+        mGraph.onFirstActivityShown();
+        mGraph.onFirstActivityShown();
+        Assert.assertEquals(Arrays.asList("prefs", "editor"), mRunTasks);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBackgroundTaskCantDependOnFirstActivityTask() {
+        mGraph.add("editor", Mode.FIRST_ACTIVITY, record("editor"))
+              .add("db", Mode.BACKGROUND, record("db"), "editor");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDependenciesMustBeAddedFirst() {
+        mGraph.add("db", Mode.BACKGROUND, record("db"), "prefs");
+    }
+
+    private Runnable record(final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                mRunTasks.add(name);
+            }
+        };
+    }
+}
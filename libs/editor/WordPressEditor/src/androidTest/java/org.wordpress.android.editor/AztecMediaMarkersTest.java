@@ -0,0 +1,179 @@
+package org.wordpress.android.editor;
+
+import android.content.Context;
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.helpers.MediaFile;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks the media markers helpers in AztecEditorFragment give the same results as the Aztec parser based
+ * implementations they replaced. Aztec re-serializes the whole post, so outputs are compared by the media
+ * attributes they contain rather than as strings.
+ */
+public class AztecMediaMarkersTest extends InstrumentationTestCase {
+    private static final String[] LOCAL_IDS = {"1", "2", "3", "4", "5"};
+    private static final String[] MARKER_CLASSES = {
+            AztecEditorFragment.ATTR_STATUS_UPLOADING,
+            AztecEditorFragment.ATTR_STATUS_FAILED,
+            AztecEditorFragment.TEMP_VIDEO_UPLOADING_CLASS,
+            AztecEditorFragment.ATTR_SIZE_DASH + "full"
+    };
+
+    private static final String POST_CONTENT = "<p>Some text before the media</p>"
+            + "<img src=\"file:///sdcard/1.jpg\" data-wpid=\"1\" class=\"alignnone uploading\">"
+            + "<p>More text</p>"
+            + "[caption align=\"alignnone\" width=\"300\"]<img src=\"file:///sdcard/2.jpg\" data-wpid=\"2\" "
+            + "class=\"uploading size-medium\"> A caption[/caption]"
+            + "[video src=\"file:///sdcard/3.mp4\" data-wpid=\"3\" class=\"uploading data-temp-aztec-video\"]"
+            + "<img src=\"file:///sdcard/4.jpg\" data-wpid=\"4\" class=\"failed\">"
+            + "<img src=\"https://example.files.wordpress.com/5.jpg\" data-wpid=\"5\" class=\"uploading\">"
+            + "<p>Some text after the media</p>";
+
+    private Context mContext;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mContext = getInstrumentation().getTargetContext();
+    }
+
+    public void testQueriesMatchAztecParser() {
+        for (String localId : LOCAL_IDS) {
+            assertEquals(AztecEditorFragment.isMediaInPostBodyWithAztecParser(mContext, POST_CONTENT, localId),
+                    AztecEditorFragment.isMediaInPostBody(mContext, POST_CONTENT, localId));
+        }
+        assertFalse(AztecEditorFragment.isMediaInPostBody(mContext, POST_CONTENT, "6"));
+
+        for (String cls : MARKER_CLASSES) {
+            assertEquals(AztecEditorFragment.hasMediaItemsMarkedWithTagWithAztecParser(mContext, POST_CONTENT, cls),
+                    new AztecMediaMarkers(POST_CONTENT).hasMediaWithClass(cls));
+        }
+
+        assertEquals(new HashSet<>(AztecEditorFragment.getMediaMarkedAsClassInPostContentWithAztecParser(mContext,
+                        POST_CONTENT, AztecEditorFragment.ATTR_STATUS_UPLOADING)),
+                new HashSet<>(AztecEditorFragment.getMediaMarkedUploadingInPostContent(mContext, POST_CONTENT)));
+        assertEquals(new HashSet<>(AztecEditorFragment.getMediaMarkedAsClassInPostContentWithAztecParser(mContext,
+                        POST_CONTENT, AztecEditorFragment.ATTR_STATUS_FAILED)),
+                new HashSet<>(AztecEditorFragment.getMediaMarkedFailedInPostContent(mContext, POST_CONTENT)));
+    }
+
+    public void testReplaceMediaFileWithUrlMatchesAztecParser() {
+        MediaFile image = makeMediaFile("https://example.files.wordpress.com/1.jpg", false);
+        assertSameMedia(
+                AztecEditorFragment.replaceMediaFileWithUrlWithAztecParser(mContext, POST_CONTENT, "1", image),
+                AztecEditorFragment.replaceMediaFileWithUrl(mContext, POST_CONTENT, "1", image));
+
+        MediaFile video = makeMediaFile("https://example.files.wordpress.com/3.mp4", true);
+        assertSameMedia(
+                AztecEditorFragment.replaceMediaFileWithUrlWithAztecParser(mContext, POST_CONTENT, "3", video),
+                AztecEditorFragment.replaceMediaFileWithUrl(mContext, POST_CONTENT, "3", video));
+    }
+
+    public void testBatchReplaceMatchesAztecParser() {
+        Map<String, MediaFile> mediaFiles = new HashMap<>();
+        String expected = POST_CONTENT;
+        for (String localId : Arrays.asList("1", "2", "3")) {
+            MediaFile mediaFile = makeMediaFile("https://example.files.wordpress.com/" + localId, localId.equals("3"));
+            mediaFiles.put(localId, mediaFile);
+            expected = AztecEditorFragment.replaceMediaFileWithUrlWithAztecParser(mContext, expected, localId,
+                    mediaFile);
+        }
+        assertSameMedia(expected, AztecEditorFragment.replaceMediaFilesWithUrls(mContext, POST_CONTENT, mediaFiles));
+    }
+
+    public void testMarkMediaFailedMatchesAztecParser() {
+        MediaFile video = makeMediaFile(null, true);
+        assertSameMedia(AztecEditorFragment.markMediaFailedWithAztecParser(mContext, POST_CONTENT, "3", video),
+                AztecEditorFragment.markMediaFailed(mContext, POST_CONTENT, "3", video));
+    }
+
+    public void testResetUploadingMediaToFailedMatchesAztecParser() {
+        assertSameMedia(AztecEditorFragment.resetUploadingMediaToFailedWithAztecParser(mContext, POST_CONTENT),
+                AztecEditorFragment.resetUploadingMediaToFailed(mContext, POST_CONTENT));
+    }
+
+    public void testRestartFailedMediaToUploadingMatchesAztecParser() {
+        assertSameMedia(AztecEditorFragment.restartFailedMediaToUploadingWithAztecParser(mContext, POST_CONTENT),
+                AztecEditorFragment.restartFailedMediaToUploading(mContext, POST_CONTENT));
+    }
+
+    public void testUnchangedContentIsReturnedAsIs() {
+        String content = AztecEditorFragment.replaceMediaFileWithUrl(mContext, POST_CONTENT, "6",
+                makeMediaFile("https://example.files.wordpress.com/6.jpg", false));
+        assertSame(POST_CONTENT, content);
+    }
+
+    /*
+     * completing the uploads of a post with 40 images, one upload event at a time
+     */
+    public void testReplaceBenchmark() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= 40; i++) {
+            sb.append("<p>Paragraph ").append(i).append(" of the post, with some text around the image.</p>")
+              .append("<img src=\"file:///sdcard/").append(i).append(".jpg\" data-wpid=\"").append(i)
+              .append("\" class=\"uploading\">");
+        }
+        String content = sb.toString();
+
+        long start = System.nanoTime();
+        String aztecContent = content;
+        for (int i = 1; i <= 40; i++) {
+            aztecContent = AztecEditorFragment.replaceMediaFileWithUrlWithAztecParser(mContext, aztecContent,
+                    String.valueOf(i), makeMediaFile("https://example.files.wordpress.com/" + i + ".jpg", false));
+        }
+        long aztecMs = (System.nanoTime() - start) / 1000000;
+
+        start = System.nanoTime();
+        String markersContent = content;
+        for (int i = 1; i <= 40; i++) {
+            markersContent = AztecEditorFragment.replaceMediaFileWithUrl(mContext, markersContent,
+                    String.valueOf(i), makeMediaFile("https://example.files.wordpress.com/" + i + ".jpg", false));
+        }
+        long markersMs = (System.nanoTime() - start) / 1000000;
+
+        AppLog.i(AppLog.T.EDITOR, "AztecMediaMarkers benchmark > aztec parser: " + aztecMs + " ms, markers: "
+                                  + markersMs + " ms");
+        assertSameMedia(aztecContent, markersContent);
+    }
+
+    private static MediaFile makeMediaFile(String url, boolean isVideo) {
+        MediaFile mediaFile = new MediaFile();
+        mediaFile.setFileURL(url);
+        mediaFile.setVideo(isVideo);
+        return mediaFile;
+    }
+
+    /*
+     * checks both versions of the content have the same media, with the same src and marker classes
+     */
+    private static void assertSameMedia(String expected, String actual) {
+        AztecMediaMarkers expectedMarkers = new AztecMediaMarkers(expected);
+        AztecMediaMarkers actualMarkers = new AztecMediaMarkers(actual);
+        for (String localId : LOCAL_IDS) {
+            assertEquals(expectedMarkers.containsLocalMediaId(localId), actualMarkers.containsLocalMediaId(localId));
+            assertEquals(expectedMarkers.getMediaAttribute(localId, AztecEditorFragment.ATTR_SRC),
+                    actualMarkers.getMediaAttribute(localId, AztecEditorFragment.ATTR_SRC));
+            assertEquals(getClasses(expectedMarkers, localId), getClasses(actualMarkers, localId));
+        }
+    }
+
+    private static Set<String> getClasses(AztecMediaMarkers markers, String localId) {
+        Set<String> classes = new HashSet<>();
+        String classAttribute = markers.getMediaAttribute(localId, AztecEditorFragment.ATTR_CLASS);
+        if (classAttribute != null) {
+            for (String cls : classAttribute.split(" ")) {
+                if (!cls.isEmpty()) {
+                    classes.add(cls);
+                }
+            }
+        }
+        return classes;
+    }
+}
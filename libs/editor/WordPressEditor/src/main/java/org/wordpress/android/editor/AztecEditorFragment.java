@@ -21,6 +21,7 @@ import android.os.Handler;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
 import android.support.v7.app.ActionBar;
 import android.support.v7.app.AlertDialog;
 import android.support.v7.app.AppCompatActivity;
@@ -104,6 +105,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -132,13 +134,13 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
 
     private static final String ATTR_ALIGN = "align";
     private static final String ATTR_TARGET = "target";
-    private static final String ATTR_CLASS = "class";
-    private static final String ATTR_ID_WP = "data-wpid";
+    static final String ATTR_CLASS = "class";
+    static final String ATTR_ID_WP = "data-wpid";
     private static final String ATTR_IMAGE_WP_DASH = "wp-image-";
-    private static final String ATTR_SIZE_DASH = "size-";
+    static final String ATTR_SIZE_DASH = "size-";
     private static final String TEMP_IMAGE_ID = "data-temp-aztec-id";
     private static final String ANIMATED_MEDIA = "animated-media";
-    private static final String TEMP_VIDEO_UPLOADING_CLASS = "data-temp-aztec-video";
+    static final String TEMP_VIDEO_UPLOADING_CLASS = "data-temp-aztec-video";
     private static final String GUTENBERG_BLOCK_START = "<!-- wp:";
 
     private static final int MIN_BITMAP_DIMENSION_DP = 48;
@@ -2012,8 +2014,80 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
         }
     }
 
+    /*
+     * the static helpers below inspect and update media in a post's content without parsing it with Aztec,
+     * see AztecMediaMarkers - the *WithAztecParser versions are the reference implementations they're
+     * tested against
+     */
     public static String replaceMediaFileWithUrl(Context context, @NonNull String postContent,
                                                  String localMediaId, MediaFile mediaFile) {
+        if (mediaFile == null) {
+            return postContent;
+        }
+        Map<String, MediaFile> mediaFiles = new HashMap<>(1);
+        mediaFiles.put(localMediaId, mediaFile);
+        return replaceMediaFilesWithUrls(context, postContent, mediaFiles);
+    }
+
+    /**
+     * Replaces the local src of each of the passed media files with its remote url, in a single pass over the
+     * post's content.
+     *
+     * @param mediaFiles the uploaded media files, keyed by local media id
+     */
+    public static String replaceMediaFilesWithUrls(Context context, @NonNull String postContent,
+                                                   @NonNull Map<String, MediaFile> mediaFiles) {
+        AztecMediaMarkers markers = new AztecMediaMarkers(postContent);
+        markers.replaceMediaFilesWithUrls(mediaFiles);
+        return markers.toHtml();
+    }
+
+    public static String markMediaFailed(Context context, @NonNull String postContent,
+                                         String localMediaId, MediaFile mediaFile) {
+        if (mediaFile == null) {
+            return postContent;
+        }
+        AztecMediaMarkers markers = new AztecMediaMarkers(postContent);
+        markers.markMediaFailed(localMediaId, mediaFile);
+        return markers.toHtml();
+    }
+
+    public static boolean isMediaInPostBody(Context context, @NonNull String postContent,
+                                            String localMediaId) {
+        return new AztecMediaMarkers(postContent).containsLocalMediaId(localMediaId);
+    }
+
+    public static boolean hasMediaItemsMarkedUploading(Context context, @NonNull String postContent) {
+        return new AztecMediaMarkers(postContent).hasMediaWithClass(ATTR_STATUS_UPLOADING);
+    }
+
+    public static boolean hasMediaItemsMarkedFailed(Context context, @NonNull String postContent) {
+        return new AztecMediaMarkers(postContent).hasMediaWithClass(ATTR_STATUS_FAILED);
+    }
+
+    public static String resetUploadingMediaToFailed(Context context, @NonNull String postContent) {
+        AztecMediaMarkers markers = new AztecMediaMarkers(postContent);
+        markers.resetUploadingMediaToFailed();
+        return markers.toHtml();
+    }
+
+    public static List<String> getMediaMarkedUploadingInPostContent(Context context, @NonNull String postContent) {
+        return new AztecMediaMarkers(postContent).getLocalMediaIdsWithClass(ATTR_STATUS_UPLOADING);
+    }
+
+    public static List<String> getMediaMarkedFailedInPostContent(Context context, @NonNull String postContent) {
+        return new AztecMediaMarkers(postContent).getLocalMediaIdsWithClass(ATTR_STATUS_FAILED);
+    }
+
+    public static String restartFailedMediaToUploading(Context context, String postContent) {
+        AztecMediaMarkers markers = new AztecMediaMarkers(postContent);
+        markers.restartFailedMediaToUploading();
+        return markers.toHtml();
+    }
+
+    @VisibleForTesting
+    static String replaceMediaFileWithUrlWithAztecParser(Context context, @NonNull String postContent,
+                                                         String localMediaId, MediaFile mediaFile) {
         if (mediaFile != null) {
             String remoteUrl = StringUtils.notNullStr(Utils.escapeQuotes(mediaFile.getFileURL()));
             // fill in Aztec with the post's content
@@ -2049,8 +2123,9 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
         return postContent;
     }
 
-    public static String markMediaFailed(Context context, @NonNull String postContent,
-                                         String localMediaId, MediaFile mediaFile) {
+    @VisibleForTesting
+    static String markMediaFailedWithAztecParser(Context context, @NonNull String postContent,
+                                                 String localMediaId, MediaFile mediaFile) {
         if (mediaFile != null) {
             // fill in Aztec with the post's content
             AztecParser parser = getAztecParserWithPlugins();
@@ -2082,8 +2157,9 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
         return postContent;
     }
 
-    public static boolean isMediaInPostBody(Context context, @NonNull String postContent,
-                                         String localMediaId) {
+    @VisibleForTesting
+    static boolean isMediaInPostBodyWithAztecParser(Context context, @NonNull String postContent,
+                                                    String localMediaId) {
         // fill in Aztec with the post's content
         AztecParser parser = getAztecParserWithPlugins();
         SpannableStringBuilder builder = getCalypsoCompatibleStringBuilder(context, postContent, parser);
@@ -2095,15 +2171,9 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
         return (firstElementAttributes != null);
     }
 
-    public static boolean hasMediaItemsMarkedUploading(Context context, @NonNull String postContent) {
-        return hasMediaItemsMarkedWithTag(context, postContent, ATTR_STATUS_UPLOADING);
-    }
-
-    public static boolean hasMediaItemsMarkedFailed(Context context, @NonNull String postContent) {
-        return hasMediaItemsMarkedWithTag(context, postContent, ATTR_STATUS_FAILED);
-    }
-
-    private static boolean hasMediaItemsMarkedWithTag(Context context, @NonNull String postContent, String tag) {
+    @VisibleForTesting
+    static boolean hasMediaItemsMarkedWithTagWithAztecParser(Context context, @NonNull String postContent,
+                                                            String tag) {
         // fill in Aztec with the post's content
         AztecParser parser = getAztecParserWithPlugins();
         Spanned content = parseContent(context, parser, postContent);
@@ -2115,7 +2185,8 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
         return getFirstElementAttributes(content, uploadingPredicate) != null;
     }
 
-    public static String resetUploadingMediaToFailed(Context context, @NonNull String postContent) {
+    @VisibleForTesting
+    static String resetUploadingMediaToFailedWithAztecParser(Context context, @NonNull String postContent) {
         // fill in Aztec with the post's content
         AztecParser parser = getAztecParserWithPlugins();
         SpannableStringBuilder builder = getCalypsoCompatibleStringBuilder(context, postContent, parser);
@@ -2132,16 +2203,10 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
         return postContent;
     }
 
-    public static List<String> getMediaMarkedUploadingInPostContent(Context context, @NonNull String postContent) {
-        return getMediaMarkedAsClassInPostContent(context, postContent, ATTR_STATUS_UPLOADING);
-    }
-
-    public static List<String> getMediaMarkedFailedInPostContent(Context context, @NonNull String postContent) {
-        return getMediaMarkedAsClassInPostContent(context, postContent, ATTR_STATUS_FAILED);
-    }
-
-    private static List<String> getMediaMarkedAsClassInPostContent(Context context, @NonNull String postContent,
-                                                                   String classToUse) {
+    @VisibleForTesting
+    static List<String> getMediaMarkedAsClassInPostContentWithAztecParser(Context context,
+                                                                          @NonNull String postContent,
+                                                                          String classToUse) {
         ArrayList<String> mediaMarkedUploading = new ArrayList<>();
         // fill in Aztec with the post's content
         AztecParser parser = getAztecParserWithPlugins();
@@ -2196,7 +2261,8 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
         }
     }
 
-    public static String restartFailedMediaToUploading(Context context, String postContent) {
+    @VisibleForTesting
+    static String restartFailedMediaToUploadingWithAztecParser(Context context, String postContent) {
         // fill in Aztec with the post's content
         AztecParser parser = getAztecParserWithPlugins();
         SpannableStringBuilder builder = getCalypsoCompatibleStringBuilder(context, postContent, parser);
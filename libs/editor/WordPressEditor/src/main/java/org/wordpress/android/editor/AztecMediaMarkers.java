@@ -0,0 +1,388 @@
+package org.wordpress.android.editor;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.text.TextUtils;
+import android.webkit.URLUtil;
+
+import org.wordpress.android.util.StringUtils;
+import org.wordpress.android.util.helpers.MediaFile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the media elements in a post's content and the upload markers on them - the local media id and
+ * the uploading / failed classes - built in a single pass over the content, without parsing it with Aztec.
+ *
+ * Used by the static helpers in {@link AztecEditorFragment} which inspect or update media in posts which
+ * aren't open in the editor. Parsing the whole post into a Spanned and serializing it back for each media
+ * item made every upload event linear in the size of the post. Updates only rewrite the attributes of the
+ * elements which change, and the rest of the content is copied as is.
+ */
+class AztecMediaMarkers {
+    private static final String[] MEDIA_TAGS = {"img", "video", "audio"};
+    // the shortcode plugins store videos and audio as shortcodes rather than tags
+    private static final String[] MEDIA_SHORTCODES = {"video", "audio"};
+
+    private static final String COMMENT_START = "<!--";
+    private static final String COMMENT_END = "-->";
+
+    private final String mContent;
+    private final List<MediaElement> mElements = new ArrayList<>();
+    private final Map<String, List<MediaElement>> mElementsByLocalId = new HashMap<>();
+
+    private static class MediaElement {
+        // the bounds of the element's attributes within the content - from the end of its name to the end
+        // of its last attribute - everything else is copied as is
+        private final int mAttributesStart;
+        private final int mAttributesEnd;
+        private final boolean mIsShortcode;
+        private final LinkedHashMap<String, String> mAttributes;
+        private Set<String> mClasses;
+        private boolean mIsChanged;
+
+        MediaElement(int attributesStart, int attributesEnd, boolean isShortcode,
+                     LinkedHashMap<String, String> attributes) {
+            mAttributesStart = attributesStart;
+            mAttributesEnd = attributesEnd;
+            mIsShortcode = isShortcode;
+            mAttributes = attributes;
+        }
+
+        @Nullable String getAttribute(String name) {
+            return mAttributes.get(name);
+        }
+
+        void setAttribute(String name, String value) {
+            mAttributes.put(name, value);
+            mIsChanged = true;
+        }
+
+        Set<String> getClasses() {
+            if (mClasses == null) {
+                mClasses = new LinkedHashSet<>();
+                String classes = mAttributes.get(AztecEditorFragment.ATTR_CLASS);
+                if (classes != null) {
+                    for (String cls : classes.split(" ")) {
+                        if (!cls.isEmpty()) {
+                            mClasses.add(cls);
+                        }
+                    }
+                }
+            }
+            return mClasses;
+        }
+
+        boolean hasClass(String cls) {
+            return getClasses().contains(cls);
+        }
+
+        boolean hasClassStartingWith(String prefix) {
+            for (String cls : getClasses()) {
+                if (cls.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void addClass(String cls) {
+            if (getClasses().add(cls)) {
+                setAttribute(AztecEditorFragment.ATTR_CLASS, TextUtils.join(" ", mClasses));
+            }
+        }
+
+        void removeClass(String cls) {
+            if (getClasses().remove(cls)) {
+                setAttribute(AztecEditorFragment.ATTR_CLASS, TextUtils.join(" ", mClasses));
+            }
+        }
+
+        void appendAttributes(StringBuilder sb) {
+            for (Map.Entry<String, String> attribute : mAttributes.entrySet()) {
+                sb.append(' ').append(attribute.getKey());
+                if (attribute.getValue() != null) {
+                    String value = attribute.getValue();
+                    if (!mIsShortcode) {
+                        value = value.replace("\"", "&quot;");
+                    }
+                    sb.append("=\"").append(value).append('"');
+                }
+            }
+        }
+    }
+
+    AztecMediaMarkers(@NonNull String content) {
+        mContent = content;
+        index();
+    }
+
+    /*
+     * finds every media tag and shortcode in the content - comments are skipped, so the markup of
+     * Gutenberg block delimiters and commented out media isn't mistaken for media
+     */
+    private void index() {
+        int length = mContent.length();
+        int pos = 0;
+        while (pos < length) {
+            char c = mContent.charAt(pos);
+            if (c == '<' && mContent.startsWith(COMMENT_START, pos)) {
+                int commentEnd = mContent.indexOf(COMMENT_END, pos + COMMENT_START.length());
+                if (commentEnd == -1) {
+                    return;
+                }
+                pos = commentEnd + COMMENT_END.length();
+                continue;
+            }
+            if (c == '<' || c == '[') {
+                boolean isShortcode = c == '[';
+                int nameEnd = matchMediaName(pos + 1, isShortcode ? MEDIA_SHORTCODES : MEDIA_TAGS, isShortcode);
+                if (nameEnd != -1) {
+                    int elementEnd = indexElement(nameEnd, isShortcode);
+                    if (elementEnd != -1) {
+                        pos = elementEnd;
+                        continue;
+                    }
+                }
+            }
+            pos++;
+        }
+    }
+
+    /*
+     * returns the end of the media tag or shortcode name starting at pos, or -1 if there isn't one
+     */
+    private int matchMediaName(int pos, String[] names, boolean isShortcode) {
+        for (String name : names) {
+            int nameEnd = pos + name.length();
+            if (mContent.regionMatches(true, pos, name, 0, name.length()) && nameEnd < mContent.length()) {
+                char next = mContent.charAt(nameEnd);
+                if (Character.isWhitespace(next) || next == (isShortcode ? ']' : '>')
+                    || (!isShortcode && next == '/')) {
+                    return nameEnd;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * reads the attributes of the element starting at pos and indexes it, returning the position after
+     * the element - or -1 if the element isn't terminated
+     */
+    private int indexElement(int pos, boolean isShortcode) {
+        char close = isShortcode ? ']' : '>';
+        int length = mContent.length();
+        LinkedHashMap<String, String> attributes = new LinkedHashMap<>();
+        int attributesStart = pos;
+        int attributesEnd = pos;
+
+        while (true) {
+            pos = skipWhitespace(pos);
+            if (pos >= length) {
+                return -1;
+            }
+            char c = mContent.charAt(pos);
+            if (c == close) {
+                break;
+            }
+            if (!isShortcode && c == '/') {
+                pos++;
+                continue;
+            }
+
+            int nameStart = pos;
+            while (pos < length && !isNameTerminator(mContent.charAt(pos), close)) {
+                pos++;
+            }
+            String name = mContent.substring(nameStart, pos).toLowerCase();
+            String value = null;
+
+            int valueStart = skipWhitespace(pos);
+            if (valueStart < length && mContent.charAt(valueStart) == '=') {
+                pos = skipWhitespace(valueStart + 1);
+                if (pos >= length) {
+                    return -1;
+                }
+                char quote = mContent.charAt(pos);
+                if (quote == '"' || quote == '\'') {
+                    int valueEnd = mContent.indexOf(quote, pos + 1);
+                    if (valueEnd == -1) {
+                        return -1;
+                    }
+                    value = mContent.substring(pos + 1, valueEnd);
+                    pos = valueEnd + 1;
+                } else {
+                    int unquotedStart = pos;
+                    while (pos < length && !Character.isWhitespace(mContent.charAt(pos))
+                           && mContent.charAt(pos) != close) {
+                        pos++;
+                    }
+                    value = mContent.substring(unquotedStart, pos);
+                }
+            }
+
+            if (!name.isEmpty()) {
+                attributes.put(name, value);
+            }
+            attributesEnd = pos;
+        }
+
+        MediaElement element = new MediaElement(attributesStart, attributesEnd, isShortcode, attributes);
+        mElements.add(element);
+        String localId = element.getAttribute(AztecEditorFragment.ATTR_ID_WP);
+        if (localId != null) {
+            List<MediaElement> elements = mElementsByLocalId.get(localId);
+            if (elements == null) {
+                elements = new ArrayList<>(1);
+                mElementsByLocalId.put(localId, elements);
+            }
+            elements.add(element);
+        }
+        return pos + 1;
+    }
+
+    private int skipWhitespace(int pos) {
+        while (pos < mContent.length() && Character.isWhitespace(mContent.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isNameTerminator(char c, char close) {
+        return Character.isWhitespace(c) || c == '=' || c == close || (close == '>' && c == '/');
+    }
+
+    boolean containsLocalMediaId(String localMediaId) {
+        return mElementsByLocalId.containsKey(localMediaId);
+    }
+
+    boolean hasMediaWithClass(String cls) {
+        for (MediaElement element : mElements) {
+            if (element.hasClass(cls)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    List<String> getLocalMediaIdsWithClass(String cls) {
+        List<String> localMediaIds = new ArrayList<>();
+        for (MediaElement element : mElements) {
+            String localId = element.getAttribute(AztecEditorFragment.ATTR_ID_WP);
+            if (!TextUtils.isEmpty(localId) && element.hasClass(cls)) {
+                localMediaIds.add(localId);
+            }
+        }
+        return localMediaIds;
+    }
+
+    /*
+     * replaces the local src of each uploaded media item with its remote url and clears its uploading
+     * markers, keyed by local media id
+     */
+    void replaceMediaFilesWithUrls(@NonNull Map<String, MediaFile> mediaFiles) {
+        for (Map.Entry<String, MediaFile> entry : mediaFiles.entrySet()) {
+            MediaFile mediaFile = entry.getValue();
+            if (mediaFile == null) {
+                continue;
+            }
+            String remoteUrl = StringUtils.notNullStr(Utils.escapeQuotes(mediaFile.getFileURL()));
+            for (MediaElement element : getElementsWithLocalId(entry.getKey())) {
+                element.removeClass(AztecEditorFragment.ATTR_STATUS_UPLOADING);
+                if (mediaFile.isVideo()) {
+                    element.removeClass(AztecEditorFragment.TEMP_VIDEO_UPLOADING_CLASS);
+                }
+                element.setAttribute(AztecEditorFragment.ATTR_SRC, remoteUrl);
+                if (!element.hasClassStartingWith(AztecEditorFragment.ATTR_SIZE_DASH)) {
+                    element.addClass(AztecEditorFragment.ATTR_SIZE_DASH + "full");
+                }
+            }
+        }
+    }
+
+    void markMediaFailed(String localMediaId, @NonNull MediaFile mediaFile) {
+        for (MediaElement element : getElementsWithLocalId(localMediaId)) {
+            element.removeClass(AztecEditorFragment.ATTR_STATUS_UPLOADING);
+            if (mediaFile.isVideo()) {
+                element.removeClass(AztecEditorFragment.TEMP_VIDEO_UPLOADING_CLASS);
+            }
+            element.addClass(AztecEditorFragment.ATTR_STATUS_FAILED);
+        }
+    }
+
+    /*
+     * media still marked uploading or failed is marked failed if it has a local src, and has its markers
+     * cleared if it has a remote one - its upload completed but the markers weren't updated (ex: after a crash)
+     */
+    void resetUploadingMediaToFailed() {
+        for (MediaElement element : mElements) {
+            if (element.hasClass(AztecEditorFragment.ATTR_STATUS_FAILED)
+                || element.hasClass(AztecEditorFragment.ATTR_STATUS_UPLOADING)) {
+                element.removeClass(AztecEditorFragment.ATTR_STATUS_UPLOADING);
+                String src = element.getAttribute(AztecEditorFragment.ATTR_SRC);
+                if (!TextUtils.isEmpty(src) && URLUtil.isNetworkUrl(src)) {
+                    element.removeClass(AztecEditorFragment.ATTR_STATUS_FAILED);
+                } else {
+                    element.addClass(AztecEditorFragment.ATTR_STATUS_FAILED);
+                }
+            }
+        }
+    }
+
+    void restartFailedMediaToUploading() {
+        for (MediaElement element : mElements) {
+            if (element.hasClass(AztecEditorFragment.ATTR_STATUS_FAILED)) {
+                element.removeClass(AztecEditorFragment.ATTR_STATUS_FAILED);
+                element.addClass(AztecEditorFragment.ATTR_STATUS_UPLOADING);
+            }
+        }
+    }
+
+    /*
+     * returns the value of an attribute of the first media item with the passed local id
+     */
+    @VisibleForTesting
+    @Nullable String getMediaAttribute(String localMediaId, String name) {
+        List<MediaElement> elements = getElementsWithLocalId(localMediaId);
+        return elements.isEmpty() ? null : elements.get(0).getAttribute(name);
+    }
+
+    private List<MediaElement> getElementsWithLocalId(String localMediaId) {
+        List<MediaElement> elements = mElementsByLocalId.get(localMediaId);
+        return elements != null ? elements : Collections.<MediaElement>emptyList();
+    }
+
+    /*
+     * returns the content with the changed elements rewritten - the original content is returned as is
+     * if nothing changed
+     */
+    @NonNull String toHtml() {
+        StringBuilder sb = null;
+        int copiedTo = 0;
+        for (MediaElement element : mElements) {
+            if (!element.mIsChanged) {
+                continue;
+            }
+            if (sb == null) {
+                sb = new StringBuilder(mContent.length() + 256);
+            }
+            sb.append(mContent, copiedTo, element.mAttributesStart);
+            element.appendAttributes(sb);
+            copiedTo = element.mAttributesEnd;
+        }
+        if (sb == null) {
+            return mContent;
+        }
+        sb.append(mContent, copiedTo, mContent.length());
+        return sb.toString();
+    }
+}
@@ -1,5 +1,7 @@
 package org.wordpress.android.networking;
 
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
 import com.android.volley.VolleyError;
 import com.wordpress.rest.Oauth;
 import com.wordpress.rest.RestClient;
@@ -12,8 +14,10 @@ import com.wordpress.rest.RestRequest.ErrorListener;
  */
 public class AuthenticatorRequest {
     private RestRequest mRequest;
-    private RestRequest.ErrorListener mListener;
+    private ParsedRestRequest<?> mParsedRequest;
+    private Response.ErrorListener mListener;
     private RestClient mRestClient;
+    private RequestQueue mRequestQueue;
     private Authenticator mAuthenticator;
 
     protected AuthenticatorRequest(RestRequest request, ErrorListener listener, RestClient restClient,
@@ -24,8 +28,22 @@ public class AuthenticatorRequest {
         mAuthenticator = authenticator;
     }
 
+    /**
+     * Parsed requests aren't RestRequests, so they're added directly to the passed queue
+     * rather than sent through the RestClient
+     */
+    protected AuthenticatorRequest(ParsedRestRequest<?> request, Response.ErrorListener listener,
+                                   RestClient restClient, RequestQueue requestQueue, Authenticator authenticator) {
+        mParsedRequest = request;
+        mListener = listener;
+        mRestClient = restClient;
+        mRequestQueue = requestQueue;
+        mAuthenticator = authenticator;
+    }
+
     public String getSiteId() {
-        return extractSiteIdFromUrl(mRestClient.getEndpointURL(), mRequest.getUrl());
+        String url = mParsedRequest != null ? mParsedRequest.getUrl() : mRequest.getUrl();
+        return extractSiteIdFromUrl(mRestClient.getEndpointURL(), url);
     }
 
     /**
@@ -72,15 +90,27 @@ public class AuthenticatorRequest {
      */
     protected void send() {
         if (mAuthenticator == null) {
-            mRestClient.send(mRequest);
+            sendRequest();
         } else {
             mAuthenticator.authenticate(this);
         }
     }
 
     public void sendWithAccessToken(String token) {
-        mRequest.setAccessToken(token);
-        mRestClient.send(mRequest);
+        if (mParsedRequest != null) {
+            mParsedRequest.setAccessToken(token);
+        } else {
+            mRequest.setAccessToken(token);
+        }
+        sendRequest();
+    }
+
+    private void sendRequest() {
+        if (mParsedRequest != null) {
+            mRequestQueue.add(mParsedRequest);
+        } else {
+            mRestClient.send(mRequest);
+        }
     }
 
     public void sendWithAccessToken(Oauth.Token token) {
@@ -0,0 +1,120 @@
+package org.wordpress.android.networking;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.Response.ErrorListener;
+import com.android.volley.Response.Listener;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.wordpress.rest.RestRequest.OnAuthFailedListener;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * GET request whose response is handed to a parser through a Reader over the bytes Volley received, rather than
+ * being converted to a String and then a JSONObject - avoids holding several copies of large responses in memory
+ * at once. Volley still buffers the whole response before it's parsed. Parsing happens on the network thread and
+ * the parsed result is delivered to the listener on the main thread.
+ *
+ * Errors are handled like those of {@link com.wordpress.rest.RestRequest}: an invalid or missing token is reported
+ * to the {@link OnAuthFailedListener}.
+ */
+public class ParsedRestRequest<T> extends Request<T> {
+    private static final String USER_AGENT_HEADER = "User-Agent";
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String AUTHORIZATION_FORMAT = "Bearer %s";
+    private static final String DEFAULT_CHARSET = "UTF-8";
+
+    private static final String REST_ERROR_KEY = "error";
+    private static final String REST_ERROR_AUTHORIZATION_REQUIRED = "authorization_required";
+    private static final String REST_ERROR_INVALID_TOKEN = "invalid_token";
+
+    public interface ResponseParser<T> {
+        T parse(Reader reader) throws IOException;
+    }
+
+    private final ResponseParser<T> mParser;
+    private final Listener<T> mListener;
+    private final Map<String, String> mHeaders = new HashMap<>();
+    private OnAuthFailedListener mOnAuthFailedListener;
+
+    public ParsedRestRequest(String url, ResponseParser<T> parser, Listener<T> listener,
+                             ErrorListener errorListener) {
+        super(Method.GET, url, errorListener);
+        mParser = parser;
+        mListener = listener;
+    }
+
+    public void setAccessToken(String token) {
+        mHeaders.put(AUTHORIZATION_HEADER, String.format(AUTHORIZATION_FORMAT, token));
+    }
+
+    public void setUserAgent(String userAgent) {
+        mHeaders.put(USER_AGENT_HEADER, userAgent);
+    }
+
+    public void setOnAuthFailedListener(OnAuthFailedListener onAuthFailedListener) {
+        mOnAuthFailedListener = onAuthFailedListener;
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+        return mHeaders;
+    }
+
+    @Override
+    protected Response<T> parseNetworkResponse(NetworkResponse response) {
+        String charset = HttpHeaderParser.parseCharset(response.headers, DEFAULT_CHARSET);
+        try {
+            Reader reader = new InputStreamReader(new ByteArrayInputStream(response.data), charset);
+            T result = mParser.parse(reader);
+            return Response.success(result, HttpHeaderParser.parseCacheHeaders(response));
+        } catch (IOException | RuntimeException e) {
+            // JsonReader reports malformed json with runtime exceptions as well as IOExceptions
+            return Response.error(new ParseError(e));
+        }
+    }
+
+    @Override
+    protected void deliverResponse(T response) {
+        if (mListener != null) {
+            mListener.onResponse(response);
+        }
+    }
+
+    @Override
+    public void deliverError(VolleyError error) {
+        super.deliverError(error);
+        if (mOnAuthFailedListener != null && isAuthError(error)) {
+            mOnAuthFailedListener.onAuthFailed();
+        }
+    }
+
+    /**
+     * Returns true if the error is the REST API rejecting the request's token
+     */
+    static boolean isAuthError(VolleyError error) {
+        NetworkResponse response = error.networkResponse;
+        if (response == null || response.statusCode < 400 || response.data == null) {
+            return false;
+        }
+        try {
+            String json = new String(response.data, HttpHeaderParser.parseCharset(response.headers, DEFAULT_CHARSET));
+            String restError = new JSONObject(json).optString(REST_ERROR_KEY, "");
+            return REST_ERROR_AUTHORIZATION_REQUIRED.equals(restError) || REST_ERROR_INVALID_TOKEN.equals(restError);
+        } catch (UnsupportedEncodingException | JSONException e) {
+            return false;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.android.volley.DefaultRetryPolicy;
 import com.android.volley.Request;
 import com.android.volley.Request.Method;
 import com.android.volley.RequestQueue;
+import com.android.volley.Response;
 import com.android.volley.RetryPolicy;
 import com.android.volley.VolleyError;
 import com.wordpress.rest.JsonRestRequest;
@@ -30,11 +31,14 @@ import java.util.Map;
  */
 
 public class RestClientUtils {
-    public static final String NOTIFICATION_FIELDS = "id,type,unread,body,subject,timestamp,meta";
+    public static final String NOTIFICATION_FIELDS = "id,type,unread,body,subject,timestamp,meta,note_hash";
+    public static final String NOTIFICATION_HASH_FIELDS = "id,note_hash";
     private static String sUserAgent = "WordPress Networking Android";
 
     private RestClient mRestClient;
+    private RequestQueue mRequestQueue;
     private Authenticator mAuthenticator;
+    private RestRequest.OnAuthFailedListener mOnAuthFailedListener;
     private Context mContext;
 
     /**
@@ -72,10 +76,12 @@ public class RestClientUtils {
         // load an existing access token from prefs if we have one
         mContext = context;
         mAuthenticator = authenticator;
+        mRequestQueue = queue;
         mRestClient = RestClientFactory.instantiate(queue, version);
         if (onAuthFailedListener != null) {
             mRestClient.setOnAuthFailedListener(onAuthFailedListener);
         }
+        mOnAuthFailedListener = onAuthFailedListener;
         mRestClient.setUserAgent(sUserAgent);
     }
 
@@ -248,6 +254,38 @@ public class RestClientUtils {
      */
     public Request<JSONObject> get(String path, Map<String, String> params, RetryPolicy retryPolicy, Listener listener,
                     ErrorListener errorListener) {
+        RestRequest request = mRestClient.makeRequest(Method.GET, getAbsoluteUrlForGet(path, params), null,
+                listener, errorListener);
+
+        if (retryPolicy == null) {
+            retryPolicy = new DefaultRetryPolicy(REST_TIMEOUT_MS, REST_MAX_RETRIES_GET, REST_BACKOFF_MULT);
+        }
+        request.setRetryPolicy(retryPolicy);
+        AuthenticatorRequest authCheck = new AuthenticatorRequest(request, errorListener, mRestClient, mAuthenticator);
+        authCheck.send();
+        return request;
+    }
+
+    /**
+     * Make GET request whose response is passed to the parser through a Reader rather than parsed
+     * into a JSONObject - use this for large responses
+     */
+    public <T> Request<T> getParsed(String path, Map<String, String> params,
+                                    ParsedRestRequest.ResponseParser<T> parser,
+                                    Response.Listener<T> listener,
+                                    Response.ErrorListener errorListener) {
+        ParsedRestRequest<T> request = new ParsedRestRequest<>(getAbsoluteUrlForGet(path, params), parser,
+                listener, errorListener);
+        request.setUserAgent(sUserAgent);
+        request.setOnAuthFailedListener(mOnAuthFailedListener);
+        request.setRetryPolicy(new DefaultRetryPolicy(REST_TIMEOUT_MS, REST_MAX_RETRIES_GET, REST_BACKOFF_MULT));
+        AuthenticatorRequest authCheck = new AuthenticatorRequest(request, errorListener, mRestClient,
+                mRequestQueue, mAuthenticator);
+        authCheck.send();
+        return request;
+    }
+
+    private String getAbsoluteUrlForGet(String path, Map<String, String> params) {
         // turn params into query string
         HashMap<String, String> paramsWithLocale = getRestLocaleParams(mContext);
         if (params != null) {
@@ -260,16 +298,7 @@ public class RestClientUtils {
         }
         paramsWithLocale.putAll(getSanitizedParameters(path));
 
-        RestRequest request = mRestClient.makeRequest(Method.GET, mRestClient
-                        .getAbsoluteURL(realPath, paramsWithLocale), null, listener, errorListener);
-
-        if (retryPolicy == null) {
-            retryPolicy = new DefaultRetryPolicy(REST_TIMEOUT_MS, REST_MAX_RETRIES_GET, REST_BACKOFF_MULT);
-        }
-        request.setRetryPolicy(retryPolicy);
-        AuthenticatorRequest authCheck = new AuthenticatorRequest(request, errorListener, mRestClient, mAuthenticator);
-        authCheck.send();
-        return request;
+        return mRestClient.getAbsoluteURL(realPath, paramsWithLocale);
     }
 
     /**
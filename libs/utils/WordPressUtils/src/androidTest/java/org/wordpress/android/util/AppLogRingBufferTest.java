@@ -0,0 +1,86 @@
+package org.wordpress.android.util;
+
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.util.AppLog.LogEntry;
+import org.wordpress.android.util.AppLog.LogLevel;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+public class AppLogRingBufferTest extends InstrumentationTestCase {
+    public void testEntriesAreReadBack() {
+        AppLogRingBuffer buffer = AppLogRingBuffer.inMemory();
+        buffer.write(1000, T.EDITOR, LogLevel.w, "A warning");
+
+        List<LogEntry> entries = buffer.read();
+        assertEquals(1, entries.size());
+        assertEquals("A warning", entries.get(0).mLogText);
+        assertEquals(T.EDITOR, entries.get(0).mLogTag);
+        assertEquals(LogLevel.w, entries.get(0).mLogLevel);
+        assertEquals(1000, entries.get(0).mTimeMillis);
+    }
+
+    public void testLongEntriesSpanSlots() {
+        StringBuilder stackTrace = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            stackTrace.append("at org.wordpress.android.Example.method").append(i).append("(Example.java)\n");
+        }
+        AppLogRingBuffer buffer = AppLogRingBuffer.inMemory();
+        buffer.write(1000, T.MAIN, LogLevel.e, stackTrace.toString());
+
+        assertEquals(stackTrace.toString(), buffer.read().get(0).mLogText);
+    }
+
+    public void testOldestEntriesAreOverwritten() {
+        AppLogRingBuffer buffer = AppLogRingBuffer.inMemory();
+        for (int i = 0; i < AppLogRingBuffer.SLOT_COUNT + 10; i++) {
+            buffer.write(i, T.UTILS, LogLevel.d, "Entry " + i);
+        }
+
+        List<LogEntry> entries = buffer.read();
+        assertEquals(AppLogRingBuffer.SLOT_COUNT, entries.size());
+        assertEquals("Entry 10", entries.get(0).mLogText);
+        assertEquals("Entry " + (AppLogRingBuffer.SLOT_COUNT + 9), entries.get(entries.size() - 1).mLogText);
+    }
+
+    public void testClearRemovesEntries() {
+        AppLogRingBuffer buffer = AppLogRingBuffer.inMemory();
+        buffer.write(1000, T.UTILS, LogLevel.i, "Before clearing");
+        buffer.clear();
+        buffer.write(2000, T.UTILS, LogLevel.i, "After clearing");
+
+        List<LogEntry> entries = buffer.read();
+        assertEquals(1, entries.size());
+        assertEquals("After clearing", entries.get(0).mLogText);
+    }
+
+    public void testMappedEntriesSurviveReopening() throws IOException {
+        File file = new File(getInstrumentation().getTargetContext().getCacheDir(), "app_log_test");
+        file.delete();
+
+        AppLogRingBuffer.mapped(file).write(1000, T.UTILS, LogLevel.i, "Before the restart");
+        AppLogRingBuffer buffer = AppLogRingBuffer.mapped(file);
+        buffer.write(2000, T.UTILS, LogLevel.i, "After the restart");
+
+        List<LogEntry> entries = buffer.read();
+        assertEquals(2, entries.size());
+        assertEquals("Before the restart", entries.get(0).mLogText);
+        assertEquals("After the restart", entries.get(1).mLogText);
+        file.delete();
+    }
+
+    public void testClearedMappedEntriesStayCleared() throws IOException {
+        File file = new File(getInstrumentation().getTargetContext().getCacheDir(), "app_log_test");
+        file.delete();
+
+        AppLogRingBuffer buffer = AppLogRingBuffer.mapped(file);
+        buffer.write(1000, T.UTILS, LogLevel.i, "Before logging out");
+        buffer.clear();
+
+        assertTrue(AppLogRingBuffer.mapped(file).read().isEmpty());
+        file.delete();
+    }
+}
@@ -0,0 +1,224 @@
+package org.wordpress.android.util;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.os.Build;
+import android.os.Debug;
+import android.test.InstrumentationTestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+public class TiledImageDownscalerTest extends InstrumentationTestCase {
+    private static final int MAX_SIZE = 2000;
+    private static final int COLOR_TOLERANCE = 24;
+    // allowance for the region decoder's own state and anything else the process allocates while measuring
+    private static final long MEMORY_TOLERANCE_BYTES = 2 * 1024 * 1024;
+
+    private File mFixture;
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (mFixture != null) {
+            //noinspection ResultOfMethodCallIgnored
+            mFixture.delete();
+        }
+        super.tearDown();
+    }
+
+    public void testDownscalesLandscape() throws IOException {
+        Bitmap bitmap = downscale(4032, 3024, MAX_SIZE, 0);
+        assertEquals(2000, bitmap.getWidth());
+        assertEquals(1500, bitmap.getHeight());
+        assertQuadrants(bitmap, Color.RED, Color.GREEN, Color.BLUE, Color.WHITE);
+    }
+
+    public void testDownscalesPortrait() throws IOException {
+        Bitmap bitmap = downscale(3024, 4032, MAX_SIZE, 0);
+        assertEquals(1500, bitmap.getWidth());
+        assertEquals(2000, bitmap.getHeight());
+        assertQuadrants(bitmap, Color.RED, Color.GREEN, Color.BLUE, Color.WHITE);
+    }
+
+    public void testRotatesClockwise() throws IOException {
+        Bitmap bitmap = downscale(4032, 3024, MAX_SIZE, 90);
+        assertEquals(1500, bitmap.getWidth());
+        assertEquals(2000, bitmap.getHeight());
+        assertQuadrants(bitmap, Color.BLUE, Color.RED, Color.WHITE, Color.GREEN);
+    }
+
+    public void testRotatesUpsideDown() throws IOException {
+        Bitmap bitmap = downscale(4032, 3024, MAX_SIZE, 180);
+        assertEquals(2000, bitmap.getWidth());
+        assertEquals(1500, bitmap.getHeight());
+        assertQuadrants(bitmap, Color.WHITE, Color.BLUE, Color.GREEN, Color.RED);
+    }
+
+    public void testRotatesCounterClockwise() throws IOException {
+        Bitmap bitmap = downscale(4032, 3024, MAX_SIZE, 270);
+        assertEquals(1500, bitmap.getWidth());
+        assertEquals(2000, bitmap.getHeight());
+        assertQuadrants(bitmap, Color.GREEN, Color.WHITE, Color.RED, Color.BLUE);
+    }
+
+    public void testDoesNotUpscale() throws IOException {
+        Bitmap bitmap = downscale(800, 600, MAX_SIZE, 0);
+        assertEquals(800, bitmap.getWidth());
+        assertEquals(600, bitmap.getHeight());
+    }
+
+    /*
+     * the native heap allocated while downscaling must stay within the output plus a single tile,
+     * and below what decoding the whole sampled image alongside the output allocates - bitmap
+     * pixels are only allocated on the native heap from O, so there's nothing to measure before it
+     */
+    public void testPeakMemoryIsBounded() throws IOException, InterruptedException {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            return;
+        }
+        assertPeakMemoryIsBounded(4032, 3024, MAX_SIZE, 90);
+        assertPeakMemoryIsBounded(8000, 1200, MAX_SIZE, 0);
+        assertPeakMemoryIsBounded(1200, 8000, MAX_SIZE, 270);
+    }
+
+    private void assertPeakMemoryIsBounded(int width, int height, int maxSize, int orientation)
+            throws IOException, InterruptedException {
+        mFixture = makeFixture(width, height);
+
+        PeakMemorySampler sampler = new PeakMemorySampler();
+        sampler.start();
+        Bitmap bitmap = new TiledImageDownscaler(mFixture.getPath(), maxSize, orientation).downscale();
+        long tiledPeakBytes = sampler.finish();
+        assertNotNull(bitmap);
+        long outputBytes = bitmap.getByteCount();
+        bitmap.recycle();
+
+        sampler = new PeakMemorySampler();
+        sampler.start();
+        decodeWholeImage(mFixture.getPath(), maxSize, orientation, sampler);
+        long wholeImagePeakBytes = sampler.finish();
+
+        assertTrue("Downscaling allocated " + tiledPeakBytes + " bytes for a " + outputBytes + " byte output",
+                tiledPeakBytes <= outputBytes + TiledImageDownscaler.MAX_TILE_BYTES + MEMORY_TOLERANCE_BYTES);
+        assertTrue("Downscaling allocated " + tiledPeakBytes + " bytes, decoding the whole image allocated "
+                   + wholeImagePeakBytes, tiledPeakBytes < wholeImagePeakBytes);
+    }
+
+    /*
+     * downscales the image the way ImageUtils does for formats which can't be decoded in regions,
+     * sampling memory while the sampled image and the output are both held
+     */
+    private static void decodeWholeImage(String path, int maxSize, int orientation, PeakMemorySampler sampler) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(path, options);
+        int sampleSize = ImageUtils.getScaleForResizing(maxSize, options);
+
+        options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        Bitmap sampled = BitmapFactory.decodeFile(path, options);
+        assertNotNull(sampled);
+        float scale = Math.min(1f, (float) maxSize / Math.max(sampled.getWidth(), sampled.getHeight()));
+        Matrix matrix = new Matrix();
+        matrix.postScale(scale, scale);
+        matrix.postRotate(orientation);
+        Bitmap output = Bitmap.createBitmap(sampled, 0, 0, sampled.getWidth(), sampled.getHeight(), matrix, true);
+        sampler.sample();
+        output.recycle();
+        sampled.recycle();
+    }
+
+    /*
+     * tracks the most native heap allocated at once, relative to when it was created, by polling
+     * on a background thread until it's finished
+     */
+    private static class PeakMemorySampler extends Thread {
+        private final long mBaselineBytes;
+        private long mPeakBytes;
+        private volatile boolean mIsFinished;
+
+        PeakMemorySampler() {
+            mBaselineBytes = Debug.getNativeHeapAllocatedSize();
+            mPeakBytes = mBaselineBytes;
+        }
+
+        @Override
+        public void run() {
+            while (!mIsFinished) {
+                sample();
+            }
+        }
+
+        synchronized void sample() {
+            mPeakBytes = Math.max(mPeakBytes, Debug.getNativeHeapAllocatedSize());
+        }
+
+        long finish() throws InterruptedException {
+            mIsFinished = true;
+            join();
+            synchronized (this) {
+                return mPeakBytes - mBaselineBytes;
+            }
+        }
+    }
+
+    private Bitmap downscale(int width, int height, int maxSize, int orientation) throws IOException {
+        mFixture = makeFixture(width, height);
+        Bitmap bitmap = new TiledImageDownscaler(mFixture.getPath(), maxSize, orientation).downscale();
+        assertNotNull(bitmap);
+        return bitmap;
+    }
+
+    /*
+     * checks the color at the center of each quadrant of the bitmap
+     */
+    private static void assertQuadrants(Bitmap bitmap, int topLeft, int topRight, int bottomLeft, int bottomRight) {
+        int left = bitmap.getWidth() / 4;
+        int right = bitmap.getWidth() * 3 / 4;
+        int top = bitmap.getHeight() / 4;
+        int bottom = bitmap.getHeight() * 3 / 4;
+        assertColor(topLeft, bitmap.getPixel(left, top));
+        assertColor(topRight, bitmap.getPixel(right, top));
+        assertColor(bottomLeft, bitmap.getPixel(left, bottom));
+        assertColor(bottomRight, bitmap.getPixel(right, bottom));
+    }
+
+    private static void assertColor(int expected, int actual) {
+        assertTrue(Math.abs(Color.red(expected) - Color.red(actual)) <= COLOR_TOLERANCE);
+        assertTrue(Math.abs(Color.green(expected) - Color.green(actual)) <= COLOR_TOLERANCE);
+        assertTrue(Math.abs(Color.blue(expected) - Color.blue(actual)) <= COLOR_TOLERANCE);
+    }
+
+    /*
+     * writes a camera-sized JPEG with a differently colored quadrant in each corner, so scaling
+     * and rotation can be checked
+     */
+    private File makeFixture(int width, int height) throws IOException {
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint();
+        paint.setColor(Color.RED);
+        canvas.drawRect(0, 0, width / 2, height / 2, paint);
+        paint.setColor(Color.GREEN);
+        canvas.drawRect(width / 2, 0, width, height / 2, paint);
+        paint.setColor(Color.BLUE);
+        canvas.drawRect(0, height / 2, width / 2, height, paint);
+        paint.setColor(Color.WHITE);
+        canvas.drawRect(width / 2, height / 2, width, height, paint);
+
+        File file = new File(getInstrumentation().getContext().getCacheDir(), "downscaler-fixture.jpg");
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            bitmap.compress(Bitmap.CompressFormat.JPEG, 95, outputStream);
+        } finally {
+            outputStream.close();
+            bitmap.recycle();
+        }
+        return file;
+    }
+}
@@ -8,14 +8,16 @@ import android.support.annotation.NonNull;
 import android.text.TextUtils;
 import android.util.Log;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static java.lang.String.format;
 
@@ -56,8 +58,16 @@ public class AppLog {
 
     public static final String TAG = "WordPress";
     public static final int HEADER_LINE_COUNT = 2;
-    private static boolean mEnableRecording = false;
-    private static List<AppLogListener> mListeners = new ArrayList<>(0);
+    private static volatile boolean mEnableRecording = false;
+    private static List<AppLogListener> mListeners = new CopyOnWriteArrayList<>();
+
+    // the Android log tag for each T, built once rather than on every log call
+    private static final String[] LOG_TAGS = new String[T.values().length];
+    static {
+        for (T tag : T.values()) {
+            LOG_TAGS[tag.ordinal()] = TAG + "-" + tag.toString();
+        }
+    }
 
     private AppLog() {
         throw new AssertionError();
@@ -68,9 +78,37 @@ public class AppLog {
      * @param enable A boolean flag to capture log. Default is false, pass true to enable recording
      */
     public static void enableRecording(boolean enable) {
+        if (enable && mLogEntries == null) {
+            mLogEntries = AppLogRingBuffer.inMemory();
+        }
         mEnableRecording = enable;
     }
 
+    /**
+     * Capture log in a memory-mapped file, so entries recorded before the app was killed are still available
+     * @param file The file to record the log in, created if it doesn't exist
+     */
+    public static void enableRecording(@NonNull File file) {
+        if (mLogEntries == null) {
+            try {
+                mLogEntries = AppLogRingBuffer.mapped(file);
+            } catch (IOException e) {
+                Log.e(TAG, "Unable to map log file, recording in memory instead", e);
+            }
+        }
+        enableRecording(true);
+    }
+
+    /**
+     * Removes the recorded log, including any entries recorded before the app was last killed
+     */
+    public static void clearRecordedLog() {
+        AppLogRingBuffer logEntries = mLogEntries;
+        if (logEntries != null) {
+            logEntries.clear();
+        }
+    }
+
     public static void addListener(@NonNull AppLogListener listener) {
         mListeners.add(listener);
     }
@@ -91,7 +129,7 @@ public class AppLog {
      */
     public static void v(T tag, String message) {
         message = StringUtils.notNullStr(message);
-        Log.v(TAG + "-" + tag.toString(), message);
+        Log.v(LOG_TAGS[tag.ordinal()], message);
         addEntry(tag, LogLevel.v, message);
     }
 
@@ -103,7 +141,7 @@ public class AppLog {
      */
     public static void d(T tag, String message) {
         message = StringUtils.notNullStr(message);
-        Log.d(TAG + "-" + tag.toString(), message);
+        Log.d(LOG_TAGS[tag.ordinal()], message);
         addEntry(tag, LogLevel.d, message);
     }
 
@@ -115,7 +153,7 @@ public class AppLog {
      */
     public static void i(T tag, String message) {
         message = StringUtils.notNullStr(message);
-        Log.i(TAG + "-" + tag.toString(), message);
+        Log.i(LOG_TAGS[tag.ordinal()], message);
         addEntry(tag, LogLevel.i, message);
     }
 
@@ -127,7 +165,7 @@ public class AppLog {
      */
     public static void w(T tag, String message) {
         message = StringUtils.notNullStr(message);
-        Log.w(TAG + "-" + tag.toString(), message);
+        Log.w(LOG_TAGS[tag.ordinal()], message);
         addEntry(tag, LogLevel.w, message);
     }
 
@@ -139,7 +177,7 @@ public class AppLog {
      */
     public static void e(T tag, String message) {
         message = StringUtils.notNullStr(message);
-        Log.e(TAG + "-" + tag.toString(), message);
+        Log.e(LOG_TAGS[tag.ordinal()], message);
         addEntry(tag, LogLevel.e, message);
     }
 
@@ -152,7 +190,7 @@ public class AppLog {
      */
     public static void e(T tag, String message, Throwable tr) {
         message = StringUtils.notNullStr(message);
-        Log.e(TAG + "-" + tag.toString(), message, tr);
+        Log.e(LOG_TAGS[tag.ordinal()], message, tr);
         addEntry(tag, LogLevel.e, message + " - exception: " + tr.getMessage());
         addEntry(tag, LogLevel.e, "StackTrace: " + getStringStackTrace(tr));
     }
@@ -164,7 +202,7 @@ public class AppLog {
      * @param tr An exception to log to get StackTrace
      */
     public static void e(T tag, Throwable tr) {
-        Log.e(TAG + "-" + tag.toString(), tr.getMessage(), tr);
+        Log.e(LOG_TAGS[tag.ordinal()], tr.getMessage(), tr);
         addEntry(tag, LogLevel.e, tr.getMessage());
         addEntry(tag, LogLevel.e, "StackTrace: " + getStringStackTrace(tr));
     }
@@ -186,14 +224,12 @@ public class AppLog {
         } else {
             logText = volleyErrorMsg + ", status " + statusCode;
         }
-        Log.e(TAG + "-" + tag.toString(), logText);
+        Log.e(LOG_TAGS[tag.ordinal()], logText);
         addEntry(tag, LogLevel.w, logText);
     }
 
     // --------------------------------------------------------------------------------------------------------
 
-    private static final int MAX_ENTRIES = 99;
-
     public enum LogLevel {
         v, d, i, w, e;
 
@@ -214,15 +250,15 @@ public class AppLog {
         }
     }
 
-    private static class LogEntry {
+    static class LogEntry {
         final LogLevel mLogLevel;
         final String mLogText;
-        final java.util.Date mDate;
+        final long mTimeMillis;
         final T mLogTag;
 
-        LogEntry(LogLevel logLevel, String logText, T logTag) {
+        LogEntry(LogLevel logLevel, String logText, T logTag, long timeMillis) {
             mLogLevel = logLevel;
-            mDate = DateTimeUtils.nowUTC();
+            mTimeMillis = timeMillis;
             if (logText == null) {
                 mLogText = "null";
             } else {
@@ -231,17 +267,17 @@ public class AppLog {
             mLogTag = logTag;
         }
 
-        private String formatLogDate() {
-            return new SimpleDateFormat("MMM-dd kk:mm", Locale.US).format(mDate);
+        private String formatLogDate(SimpleDateFormat dateFormat) {
+            return dateFormat.format(new Date(mTimeMillis));
         }
 
-        private String toHtml() {
+        private String toHtml(SimpleDateFormat dateFormat) {
             StringBuilder sb = new StringBuilder();
             sb.append("<font color=\"");
             sb.append(mLogLevel.toHtmlColor());
             sb.append("\">");
             sb.append("[");
-            sb.append(formatLogDate()).append(" ");
+            sb.append(formatLogDate(dateFormat)).append(" ");
             sb.append(mLogTag.name()).append(" ");
             sb.append(mLogLevel.name());
             sb.append("] ");
@@ -251,28 +287,8 @@ public class AppLog {
         }
     }
 
-    private static class LogEntryList extends ArrayList<LogEntry> {
-        private synchronized boolean addEntry(LogEntry entry) {
-            if (size() >= MAX_ENTRIES) {
-                removeFirstEntry();
-            }
-            return add(entry);
-        }
-
-        private void removeFirstEntry() {
-            Iterator<LogEntry> it = iterator();
-            if (!it.hasNext()) {
-                return;
-            }
-            try {
-                remove(it.next());
-            } catch (NoSuchElementException e) {
-                // ignore
-            }
-        }
-    }
-
-    private static LogEntryList mLogEntries = new LogEntryList();
+    // binary ring buffer of the recorded entries, which are only formatted when the log is displayed
+    private static volatile AppLogRingBuffer mLogEntries;
 
     private static void addEntry(T tag, LogLevel level, String text) {
         // Call our listeners if any
@@ -280,12 +296,21 @@ public class AppLog {
             listener.onLog(tag, level, text);
         }
         // Record entry if enabled
-        if (mEnableRecording) {
-            LogEntry entry = new LogEntry(level, text, tag);
-            mLogEntries.addEntry(entry);
+        AppLogRingBuffer logEntries = mLogEntries;
+        if (mEnableRecording && logEntries != null) {
+            logEntries.write(DateTimeUtils.nowUTC().getTime(), tag, level, text != null ? text : "null");
         }
     }
 
+    private static List<LogEntry> getLogEntries() {
+        AppLogRingBuffer logEntries = mLogEntries;
+        return logEntries != null ? logEntries.read() : new ArrayList<LogEntry>();
+    }
+
+    private static SimpleDateFormat newLogDateFormat() {
+        return new SimpleDateFormat("MMM-dd kk:mm", Locale.US);
+    }
+
     private static String getStringStackTrace(Throwable throwable) {
         StringWriter errors = new StringWriter();
         throwable.printStackTrace(new PrintWriter(errors));
@@ -326,9 +351,9 @@ public class AppLog {
         items.add("<strong>" + getAppInfoHeaderText(context) + "</strong>");
         items.add("<strong>" + getDeviceInfoHeaderText(context) + "</strong>");
 
-        Iterator<LogEntry> it = new ArrayList<>(mLogEntries).iterator();
-        while (it.hasNext()) {
-            items.add(it.next().toHtml());
+        SimpleDateFormat dateFormat = newLogDateFormat();
+        for (LogEntry entry : getLogEntries()) {
+            items.add(entry.toHtml(dateFormat));
         }
         return items;
     }
@@ -345,13 +370,12 @@ public class AppLog {
         sb.append(getAppInfoHeaderText(context)).append("\n")
           .append(getDeviceInfoHeaderText(context)).append("\n\n");
 
-        Iterator<LogEntry> it = new ArrayList<>(mLogEntries).iterator();
+        SimpleDateFormat dateFormat = newLogDateFormat();
         int lineNum = 1;
-        while (it.hasNext()) {
-            LogEntry entry = it.next();
+        for (LogEntry entry : getLogEntries()) {
             sb.append(format(Locale.US, "%02d - ", lineNum))
               .append("[")
-              .append(entry.formatLogDate()).append(" ")
+              .append(entry.formatLogDate(dateFormat)).append(" ")
               .append(entry.mLogTag.name())
               .append("] ")
               .append(entry.mLogText)
@@ -0,0 +1,196 @@
+package org.wordpress.android.util;
+
+import android.support.annotation.NonNull;
+
+import org.wordpress.android.util.AppLog.LogEntry;
+import org.wordpress.android.util.AppLog.LogLevel;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size binary ring buffer of the entries recorded by {@link AppLog}, optionally backed by a memory-mapped
+ * file so the log survives the process being killed and can still be sent to support on the next launch.
+ *
+ * The buffer is split into equal slots, each holding an entry's sequence number and raw fields, and entries too
+ * long for a single slot are spread over consecutive slots. ByteBuffer makes no guarantees about what other
+ * threads see of its contents, so writes and reads hold the buffer's lock - it's only held while the raw fields
+ * are copied, formatting happens when the log is read. Each slot's sequence number is cleared while it's being
+ * written and set once it's complete, so a slot left half-written when the process was killed is skipped.
+ */
+class AppLogRingBuffer {
+    static final int SLOT_COUNT = 256;
+    static final int SLOT_SIZE = 512;
+    // longer entries (usually stack traces) are cut short
+    private static final int MAX_SLOTS_PER_ENTRY = 16;
+
+    private static final int MAGIC = 0x57504c47;
+    private static final int FORMAT_VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 16;
+
+    private static final int OFFSET_SEQUENCE = 0;
+    private static final int OFFSET_TIME = 8;
+    private static final int OFFSET_TAG = 16;
+    private static final int OFFSET_LEVEL = 17;
+    private static final int OFFSET_PART = 18;
+    private static final int OFFSET_PART_COUNT = 19;
+    private static final int OFFSET_LENGTH = 20;
+    private static final int SLOT_HEADER_SIZE = 22;
+    private static final int SLOT_PAYLOAD_SIZE = SLOT_SIZE - SLOT_HEADER_SIZE;
+
+    // sequence numbers start at 1, so a zeroed slot has never been written
+    private static final long SEQUENCE_WRITING = -1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final T[] TAGS = T.values();
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final ByteBuffer mBuffer;
+    private long mNextSequence;
+
+    private AppLogRingBuffer(@NonNull ByteBuffer buffer) {
+        mBuffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION
+            || buffer.getInt(8) != SLOT_COUNT || buffer.getInt(12) != SLOT_SIZE) {
+            reset();
+        }
+
+        // carry on from the newest entry left in the buffer
+        long lastSequence = 0;
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            lastSequence = Math.max(lastSequence, buffer.getLong(FILE_HEADER_SIZE + slot * SLOT_SIZE));
+        }
+        mNextSequence = lastSequence + 1;
+    }
+
+    private void reset() {
+        for (int i = 0; i < mBuffer.capacity(); i++) {
+            mBuffer.put(i, (byte) 0);
+        }
+        mBuffer.putInt(0, MAGIC);
+        mBuffer.putInt(4, FORMAT_VERSION);
+        mBuffer.putInt(8, SLOT_COUNT);
+        mBuffer.putInt(12, SLOT_SIZE);
+        mNextSequence = 1;
+    }
+
+    /**
+     * Returns a ring buffer which only lives as long as the process.
+     */
+    static AppLogRingBuffer inMemory() {
+        return new AppLogRingBuffer(ByteBuffer.allocate(getBufferSize()));
+    }
+
+    /**
+     * Returns a ring buffer mapped to the passed file, holding any entries recorded by previous processes.
+     */
+    static AppLogRingBuffer mapped(@NonNull File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            // the mapping stays valid once the file is closed
+            return new AppLogRingBuffer(
+                    randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, getBufferSize()));
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private static int getBufferSize() {
+        return FILE_HEADER_SIZE + SLOT_COUNT * SLOT_SIZE;
+    }
+
+    private static int getSlotOffset(long sequence) {
+        return FILE_HEADER_SIZE + (int) (sequence % SLOT_COUNT) * SLOT_SIZE;
+    }
+
+    void write(long timeMillis, @NonNull T tag, @NonNull LogLevel level, @NonNull String text) {
+        // encoded before taking the lock, which is only held while the bytes are copied into the buffer
+        byte[] bytes = text.getBytes(UTF_8);
+        int partCount = Math.max(1, Math.min(MAX_SLOTS_PER_ENTRY,
+                (bytes.length + SLOT_PAYLOAD_SIZE - 1) / SLOT_PAYLOAD_SIZE));
+
+        synchronized (this) {
+            long firstSequence = mNextSequence;
+            mNextSequence += partCount;
+
+            int bytesOffset = 0;
+            for (int part = 0; part < partCount; part++) {
+                int offset = getSlotOffset(firstSequence + part);
+                int length = Math.max(0, Math.min(SLOT_PAYLOAD_SIZE, bytes.length - bytesOffset));
+
+                mBuffer.putLong(offset + OFFSET_SEQUENCE, SEQUENCE_WRITING);
+                mBuffer.putLong(offset + OFFSET_TIME, timeMillis);
+                mBuffer.put(offset + OFFSET_TAG, (byte) tag.ordinal());
+                mBuffer.put(offset + OFFSET_LEVEL, (byte) level.ordinal());
+                mBuffer.put(offset + OFFSET_PART, (byte) part);
+                mBuffer.put(offset + OFFSET_PART_COUNT, (byte) partCount);
+                mBuffer.putShort(offset + OFFSET_LENGTH, (short) length);
+                for (int i = 0; i < length; i++) {
+                    mBuffer.put(offset + SLOT_HEADER_SIZE + i, bytes[bytesOffset + i]);
+                }
+                mBuffer.putLong(offset + OFFSET_SEQUENCE, firstSequence + part);
+
+                bytesOffset += length;
+            }
+        }
+    }
+
+    /**
+     * Removes every entry from the buffer, including those recorded by previous processes.
+     */
+    synchronized void clear() {
+        reset();
+    }
+
+    /**
+     * Returns the complete entries in the buffer, oldest first.
+     */
+    synchronized @NonNull List<LogEntry> read() {
+        long endSequence = mNextSequence;
+        long sequence = Math.max(1, endSequence - SLOT_COUNT);
+        List<LogEntry> entries = new ArrayList<>(SLOT_COUNT);
+
+        while (sequence < endSequence) {
+            int offset = getSlotOffset(sequence);
+            int partCount = mBuffer.get(offset + OFFSET_PART_COUNT);
+            if (mBuffer.getLong(offset + OFFSET_SEQUENCE) != sequence || mBuffer.get(offset + OFFSET_PART) != 0
+                || partCount < 1 || sequence + partCount > endSequence) {
+                // overwritten, left half-written, or the rest of an entry whose start has been overwritten
+                sequence++;
+                continue;
+            }
+
+            long timeMillis = mBuffer.getLong(offset + OFFSET_TIME);
+            int tag = mBuffer.get(offset + OFFSET_TAG);
+            int level = mBuffer.get(offset + OFFSET_LEVEL);
+            byte[] bytes = new byte[partCount * SLOT_PAYLOAD_SIZE];
+            int length = 0;
+            boolean isComplete = true;
+            for (int part = 0; part < partCount && isComplete; part++) {
+                int partOffset = getSlotOffset(sequence + part);
+                int partLength = mBuffer.getShort(partOffset + OFFSET_LENGTH);
+                isComplete = mBuffer.getLong(partOffset + OFFSET_SEQUENCE) == sequence + part
+                             && partLength >= 0 && partLength <= SLOT_PAYLOAD_SIZE;
+                if (isComplete) {
+                    for (int i = 0; i < partLength; i++) {
+                        bytes[length + i] = mBuffer.get(partOffset + SLOT_HEADER_SIZE + i);
+                    }
+                    length += partLength;
+                }
+            }
+
+            if (isComplete && tag >= 0 && tag < TAGS.length && level >= 0 && level < LEVELS.length) {
+                entries.add(new LogEntry(LEVELS[level], new String(bytes, 0, length, UTF_8), TAGS[tag], timeMillis));
+            }
+            sequence += partCount;
+        }
+        return entries;
+    }
+}
@@ -420,6 +420,9 @@ public class ImageUtils {
                                                        int quality,
                                                        OutputStream outStream) throws OutOfMemoryError, IOException {
         String realFilePath = MediaUtils.getRealPathFromURI(context, imageUri);
+        if (realFilePath == null) {
+            throw new IOException("Can't find the path of the original image.");
+        }
 
         // get just the image bounds
         BitmapFactory.Options optBounds = new BitmapFactory.Options();
@@ -432,6 +435,31 @@ public class ImageUtils {
             throw e;
         }
 
+        Bitmap.CompressFormat fmt;
+        if (fileExtension != null
+            && (fileExtension.equals("png") || fileExtension.equals(".png"))) {
+            fmt = Bitmap.CompressFormat.PNG;
+        } else {
+            fmt = Bitmap.CompressFormat.JPEG;
+        }
+
+        // decode, scale and rotate the image a band at a time so large photos don't need to be decoded in full
+        final Bitmap bmpDownscaled;
+        try {
+            bmpDownscaled = new TiledImageDownscaler(realFilePath, maxSize, orientation).downscale();
+        } catch (OutOfMemoryError e) {
+            AppLog.e(AppLog.T.UTILS, "OutOfMemoryError while downscaling the original image: " + realFilePath, e);
+            throw e;
+        }
+        if (bmpDownscaled != null) {
+            try {
+                return bmpDownscaled.compress(fmt, quality, outStream);
+            } finally {
+                bmpDownscaled.recycle();
+            }
+        }
+
+        // the format doesn't support region decoding, so decode the whole (sampled) image instead
         int scale = getScaleForResizing(maxSize, optBounds);
 
         BitmapFactory.Options optActual = new BitmapFactory.Options();
@@ -459,15 +487,7 @@ public class ImageUtils {
 
         // apply orientation
         if (orientation != 0) {
-            matrix.setRotate(orientation);
-        }
-
-        Bitmap.CompressFormat fmt;
-        if (fileExtension != null
-            && (fileExtension.equals("png") || fileExtension.equals(".png"))) {
-            fmt = Bitmap.CompressFormat.PNG;
-        } else {
-            fmt = Bitmap.CompressFormat.JPEG;
+            matrix.postRotate(orientation);
         }
 
         final Bitmap bmpRotated;
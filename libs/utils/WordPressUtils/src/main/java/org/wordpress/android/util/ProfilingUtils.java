@@ -8,6 +8,9 @@ import java.util.ArrayList;
 
 /**
  * forked from android.util.TimingLogger to use AppLog instead of Log + new static interface.
+ *
+ * Besides the splits, which time a sequence of steps on one thread, timings can be added for tasks which run
+ * independently of that sequence - such as tasks run on background threads.
  */
 public class ProfilingUtils {
     private static ProfilingUtils sInstance;
@@ -15,20 +18,31 @@ public class ProfilingUtils {
     private String mLabel;
     private ArrayList<Long> mSplits;
     private ArrayList<String> mSplitLabels;
+    private ArrayList<String> mTimings;
 
-    public static void start(String label) {
+    public static synchronized void start(String label) {
         getInstance().reset(label);
     }
 
-    public static void split(String splitLabel) {
+    public static synchronized void split(String splitLabel) {
         getInstance().addSplit(splitLabel);
     }
 
-    public static void dump() {
+    /**
+     * Records how long a task took, listed after the splits when the profile is dumped - or logged straight away
+     * if no profile has been started, so timings of tasks which finish late aren't lost.
+     * @param taskLabel Identifies the task, and the thread it ran on if that's relevant
+     * @param durationMs How long the task took
+     */
+    public static synchronized void timing(String taskLabel, long durationMs) {
+        getInstance().addTiming(taskLabel, durationMs);
+    }
+
+    public static synchronized void dump() {
         getInstance().dumpToLog();
     }
 
-    public static void stop() {
+    public static synchronized void stop() {
         getInstance().reset(null);
     }
 
@@ -52,9 +66,11 @@ public class ProfilingUtils {
         if (mSplits == null) {
             mSplits = new ArrayList<Long>();
             mSplitLabels = new ArrayList<String>();
+            mTimings = new ArrayList<String>();
         } else {
             mSplits.clear();
             mSplitLabels.clear();
+            mTimings.clear();
         }
         addSplit(null);
     }
@@ -68,6 +84,15 @@ public class ProfilingUtils {
         mSplitLabels.add(splitLabel);
     }
 
+    public void addTiming(String taskLabel, long durationMs) {
+        String timing = durationMs + " ms, " + taskLabel;
+        if (mLabel == null) {
+            AppLog.d(T.PROFILING, timing);
+        } else {
+            mTimings.add(timing);
+        }
+    }
+
     public void dumpToLog() {
         if (mLabel == null) {
             return;
@@ -82,6 +107,9 @@ public class ProfilingUtils {
             AppLog.d(T.PROFILING, mLabel + ": " + (now - prev) + " ms, " + splitLabel);
         }
         AppLog.d(T.PROFILING, mLabel + ": end, " + (now - first) + " ms");
+        for (String timing : mTimings) {
+            AppLog.d(T.PROFILING, mLabel + ": task " + timing);
+        }
     }
 }
 
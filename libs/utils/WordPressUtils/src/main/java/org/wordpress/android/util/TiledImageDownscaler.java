@@ -0,0 +1,133 @@
+package org.wordpress.android.util;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Downscales an image file without decoding the whole image at once, so large photos can be resized with a
+ * bounded amount of memory.
+ *
+ * The image is decoded in full-width bands using {@link BitmapRegionDecoder} with power-of-two sampling, and each
+ * band is scaled to the exact output size and rotated as it's drawn into the output bitmap. At most one band is
+ * held alongside the output, so peak bitmap memory is the size of the output plus {@link #MAX_TILE_BYTES}.
+ */
+class TiledImageDownscaler {
+    static final int MAX_TILE_BYTES = 4 * 1024 * 1024;
+
+    // each band is decoded with this many extra rows above and below it, so filtering at the edges
+    // of the band samples real pixels rather than leaving visible seams
+    private static final int TILE_OVERLAP_ROWS = 1;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final String mFilePath;
+    private final int mMaxSize;
+    private final int mOrientation;
+
+    /**
+     * @param filePath the path to the original image
+     * @param maxSize the maximum size of the longest side of the output
+     * @param orientation the rotation to apply, in degrees (a multiple of 90)
+     */
+    TiledImageDownscaler(@NonNull String filePath, int maxSize, int orientation) {
+        mFilePath = filePath;
+        mMaxSize = maxSize;
+        mOrientation = orientation;
+    }
+
+    /**
+     * Returns the downscaled and rotated image, or null if the image format can't be decoded in regions.
+     */
+    @Nullable
+    Bitmap downscale() throws IOException, OutOfMemoryError {
+        BitmapFactory.Options optBounds = new BitmapFactory.Options();
+        optBounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(mFilePath, optBounds);
+        int srcWidth = optBounds.outWidth;
+        int srcHeight = optBounds.outHeight;
+        if (srcWidth <= 0 || srcHeight <= 0) {
+            throw new IOException("Can't read the image bounds.");
+        }
+
+        BitmapRegionDecoder decoder;
+        try {
+            decoder = BitmapRegionDecoder.newInstance(mFilePath, false);
+        } catch (IOException e) {
+            AppLog.i(AppLog.T.UTILS, "Region decoding isn't supported for " + mFilePath);
+            return null;
+        }
+
+        try {
+            return downscale(decoder, srcWidth, srcHeight, ImageUtils.getScaleForResizing(mMaxSize, optBounds));
+        } finally {
+            decoder.recycle();
+        }
+    }
+
+    @Nullable
+    private Bitmap downscale(@NonNull BitmapRegionDecoder decoder, int srcWidth, int srcHeight, int sampleSize) {
+        float scale = Math.min(1f, (float) mMaxSize / Math.max(srcWidth, srcHeight));
+        int scaledWidth = Math.max(1, Math.round(srcWidth * scale));
+        int scaledHeight = Math.max(1, Math.round(srcHeight * scale));
+
+        // maps the scaled image to the output, rotating it and moving it back to the origin
+        Matrix rotation = new Matrix();
+        rotation.setRotate(mOrientation);
+        RectF outputBounds = new RectF(0, 0, scaledWidth, scaledHeight);
+        rotation.mapRect(outputBounds);
+        rotation.postTranslate(-outputBounds.left, -outputBounds.top);
+
+        Bitmap output = Bitmap.createBitmap(Math.round(outputBounds.width()), Math.round(outputBounds.height()),
+                Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(output);
+        Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+        int sampledWidth = (srcWidth + sampleSize - 1) / sampleSize;
+        int bandRows = Math.max(1, MAX_TILE_BYTES / (sampledWidth * BYTES_PER_PIXEL) - 2 * TILE_OVERLAP_ROWS);
+        int bandHeight = bandRows * sampleSize;
+        int overlap = TILE_OVERLAP_ROWS * sampleSize;
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        Rect srcRect = new Rect();
+        RectF destRect = new RectF();
+        Matrix matrix = new Matrix();
+
+        for (int top = 0; top < srcHeight; top += bandHeight) {
+            int bottom = Math.min(srcHeight, top + bandHeight);
+            srcRect.set(0, Math.max(0, top - overlap), srcWidth, Math.min(srcHeight, bottom + overlap));
+            Bitmap tile = decoder.decodeRegion(srcRect, options);
+            if (tile == null) {
+                AppLog.w(AppLog.T.UTILS, "Can't decode region " + srcRect + " of " + mFilePath);
+                output.recycle();
+                return null;
+            }
+
+            // scale the decoded tile to the exact size of its region in the scaled image, then rotate it
+            matrix.setScale(srcRect.width() * scale / tile.getWidth(), srcRect.height() * scale / tile.getHeight());
+            matrix.postTranslate(0, srcRect.top * scale);
+            matrix.postConcat(rotation);
+
+            // only draw the band itself, the overlapping rows belong to the neighbouring bands
+            destRect.set(0, top * scale, scaledWidth, bottom * scale);
+            rotation.mapRect(destRect);
+
+            canvas.save();
+            canvas.clipRect(destRect);
+            canvas.drawBitmap(tile, matrix, paint);
+            canvas.restore();
+            tile.recycle();
+        }
+
+        return output;
+    }
+}
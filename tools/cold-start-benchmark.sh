@@ -0,0 +1,61 @@
+#!/bin/bash
+
+# Measures the cold start time of the app installed on the connected device or emulator.
+#
+# Each run kills the app, launches WPLaunchActivity with `am start -W` and records the TotalTime the activity
+# manager reports, ie. the time from the launch intent to the first frame. The app's startup task timings
+# (see StartupTaskGraph) from the last run are printed at the end.
+#
+# Usage: tools/cold-start-benchmark.sh [runs] [package]
+# Defaults to 10 runs of org.wordpress.android - pass org.wordpress.android.beta to measure a beta build.
+
+RUNS=${1:-10}
+PACKAGE=${2:-org.wordpress.android}
+ACTIVITY=org.wordpress.android.ui.WPLaunchActivity
+
+function checkDeviceToTest() {
+  lines=$(adb devices -l|wc -l)
+  if [ $lines -le 2 ]; then
+    echo You need a device connected or an emulator running
+    exit 2
+  fi
+}
+
+function coldStart() {
+  adb shell am force-stop $PACKAGE
+  # give the system a moment to settle, so runs don't interfere with each other
+  sleep 2
+  adb shell am start -W -n $PACKAGE/$ACTIVITY | grep TotalTime | awk '{print $2}' | tr -d '\r'
+}
+
+checkDeviceToTest
+
+echo Measuring $RUNS cold starts of $PACKAGE
+times=()
+for i in $(seq 1 $RUNS); do
+  adb logcat -c
+  time=$(coldStart)
+  if [ -z "$time" ]; then
+    echo "Run $i: failed to launch $PACKAGE/$ACTIVITY"
+    exit 1
+  fi
+  echo "Run $i: $time ms"
+  times+=($time)
+done
+
+sorted=($(printf "%s\n" "${times[@]}" | sort -n))
+total=0
+for time in "${times[@]}"; do
+  total=$((total + time))
+done
+echo -----------
+echo "Min: ${sorted[0]} ms"
+echo "Median: ${sorted[$((RUNS / 2))]} ms"
+echo "Mean: $((total / RUNS)) ms"
+echo "Max: ${sorted[$((RUNS - 1))]} ms"
+
+echo -----------
+echo Startup profile of the last run:
+# the profile is dumped once WPMainActivity has resumed, which can be after am start returns
+sleep 3
+adb logcat -d -s WordPress-PROFILING:D | grep -E "App Startup|ms, "